@@ -51,6 +51,8 @@ public interface CollectionStatistics
 	 * @param size
 	 * @param startDate
 	 * @param endDate
+	 * @param window optional name of the time window (see the popularity types) of a precomputed top list,
+	 *           the dates are ignored if it's set
 	 * @return
 	 */
 	@GET
@@ -59,7 +61,7 @@ public interface CollectionStatistics
 	@Path("collection/rated-top/{cp}/{collection}")
 	Groups topRated(@PathParam("cp") String cp, @PathParam("collection") String collection,
 			@QueryParam("start_time") Long startDate, @QueryParam("end_time") Long endDate,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
 
 	/**
 	 * Get the top-n (count) of given ratings as collection items
@@ -68,6 +70,8 @@ public interface CollectionStatistics
 	 * @param size
 	 * @param startTime
 	 * @param endTime
+	 * @param window optional name of the time window (see the popularity types) of a precomputed top list,
+	 *           the dates are ignored if it's set
 	 * @return
 	 */
 	@GET
@@ -76,7 +80,7 @@ public interface CollectionStatistics
 	@Path("collection/rated-top-collection/{cp}/{collection}")
 	CollectionItems topRatedAsCollection(@PathParam("cp") String cp, @PathParam("collection") String collection,
 			@QueryParam("start_time") Long startTime, @QueryParam("end_time") Long endTime,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
 
 	/**
 	 * Get the number of different sources for a recommender & and show the count
@@ -135,4 +139,20 @@ public interface CollectionStatistics
 	Popularity getMostPopular(@PathParam("cp") String cp, @PathParam("collection") String collection,
 			@PathParam("type") String type);
 
+	/**
+	 * What's trending now: the most rated or most recommended items of a collection in the last minute, hour or day,
+	 * counted in real-time by the data server. The counts are estimates.
+	 * @param cp
+	 * @param collection
+	 * @param list <tt>rated</tt> or <tt>recommended</tt>
+	 * @param window <tt>minute</tt>, <tt>hour</tt> (default) or <tt>day</tt>
+	 * @param size
+	 * @return
+	 */
+	@GET
+	@GZIP
+	@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+	@Path("collection/trending/{cp}/{collection}/{list}")
+	Groups trending(@PathParam("cp") String cp, @PathParam("collection") String collection,
+			@PathParam("list") String list, @QueryParam("window") String window, @QueryParam("size") Integer size);
 }
@@ -33,6 +33,7 @@ import nl.gridline.zieook.model.Rating;
 import nl.gridline.zieook.model.RatingFull;
 import nl.gridline.zieook.model.Ratings;
 import nl.gridline.zieook.model.RatingsFull;
+import nl.gridline.zieook.model.RatingsResult;
 import nl.gridline.zieook.model.Recommendeds;
 import nl.gridline.zieook.model.UserView;
 import nl.gridline.zieook.model.UserViews;
@@ -75,6 +76,25 @@ public interface RatingEvents
 	@Path("rating-rate/{cp}/{collection}")
 	Response setRating(@PathParam("cp") String cp, @PathParam("collection") String collection, Rating rating);
 
+	/**
+	 * Store a batch of ratings in one request. The content provider and collection are checked once, the items of all
+	 * ratings are checked in a single lookup. Ratings that are not valid or could not be written are reported in the
+	 * result, all other ratings are stored. Of ratings with the same user and item only the last one is stored.
+	 * Requests with more ratings than configured (<tt>zieook.data.ratings.batch.max</tt>) are rejected.<br />
+	 * As with {@link #setRating(String, String, Rating)} the date of a rating is the time the request is received, a
+	 * date in the rating is ignored.
+	 * @param cp the content provider
+	 * @param collection the collection
+	 * @param ratings list of ratings containing: user, item, rating and an optional source
+	 * @return the number of stored ratings and an error per rejected rating
+	 */
+	@POST
+	@GZIP
+	@Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+	@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+	@Path("rating-rate-bulk/{cp}/{collection}")
+	RatingsResult setRatings(@PathParam("cp") String cp, @PathParam("collection") String collection, Ratings ratings);
+
 	/**
 	 * List the ratings of a given user starting at a given item
 	 * @param cp content provider
@@ -62,6 +62,8 @@ public interface RecommenderStatistics
 	 * @param startDate
 	 * @param endDate
 	 * @param size
+	 * @param window optional name of the time window (see the popularity types) of a precomputed top list,
+	 *           the dates are ignored if it's set
 	 * @return
 	 */
 	@GET
@@ -70,7 +72,7 @@ public interface RecommenderStatistics
 	@Path("recommender/sources-top/{cp}/{recommender}")
 	Groups topSources(@PathParam("cp") String cp, @PathParam("recommender") String recommender,
 			@QueryParam("start_date") Long startDate, @QueryParam("end_date") Long endDate,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
 
 	/**
 	 * The top-n of most used sources.
@@ -79,6 +81,8 @@ public interface RecommenderStatistics
 	 * @param startDate
 	 * @param endDate
 	 * @param size
+	 * @param window optional name of the time window (see the popularity types) of a precomputed top list,
+	 *           the dates are ignored if it's set
 	 * @return
 	 */
 	@GET
@@ -87,6 +91,23 @@ public interface RecommenderStatistics
 	@Path("recommender/viewed-top/{cp}/{recommender}")
 	Groups topViewed(@PathParam("cp") String cp, @PathParam("recommender") String recommender,
 			@QueryParam("start_date") Long startDate, @QueryParam("end_date") Long endDate,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
+
+	/**
+	 * What's trending now: the most viewed items or most used sources of a recommender in the last minute, hour or
+	 * day, counted in real-time by the data server. The counts are estimates.
+	 * @param cp
+	 * @param recommender
+	 * @param list <tt>viewed</tt> or <tt>sources</tt>
+	 * @param window <tt>minute</tt>, <tt>hour</tt> (default) or <tt>day</tt>
+	 * @param size
+	 * @return
+	 */
+	@GET
+	@GZIP
+	@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+	@Path("recommender/trending/{cp}/{recommender}/{list}")
+	Groups trending(@PathParam("cp") String cp, @PathParam("recommender") String recommender,
+			@PathParam("list") String list, @QueryParam("window") String window, @QueryParam("size") Integer size);
 
 }
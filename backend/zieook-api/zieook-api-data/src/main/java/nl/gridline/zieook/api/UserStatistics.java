@@ -49,6 +49,8 @@ public interface UserStatistics
 	 * @param recommender recommender identifier
 	 * @param user user identifier
 	 * @param size number of items to return
+	 * @param window optional name of a time window (see the popularity types) ending now, the dates are ignored if
+	 *           it's set
 	 * @return
 	 */
 	@GET
@@ -57,7 +59,7 @@ public interface UserStatistics
 	@Path("user/recommended/{cp}/{collection}/{user}")
 	Groups topRecommended(@PathParam("cp") String cp, @PathParam("collection") String collection,
 			@PathParam("user") long user, @QueryParam("start_time") Long startTime, @QueryParam("end_time") Long endTime,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
 
 	/**
 	 * Get the top-n most recommended items to user and return them as collection items
@@ -65,6 +67,8 @@ public interface UserStatistics
 	 * @param recommender recommender identifier
 	 * @param user user identifier
 	 * @param size number of items to return
+	 * @param window optional name of a time window (see the popularity types) ending now, the dates are ignored if
+	 *           it's set
 	 * @return
 	 */
 	@GET
@@ -73,7 +77,7 @@ public interface UserStatistics
 	@Path("user/recommended-collection/{cp}/{collection}/{user}")
 	CollectionItems topRecommendedAsCollection(@PathParam("cp") String cp, @PathParam("collection") String collection,
 			@PathParam("user") long user, @QueryParam("start_time") Long startTime, @QueryParam("end_time") Long endTime,
-			@QueryParam("size") Integer size);
+			@QueryParam("window") String window, @QueryParam("size") Integer size);
 
 	@GET
 	@GZIP
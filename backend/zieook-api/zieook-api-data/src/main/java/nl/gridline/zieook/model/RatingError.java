@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.model;
+
+import java.io.Serializable;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import nl.gridline.zieook.api.JSonParent;
+
+/**
+ * A rejected rating in a bulk rating request: the position of the rating in the request and the reason it was
+ * rejected
+ * <p />
+ * Project zieook-api-data<br />
+ * RatingError.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+@XmlRootElement(name = "rating_error")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class RatingError implements Serializable, JSonParent
+{
+
+	private static final long serialVersionUID = -2853069178093470135L;
+
+	@XmlElement
+	private int index;
+
+	@XmlElement
+	private Long user;
+
+	@XmlElement
+	private Long item;
+
+	@XmlElement
+	private String message;
+
+	public RatingError()
+	{
+		// no-arg constructor
+	}
+
+	public RatingError(int index, Long user, Long item, String message)
+	{
+		this.index = index;
+		this.user = user;
+		this.item = item;
+		this.message = message;
+	}
+
+	/**
+	 * @return The position of the rating in the request.
+	 */
+	public int getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * @param index The index to set.
+	 */
+	public void setIndex(int index)
+	{
+		this.index = index;
+	}
+
+	/**
+	 * @return The user.
+	 */
+	public Long getUser()
+	{
+		return user;
+	}
+
+	/**
+	 * @param user The user to set.
+	 */
+	public void setUser(Long user)
+	{
+		this.user = user;
+	}
+
+	/**
+	 * @return The item.
+	 */
+	public Long getItem()
+	{
+		return item;
+	}
+
+	/**
+	 * @param item The item to set.
+	 */
+	public void setItem(Long item)
+	{
+		this.item = item;
+	}
+
+	/**
+	 * @return The reason the rating was rejected.
+	 */
+	public String getMessage()
+	{
+		return message;
+	}
+
+	/**
+	 * @param message The message to set.
+	 */
+	public void setMessage(String message)
+	{
+		this.message = message;
+	}
+
+	@Override
+	public String toJSON()
+	{
+		return ModelConstants.toJSON(this);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder().append("index='").append(index).append("' user='").append(user).append("' item='")
+				.append(item).append("' message='").append(message).append("'").toString();
+	}
+}
@@ -50,6 +50,10 @@ public class Ratings implements Serializable, JSonParent
 	@XmlElement(name = "user_rating")
 	private List<Rating> ratings;
 
+	// only set if some of the sources did not answer in time:
+	@XmlElement
+	private Boolean partial;
+
 	public Ratings()
 	{
 
@@ -76,6 +80,22 @@ public class Ratings implements Serializable, JSonParent
 		this.ratings = ratings;
 	}
 
+	/**
+	 * @return <tt>true</tt> if some sources did not answer in time, their ratings are missing - null otherwise
+	 */
+	public Boolean getPartial()
+	{
+		return partial;
+	}
+
+	/**
+	 * @param partial The partial to set.
+	 */
+	public void setPartial(Boolean partial)
+	{
+		this.partial = partial;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -22,6 +22,7 @@ import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
 import nl.gridline.zieook.api.JSonParent;
@@ -48,6 +49,10 @@ public class RatingsFull implements Serializable, JSonParent
 
 	private List<RatingFull> ratings;
 
+	// only set if some of the sources did not answer in time:
+	@XmlElement
+	private Boolean partial;
+
 	public RatingsFull()
 	{
 
@@ -74,6 +79,22 @@ public class RatingsFull implements Serializable, JSonParent
 		this.ratings = ratings;
 	}
 
+	/**
+	 * @return <tt>true</tt> if some sources did not answer in time, their ratings are missing - null otherwise
+	 */
+	public Boolean getPartial()
+	{
+		return partial;
+	}
+
+	/**
+	 * @param partial The partial to set.
+	 */
+	public void setPartial(Boolean partial)
+	{
+		this.partial = partial;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import nl.gridline.zieook.api.JSonParent;
+
+/**
+ * Result of a bulk rating request: the number of stored ratings and an error for every rejected rating
+ * <p />
+ * Project zieook-api-data<br />
+ * RatingsResult.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+@XmlRootElement(name = "ratings_result")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class RatingsResult implements Serializable, JSonParent
+{
+
+	private static final long serialVersionUID = 4318227015093465172L;
+
+	@XmlElement
+	private int accepted;
+
+	@XmlElement(name = "rating_error")
+	private List<RatingError> errors;
+
+	public RatingsResult()
+	{
+		// no-arg constructor
+	}
+
+	public RatingsResult(int accepted, List<RatingError> errors)
+	{
+		this.accepted = accepted;
+		this.errors = errors;
+	}
+
+	/**
+	 * @return The number of stored ratings, one per user and item.
+	 */
+	public int getAccepted()
+	{
+		return accepted;
+	}
+
+	/**
+	 * @param accepted The accepted to set.
+	 */
+	public void setAccepted(int accepted)
+	{
+		this.accepted = accepted;
+	}
+
+	/**
+	 * @return The rejected ratings.
+	 */
+	public List<RatingError> getErrors()
+	{
+		return errors;
+	}
+
+	/**
+	 * @param errors The errors to set.
+	 */
+	public void setErrors(List<RatingError> errors)
+	{
+		this.errors = errors;
+	}
+
+	@Override
+	public String toJSON()
+	{
+		return ModelConstants.toJSON(this);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder().append("accepted='").append(accepted).append("' errors='")
+				.append(errors == null ? 0 : errors.size()).append("'").toString();
+	}
+}
@@ -50,6 +50,10 @@ public class UserViews implements Serializable, JSonParent
 	@XmlElement(name = "view")
 	private List<UserView> views;
 
+	// only set if some of the sources did not answer in time:
+	@XmlElement
+	private Boolean partial;
+
 	public UserViews()
 	{
 
@@ -76,6 +80,22 @@ public class UserViews implements Serializable, JSonParent
 		views = view;
 	}
 
+	/**
+	 * @return <tt>true</tt> if some sources did not answer in time, their views are missing - null otherwise
+	 */
+	public Boolean getPartial()
+	{
+		return partial;
+	}
+
+	/**
+	 * @param partial The partial to set.
+	 */
+	public void setPartial(Boolean partial)
+	{
+		this.partial = partial;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
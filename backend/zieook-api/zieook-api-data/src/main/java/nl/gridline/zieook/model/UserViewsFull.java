@@ -48,6 +48,10 @@ public class UserViewsFull implements Serializable
 	@XmlElement(name = "user_view")
 	private List<UserViewFull> views;
 
+	// only set if some of the sources did not answer in time:
+	@XmlElement
+	private Boolean partial;
+
 	public UserViewsFull()
 	{
 	}
@@ -77,6 +81,22 @@ public class UserViewsFull implements Serializable
 		this.views = views;
 	}
 
+	/**
+	 * @return <tt>true</tt> if some sources did not answer in time, their views are missing - null otherwise
+	 */
+	public Boolean getPartial()
+	{
+		return partial;
+	}
+
+	/**
+	 * @param partial The partial to set.
+	 */
+	public void setPartial(Boolean partial)
+	{
+		this.partial = partial;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -19,12 +19,16 @@ package nl.gridline.zieook.data.controller;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 import nl.gridline.zieook.commons.ZieOokCommons;
@@ -36,13 +40,21 @@ import nl.gridline.zieook.data.hbase.dao.CollectionTable;
 import nl.gridline.zieook.data.hbase.dao.CollectionViewsTable;
 import nl.gridline.zieook.data.hbase.dao.ContentProviderTable;
 import nl.gridline.zieook.data.hbase.dao.EventLogTable;
+import nl.gridline.zieook.data.hbase.dao.EventLogWriter;
+import nl.gridline.zieook.data.hbase.dao.LiveStatistics;
+import nl.gridline.zieook.data.hbase.dao.MetadataCache;
+import nl.gridline.zieook.data.hbase.dao.NameDictionary;
+import nl.gridline.zieook.data.hbase.dao.RecommendationCache;
 import nl.gridline.zieook.data.hbase.dao.RecommendationTable;
 import nl.gridline.zieook.data.hbase.dao.RecommenderTable;
+import nl.gridline.zieook.data.hbase.dao.StatisticsTable;
 import nl.gridline.zieook.data.hbase.dao.UserTable;
+import nl.gridline.zieook.data.hbase.dao.UserTable.StoredRatings;
 import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.data.hbase.model.HBaseEventLogTable;
 import nl.gridline.zieook.data.hbase.model.HBaseRecommendationTable;
+import nl.gridline.zieook.data.hbase.model.HBaseStatisticsTable;
 import nl.gridline.zieook.data.hbase.model.HBaseUserTable;
 import nl.gridline.zieook.data.model.DataControllerState;
 import nl.gridline.zieook.exceptions.RecommendationException;
@@ -106,10 +118,39 @@ public class DataController implements ZieOokManager
 	private RecommenderTable recommenderTable;
 	private CollectionMetaTable collectionMeta;
 	private CollectionViewsTable collectionViews;
+	private MetadataCache metadata;
+	private EventLogWriter eventLogWriter;
+	private LiveStatistics liveStatistics;
+	private MultiSourceExecutor msrcExecutor;
+	private int ratingsBatchMax = DEFAULT_RATINGS_BATCH_MAX;
 
 	private HBaseManager manager;
 	private final long start;
 
+	private static final int DEFAULT_RECOMMENDATION_CACHE_ENTRIES = 100000;
+	private static final long DEFAULT_RECOMMENDATION_CACHE_MB = 128;
+	private static final long DEFAULT_RECOMMENDATION_CACHE_CHECK = 30;
+	private static final int DEFAULT_METADATA_CACHE_ENTRIES = 10000;
+	private static final long DEFAULT_METADATA_CACHE_TTL = 300;
+	private static final long DEFAULT_METADATA_CACHE_CHECK = 10;
+	private static final int DEFAULT_ITEM_CACHE_ENTRIES = 20000;
+	private static final long DEFAULT_ITEM_CACHE_TTL = 600;
+	private static final int DEFAULT_EVENTLOG_QUEUE = 50000;
+	private static final int DEFAULT_EVENTLOG_BATCH = 1000;
+	private static final long DEFAULT_EVENTLOG_FLUSH = 500;
+	private static final int DEFAULT_MSRC_THREADS = 16;
+	private static final long DEFAULT_MSRC_TIMEOUT = 5000;
+	private static final int DEFAULT_RATINGS_BATCH_MAX = 10000;
+	private static final int DEFAULT_LIVE_WIDTH = 512;
+	private static final int DEFAULT_LIVE_TOPK = 100;
+	private static final long DEFAULT_LIVE_FLUSH = 60000;
+
+	// meta data cache keys, within a content provider:
+	private static final String METADATA_CP = "cp";
+	private static final String METADATA_RECOMMENDER = "recommender:";
+	private static final String METADATA_RECOMMENDER_CONFIG = "recommender-config:";
+	private static final String METADATA_COLLECTION = "collection:";
+
 	/**
 	 * create a object instance - you will have to call start-up before using the controlller
 	 */
@@ -159,14 +200,22 @@ public class DataController implements ZieOokManager
 			HBaseCollectionTable hCollectionTable = new HBaseCollectionTable(manager);
 			HBaseEventLogTable hEventsTable = new HBaseEventLogTable(manager);
 
-			collectionTable = new CollectionTable(hCollectionTable);
+			collectionTable = new CollectionTable(hCollectionTable, createItemCache(config));
 			userTable = new UserTable(hUserTable);
 			eventLogTable = new EventLogTable(hEventsTable);
-			recommendationTable = new RecommendationTable(new HBaseRecommendationTable(manager));
+			recommendationTable = new RecommendationTable(new HBaseRecommendationTable(manager),
+					createRecommendationCache(), new NameDictionary(cTable));
+			recommendationTable.setFallback(config.getBoolean(Config.HBASE_ROWKEYS_FALLBACK, true));
 			cpTable = new ContentProviderTable(cTable);
 			recommenderTable = new RecommenderTable(cTable);
 			collectionMeta = new CollectionMetaTable(cTable);
 			collectionViews = new CollectionViewsTable(hEventsTable, hCollectionTable, hUserTable);
+			metadata = createMetadataCache();
+			eventLogWriter = createEventLogWriter();
+			liveStatistics = createLiveStatistics();
+			ratingsBatchMax = config.getInt(Config.DATA_RATINGS_BATCH_MAX, DEFAULT_RATINGS_BATCH_MAX);
+			msrcExecutor = new MultiSourceExecutor(config.getInt(Config.DATA_MSRC_THREADS, DEFAULT_MSRC_THREADS),
+					config.getLong(Config.DATA_MSRC_TIMEOUT, DEFAULT_MSRC_TIMEOUT));
 
 		}
 
@@ -182,6 +231,31 @@ public class DataController implements ZieOokManager
 		state.setZooKeeper(config.getZooKeeperHost());
 		state.setSettings(new DataManagerSettings(config.getMap()));
 		state.setUptime(new Date(start).toString());
+
+		if (metadata != null)
+		{
+			state.setCacheCpHit(metadata.getHit());
+			state.setCacheCpMiss(metadata.getMiss());
+		}
+		if (eventLogWriter != null)
+		{
+			state.setEventLogQueueDepth(eventLogWriter.getQueueDepth());
+			state.setEventLogDropped(eventLogWriter.getDropped());
+			state.setEventLogWritten(eventLogWriter.getWritten());
+			state.setEventLogFlushTime(eventLogWriter.getLastFlushTime());
+			state.setEventLogMaxFlushTime(eventLogWriter.getMaxFlushTime());
+		}
+		if (msrcExecutor != null)
+		{
+			state.setMsrcTimedOut(msrcExecutor.getTimedOut());
+		}
+		RecommendationCache cache = recommendationTable == null ? null : recommendationTable.getCache();
+		if (cache != null)
+		{
+			state.setCacheRecommendationsHit(cache.getHit());
+			state.setCacheRecommendationsMiss(cache.getMiss());
+			state.setCacheRecommendationsSize(cache.size());
+		}
 		try
 		{
 			state.setTableName(manager.getTableNames());
@@ -197,7 +271,19 @@ public class DataController implements ZieOokManager
 	@Override
 	public void shutdown()
 	{
-		// release resources... not much to do yet.
+		// write the events that are still queued:
+		if (eventLogWriter != null)
+		{
+			eventLogWriter.shutdown();
+		}
+		if (liveStatistics != null)
+		{
+			liveStatistics.shutdown();
+		}
+		if (msrcExecutor != null)
+		{
+			msrcExecutor.shutdown();
+		}
 		LOG.info("DataController shutdown");
 	}
 
@@ -246,9 +332,12 @@ public class DataController implements ZieOokManager
 			Long item, String source, int size, String spread)
 	{
 
-		RecommenderConfig recommender = recommenderTable.getRecommender(cp, recommenderId);
+		RecommenderConfig recommender = getRecommenderConfig(cp, recommenderId);
 		String type = getRecommenderType(recommender);
 
+		// make sure we don't serve recommendations from an old model:
+		final long generation = getRecommendationModel(cp, recommenderId);
+
 		// create results:
 
 		Recommendations result = null; // method result:
@@ -263,7 +352,8 @@ public class DataController implements ZieOokManager
 				user = Long.MIN_VALUE;
 			}
 
-			result = recommendationTable.getRecommendationsFor(cp, collection, recommenderId, item, size, spread);
+			result = recommendationTable.getRecommendationsFor(cp, collection, recommenderId, generation, item, size,
+					spread);
 			if (result != null)
 			{
 				recommend = new Recommended(user.longValue(), item.longValue(), collection, source,
@@ -279,7 +369,8 @@ public class DataController implements ZieOokManager
 				item = Long.MIN_VALUE;
 			}
 
-			result = recommendationTable.getRecommendationsFor(cp, collection, recommenderId, user, size, spread);
+			result = recommendationTable.getRecommendationsFor(cp, collection, recommenderId, generation, user, size,
+					spread);
 			if (result != null)
 			{
 				recommend = new Recommended(user.longValue(), item.longValue(), collection, source,
@@ -302,8 +393,19 @@ public class DataController implements ZieOokManager
 		// log if results are returned
 		if (recommend != null)
 		{
-			eventLogTable.putRecommend(cp, recommenderId, recommend, TimeUnit.MILLISECONDS);
-			userTable.incRecommends(cp, user);
+			if (eventLogWriter != null)
+			{
+				eventLogWriter.putRecommend(cp, recommenderId, recommend, TimeUnit.MILLISECONDS);
+			}
+			else
+			{
+				eventLogTable.putRecommend(cp, recommenderId, recommend, TimeUnit.MILLISECONDS);
+				userTable.incRecommends(cp, user);
+			}
+			if (liveStatistics != null)
+			{
+				liveStatistics.addRecommendations(cp, collection, result);
+			}
 		}
 
 		return result;
@@ -348,6 +450,41 @@ public class DataController implements ZieOokManager
 	public void setRating(String cp, String collection, Rating rating, TimeUnit unit)
 	{
 		userTable.putRating(cp, collection, rating, unit);
+		if (liveStatistics != null)
+		{
+			liveStatistics.addRating(cp, collection, rating);
+		}
+	}
+
+	/**
+	 * Store a batch of (validated) ratings with batched writes, only ratings of a user and item that had no rating
+	 * before are counted in the real-time statistics
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param ratings ratings, user and item are required
+	 * @param unit time unit of the rating dates
+	 * @return the stored, new and failed ratings
+	 * @see UserTable#putRatings(String, String, List, TimeUnit)
+	 */
+	public StoredRatings setRatings(String cp, String collection, List<Rating> ratings, TimeUnit unit)
+	{
+		StoredRatings result = userTable.putRatings(cp, collection, ratings, unit);
+		if (liveStatistics != null)
+		{
+			for (Rating rating : result.getAdded())
+			{
+				liveStatistics.addRating(cp, collection, rating);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the maximum number of ratings in one bulk rating request
+	 */
+	public int getRatingsBatchMax()
+	{
+		return ratingsBatchMax;
 	}
 
 	/**
@@ -383,39 +520,34 @@ public class DataController implements ZieOokManager
 	 * @param size the maximum amount of ratings to return.
 	 * @return
 	 */
-	public Ratings getMSrcRatings(List<String[]> recommenderList, long user, Long start, Long end, int size)
+	public Ratings getMSrcRatings(List<String[]> recommenderList, final long user, final Long start, final Long end,
+			final int size)
 	{
-		List<Rating> result = new ArrayList<Rating>();
+		List<Callable<List<Rating>>> sources = new ArrayList<Callable<List<Rating>>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
 			final String cp = cprec[0];
-			final String collection = getRecommenderCollection(cp, cprec[1]);
 			final String recommender = cprec[1];
-			// LOG.debug("getting rating for: {}/{}", cprec[0], collection);
-
-			List<Rating> ratings = userTable.getRatings(cp, collection, user, start, end, size);
-			for (Rating r : ratings)
+			sources.add(new Callable<List<Rating>>()
 			{
-				r.setRecommender(recommender);
-			}
-
-			result.addAll(ratings);
-			if (result.size() > size * 3)
-			{
-				sortRatings(result);
-				result = result.subList(0, size * 2);
-			}
-		}
-
-		if (result.size() > size)
-		{
-			result = result.subList(0, size);
+				@Override
+				public List<Rating> call()
+				{
+					final String collection = getRecommenderCollection(cp, recommender);
+					List<Rating> ratings = userTable.getRatings(cp, collection, user, start, end, size);
+					for (Rating r : ratings)
+					{
+						r.setRecommender(recommender);
+					}
+					return MultiSourceExecutor.sort(ratings, RATING_ORDER);
+				}
+			});
 		}
 
-		// sort final result, on time:
-		sortRatings(result);
-
-		return new Ratings(result);
+		MultiSourceExecutor.Results<Rating> results = msrcExecutor.execute(sources);
+		Ratings result = new Ratings(MultiSourceExecutor.merge(results.getLists(), RATING_ORDER, size));
+		result.setPartial(results.getPartial());
+		return result;
 	}
 
 	/**
@@ -444,15 +576,18 @@ public class DataController implements ZieOokManager
 	public RatingsFull getMSrcRatingsFull(List<String[]> recommenderList, long user, Long start, Long end, int size)
 	{
 		Ratings data = getMSrcRatings(recommenderList, user, start, end, size);
-		List<RatingFull> result = new ArrayList<RatingFull>(data.getRatings().size());
-		for (Rating r : data.getRatings())
+		List<Rating> ratings = data.getRatings();
+		List<CollectionItem> items = getRatingItems(ratings);
+		List<RatingFull> result = new ArrayList<RatingFull>(ratings.size());
+		for (int i = 0; i < ratings.size(); i++)
 		{
-			RatingFull f = new RatingFull(r);
-			// LOG.debug("rating: {}", r.toJSON());
-			f.setItem(collectionTable.getItem(r.getCp(), r.getCollection(), r.getItem()));
+			RatingFull f = new RatingFull(ratings.get(i));
+			f.setItem(items.get(i));
 			result.add(f);
 		}
-		return new RatingsFull(result);
+		RatingsFull full = new RatingsFull(result);
+		full.setPartial(data.getPartial());
+		return full;
 	}
 
 	/**
@@ -567,16 +702,26 @@ public class DataController implements ZieOokManager
 	 * @param recommenderList
 	 * @param longValue
 	 */
-	public void deleteRatings(List<String[]> recommenderList, long user)
+	public void deleteRatings(List<String[]> recommenderList, final long user)
 	{
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
 			final String cp = cprec[0];
 			final String recommender = cprec[1];
-			final String collection = getRecommenderCollection(cprec[0], cprec[1]);
-			LOG.debug("deleting ratings for user={} in {}/{}/{}", new Object[]{user, cp, recommender, collection});
-			userTable.deleteRatings(cp, collection, user);
+			tasks.add(new Callable<Void>()
+			{
+				@Override
+				public Void call()
+				{
+					final String collection = getRecommenderCollection(cp, recommender);
+					LOG.debug("deleting ratings for user={} in {}/{}/{}", new Object[]{user, cp, recommender, collection});
+					userTable.deleteRatings(cp, collection, user);
+					return null;
+				}
+			});
 		}
+		msrcExecutor.executeAll(tasks);
 	}
 
 	/**
@@ -594,7 +739,7 @@ public class DataController implements ZieOokManager
 	{
 		// get the recommender:
 
-		RecommenderConfig recommenderConfig = recommenderTable.getRecommender(cp, collection);
+		RecommenderConfig recommenderConfig = getRecommenderConfig(cp, collection);
 		if (recommenderConfig == null)
 		{
 			throw new RecommendationException("Recommender does not exist.");
@@ -652,23 +797,29 @@ public class DataController implements ZieOokManager
 	 * @param intValue
 	 * @return
 	 */
-	public UserViews getMSrcViews(List<String[]> recommenderList, long user, Long start, Long end, int size)
+	public UserViews getMSrcViews(List<String[]> recommenderList, final long user, final Long start, final Long end,
+			final int size)
 	{
-		List<UserView> result = new ArrayList<UserView>();
+		List<Callable<List<UserView>>> sources = new ArrayList<Callable<List<UserView>>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
-			result.addAll(eventLogTable.getViews(cprec[0], cprec[1], user, start, end, size, false));
-			if (result.size() > size * 3)
+			final String cp = cprec[0];
+			final String recommender = cprec[1];
+			sources.add(new Callable<List<UserView>>()
 			{
-				sortViews(result);
-				result = result.subList(0, size * 2);
-			}
-		}
-		if (result.size() > size)
-		{
-			result = result.subList(0, size);
+				@Override
+				public List<UserView> call()
+				{
+					return MultiSourceExecutor.sort(eventLogTable.getViews(cp, recommender, user, start, end, size, false),
+							VIEW_ORDER);
+				}
+			});
 		}
-		return new UserViews(result);
+
+		MultiSourceExecutor.Results<UserView> results = msrcExecutor.execute(sources);
+		UserViews result = new UserViews(MultiSourceExecutor.merge(results.getLists(), VIEW_ORDER, size));
+		result.setPartial(results.getPartial());
+		return result;
 	}
 
 	/**
@@ -685,11 +836,13 @@ public class DataController implements ZieOokManager
 		List<UserView> views = eventLogTable.getViews(cp, recommender, user, start, end, size, false);
 		List<UserViewFull> result = new ArrayList<UserViewFull>(views.size());
 		String collection = getRecommenderCollection(cp, recommender);
-		for (UserView v : views)
+		List<CollectionItem> items = getViewItems(cp, collection, views);
+		for (int i = 0; i < views.size(); i++)
 		{
+			UserView v = views.get(i);
 			UserViewFull f = new UserViewFull(v);
-			f.setItem(collectionTable.getItem(cp, collection, v.getItem()));
-			f.setSourceItem(collectionTable.getItem(cp, collection, v.getSourceItem()));
+			f.setItem(items.get(i * 2));
+			f.setSourceItem(items.get(i * 2 + 1));
 			f.setRating(userTable.getRating(cp, collection, user, v.getItem()));
 			f.setSourceRating(userTable.getRating(cp, collection, user, v.getSourceItem()));
 			result.add(f);
@@ -708,20 +861,40 @@ public class DataController implements ZieOokManager
 	public UserViewsFull getMSrcViewsFull(List<String[]> recommenderList, long user, Long start, Long end, int size)
 	{
 		UserViews views = getMSrcViews(recommenderList, user, start, end, size);
-		List<UserViewFull> result = new ArrayList<UserViewFull>(views.getViews().size());
+		final int count = views.getViews().size();
+		List<String> cps = new ArrayList<String>(count * 2);
+		List<String> collections = new ArrayList<String>(count * 2);
+		List<Long> ids = new ArrayList<Long>(count * 2);
 		for (UserView v : views.getViews())
 		{
-			UserViewFull f = new UserViewFull(v);
 			final String cp = v.getCp();
 			String collection = v.getCollection() == null ? getRecommenderCollection(cp, v.getRecommender()) : v
 					.getCollection();
-			f.setItem(collectionTable.getItem(cp, collection, v.getItem()));
-			f.setSourceItem(collectionTable.getItem(cp, collection, v.getSourceItem()));
+			cps.add(cp);
+			cps.add(cp);
+			collections.add(collection);
+			collections.add(collection);
+			ids.add(v.getItem());
+			ids.add(v.getSourceItem());
+		}
+		List<CollectionItem> items = getItems(cps, collections, ids);
+
+		List<UserViewFull> result = new ArrayList<UserViewFull>(count);
+		for (int i = 0; i < count; i++)
+		{
+			UserView v = views.getViews().get(i);
+			final String cp = cps.get(i * 2);
+			final String collection = collections.get(i * 2);
+			UserViewFull f = new UserViewFull(v);
+			f.setItem(items.get(i * 2));
+			f.setSourceItem(items.get(i * 2 + 1));
 			f.setRating(userTable.getRating(cp, collection, user, v.getItem()));
 			f.setSourceRating(userTable.getRating(cp, collection, user, v.getSourceItem()));
 			result.add(f);
 		}
-		return new UserViewsFull(result);
+		UserViewsFull full = new UserViewsFull(result);
+		full.setPartial(views.getPartial());
+		return full;
 	}
 
 	/**
@@ -739,8 +912,19 @@ public class DataController implements ZieOokManager
 			view.setCollection(getRecommenderCollection(cp, recommender));
 		}
 
-		eventLogTable.putView(cp, recommender, view, unit);
-		userTable.incView(cp, view.getUser());
+		if (eventLogWriter != null)
+		{
+			eventLogWriter.putView(cp, recommender, view, unit);
+		}
+		else
+		{
+			eventLogTable.putView(cp, recommender, view, unit);
+			userTable.incView(cp, view.getUser());
+		}
+		if (liveStatistics != null)
+		{
+			liveStatistics.addView(cp, recommender, view);
+		}
 	}
 
 	/**
@@ -760,17 +944,26 @@ public class DataController implements ZieOokManager
 	 * @param recommenderList
 	 * @param longValue
 	 */
-	public void deleteViews(List<String[]> recommenderList, long user)
+	public void deleteViews(List<String[]> recommenderList, final long user)
 	{
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
 			final String cp = cprec[0];
 			final String recommender = cprec[1];
-			final String collection = getRecommenderCollection(cprec[0], cprec[1]);
-			LOG.debug("deleting ratings for user={} in {}/{}/{}", new Object[]{user, cp, recommender, collection});
-			long count = eventLogTable.deleteViews(cp, recommender, user);
-			userTable.decView(cp, user, count);
+			tasks.add(new Callable<Void>()
+			{
+				@Override
+				public Void call()
+				{
+					LOG.debug("deleting views for user={} in {}/{}", new Object[]{user, cp, recommender});
+					long count = eventLogTable.deleteViews(cp, recommender, user);
+					userTable.decView(cp, user, count);
+					return null;
+				}
+			});
 		}
+		msrcExecutor.executeAll(tasks);
 	}
 
 	/**
@@ -826,42 +1019,47 @@ public class DataController implements ZieOokManager
 	 * @param size
 	 * @return
 	 */
-	public UserViewsFull searchViewsMSrc(List<String[]> recommenderList, long user, Long start, Long end, String regexp,
-			int size)
+	public UserViewsFull searchViewsMSrc(List<String[]> recommenderList, final long user, final Long start,
+			final Long end, final String regexp, final int size)
 	{
 		// TODO implement this directly in the collectionViews table, this will most likely be a lot faster
 
-		List<UserViewFull> result = new ArrayList<UserViewFull>();
+		List<Callable<List<UserViewFull>>> sources = new ArrayList<Callable<List<UserViewFull>>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
 			final String cp = cprec[0];
-			final String collection = getRecommenderCollection(cp, cprec[1]);
-
-			LOG.debug("searching views {}/{}/{}", new Object[]{cp, collection, cprec[1]});
-
-			List<UserView> views = collectionViews.searchViews(cp, collection, user, start, end, regexp, size);
-			for (UserView v : views)
-			{
-				UserViewFull f = new UserViewFull(v);
-				f.setItem(collectionTable.getItem(cp, collection, v.getItem()));
-				f.setSourceItem(collectionTable.getItem(cp, collection, v.getSourceItem()));
-				f.setRating(userTable.getRating(cp, collection, user, v.getItem()));
-				f.setSourceRating(userTable.getRating(cp, collection, user, v.getSourceItem()));
-				result.add(f);
-			}
-
-			if (result.size() > size * 3)
+			final String recommender = cprec[1];
+			sources.add(new Callable<List<UserViewFull>>()
 			{
-				sortViewsFull(result);
-				result = result.subList(0, size * 2);
-			}
-		}
-		if (result.size() > size)
-		{
-			result = result.subList(0, size);
+				@Override
+				public List<UserViewFull> call()
+				{
+					final String collection = getRecommenderCollection(cp, recommender);
+
+					LOG.debug("searching views {}/{}/{}", new Object[]{cp, collection, recommender});
+
+					List<UserView> views = collectionViews.searchViews(cp, collection, user, start, end, regexp, size);
+					List<CollectionItem> items = getViewItems(cp, collection, views);
+					List<UserViewFull> result = new ArrayList<UserViewFull>(views.size());
+					for (int i = 0; i < views.size(); i++)
+					{
+						UserView v = views.get(i);
+						UserViewFull f = new UserViewFull(v);
+						f.setItem(items.get(i * 2));
+						f.setSourceItem(items.get(i * 2 + 1));
+						f.setRating(userTable.getRating(cp, collection, user, v.getItem()));
+						f.setSourceRating(userTable.getRating(cp, collection, user, v.getSourceItem()));
+						result.add(f);
+					}
+					return MultiSourceExecutor.sort(result, VIEW_FULL_ORDER);
+				}
+			});
 		}
 
-		return new UserViewsFull(result);
+		MultiSourceExecutor.Results<UserViewFull> results = msrcExecutor.execute(sources);
+		UserViewsFull result = new UserViewsFull(MultiSourceExecutor.merge(results.getLists(), VIEW_FULL_ORDER, size));
+		result.setPartial(results.getPartial());
+		return result;
 	}
 
 	/**
@@ -906,41 +1104,44 @@ public class DataController implements ZieOokManager
 	 * @param size
 	 * @return
 	 */
-	public RatingsFull searchUserRatingsMSrc(List<String[]> recommenderList, long user, String regexp, int size)
+	public RatingsFull searchUserRatingsMSrc(List<String[]> recommenderList, final long user, final String regexp,
+			final int size)
 	{
 		// TODO implement this directly in 'collectionViews' table, what will be much quicker...
 
 		// TODO there is no way to 'browse' the results yet...
 
-		List<RatingFull> result = new ArrayList<RatingFull>();
+		List<Callable<List<RatingFull>>> sources = new ArrayList<Callable<List<RatingFull>>>(recommenderList.size());
 		for (String[] cprec : recommenderList)
 		{
-			final String collection = getRecommenderCollection(cprec[0], cprec[1]);
-			List<Rating> ratings = collectionViews.searchRatings(cprec[0], collection, user, null, regexp, size);
-
-			for (Rating r : ratings)
-			{
-				r.setRecommender(cprec[1]);
-				RatingFull f = new RatingFull(r);
-				f.setItem(collectionTable.getItem(r.getCp(), r.getCollection(), r.getItem()));
-				result.add(f);
-			}
-
-			if (result.size() > size * 3)
+			final String cp = cprec[0];
+			final String recommender = cprec[1];
+			sources.add(new Callable<List<RatingFull>>()
 			{
-				sortFullRatings(result);
-				result = result.subList(0, size * 2);
-			}
-		}
-		if (result.size() > size)
-		{
-			result = result.subList(0, size);
+				@Override
+				public List<RatingFull> call()
+				{
+					final String collection = getRecommenderCollection(cp, recommender);
+					List<Rating> ratings = collectionViews.searchRatings(cp, collection, user, null, regexp, size);
+					List<CollectionItem> items = getRatingItems(ratings);
+					List<RatingFull> result = new ArrayList<RatingFull>(ratings.size());
+					for (int i = 0; i < ratings.size(); i++)
+					{
+						Rating r = ratings.get(i);
+						r.setRecommender(recommender);
+						RatingFull f = new RatingFull(r);
+						f.setItem(items.get(i));
+						result.add(f);
+					}
+					return MultiSourceExecutor.sort(result, RATING_FULL_ORDER);
+				}
+			});
 		}
 
-		// sort final result:
-		sortFullRatings(result);
-
-		return new RatingsFull(result);
+		MultiSourceExecutor.Results<RatingFull> results = msrcExecutor.execute(sources);
+		RatingsFull result = new RatingsFull(MultiSourceExecutor.merge(results.getLists(), RATING_FULL_ORDER, size));
+		result.setPartial(results.getPartial());
+		return result;
 	}
 
 	// -------------------------------------
@@ -954,7 +1155,13 @@ public class DataController implements ZieOokManager
 	 */
 	public boolean isContentProvider(String cp)
 	{
-		return cpTable.isContentProvider(cp);
+		Boolean result = (Boolean) getMetadata(cp, METADATA_CP);
+		if (result == null)
+		{
+			result = cpTable.isContentProvider(cp);
+			putMetadata(cp, METADATA_CP, result);
+		}
+		return result;
 	}
 
 	/**
@@ -965,7 +1172,13 @@ public class DataController implements ZieOokManager
 	 */
 	public boolean isRecommender(String cp, String recommender)
 	{
-		return recommenderTable.isRecommender(cp, recommender);
+		Boolean result = (Boolean) getMetadata(cp, METADATA_RECOMMENDER + recommender);
+		if (result == null)
+		{
+			result = recommenderTable.isRecommender(cp, recommender);
+			putMetadata(cp, METADATA_RECOMMENDER + recommender, result);
+		}
+		return result;
 	}
 
 	/**
@@ -976,7 +1189,13 @@ public class DataController implements ZieOokManager
 	 */
 	public boolean isCollection(String cp, String collection)
 	{
-		return collectionMeta.isCollection(cp, collection);
+		Boolean result = (Boolean) getMetadata(cp, METADATA_COLLECTION + collection);
+		if (result == null)
+		{
+			result = collectionMeta.isCollection(cp, collection);
+			putMetadata(cp, METADATA_COLLECTION + collection, result);
+		}
+		return result;
 	}
 
 	public boolean isCollectionItem(String cp, String collection, long item)
@@ -984,10 +1203,190 @@ public class DataController implements ZieOokManager
 		return collectionTable.isCollectionItem(cp, collection, item);
 	}
 
+	/**
+	 * Test the existence of a list of collection items in one go
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param items item id's
+	 * @return per item {@code true} if it exists, in the same order as <tt>items</tt>
+	 */
+	public boolean[] isCollectionItems(String cp, String collection, List<Long> items)
+	{
+		return collectionTable.isCollectionItems(cp, collection, items);
+	}
+
 	// ----------------------------
 	// -- private helper methods --
 	// ----------------------------
 
+	/**
+	 * Create the recommendation cache, using the data manager settings
+	 * @return a cache, or null if the cache is disabled
+	 */
+	private RecommendationCache createRecommendationCache()
+	{
+		int entries = config.getInt(Config.DATA_CACHE_RECOMMENDATIONS_ENTRIES, DEFAULT_RECOMMENDATION_CACHE_ENTRIES);
+		if (entries <= 0)
+		{
+			LOG.info("recommendation cache disabled");
+			return null;
+		}
+		long bytes = config.getLong(Config.DATA_CACHE_RECOMMENDATIONS_MB, DEFAULT_RECOMMENDATION_CACHE_MB) * 1024 * 1024;
+		long check = config.getLong(Config.DATA_CACHE_RECOMMENDATIONS_CHECK, DEFAULT_RECOMMENDATION_CACHE_CHECK) * 1000;
+		LOG.info("recommendation cache: <entries,bytes,check-ms> = <{},{}>", entries, bytes + "," + check);
+		return new RecommendationCache(entries, bytes, check);
+	}
+
+	/**
+	 * Create the meta data cache, using the data manager settings
+	 * @return a cache, or null if the cache is disabled
+	 */
+	private MetadataCache createMetadataCache()
+	{
+		int entries = config.getInt(Config.DATA_CACHE_METADATA_ENTRIES, DEFAULT_METADATA_CACHE_ENTRIES);
+		if (entries <= 0)
+		{
+			LOG.info("meta data cache disabled");
+			return null;
+		}
+		long ttl = config.getLong(Config.DATA_CACHE_METADATA_TTL, DEFAULT_METADATA_CACHE_TTL) * 1000;
+		long check = config.getLong(Config.DATA_CACHE_METADATA_CHECK, DEFAULT_METADATA_CACHE_CHECK) * 1000;
+		LOG.info("meta data cache: <entries,ttl-ms,check-ms> = <{},{}>", entries, ttl + "," + check);
+		return new MetadataCache(entries, ttl, check);
+	}
+
+	/**
+	 * Create the hot collection item cache, using the data manager settings
+	 * @param config data manager configuration
+	 * @return a cache, or null if the cache is disabled
+	 */
+	static MetadataCache createItemCache(Config config)
+	{
+		int entries = config.getInt(Config.DATA_CACHE_ITEMS_ENTRIES, DEFAULT_ITEM_CACHE_ENTRIES);
+		if (entries <= 0)
+		{
+			LOG.info("collection item cache disabled");
+			return null;
+		}
+		long ttl = config.getLong(Config.DATA_CACHE_ITEMS_TTL, DEFAULT_ITEM_CACHE_TTL) * 1000;
+		LOG.info("collection item cache: <entries,ttl-ms> = <{},{}>", entries, ttl);
+		return new MetadataCache(entries, ttl, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Create and start the real-time statistics, using the data manager settings
+	 * @return the live statistics, or null if they are disabled
+	 */
+	private LiveStatistics createLiveStatistics()
+	{
+		int width = config.getInt(Config.DATA_LIVE_WIDTH, DEFAULT_LIVE_WIDTH);
+		if (width <= 0)
+		{
+			LOG.info("live statistics disabled");
+			return null;
+		}
+		LiveStatistics result = new LiveStatistics(new StatisticsTable(new HBaseStatisticsTable(manager)), width,
+				config.getInt(Config.DATA_LIVE_TOPK, DEFAULT_LIVE_TOPK), config.getLong(Config.DATA_LIVE_FLUSH,
+						DEFAULT_LIVE_FLUSH));
+		result.start();
+		return result;
+	}
+
+	/**
+	 * @return the real-time statistics, or null if they are disabled
+	 */
+	public LiveStatistics getLiveStatistics()
+	{
+		return liveStatistics;
+	}
+
+	/**
+	 * Create and start the event log writer, using the data manager settings
+	 * @return a writer, or null if events should be written synchronously
+	 */
+	private EventLogWriter createEventLogWriter()
+	{
+		int queue = config.getInt(Config.DATA_EVENTLOG_QUEUE, DEFAULT_EVENTLOG_QUEUE);
+		if (queue <= 0)
+		{
+			LOG.info("event log writer disabled, events are written synchronously");
+			return null;
+		}
+		int batch = config.getInt(Config.DATA_EVENTLOG_BATCH, DEFAULT_EVENTLOG_BATCH);
+		long flush = config.getLong(Config.DATA_EVENTLOG_FLUSH, DEFAULT_EVENTLOG_FLUSH);
+		boolean block = config.getBoolean(Config.DATA_EVENTLOG_BLOCK, false);
+		EventLogWriter result = new EventLogWriter(eventLogTable, userTable, queue, batch, flush, block);
+		result.start();
+		return result;
+	}
+
+	/**
+	 * Return a cached meta data value, first drops the cached values of the content provider if the workflow changed its
+	 * meta data since the last check
+	 * @param cp content provider
+	 * @param key value key
+	 * @return the cached value or null
+	 */
+	private Object getMetadata(String cp, String key)
+	{
+		if (metadata == null)
+		{
+			return null;
+		}
+		if (metadata.isStampCheckDue(cp))
+		{
+			metadata.setStamp(cp, cpTable.getMetadataUpdated(cp));
+		}
+		return metadata.get(cp, key);
+	}
+
+	private void putMetadata(String cp, String key, Object value)
+	{
+		if (metadata != null)
+		{
+			metadata.put(cp, key, value);
+		}
+	}
+
+	/**
+	 * Return the (cached) recommender configuration
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return the configuration or null if it does not exist
+	 */
+	private RecommenderConfig getRecommenderConfig(String cp, String recommender)
+	{
+		RecommenderConfig result = (RecommenderConfig) getMetadata(cp, METADATA_RECOMMENDER_CONFIG + recommender);
+		if (result == null)
+		{
+			result = recommenderTable.getRecommender(cp, recommender);
+			putMetadata(cp, METADATA_RECOMMENDER_CONFIG + recommender, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the active model generation of a recommender, the cached recommendations are invalidated if the workflow
+	 * has updated the model in place since the last check
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return model generation
+	 */
+	private long getRecommendationModel(String cp, String recommender)
+	{
+		RecommendationCache cache = recommendationTable.getCache();
+		if (cache == null)
+		{
+			return recommenderTable.getModelGeneration(cp, recommender);
+		}
+		if (cache.isModelCheckDue(cp, recommender))
+		{
+			long[] model = recommenderTable.getModelStamp(cp, recommender);
+			cache.setModelStamp(cp, recommender, model[0], model[1]);
+		}
+		return cache.getModelGeneration(cp, recommender);
+	}
+
 	/**
 	 * return the recommender type given a recommender configuration
 	 * @param recommender
@@ -1016,12 +1415,12 @@ public class DataController implements ZieOokManager
 			return null;
 		}
 		List<Rating> ratings = rating.getRatings();
-		List<CollectionItem> result = new ArrayList<CollectionItem>(ratings.size());
+		List<Long> ids = new ArrayList<Long>(ratings.size());
 		for (Rating r : ratings)
 		{
-			result.add(collectionTable.getItem(cp, collection, r.getItem()));
+			ids.add(r.getItem());
 		}
-		return new CollectionItems(result);
+		return new CollectionItems(collectionTable.getItems(cp, collection, ids));
 	}
 
 	private CollectionItems createItems(Ratings rating)
@@ -1030,13 +1429,7 @@ public class DataController implements ZieOokManager
 		{
 			return null;
 		}
-		List<Rating> ratings = rating.getRatings();
-		List<CollectionItem> result = new ArrayList<CollectionItem>(ratings.size());
-		for (Rating r : ratings)
-		{
-			result.add(collectionTable.getItem(r.getCp(), r.getCollection(), r.getItem()));
-		}
-		return new CollectionItems(result);
+		return new CollectionItems(getRatingItems(rating.getRatings()));
 	}
 
 	/**
@@ -1054,109 +1447,205 @@ public class DataController implements ZieOokManager
 		List<Recommend> recommended = recommendations.getRecommended();
 		if (recommended != null)
 		{
-			List<CollectionItem> result = new ArrayList<CollectionItem>(recommended.size());
-			String cp = recommendations.getCp();
-			String collection = recommendations.getCollection();
+			List<Long> ids = new ArrayList<Long>(recommended.size());
 			for (Recommend i : recommended)
 			{
-				result.add(collectionTable.getItem(cp, collection, i.getItem()));
+				ids.add(i.getItem());
 			}
-			return new CollectionItems(result);
+			return new CollectionItems(collectionTable.getItems(recommendations.getCp(), recommendations.getCollection(),
+					ids));
 		}
 		return null;
 	}
 
-	private void sortViewsFull(List<UserViewFull> views)
+	/**
+	 * Return the collection items of a list of ratings, that may come from different content providers and collections
+	 * @param ratings list of ratings
+	 * @return the items in the same order as the ratings
+	 */
+	private List<CollectionItem> getRatingItems(List<Rating> ratings)
 	{
-		Collections.sort(views, new Comparator<UserViewFull>()
+		List<String> cps = new ArrayList<String>(ratings.size());
+		List<String> collections = new ArrayList<String>(ratings.size());
+		List<Long> ids = new ArrayList<Long>(ratings.size());
+		for (Rating r : ratings)
 		{
-			@Override
-			public int compare(UserViewFull o1, UserViewFull o2)
+			cps.add(r.getCp());
+			collections.add(r.getCollection());
+			ids.add(r.getItem());
+		}
+		return getItems(cps, collections, ids);
+	}
+
+	/**
+	 * Return the item and source item of a list of views
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param views list of views
+	 * @return a list of <tt>[item, source item]</tt> pairs, in the same order as the views
+	 */
+	private List<CollectionItem> getViewItems(String cp, String collection, List<UserView> views)
+	{
+		List<Long> ids = new ArrayList<Long>(views.size() * 2);
+		for (UserView v : views)
+		{
+			ids.add(v.getItem());
+			ids.add(v.getSourceItem());
+		}
+		return collectionTable.getItems(cp, collection, ids);
+	}
+
+	/**
+	 * Return collection items from different content providers and collections, using one multi-get per content
+	 * provider and collection.
+	 * @param cps content provider per item
+	 * @param collections collection per item
+	 * @param ids item id's
+	 * @return the items in the same order as the id's
+	 */
+	private List<CollectionItem> getItems(List<String> cps, List<String> collections, List<Long> ids)
+	{
+		// group the positions per content provider and collection:
+		Map<String, Map<String, List<Integer>>> groups = new HashMap<String, Map<String, List<Integer>>>();
+		for (int i = 0; i < ids.size(); i++)
+		{
+			Map<String, List<Integer>> cpGroup = groups.get(cps.get(i));
+			if (cpGroup == null)
 			{
-				int result = (int) (o2.getDate() - o1.getDate());
-				if (result == 0)
-				{
-					result = o1.getRecommender().compareTo(o2.getRecommender());
-				}
-				if (result == 0)
+				cpGroup = new HashMap<String, List<Integer>>();
+				groups.put(cps.get(i), cpGroup);
+			}
+			List<Integer> index = cpGroup.get(collections.get(i));
+			if (index == null)
+			{
+				index = new ArrayList<Integer>();
+				cpGroup.put(collections.get(i), index);
+			}
+			index.add(i);
+		}
+
+		CollectionItem[] result = new CollectionItem[ids.size()];
+		for (Map.Entry<String, Map<String, List<Integer>>> cpGroup : groups.entrySet())
+		{
+			for (Map.Entry<String, List<Integer>> group : cpGroup.getValue().entrySet())
+			{
+				List<Integer> index = group.getValue();
+				List<Long> groupIds = new ArrayList<Long>(index.size());
+				for (Integer i : index)
 				{
-					result = o1.getSource().compareTo(o2.getSource());
+					groupIds.add(ids.get(i));
 				}
-				if (result == 0)
+				List<CollectionItem> items = collectionTable.getItems(cpGroup.getKey(), group.getKey(), groupIds);
+				for (int i = 0; i < index.size(); i++)
 				{
-					result = (int) (o1.getRank() - o2.getRank());
+					result[index.get(i)] = items.get(i);
 				}
-				return result;
 			}
-		});
+		}
+		return Arrays.asList(result);
 	}
 
-	private void sortViews(List<UserView> views)
+	// newest first, the order of the multi source results:
+
+	private static final Comparator<UserViewFull> VIEW_FULL_ORDER = new Comparator<UserViewFull>()
 	{
-		Collections.sort(views, new Comparator<UserView>()
+		@Override
+		public int compare(UserViewFull o1, UserViewFull o2)
 		{
-			@Override
-			public int compare(UserView o1, UserView o2)
+			int result = compareDate(o1.getDate(), o2.getDate());
+			if (result == 0)
 			{
-				int result = (int) (o2.getDate() - o1.getDate());
-				if (result == 0)
-				{
-					result = o1.getRecommender().compareTo(o2.getRecommender());
-				}
-				if (result == 0)
-				{
-					result = o1.getSource().compareTo(o2.getSource());
-				}
-				if (result == 0)
-				{
-					result = (int) (o1.getRank() - o2.getRank());
-				}
-				return result;
+				result = compareString(o1.getRecommender(), o2.getRecommender());
 			}
-		});
-	}
+			if (result == 0)
+			{
+				result = compareString(o1.getSource(), o2.getSource());
+			}
+			if (result == 0)
+			{
+				result = o1.getRank() < o2.getRank() ? -1 : (o1.getRank() == o2.getRank() ? 0 : 1);
+			}
+			return result;
+		}
+	};
 
-	private void sortFullRatings(List<RatingFull> ratings)
+	private static final Comparator<UserView> VIEW_ORDER = new Comparator<UserView>()
 	{
-		Collections.sort(ratings, new Comparator<RatingFull>()
+		@Override
+		public int compare(UserView o1, UserView o2)
 		{
+			int result = compareDate(o1.getDate(), o2.getDate());
+			if (result == 0)
+			{
+				result = compareString(o1.getRecommender(), o2.getRecommender());
+			}
+			if (result == 0)
+			{
+				result = compareString(o1.getSource(), o2.getSource());
+			}
+			if (result == 0)
+			{
+				result = o1.getRank() < o2.getRank() ? -1 : (o1.getRank() == o2.getRank() ? 0 : 1);
+			}
+			return result;
+		}
+	};
 
-			@Override
-			public int compare(RatingFull o1, RatingFull o2)
+	private static final Comparator<RatingFull> RATING_FULL_ORDER = new Comparator<RatingFull>()
+	{
+		@Override
+		public int compare(RatingFull o1, RatingFull o2)
+		{
+			int result = compareDate(o1.getDate(), o2.getDate());
+			if (result == 0)
 			{
-				int result = (int) (o2.getDate() - o1.getDate());
-				if (result == 0)
-				{
-					result = o1.getCollection().compareTo(o2.getCollection());
-				}
-				if (result == 0)
-				{
-					result = o1.getSource().compareTo(o2.getSource());
-				}
-				return result;
+				result = compareString(o1.getCollection(), o2.getCollection());
 			}
-		});
-	}
+			if (result == 0)
+			{
+				result = compareString(o1.getSource(), o2.getSource());
+			}
+			return result;
+		}
+	};
 
-	private void sortRatings(List<Rating> ratings)
+	private static final Comparator<Rating> RATING_ORDER = new Comparator<Rating>()
 	{
-		Collections.sort(ratings, new Comparator<Rating>()
+		@Override
+		public int compare(Rating o1, Rating o2)
 		{
-			@Override
-			public int compare(Rating o1, Rating o2)
+			int result = compareDate(o1.getDate(), o2.getDate());
+			if (result == 0)
 			{
-				int result = (int) (o2.getDate() - o1.getDate());
-				if (result == 0)
-				{
-					result = o1.getCollection().compareTo(o2.getCollection());
-				}
-				if (result == 0)
-				{
-					result = o1.getSource().compareTo(o2.getSource());
-				}
-				return result;
+				result = compareString(o1.getCollection(), o2.getCollection());
+			}
+			if (result == 0)
+			{
+				result = compareString(o1.getSource(), o2.getSource());
 			}
-		});
+			return result;
+		}
+	};
+
+	/**
+	 * newest date first, missing dates last
+	 */
+	private static int compareDate(Long d1, Long d2)
+	{
+		if (d1 == null || d2 == null)
+		{
+			return d1 == null ? (d2 == null ? 0 : 1) : -1;
+		}
+		return d2.compareTo(d1);
+	}
+
+	private static int compareString(String s1, String s2)
+	{
+		if (s1 == null || s2 == null)
+		{
+			return s1 == null ? (s2 == null ? 0 : 1) : -1;
+		}
+		return s1.compareTo(s2);
 	}
 
 	/**
@@ -1190,9 +1679,20 @@ public class DataController implements ZieOokManager
 		return recommenderTable.getRecommenderList(cp, collection);
 	}
 
+	/**
+	 * Return the collection of a recommender, from the cached recommender configuration if the meta data cache is on
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return the collection name, or null if the recommender does not exist
+	 */
 	protected String getRecommenderCollection(String cp, String recommender)
 	{
-		return recommenderTable.getRecommenderCollection(cp, recommender);
+		if (metadata == null)
+		{
+			return recommenderTable.getRecommenderCollection(cp, recommender);
+		}
+		RecommenderConfig config = getRecommenderConfig(cp, recommender);
+		return config == null ? null : config.getCollection();
 	}
 
 }
@@ -0,0 +1,338 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the per source lookups of multi source (MSrc) requests in parallel, on a bounded pool of threads shared by all
+ * requests. A request waits at most <em>timeout</em> ms for its sources, sources that did not answer in time are
+ * cancelled and the result is marked partial.
+ * <p />
+ * The per source results are expected to be sorted, {@link #merge(List, Comparator, int)} combines them with a k-way
+ * merge.
+ * <p />
+ * Project zieook-backend-data<br />
+ * MultiSourceExecutor.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MultiSourceExecutor
+{
+	private static final Logger LOG = LoggerFactory.getLogger(MultiSourceExecutor.class);
+
+	private final ThreadPoolExecutor executor;
+	private final long timeout;
+
+	private final AtomicLong timedOut = new AtomicLong();
+
+	/**
+	 * Create a new executor
+	 * @param threads maximum number of sources queried at the same time
+	 * @param timeout maximum time in ms a request waits for its sources
+	 */
+	public MultiSourceExecutor(int threads, long timeout)
+	{
+		this.timeout = timeout;
+		final int size = Math.max(1, threads);
+		executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory()
+				{
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r)
+					{
+						Thread result = new Thread(r, "zieook-msrc-" + count.incrementAndGet());
+						result.setDaemon(true);
+						return result;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		LOG.info("multi source executor: <threads,timeout-ms> = <{},{}>", size, timeout);
+	}
+
+	/**
+	 * Query all sources in parallel and wait at most the timeout for the results
+	 * @param sources one task per source
+	 * @return the results in the order of the sources, a source that did not answer in time has no result
+	 */
+	public <T> Results<T> execute(List<Callable<List<T>>> sources)
+	{
+		final Results<T> result = new Results<T>(sources.size());
+		if (sources.size() == 1)
+		{
+			// nothing to wait for, don't switch threads:
+			try
+			{
+				result.add(sources.get(0).call());
+			}
+			catch (RuntimeException e)
+			{
+				throw e;
+			}
+			catch (Exception e)
+			{
+				throw new IllegalStateException(e);
+			}
+			return result;
+		}
+
+		List<Future<List<T>>> futures;
+		try
+		{
+			futures = executor.invokeAll(sources, timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			result.missing = sources.size();
+			return result;
+		}
+
+		for (Future<List<T>> future : futures)
+		{
+			try
+			{
+				result.add(future.get());
+			}
+			catch (CancellationException e)
+			{
+				result.missing++;
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				result.missing++;
+			}
+			catch (ExecutionException e)
+			{
+				// same behavior as a sequential lookup:
+				if (e.getCause() instanceof RuntimeException)
+				{
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		if (result.missing > 0)
+		{
+			timedOut.addAndGet(result.missing);
+			LOG.warn("{} of {} sources did not answer within {}ms", new Object[]{result.missing, sources.size(), timeout});
+		}
+		return result;
+	}
+
+	/**
+	 * Run all tasks in parallel and wait until all of them are done (no timeout)
+	 * @param tasks the tasks
+	 */
+	public <T> void executeAll(List<Callable<T>> tasks)
+	{
+		try
+		{
+			for (Future<T> future : executor.invokeAll(tasks))
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					if (e.getCause() instanceof RuntimeException)
+					{
+						throw (RuntimeException) e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * stop the threads, running lookups are interrupted
+	 */
+	public void shutdown()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return the total number of sources that did not answer in time
+	 */
+	public long getTimedOut()
+	{
+		return timedOut.get();
+	}
+
+	/**
+	 * Merge sorted lists in to one sorted list of at most {@code size} elements
+	 * @param sorted lists that are sorted by the {@code comparator}
+	 * @param comparator sort order
+	 * @param size maximum size of the result
+	 * @return the merged list
+	 */
+	public static <T> List<T> merge(List<List<T>> sorted, final Comparator<? super T> comparator, int size)
+	{
+		if (sorted.size() == 1)
+		{
+			List<T> list = sorted.get(0);
+			return list.size() > size ? new ArrayList<T>(list.subList(0, size)) : list;
+		}
+
+		PriorityQueue<Cursor<T>> heads = new PriorityQueue<Cursor<T>>(Math.max(1, sorted.size()),
+				new Comparator<Cursor<T>>()
+				{
+					@Override
+					public int compare(Cursor<T> o1, Cursor<T> o2)
+					{
+						int result = comparator.compare(o1.head(), o2.head());
+						// equal elements keep the order of the sources:
+						return result != 0 ? result : o1.source - o2.source;
+					}
+				});
+
+		int total = 0;
+		for (int i = 0; i < sorted.size(); i++)
+		{
+			List<T> list = sorted.get(i);
+			total += list.size();
+			if (!list.isEmpty())
+			{
+				heads.add(new Cursor<T>(list, i));
+			}
+		}
+
+		List<T> result = new ArrayList<T>(Math.min(total, size));
+		while (result.size() < size && !heads.isEmpty())
+		{
+			Cursor<T> cursor = heads.poll();
+			result.add(cursor.head());
+			if (cursor.next())
+			{
+				heads.add(cursor);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sort a per source result, to prepare it for {@link MultiSourceExecutor#merge(List, Comparator, int)}
+	 * @param list a source result
+	 * @param comparator sort order
+	 * @return the sorted list
+	 */
+	public static <T> List<T> sort(List<T> list, Comparator<? super T> comparator)
+	{
+		Collections.sort(list, comparator);
+		return list;
+	}
+
+	/**
+	 * The results of a multi source request
+	 */
+	public static final class Results<T>
+	{
+		private final List<List<T>> lists;
+		private int missing;
+
+		Results(int size)
+		{
+			lists = new ArrayList<List<T>>(size);
+		}
+
+		void add(List<T> list)
+		{
+			if (list != null)
+			{
+				lists.add(list);
+			}
+		}
+
+		/**
+		 * @return the results of the sources that answered in time
+		 */
+		public List<List<T>> getLists()
+		{
+			return lists;
+		}
+
+		/**
+		 * @return <tt>true</tt> if some sources did not answer in time
+		 */
+		public boolean isPartial()
+		{
+			return missing > 0;
+		}
+
+		/**
+		 * @return the partial flag of the response: {@code Boolean.TRUE} or null
+		 */
+		public Boolean getPartial()
+		{
+			return missing > 0 ? Boolean.TRUE : null;
+		}
+	}
+
+	private static final class Cursor<T>
+	{
+		private final List<T> list;
+		private final int source;
+		private int index;
+
+		Cursor(List<T> list, int source)
+		{
+			this.list = list;
+			this.source = source;
+		}
+
+		T head()
+		{
+			return list.get(index);
+		}
+
+		boolean next()
+		{
+			return ++index < list.size();
+		}
+	}
+}
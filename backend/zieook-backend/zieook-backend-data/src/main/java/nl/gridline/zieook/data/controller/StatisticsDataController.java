@@ -21,7 +21,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import nl.gridline.zieook.commons.ServerState;
 import nl.gridline.zieook.commons.ZieOokCommons;
@@ -29,12 +31,14 @@ import nl.gridline.zieook.commons.ZieOokManager;
 import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.data.hbase.HBaseManager;
 import nl.gridline.zieook.data.hbase.dao.CollectionTable;
+import nl.gridline.zieook.data.hbase.dao.LiveStatistics;
 import nl.gridline.zieook.data.hbase.dao.StatisticsTable;
 import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.data.hbase.model.HBaseStatisticsTable;
 import nl.gridline.zieook.data.model.DataControllerState;
-import nl.gridline.zieook.model.CollectionItem;
+import nl.gridline.zieook.exceptions.DoesNotExists;
+import nl.gridline.zieook.mapreduce.Leaderboards;
 import nl.gridline.zieook.model.CollectionItems;
 import nl.gridline.zieook.model.DataManagerSettings;
 import nl.gridline.zieook.model.GroupedData;
@@ -61,6 +65,7 @@ public class StatisticsDataController implements ZieOokManager
 {
 	private static final Logger LOG = LoggerFactory.getLogger(StatisticsDataController.class);
 	public static final String NAME = "nl.zieook.statistics_datacontroller";
+	private static final int DEFAULT_MAX_SIZE = 1000;
 	private Config config;
 	private boolean state;
 
@@ -69,8 +74,11 @@ public class StatisticsDataController implements ZieOokManager
 
 	private StatisticsTable statisticsTable;
 	private CollectionTable collectionTable;
+	private LiveStatistics liveStatistics;
 
 	private PopularityTypes popularityTypes;
+	private Map<String, Long> windows;
+	private int maxSize = DEFAULT_MAX_SIZE;
 
 	public StatisticsDataController()
 	{
@@ -102,7 +110,8 @@ public class StatisticsDataController implements ZieOokManager
 			}
 
 			statisticsTable = new StatisticsTable(new HBaseStatisticsTable(manager));
-			collectionTable = new CollectionTable(new HBaseCollectionTable(manager));
+			collectionTable = new CollectionTable(new HBaseCollectionTable(manager),
+					DataController.createItemCache(config));
 		}
 
 		String types = config.get(Config.STATISTICS_POPULARITY_TYPES,
@@ -117,12 +126,22 @@ public class StatisticsDataController implements ZieOokManager
 		}
 
 		List<String> list = new ArrayList<String>();
+		windows = new HashMap<String, Long>();
 		for (String type : types.split(";"))
 		{
 			String[] kv = type.split(",");
 			if (kv.length == 2)
 			{
 				list.add(kv[0]);
+				try
+				{
+					// the statistics task writes a top list for every popularity type, span in seconds:
+					windows.put(kv[0].trim(), Long.parseLong(kv[1].trim()) * 1000);
+				}
+				catch (NumberFormatException e)
+				{
+					LOG.warn("cannot read the time span of '{}'", type);
+				}
 			}
 			else
 			{
@@ -131,6 +150,7 @@ public class StatisticsDataController implements ZieOokManager
 		}
 		popularityTypes = new PopularityTypes(list);
 
+		maxSize = config.getInt(Config.STATISTICS_REQUEST_SIZE, DEFAULT_MAX_SIZE);
 	}
 
 	@Override
@@ -181,6 +201,7 @@ public class StatisticsDataController implements ZieOokManager
 	 */
 	public Groups getSources(String cp, String recommender, String from, Long startDate, Long endDate, int size)
 	{
+		size = getSize(size);
 		final List<GroupedData> sources = statisticsTable.getSources(cp, recommender, from, startDate, endDate, size);
 		return new Groups(sources);
 	}
@@ -190,13 +211,21 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param recommender
 	 * @param startDate
 	 * @param endDate
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param size
 	 * @return
 	 * @throws IOException
 	 */
-	public Groups getTopSources(String cp, String recommender, Long startDate, Long endDate, int size)
+	public Groups getTopSources(String cp, String recommender, Long startDate, Long endDate, String window, int size)
 	{
-		List<GroupedData> topSources = statisticsTable.getTopSources(cp, recommender, startDate, endDate, size);
+		size = getSize(size);
+		List<GroupedData> topSources = getLeaderboard(cp, Leaderboards.SOURCES, recommender, startDate, endDate, window,
+				size);
+		if (topSources == null)
+		{
+			topSources = statisticsTable.getTopSources(cp, recommender, getStart(window, startDate),
+					getEnd(window, endDate), size);
+		}
 		return new Groups(topSources);
 	}
 
@@ -205,13 +234,21 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param recommender
 	 * @param startDate
 	 * @param endDate
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param intValue
 	 * @return
 	 */
-	public Groups getTopViewed(String cp, String recommender, Long startDate, Long endDate, int size)
+	public Groups getTopViewed(String cp, String recommender, Long startDate, Long endDate, String window, int size)
 	{
-		List<GroupedData> topSources = statisticsTable.getTopViewed(cp, recommender, startDate, endDate, size);
-		return new Groups(topSources);
+		size = getSize(size);
+		List<GroupedData> topViewed = getLeaderboard(cp, Leaderboards.VIEWED, recommender, startDate, endDate, window,
+				size);
+		if (topViewed == null)
+		{
+			topViewed = statisticsTable.getTopViewed(cp, recommender, getStart(window, startDate),
+					getEnd(window, endDate), size);
+		}
+		return new Groups(topViewed);
 	}
 
 	/**
@@ -220,12 +257,14 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param user
 	 * @param endTime
 	 * @param startTime
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param intValue
 	 */
-	public Groups topRecommended(String cp, String collection, long user, Long startTime, Long endTime, int size)
+	public Groups topRecommended(String cp, String collection, long user, Long startTime, Long endTime, String window,
+			int size)
 	{
-		List<GroupedData> result = statisticsTable.getTopRecommended(cp, collection, user, startTime, endTime, size);
-		return new Groups(result);
+		size = getSize(size);
+		return new Groups(getTopRecommended(cp, collection, user, startTime, endTime, window, size));
 	}
 
 	/**
@@ -234,13 +273,15 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param user
 	 * @param endTime
 	 * @param startTime
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param size
 	 * @return
 	 */
 	public CollectionItems topRecommendedAsCollection(String cp, String collection, long user, Long startTime,
-			Long endTime, int size)
+			Long endTime, String window, int size)
 	{
-		List<GroupedData> result = statisticsTable.getTopRecommended(cp, collection, user, startTime, endTime, size);
+		size = getSize(size);
+		List<GroupedData> result = getTopRecommended(cp, collection, user, startTime, endTime, window, size);
 		return createItems(cp, null, result);
 		// return createItems(cp, collection, topRecommended(cp, recommender, user, size));
 	}
@@ -255,6 +296,7 @@ public class StatisticsDataController implements ZieOokManager
 	public Groups getCollectionSources(String cp, String collection, String from, Long startDate, Long endDate,
 			Integer size)
 	{
+		size = getSize(size);
 		List<GroupedData> result = statisticsTable.getCollectionSources(cp, collection, from, startDate, endDate, size);
 		return new Groups(result);
 	}
@@ -269,6 +311,7 @@ public class StatisticsDataController implements ZieOokManager
 	 */
 	public Groups getCollectionTopSources(String cp, String collection, Long startTime, Long endTime, int size)
 	{
+		size = getSize(size);
 		List<GroupedData> result = statisticsTable.getCollectionTopSources(cp, collection, startTime, endTime, size);
 		return new Groups(result);
 	}
@@ -278,12 +321,15 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param collection
 	 * @param startDate
 	 * @param endDate
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param intValue
 	 * @return
 	 */
-	public CollectionItems topRatedAsCollection(String cp, String collection, Long startDate, Long endDate, int size)
+	public CollectionItems topRatedAsCollection(String cp, String collection, Long startDate, Long endDate,
+			String window, int size)
 	{
-		List<GroupedData> groups = statisticsTable.getRatedTop(cp, collection, startDate, endDate, size);
+		size = getSize(size);
+		List<GroupedData> groups = getTopRated(cp, collection, startDate, endDate, window, size);
 		return createItems(cp, collection, groups);
 	}
 
@@ -292,13 +338,14 @@ public class StatisticsDataController implements ZieOokManager
 	 * @param collection
 	 * @param startDate
 	 * @param endDate
+	 * @param window optional time window, the dates are ignored if it's set
 	 * @param intValue
 	 * @return
 	 */
-	public Groups topRated(String cp, String collection, Long startDate, Long endDate, int size)
+	public Groups topRated(String cp, String collection, Long startDate, Long endDate, String window, int size)
 	{
-		List<GroupedData> result = statisticsTable.getRatedTop(cp, collection, startDate, endDate, size);
-		return new Groups(result);
+		size = getSize(size);
+		return new Groups(getTopRated(cp, collection, startDate, endDate, window, size));
 	}
 
 	/**
@@ -330,22 +377,150 @@ public class StatisticsDataController implements ZieOokManager
 		throw new NotImplementedException();
 	}
 
+	private List<GroupedData> getTopRated(String cp, String collection, Long startDate, Long endDate, String window,
+			int size)
+	{
+		List<GroupedData> result = getLeaderboard(cp, Leaderboards.RATED, collection, startDate, endDate, window, size);
+		if (result == null)
+		{
+			result = statisticsTable.getRatedTop(cp, collection, getStart(window, startDate), getEnd(window, endDate),
+					size);
+		}
+		return result;
+	}
+
+	private List<GroupedData> getTopRecommended(String cp, String collection, long user, Long startTime, Long endTime,
+			String window, int size)
+	{
+		// no top list per user, it's a bounded prefix scan of the user's statistics:
+		checkWindow(window);
+		return statisticsTable.getTopRecommended(cp, collection, user, getStart(window, startTime),
+				getEnd(window, endTime), size);
+	}
+
+	/**
+	 * Set the real-time statistics of the data controller, see {@link DataController#getLiveStatistics()}
+	 * @param liveStatistics the real-time statistics, null if they are disabled
+	 */
+	public void setLiveStatistics(LiveStatistics liveStatistics)
+	{
+		this.liveStatistics = liveStatistics;
+	}
+
+	/**
+	 * Returns what's trending now: the highest real-time counts of a list in the last minute, hour or day. The counts
+	 * are estimates of this data server, the exact statistics are computed by the statistics task.
+	 * @param cp content provider
+	 * @param list name of the list, see {@link Leaderboards}
+	 * @param scope recommender (viewed and sources) or collection (rated and recommended)
+	 * @param window minute, hour or day
+	 * @param size maximum number of entries
+	 * @return the top of the list, empty if the real-time statistics are disabled
+	 */
+	public Groups getTrending(String cp, String list, String scope, String window, int size)
+	{
+		size = getSize(size);
+		LiveStatistics.Window w = LiveStatistics.Window.get(window == null ? LiveStatistics.Window.HOUR.getName()
+				: window);
+		if (w == null)
+		{
+			throw new DoesNotExists("time window '{}' does not exist", window);
+		}
+		if (liveStatistics == null)
+		{
+			LOG.debug("live statistics disabled, no trending <{},{}>", list, scope);
+			return new Groups(new ArrayList<GroupedData>(0));
+		}
+		return new Groups(liveStatistics.getTrending(cp, list, scope, w, size));
+	}
+
+	/**
+	 * Read a top list written by the statistics task, a request without a window and dates reads the
+	 * {@link Leaderboards#ALL} list.
+	 * @return the top list, or null if the request should be answered from the statistics themselves
+	 */
+	private List<GroupedData> getLeaderboard(String cp, String list, String scope, Long startDate, Long endDate,
+			String window, int size)
+	{
+		if (window == null)
+		{
+			if (startDate != null || endDate != null)
+			{
+				return null;
+			}
+			window = Leaderboards.ALL;
+		}
+		checkWindow(window);
+
+		List<GroupedData> result = statisticsTable.getLeaderboard(cp, list, scope, window, size);
+		if (result == null)
+		{
+			LOG.debug("no top list for <{},{}> in {}, reading the statistics", new Object[]{list, scope, window});
+		}
+		return result;
+	}
+
+	/**
+	 * @return the requested size, at most the configured maximum: the top lists are kept in memory
+	 */
+	private int getSize(Integer size)
+	{
+		if (size == null || size.intValue() > maxSize)
+		{
+			LOG.debug("requested size {} is limited to {}", size, maxSize);
+			return maxSize;
+		}
+		return size.intValue();
+	}
+
+	/**
+	 * @throws DoesNotExists if the window is set, but not configured
+	 */
+	private void checkWindow(String window)
+	{
+		if (window != null && !Leaderboards.ALL.equals(window) && !windows.containsKey(window))
+		{
+			throw new DoesNotExists("time window '{}' does not exist", window);
+		}
+	}
+
+	/**
+	 * @return start date of the window (relative to now), or the given start date if there is no window
+	 */
+	private Long getStart(String window, Long startDate)
+	{
+		if (window == null)
+		{
+			return startDate;
+		}
+		Long span = windows.get(window);
+		return span == null ? null : Long.valueOf(System.currentTimeMillis() - span.longValue());
+	}
+
+	/**
+	 * @return the given end date, if there is no window
+	 */
+	private Long getEnd(String window, Long endDate)
+	{
+		return window == null ? endDate : null;
+	}
+
 	private CollectionItems createItems(String cp, String collection, List<GroupedData> groups)
 	{
 		if (groups == null)
 		{
 			return null;
 		}
-		List<CollectionItem> result = new ArrayList<CollectionItem>(groups.size());
+		List<Long> ids = new ArrayList<Long>(groups.size());
 		for (GroupedData r : groups)
 		{
 			if (collection == null)
 			{
 				collection = r.getCollection();
 			}
-			result.add(collectionTable.getItem(cp, collection, r.getItem()));
+			ids.add(r.getItem());
 		}
-		return new CollectionItems(result);
+		return new CollectionItems(collectionTable.getItems(cp, collection, ids));
 	}
 
 	/**
@@ -377,6 +552,7 @@ public class StatisticsDataController implements ZieOokManager
 	 */
 	public Popularities getPopularities(String cp, String collection, String type, Long startItem, int size)
 	{
+		size = getSize(size);
 		List<Popularity> result = statisticsTable.getPopularity(cp, collection, type, startItem, size);
 		if (result == null || result.isEmpty())
 		{
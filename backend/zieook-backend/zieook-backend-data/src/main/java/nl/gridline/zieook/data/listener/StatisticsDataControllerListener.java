@@ -20,6 +20,7 @@ package nl.gridline.zieook.data.listener;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
+import nl.gridline.zieook.data.controller.DataController;
 import nl.gridline.zieook.data.controller.StatisticsDataController;
 
 import org.slf4j.Logger;
@@ -65,6 +66,16 @@ public class StatisticsDataControllerListener implements ServletContextListener
 		{
 			LOG.error("Failed to start the statistics data controller! ", e);
 		}
+		// the real-time statistics are counted by the data controller:
+		DataController data = (DataController) context.getServletContext().getAttribute(DataController.NAME);
+		if (data != null)
+		{
+			datacontroller.setLiveStatistics(data.getLiveStatistics());
+		}
+		else
+		{
+			LOG.warn("data controller not found in servlet context, no real-time statistics");
+		}
 		context.getServletContext().setAttribute(StatisticsDataController.NAME, datacontroller);
 	}
 
@@ -62,6 +62,26 @@ public class DataControllerState extends ServerState
 	@XmlElement(name = "cp-name-cache-miss")
 	private long cacheCpMiss;
 
+	@XmlElement(name = "recommendations-cache-hit")
+	private long cacheRecommendationsHit;
+	@XmlElement(name = "recommendations-cache-miss")
+	private long cacheRecommendationsMiss;
+	@XmlElement(name = "recommendations-cache-size")
+	private long cacheRecommendationsSize;
+
+	@XmlElement(name = "eventlog-queue-depth")
+	private long eventLogQueueDepth;
+	@XmlElement(name = "eventlog-dropped")
+	private long eventLogDropped;
+	@XmlElement(name = "eventlog-written")
+	private long eventLogWritten;
+	@XmlElement(name = "eventlog-flush-ms")
+	private long eventLogFlushTime;
+	@XmlElement(name = "eventlog-flush-max-ms")
+	private long eventLogMaxFlushTime;
+	@XmlElement(name = "msrc-timed-out")
+	private long msrcTimedOut;
+
 	/**
 	 * 
 	 */
@@ -154,4 +174,148 @@ public class DataControllerState extends ServerState
 		this.cacheCpMiss = cacheCpMiss;
 	}
 
+	/**
+	 * @return The cacheRecommendationsHit.
+	 */
+	public long getCacheRecommendationsHit()
+	{
+		return cacheRecommendationsHit;
+	}
+
+	/**
+	 * @param cacheRecommendationsHit The cacheRecommendationsHit to set.
+	 */
+	public void setCacheRecommendationsHit(long cacheRecommendationsHit)
+	{
+		this.cacheRecommendationsHit = cacheRecommendationsHit;
+	}
+
+	/**
+	 * @return The cacheRecommendationsMiss.
+	 */
+	public long getCacheRecommendationsMiss()
+	{
+		return cacheRecommendationsMiss;
+	}
+
+	/**
+	 * @param cacheRecommendationsMiss The cacheRecommendationsMiss to set.
+	 */
+	public void setCacheRecommendationsMiss(long cacheRecommendationsMiss)
+	{
+		this.cacheRecommendationsMiss = cacheRecommendationsMiss;
+	}
+
+	/**
+	 * @return The cacheRecommendationsSize.
+	 */
+	public long getCacheRecommendationsSize()
+	{
+		return cacheRecommendationsSize;
+	}
+
+	/**
+	 * @param cacheRecommendationsSize The cacheRecommendationsSize to set.
+	 */
+	public void setCacheRecommendationsSize(long cacheRecommendationsSize)
+	{
+		this.cacheRecommendationsSize = cacheRecommendationsSize;
+	}
+
+	/**
+	 * @return The eventLogQueueDepth.
+	 */
+	public long getEventLogQueueDepth()
+	{
+		return eventLogQueueDepth;
+	}
+
+	/**
+	 * @param eventLogQueueDepth The eventLogQueueDepth to set.
+	 */
+	public void setEventLogQueueDepth(long eventLogQueueDepth)
+	{
+		this.eventLogQueueDepth = eventLogQueueDepth;
+	}
+
+	/**
+	 * @return The eventLogDropped.
+	 */
+	public long getEventLogDropped()
+	{
+		return eventLogDropped;
+	}
+
+	/**
+	 * @param eventLogDropped The eventLogDropped to set.
+	 */
+	public void setEventLogDropped(long eventLogDropped)
+	{
+		this.eventLogDropped = eventLogDropped;
+	}
+
+	/**
+	 * @return The eventLogWritten.
+	 */
+	public long getEventLogWritten()
+	{
+		return eventLogWritten;
+	}
+
+	/**
+	 * @param eventLogWritten The eventLogWritten to set.
+	 */
+	public void setEventLogWritten(long eventLogWritten)
+	{
+		this.eventLogWritten = eventLogWritten;
+	}
+
+	/**
+	 * @return The eventLogFlushTime.
+	 */
+	public long getEventLogFlushTime()
+	{
+		return eventLogFlushTime;
+	}
+
+	/**
+	 * @param eventLogFlushTime The eventLogFlushTime to set.
+	 */
+	public void setEventLogFlushTime(long eventLogFlushTime)
+	{
+		this.eventLogFlushTime = eventLogFlushTime;
+	}
+
+	/**
+	 * @return The eventLogMaxFlushTime.
+	 */
+	public long getEventLogMaxFlushTime()
+	{
+		return eventLogMaxFlushTime;
+	}
+
+	/**
+	 * @param eventLogMaxFlushTime The eventLogMaxFlushTime to set.
+	 */
+	public void setEventLogMaxFlushTime(long eventLogMaxFlushTime)
+	{
+		this.eventLogMaxFlushTime = eventLogMaxFlushTime;
+	}
+
+	/**
+	 * @return The number of multi source lookups that did not answer in time.
+	 */
+	public long getMsrcTimedOut()
+	{
+		return msrcTimedOut;
+	}
+
+	/**
+	 * @param msrcTimedOut The msrcTimedOut to set.
+	 */
+	public void setMsrcTimedOut(long msrcTimedOut)
+	{
+		this.msrcTimedOut = msrcTimedOut;
+	}
+
 }
@@ -19,7 +19,11 @@ package nl.gridline.zieook.data.rest;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletContext;
@@ -28,6 +32,7 @@ import javax.ws.rs.core.Response;
 
 import nl.gridline.zieook.api.RatingEvents;
 import nl.gridline.zieook.data.controller.DataController;
+import nl.gridline.zieook.data.hbase.dao.UserTable.StoredRatings;
 import nl.gridline.zieook.exceptions.CollectionDoesNotExistException;
 import nl.gridline.zieook.exceptions.ContentProviderDoesNotExist;
 import nl.gridline.zieook.exceptions.DoesNotExists;
@@ -35,9 +40,11 @@ import nl.gridline.zieook.exceptions.RatingDoesNotExist;
 import nl.gridline.zieook.exceptions.RecommenderDoesNotExist;
 import nl.gridline.zieook.model.CollectionItems;
 import nl.gridline.zieook.model.Rating;
+import nl.gridline.zieook.model.RatingError;
 import nl.gridline.zieook.model.RatingFull;
 import nl.gridline.zieook.model.Ratings;
 import nl.gridline.zieook.model.RatingsFull;
+import nl.gridline.zieook.model.RatingsResult;
 import nl.gridline.zieook.model.Recommendeds;
 import nl.gridline.zieook.model.UserView;
 import nl.gridline.zieook.model.UserViews;
@@ -120,6 +127,120 @@ public class RatingEventsImpl implements RatingEvents
 		return Response.ok().build();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see nl.gridline.zieook.api.RatingEvents#setRatings(java.lang.String, java.lang.String,
+	 * nl.gridline.zieook.model.Ratings)
+	 */
+	@Override
+	public RatingsResult setRatings(String cp, String collection, Ratings ratings)
+	{
+		LOG.debug("set ratings <cp,collection> = <{},{}>", cp, collection);
+		if (ratings == null || ratings.getRatings() == null || ratings.getRatings().isEmpty())
+		{
+			throw new BadRequestException("Ratings cannot be empty.");
+		}
+
+		DataController controller = (DataController) context.getAttribute(DataController.NAME);
+		if (ratings.getRatings().size() > controller.getRatingsBatchMax())
+		{
+			throw new BadRequestException("Too many ratings: " + ratings.getRatings().size() + ", at most "
+					+ controller.getRatingsBatchMax() + " ratings are accepted in one request.");
+		}
+		if (!controller.isContentProvider(cp))
+		{
+			throw new ContentProviderDoesNotExist(cp);
+		}
+		if (!controller.isCollection(cp, collection))
+		{
+			throw new CollectionDoesNotExistException(cp, collection);
+		}
+
+		final List<Rating> list = ratings.getRatings();
+		final List<RatingError> errors = new ArrayList<RatingError>();
+
+		// check all items at once:
+		List<Long> items = new ArrayList<Long>(list.size());
+		for (Rating rating : list)
+		{
+			items.add(rating == null ? null : rating.getItem());
+		}
+		boolean[] exists = controller.isCollectionItems(cp, collection, items);
+
+		// as for a single rating, the date of a rating is the time it's received:
+		final long now = System.currentTimeMillis();
+		List<Rating> accepted = new ArrayList<Rating>(list.size());
+		List<Integer> indexes = new ArrayList<Integer>(list.size());
+		for (int i = 0; i < list.size(); i++)
+		{
+			Rating rating = list.get(i);
+			if (rating == null)
+			{
+				errors.add(new RatingError(i, null, null, "rating is empty"));
+			}
+			else if (rating.getUser() == null)
+			{
+				errors.add(new RatingError(i, null, rating.getItem(), "'user'-id is missing in the rating"));
+			}
+			else if (rating.getItem() == null)
+			{
+				errors.add(new RatingError(i, rating.getUser(), null, "'item'-id is missing in the rating"));
+			}
+			else if (!exists[i])
+			{
+				errors.add(new RatingError(i, rating.getUser(), rating.getItem(), "item-id [" + rating.getItem()
+						+ "] does not exist"));
+			}
+			else
+			{
+				rating.setDate(now);
+				// force the collection, in-case it's not set already:
+				rating.setCollection(collection);
+				accepted.add(rating);
+				indexes.add(i);
+			}
+		}
+
+		int stored = 0;
+		if (!accepted.isEmpty())
+		{
+			StoredRatings result = controller.setRatings(cp, collection, accepted, TimeUnit.MILLISECONDS);
+			// one per user and item, a rating replaced by a later one in the same request is not counted:
+			stored = result.getStored().size();
+			List<Rating> failed = result.getFailed();
+			if (!failed.isEmpty())
+			{
+				// report every record of a failed user and item, also the ones it replaced in this batch:
+				Set<String> keys = new HashSet<String>();
+				for (Rating rating : failed)
+				{
+					keys.add(rating.getUser() + "/" + rating.getItem());
+				}
+				for (int i = 0; i < accepted.size(); i++)
+				{
+					Rating rating = accepted.get(i);
+					if (keys.contains(rating.getUser() + "/" + rating.getItem()))
+					{
+						errors.add(new RatingError(indexes.get(i), rating.getUser(), rating.getItem(),
+								"rating could not be stored, please try again"));
+					}
+				}
+				Collections.sort(errors, new Comparator<RatingError>()
+				{
+					@Override
+					public int compare(RatingError o1, RatingError o2)
+					{
+						return o1.getIndex() < o2.getIndex() ? -1 : (o1.getIndex() == o2.getIndex() ? 0 : 1);
+					}
+				});
+			}
+		}
+		LOG.debug("stored {} ratings, rejected {}", stored, errors.size());
+
+		return new RatingsResult(stored, errors.isEmpty() ? null : errors);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -26,6 +26,7 @@ import nl.gridline.zieook.data.controller.StatisticsDataController;
 import nl.gridline.zieook.exceptions.CollectionDoesNotExistException;
 import nl.gridline.zieook.exceptions.ContentProviderDoesNotExist;
 import nl.gridline.zieook.exceptions.DoesNotExists;
+import nl.gridline.zieook.mapreduce.Leaderboards;
 import nl.gridline.zieook.model.CollectionItems;
 import nl.gridline.zieook.model.Groups;
 import nl.gridline.zieook.model.Popularities;
@@ -61,7 +62,7 @@ public class CollectionStatisticsImpl implements CollectionStatistics
 	 * java.lang.Long, java.lang.Integer)
 	 */
 	@Override
-	public Groups topRated(String cp, String collection, Long startDate, Long endDate, Integer size)
+	public Groups topRated(String cp, String collection, Long startDate, Long endDate, String window, Integer size)
 	{
 		LOG.debug("get sources <cp,collection> : <{},{}>", cp, collection);
 		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
@@ -81,7 +82,7 @@ public class CollectionStatisticsImpl implements CollectionStatistics
 			size = 100;
 		}
 
-		return controller.topRated(cp, collection, startDate, endDate, size.intValue());
+		return controller.topRated(cp, collection, startDate, endDate, window, size.intValue());
 	}
 
 	/*
@@ -91,7 +92,8 @@ public class CollectionStatisticsImpl implements CollectionStatistics
 	 * java.lang.Long, java.lang.Long, java.lang.Integer)
 	 */
 	@Override
-	public CollectionItems topRatedAsCollection(String cp, String collection, Long startTime, Long endTime, Integer size)
+	public CollectionItems topRatedAsCollection(String cp, String collection, Long startTime, Long endTime,
+			String window, Integer size)
 	{
 		LOG.debug("get sources <cp,collection> : <{},{}>", cp, collection);
 		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
@@ -111,7 +113,7 @@ public class CollectionStatisticsImpl implements CollectionStatistics
 			size = 100;
 		}
 
-		return controller.topRatedAsCollection(cp, collection, startTime, endTime, size.intValue());
+		return controller.topRatedAsCollection(cp, collection, startTime, endTime, window, size.intValue());
 	}
 
 	/*
@@ -290,4 +292,39 @@ public class CollectionStatisticsImpl implements CollectionStatistics
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see nl.gridline.zieook.api.CollectionStatistics#trending(java.lang.String, java.lang.String, java.lang.String,
+	 * java.lang.String, java.lang.Integer)
+	 */
+	@Override
+	public Groups trending(String cp, String collection, String list, String window, Integer size)
+	{
+		LOG.debug("get trending <cp,collection,list> : <{},{}>", cp, collection + "," + list);
+
+		if (!Leaderboards.RATED.equals(list) && !Leaderboards.RECOMMENDED.equals(list))
+		{
+			throw new DoesNotExists("list '{}' does not exist", list);
+		}
+
+		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
+		if (!datacontroller.isContentProvider(cp))
+		{
+			throw new ContentProviderDoesNotExist(cp);
+		}
+		if (!datacontroller.isCollection(cp, collection))
+		{
+			throw new CollectionDoesNotExistException(cp, collection);
+		}
+		StatisticsDataController controller = (StatisticsDataController) context
+				.getAttribute(StatisticsDataController.NAME);
+
+		if (size == null)
+		{
+			size = 100;
+		}
+
+		return controller.getTrending(cp, list, collection, window, size.intValue());
+	}
 }
@@ -24,7 +24,9 @@ import nl.gridline.zieook.api.RecommenderStatistics;
 import nl.gridline.zieook.data.controller.DataController;
 import nl.gridline.zieook.data.controller.StatisticsDataController;
 import nl.gridline.zieook.exceptions.ContentProviderDoesNotExist;
+import nl.gridline.zieook.exceptions.DoesNotExists;
 import nl.gridline.zieook.exceptions.RecommenderDoesNotExist;
+import nl.gridline.zieook.mapreduce.Leaderboards;
 import nl.gridline.zieook.model.Groups;
 
 import org.slf4j.Logger;
@@ -81,7 +83,8 @@ public class RecommenderStatisticsImpl implements RecommenderStatistics
 	 * java.lang.Integer, java.lang.Long, java.lang.Long)
 	 */
 	@Override
-	public Groups topSources(String cp, String recommender, Long startDate, Long endDate, Integer size)
+	public Groups topSources(String cp, String recommender, Long startDate, Long endDate, String window,
+			Integer size)
 	{
 		LOG.debug("get top sources <cp,recommender> : <{},{}>", cp, recommender);
 
@@ -103,7 +106,7 @@ public class RecommenderStatisticsImpl implements RecommenderStatistics
 			size = 100;
 		}
 
-		return controller.getTopSources(cp, recommender, startDate, endDate, size.intValue());
+		return controller.getTopSources(cp, recommender, startDate, endDate, window, size.intValue());
 
 	}
 
@@ -114,7 +117,8 @@ public class RecommenderStatisticsImpl implements RecommenderStatistics
 	 * java.lang.Long, java.lang.Integer)
 	 */
 	@Override
-	public Groups topViewed(String cp, String recommender, Long startDate, Long endDate, Integer size)
+	public Groups topViewed(String cp, String recommender, Long startDate, Long endDate, String window,
+			Integer size)
 	{
 		LOG.debug("get top views <cp,recommender> : <{},{}>", cp, recommender);
 
@@ -136,7 +140,44 @@ public class RecommenderStatisticsImpl implements RecommenderStatistics
 			size = 100;
 		}
 
-		return controller.getTopViewed(cp, recommender, startDate, endDate, size.intValue());
+		return controller.getTopViewed(cp, recommender, startDate, endDate, window, size.intValue());
 
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see nl.gridline.zieook.api.RecommenderStatistics#trending(java.lang.String, java.lang.String,
+	 * java.lang.String, java.lang.String, java.lang.Integer)
+	 */
+	@Override
+	public Groups trending(String cp, String recommender, String list, String window, Integer size)
+	{
+		LOG.debug("get trending <cp,recommender,list> : <{},{}>", cp, recommender + "," + list);
+
+		if (!Leaderboards.VIEWED.equals(list) && !Leaderboards.SOURCES.equals(list))
+		{
+			throw new DoesNotExists("list '{}' does not exist", list);
+		}
+
+		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
+		if (!datacontroller.isContentProvider(cp))
+		{
+			throw new ContentProviderDoesNotExist(cp);
+		}
+		if (!datacontroller.isRecommender(cp, recommender))
+		{
+			throw new RecommenderDoesNotExist(cp, recommender);
+		}
+
+		StatisticsDataController controller = (StatisticsDataController) context
+				.getAttribute(StatisticsDataController.NAME);
+
+		if (size == null)
+		{
+			size = 100;
+		}
+
+		return controller.getTrending(cp, list, recommender, window, size.intValue());
+	}
 }
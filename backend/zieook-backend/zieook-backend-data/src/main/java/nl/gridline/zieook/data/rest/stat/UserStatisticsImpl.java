@@ -56,7 +56,8 @@ public class UserStatisticsImpl implements UserStatistics
 	 * java.lang.Long, java.lang.Long, java.lang.Integer)
 	 */
 	@Override
-	public Groups topRecommended(String cp, String collection, long user, Long startTime, Long endTime, Integer size)
+	public Groups topRecommended(String cp, String collection, long user, Long startTime, Long endTime, String window,
+			Integer size)
 	{
 		LOG.debug("get recommended <cp,recommender> : <{},{}>", cp, collection);
 		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
@@ -82,7 +83,7 @@ public class UserStatisticsImpl implements UserStatistics
 			sizeValue = size.intValue();
 		}
 
-		return controller.topRecommended(cp, collection, user, startTime, endTime, sizeValue);
+		return controller.topRecommended(cp, collection, user, startTime, endTime, window, sizeValue);
 	}
 
 	/*
@@ -93,7 +94,7 @@ public class UserStatisticsImpl implements UserStatistics
 	 */
 	@Override
 	public CollectionItems topRecommendedAsCollection(String cp, String collection, long user, Long startTime,
-			Long endTime, Integer size)
+			Long endTime, String window, Integer size)
 	{
 		LOG.debug("get recommended <cp,recommender> : <{},{}>", cp, collection);
 		DataController datacontroller = (DataController) context.getAttribute(DataController.NAME);
@@ -109,7 +110,7 @@ public class UserStatisticsImpl implements UserStatistics
 		StatisticsDataController controller = (StatisticsDataController) context
 				.getAttribute(StatisticsDataController.NAME);
 
-		return controller.topRecommendedAsCollection(cp, collection, user, startTime, endTime, size);
+		return controller.topRecommendedAsCollection(cp, collection, user, startTime, endTime, window, size);
 	}
 
 	/*
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the merge and the deadline of the multi source executor
+ * <p />
+ * Project zieook-backend-data<br />
+ * MultiSourceExecutorTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MultiSourceExecutorTest
+{
+	private static final Comparator<Integer> DESCENDING = Collections.reverseOrder();
+
+	private MultiSourceExecutor executor;
+
+	@Before
+	public void setUp()
+	{
+		executor = new MultiSourceExecutor(4, 500);
+	}
+
+	@After
+	public void tearDown()
+	{
+		executor.shutdown();
+	}
+
+	@Test
+	public void testMerge()
+	{
+		List<List<Integer>> sorted = new ArrayList<List<Integer>>();
+		sorted.add(Arrays.asList(9, 5, 1));
+		sorted.add(Collections.<Integer> emptyList());
+		sorted.add(Arrays.asList(8, 7, 6, 2));
+		sorted.add(Arrays.asList(4, 3));
+
+		assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1), MultiSourceExecutor.merge(sorted, DESCENDING, 100));
+		assertEquals(Arrays.asList(9, 8, 7), MultiSourceExecutor.merge(sorted, DESCENDING, 3));
+		assertTrue(MultiSourceExecutor.merge(sorted, DESCENDING, 0).isEmpty());
+	}
+
+	@Test
+	public void testExecute()
+	{
+		List<Callable<List<Integer>>> sources = new ArrayList<Callable<List<Integer>>>();
+		sources.add(source(0, 3, 1));
+		sources.add(source(0, 4, 2));
+
+		MultiSourceExecutor.Results<Integer> results = executor.execute(sources);
+		assertFalse(results.isPartial());
+		assertNull(results.getPartial());
+		assertEquals(Arrays.asList(4, 3, 2, 1), MultiSourceExecutor.merge(results.getLists(), DESCENDING, 10));
+	}
+
+	@Test
+	public void testTimeout()
+	{
+		List<Callable<List<Integer>>> sources = new ArrayList<Callable<List<Integer>>>();
+		sources.add(source(0, 3, 1));
+		sources.add(source(5000, 4, 2));
+
+		long start = System.currentTimeMillis();
+		MultiSourceExecutor.Results<Integer> results = executor.execute(sources);
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		assertTrue(results.isPartial());
+		assertEquals(Boolean.TRUE, results.getPartial());
+		assertEquals(Arrays.asList(3, 1), MultiSourceExecutor.merge(results.getLists(), DESCENDING, 10));
+		assertEquals(1, executor.getTimedOut());
+	}
+
+	private static Callable<List<Integer>> source(final long delay, final Integer... values)
+	{
+		return new Callable<List<Integer>>()
+		{
+			@Override
+			public List<Integer> call() throws Exception
+			{
+				Thread.sleep(delay);
+				return Arrays.asList(values);
+			}
+		};
+	}
+}
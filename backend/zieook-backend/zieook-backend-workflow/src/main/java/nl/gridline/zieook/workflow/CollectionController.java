@@ -206,6 +206,7 @@ public class CollectionController implements ZieOokManager
 			deleteCollection(cp, collection.getName());
 
 			collectionMetaTable.putCollection(cp, collection);
+			cpTable.putMetadataUpdated(cp);
 			// and create the table:
 
 		}
@@ -247,6 +248,7 @@ public class CollectionController implements ZieOokManager
 			LOG.info("updating collection <{}>  collection:\n {}", cp, collection.toJSON());
 
 			collectionMetaTable.putCollection(cp, collection);
+			cpTable.putMetadataUpdated(cp);
 		}
 		else
 		{
@@ -353,6 +355,7 @@ public class CollectionController implements ZieOokManager
 
 		// finally delete the collection meta data:
 		collectionMetaTable.deleteCollection(cp, collection);
+		cpTable.putMetadataUpdated(cp);
 
 		LOG.info("collection for <{},{}> removed", cp, collection);
 	}
@@ -32,6 +32,7 @@ import nl.gridline.zieook.data.hbase.dao.ContentProviderTable;
 import nl.gridline.zieook.data.hbase.dao.EventLogTable;
 import nl.gridline.zieook.data.hbase.dao.RecommenderTable;
 import nl.gridline.zieook.data.hbase.dao.TemplateTable;
+import nl.gridline.zieook.data.hbase.dao.UserTable;
 import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.data.hbase.model.HBaseEventLogTable;
@@ -223,6 +224,7 @@ public class WorkflowController implements ZieOokManager
 	public void createRecommender(String cp, RecommenderConfig recommender)
 	{
 		recommenderTable.putRecommender(recommender);
+		cpTable.putMetadataUpdated(cp);
 	}
 
 	/**
@@ -239,6 +241,7 @@ public class WorkflowController implements ZieOokManager
 			recommenderTable.deleteRecommender(cp, recommender);
 		}
 		recommenderTable.putRecommender(update);
+		cpTable.putMetadataUpdated(cp);
 	}
 
 	/**
@@ -254,6 +257,7 @@ public class WorkflowController implements ZieOokManager
 
 		eventLogTable.deleteViews(cp, recommender);
 		eventLogTable.deleteRecommend(cp, recommender);
+		cpTable.putMetadataUpdated(cp);
 	}
 
 	/**
@@ -333,6 +337,10 @@ public class WorkflowController implements ZieOokManager
 		if (result)
 		{
 			cpTable.putContentProvider(cp);
+			cpTable.putMetadataUpdated(cp.getName());
+
+			// a new user table has no ratings to back fill, the rating index is complete from the start:
+			new UserTable(new HBaseUserTable(manager)).setRatingIndexReady(cp.getName());
 		}
 		else
 		{
@@ -367,6 +375,7 @@ public class WorkflowController implements ZieOokManager
 		// renamed, and that's very hard to accomplish. it
 		// means we would have to rename a lot of stuff!
 		cpTable.putContentProvider(cp);
+		cpTable.putMetadataUpdated(cp.getName());
 	}
 
 	/**
@@ -394,6 +403,7 @@ public class WorkflowController implements ZieOokManager
 
 		// delete meta data for this content provider:
 		cpTable.deleteContentProvider(cp);
+		cpTable.deleteMetadataUpdated(cp);
 
 	}
 
@@ -492,7 +502,7 @@ public class WorkflowController implements ZieOokManager
 		// create tables that are related to a specific content provider
 		HBaseCollectionTable cptable = new HBaseCollectionTable(manager);
 		HBaseRecommendationTable rdtable = new HBaseRecommendationTable(manager);
-		HBaseEventLogTable ustable = new HBaseEventLogTable(manager);
+		HBaseEventLogTable ustable = new HBaseEventLogTable(manager, config.getInt(Config.HBASE_EVENTLOG_BUCKETS, 0));
 		HBaseStatisticsTable stable = new HBaseStatisticsTable(manager);
 		HBaseUserTable utable = new HBaseUserTable(manager);
 
@@ -23,6 +23,8 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import nl.gridline.zieook.commons.ZieOokCommons;
@@ -31,7 +33,11 @@ import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.data.hbase.HBaseManager;
 import nl.gridline.zieook.data.hbase.dao.CollectionMetaTable;
 import nl.gridline.zieook.data.hbase.dao.ContentProviderTable;
+import nl.gridline.zieook.data.hbase.dao.NameDictionary;
+import nl.gridline.zieook.data.hbase.dao.RecommendationTable;
+import nl.gridline.zieook.data.hbase.dao.RecommenderTable;
 import nl.gridline.zieook.data.hbase.dao.TaskTable;
+import nl.gridline.zieook.data.hbase.dao.UserTable;
 import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.data.hbase.model.HBaseEventLogTable;
@@ -41,10 +47,12 @@ import nl.gridline.zieook.data.hbase.model.HBaseUserTable;
 import nl.gridline.zieook.exceptions.DistrQueueException;
 import nl.gridline.zieook.exceptions.PropertyConfigurationException;
 import nl.gridline.zieook.exceptions.RecommenderModuleUnknownException;
+import nl.gridline.zieook.mapreduce.KeyCodec;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.tasks.DataFileImportTask;
 import nl.gridline.zieook.tasks.ItemBasedRecommenderTask;
 import nl.gridline.zieook.tasks.OAIImportTask;
+import nl.gridline.zieook.tasks.RatingIndexTask;
 import nl.gridline.zieook.tasks.StatisticsTask;
 import nl.gridline.zieook.tasks.TaalServerTask;
 import nl.gridline.zieook.tasks.UserBasedRecommenderTask;
@@ -52,6 +60,7 @@ import nl.gridline.zieook.tasks.ZieOokTask;
 import nl.gridline.zieook.tasks.ZieOokTask.Level;
 import nl.gridline.zieook.workflow.model.Collection;
 import nl.gridline.zieook.workflow.model.CollectionFilter;
+import nl.gridline.zieook.workflow.model.ContentProvider;
 import nl.gridline.zieook.workflow.model.Module;
 import nl.gridline.zieook.workflow.model.Property;
 import nl.gridline.zieook.workflow.model.RecommenderConfig;
@@ -86,6 +95,9 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 
 	public static final String ZIEOOK_SCHEDULER = "nl.zieook.workflow.scheduler";
 
+	// delay of the rating index back fill: longer than the index check interval of the data servers
+	private static final long RATING_INDEX_DELAY = 2 * 60 * 1000;
+
 	private static final Logger LOG = LoggerFactory.getLogger(WorkflowScheduler.class);
 
 	// scheduler state after init
@@ -108,11 +120,27 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 
 	private CollectionMetaTable collectionTable;
 
+	// recommender table, to mark updated recommender models
+	private RecommenderTable recommenderTable;
+
+	// recommendation table & background thread, to remove model generations that are no longer used
+	private RecommendationTable recommendationTable;
+	private ExecutorService modelCleaner;
+
+	// dictionary ids of the names in binary row keys, and the row key version recommendations are written with:
+	private NameDictionary dictionary;
+	private int rowKeyVersion;
+
+	// user table, to check the state of the rating index
+	private HBaseUserTable hUserTable;
+	private HBaseStatisticsTable hStatisticsTable;
+	private UserTable userTable;
+
 	// worker thread, that allows scheduling:
 	private Thread worker;
 
 	// stop flag, in case the system if going to shutdown:
-	private boolean stop;
+	private volatile boolean stop;
 
 	private ZieOokTaskExecutor executor;
 
@@ -144,25 +172,50 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 				table.create();
 			}
 
-			executor = new ZieOokTaskExecutor(threadCnt);
+			// a finished task frees a thread, let the worker pick up the next task directly:
+			executor = new ZieOokTaskExecutor(threadCnt, new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					ZieOokScheduler s = scheduler;
+					if (s != null)
+					{
+						s.wakeup();
+					}
+				}
+			});
 
 			// table contains task configuration:
 			taskTable = new TaskTable(table);
 			// contains content provider meta data:
 			cpTable = new ContentProviderTable(table);
 
-			// scheduler knows when tasks need to be executed:
-			scheduler = new ZieOokScheduler(zookeeper, retries, timeout);
+			// scheduler knows when tasks need to be executed, the queue is re-read at least every heartbeat:
+			scheduler = new ZieOokScheduler(zookeeper, retries, timeout, heartbeat);
 
 			// executor executes tasks:
 
 			collectionTable = new CollectionMetaTable(table);
 
+			recommenderTable = new RecommenderTable(table);
+			dictionary = new NameDictionary(table);
+			rowKeyVersion = config.getInt(Config.HBASE_ROWKEYS_VERSION, KeyCodec.VERSION);
+			recommendationTable = new RecommendationTable(new HBaseRecommendationTable(
+					HBaseManager.getInstance(zookeeper)), null, dictionary);
+			modelCleaner = Executors.newSingleThreadExecutor();
+
+			hUserTable = new HBaseUserTable(HBaseManager.getInstance(zookeeper));
+			hStatisticsTable = new HBaseStatisticsTable(HBaseManager.getInstance(zookeeper));
+			userTable = new UserTable(hUserTable);
+
 			// start he scheduler:
 			stop = false;
 			worker = new Thread(this, "worker");
 			worker.start();
 
+			scheduleRatingIndexes();
+
 		}
 		else
 		{
@@ -175,8 +228,11 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 	public void shutdown() throws Exception
 	{
 		LOG.info("Shutting down workflow scheduler");
-		// shutdown the scheduler: (which will cause exceptions)
+		// shutdown the worker thread:
+		LOG.info("stopping heartbeat monitor");
+		stop = true;
 
+		// shutdown the scheduler: (which will cause exceptions)
 		if (scheduler != null)
 		{
 			scheduler.shutdown();
@@ -188,15 +244,15 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 			executor.shutdown();
 		}
 
-		// shutdown the worker thread:
-		LOG.info("stopping heartbeat monitor");
-		stop = true;
-
-		// wait: at least three heart beats
-		Thread.sleep(heartbeat * 3);
+		if (modelCleaner != null)
+		{
+			modelCleaner.shutdown();
+		}
 
 		if (worker != null)
 		{
+			// wait: at most three heart beats
+			worker.join(heartbeat * 3);
 			if (worker.isAlive())
 			{
 				LOG.info("worker thread is still alive, try to kill it");
@@ -321,7 +377,7 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 	 */
 	public TaskConfig createStatistics(String cp) throws IOException
 	{
-		String outputTable = new HBaseStatisticsTable().getTableName(cp);
+		String outputTable = hStatisticsTable.getTableName(cp);
 		String eventlogTable = new HBaseEventLogTable().getTableName(cp);
 		String userTable = new HBaseUserTable().getTableName(cp);
 		String collection = null;
@@ -336,6 +392,12 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 			throw new IOException("cp has no collections? - data corruption! or nothing to do yet");
 		}
 
+		// older tables don't have the top list family yet:
+		if (hStatisticsTable.update(cp))
+		{
+			LOG.info("added the leaderboard family to the statistics table of <{}>", cp);
+		}
+
 		TaskConfig task = new TaskConfig();
 		Config config = Config.getInstance();
 
@@ -363,6 +425,81 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 		return task;
 	}
 
+	/**
+	 * Create a task that back fills the rating index of the given content provider
+	 * @param cp content provider
+	 * @return a new {@code TaskConfig} configuration.
+	 */
+	public TaskConfig createRatingIndexTask(String cp)
+	{
+		TaskConfig task = new TaskConfig();
+
+		task.setProperty(TaskConfig.CLASSNAME, RatingIndexTask.class.getCanonicalName());
+		task.setProperty(TaskConfig.TASK_TYPE, TaskConfig.TASK_TYPE_RATING_INDEX);
+		task.setProperty(TaskConfig.INPUT_TABLE, hUserTable.getTableName(cp));
+		task.setProperty(TaskConfig.CP, cp);
+
+		// run once, after the data servers noticed the index family, so no new rating is missed:
+		task.setNext(System.currentTimeMillis() + RATING_INDEX_DELAY, TimeUnit.MILLISECONDS);
+		task.setInterval(-1, TimeUnit.SECONDS);
+
+		LOG.debug("created rating index task for <{}> : {}", cp, task);
+		return task;
+	}
+
+	/**
+	 * Schedule the back fill of the rating index of a content provider, unless the index is ready or the back fill is
+	 * already scheduled. The user table should have the index family, tables are only altered by
+	 * <tt>--update-tables</tt> of the process updates tool.
+	 * @param cp content provider
+	 * @return <tt>true</tt> if a task was scheduled
+	 * @throws IOException
+	 */
+	public boolean scheduleRatingIndex(String cp) throws IOException
+	{
+		if (userTable.isRatingIndexReady(cp))
+		{
+			return false;
+		}
+
+		List<Long> scheduled = taskTable.searchTasks(cp, TaskConfig.TASK_TYPE_RATING_INDEX, null,
+				System.currentTimeMillis(), -1);
+		if (scheduled.size() > 0)
+		{
+			return false;
+		}
+
+		if (!userTable.isRatingIndexed(cp))
+		{
+			LOG.warn("user table of <{}> has no rating index family, run the table update first", cp);
+			return false;
+		}
+
+		schedule(createRatingIndexTask(cp));
+		return true;
+	}
+
+	/**
+	 * schedule the rating index back fill for all content providers that do not have a complete index yet
+	 */
+	private void scheduleRatingIndexes()
+	{
+		for (ContentProvider cp : cpTable.getContentProviders())
+		{
+			try
+			{
+				if (scheduleRatingIndex(cp.getName()))
+				{
+					LOG.info("scheduled rating index for <{}>", cp.getName());
+				}
+			}
+			catch (IOException e)
+			{
+				LOG.error("failed to schedule the rating index for " + cp.getName(), e);
+			}
+		}
+	}
+
 	/**
 	 * Cancel the statistics running and scheduled task for the given content provider
 	 * @param cp content provider name
@@ -889,25 +1026,22 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 		LOG.info("Starting ZieOok scheduler worker thread");
 		try
 		{
-			while (!stop || !Thread.interrupted())
+			while (!stop && !Thread.currentThread().isInterrupted())
 			{
+				// clean-up & report executed tasks:
+				cleanup();
 
-				LOG.debug("HeartBeat - (every {}ms)", heartbeat);
-				// execute pending tasks, if the executor has space:
-
-				if (executor.canExecuteNow())
+				// execute released tasks, as many as the executor has space for. This returns as soon as a task is
+				// released, when a task finished, or after a heartbeat:
+				int free = executor.getFree();
+				if (free == 0)
 				{
-					execute();
+					LOG.debug("no space on executor ({}/{}) waiting", executor.getActiveCount(), executor.getSize());
 				}
-				else
+				for (long id : scheduler.poll(free, heartbeat))
 				{
-					LOG.debug("no space on executor ({}/{}) waiting", executor.getActiveCount(), executor.getSize());
+					execute(id);
 				}
-
-				// clean-up & report executed tasks:
-				cleanup();
-
-				Thread.sleep(heartbeat);
 			}
 		}
 		catch (InterruptedException e)
@@ -923,15 +1057,8 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 		LOG.info("WORKER THREAD STOP - System scheduler halt - if you're not running a shutdown, the system has failed and should be restarted");
 	}
 
-	private void execute() throws InterruptedException
+	private void execute(long id)
 	{
-		// poll for new tasks:
-		long id = scheduler.poll(heartbeat / 3);
-		if (id == -1)
-		{
-			return;
-		}
-
 		LOG.info("Executing task with id {}", id);
 
 		// read the task from the hbase:
@@ -979,6 +1106,15 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 				}
 				// runnable.setConfig(task); // allows to schedule for next task
 
+				// a recommender writes a new model generation, or updates the active one:
+				if (TaskConfig.TASK_TYPE_RECOMMENDER.equals(task.get(TaskConfig.TASK_TYPE)))
+				{
+					long active = recommenderTable.getModelGeneration(task.get(TaskConfig.CP),
+							task.get(TaskConfig.RECOMMENDER));
+					task.setProperty(TaskConfig.MODEL_GENERATION_ACTIVE, active);
+					setDictionaryIds(task);
+				}
+
 				task.setRunning();
 				executor.executeTask(runnable);
 			}
@@ -1047,6 +1183,12 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 				// write to task table:
 				taskTable.updateTask(t);
 
+				// a new recommender model is written, switch to it & let the data servers know:
+				if (TaskConfig.TASK_TYPE_RECOMMENDER.equals(t.get(TaskConfig.TASK_TYPE)))
+				{
+					updateModelGeneration(t);
+				}
+
 				// schedule remove from executor:
 				remove.add(t.getId());
 			}
@@ -1083,6 +1225,85 @@ public class WorkflowScheduler implements ZieOokManager, Runnable
 
 	}
 
+	/**
+	 * Set the dictionary ids of the collection and recommender of a recommender task, so the recommendations are
+	 * written with binary row keys. They are removed if binary keys are switched off or the ids can't be assigned, the
+	 * task writes string keys in that case.
+	 * @param task a recommender task
+	 */
+	private void setDictionaryIds(TaskConfig task)
+	{
+		final String collection = task.get(TaskConfig.COLLECTION);
+		final String recommender = task.get(TaskConfig.RECOMMENDER);
+		if (rowKeyVersion >= KeyCodec.VERSION && collection != null && recommender != null)
+		{
+			try
+			{
+				task.setProperty(TaskConfig.COLLECTION_ID, dictionary.getId(NameDictionary.COLLECTION, collection));
+				task.setProperty(TaskConfig.RECOMMENDER_ID, dictionary.getId(NameDictionary.RECOMMENDER, recommender));
+				return;
+			}
+			catch (IOException e)
+			{
+				LOG.error("failed to get the dictionary ids of " + recommender + ", writing string row keys", e);
+			}
+		}
+		task.remove(TaskConfig.COLLECTION_ID);
+		task.remove(TaskConfig.RECOMMENDER_ID);
+	}
+
+	/**
+	 * Activate the model generation written by a successful recommender task. The generation that is no longer used by
+	 * the data servers, or the generation written by a failed task, is removed in the background.
+	 * @param t a finished recommender task
+	 */
+	private void updateModelGeneration(TaskConfig t)
+	{
+		final String cp = t.get(TaskConfig.CP);
+		final String recommender = t.get(TaskConfig.RECOMMENDER);
+		final long generation = t.getLong(TaskConfig.MODEL_GENERATION, 0);
+		long unused = -1;
+		if (t.isSucceeded())
+		{
+			unused = recommenderTable.putModelGeneration(cp, recommender, generation, System.currentTimeMillis());
+		}
+		else
+		{
+			long[] generations = recommenderTable.getModelGenerations(cp, recommender);
+			if (generation != generations[0] && generation != generations[1])
+			{
+				unused = generation;
+			}
+		}
+
+		// generation 0 is the unversioned model, its rows are removed as well once nothing refers to it:
+		if (unused >= 0)
+		{
+			deleteModelGeneration(cp, t.get(TaskConfig.COLLECTION), recommender, unused);
+		}
+	}
+
+	private void deleteModelGeneration(final String cp, final String collection, final String recommender,
+			final long generation)
+	{
+		LOG.info("removing model generation {} of {}", generation, cp + "/" + recommender);
+		modelCleaner.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					recommendationTable.deleteModelGeneration(cp, collection, recommender, generation);
+				}
+				catch (RuntimeException e)
+				{
+					LOG.error("failed to remove model generation " + generation + " of " + cp + "/" + recommender, e);
+				}
+			}
+		});
+	}
+
 	private ZieOokTask create(String name)
 	{
 		ZieOokTask result = null;
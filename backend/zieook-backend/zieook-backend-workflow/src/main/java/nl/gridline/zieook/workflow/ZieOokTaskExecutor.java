@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import nl.gridline.zieook.mapreduce.TaskConfig;
@@ -55,16 +56,49 @@ public class ZieOokTaskExecutor
 	private final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
 	private final int size;
 
+	// submitted tasks that did not finish yet:
+	private final AtomicInteger pending = new AtomicInteger();
+
 	public ZieOokTaskExecutor(int size)
+	{
+		this(size, null);
+	}
+
+	/**
+	 * @param size number of tasks that can execute at the same time
+	 * @param done called from the task thread after every task that finished, may be null
+	 */
+	public ZieOokTaskExecutor(int size, final Runnable done)
 	{
 		this.size = size;
 		delegate = new ArrayList<TaskRunner>(size);
-		executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+		executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>())
+		{
+			@Override
+			protected void afterExecute(Runnable r, Throwable t)
+			{
+				pending.decrementAndGet();
+				if (done != null)
+				{
+					done.run();
+				}
+			}
+		};
 	}
 
 	public boolean canExecuteNow()
 	{
-		return executor.getActiveCount() < size;
+		return getFree() > 0;
+	}
+
+	/**
+	 * return the number of tasks that can be submitted without waiting for a thread. Unlike
+	 * {@link #getActiveCount()} this counts submitted tasks that did not start yet.
+	 * @return the number of free threads
+	 */
+	public int getFree()
+	{
+		return Math.max(0, size - pending.get());
 	}
 
 	/**
@@ -105,6 +139,7 @@ public class ZieOokTaskExecutor
 		{
 			TaskRunner runnable = new TaskRunner(task);
 			delegate.add(runnable);
+			pending.incrementAndGet();
 			executor.execute(runnable);
 		}
 		finally
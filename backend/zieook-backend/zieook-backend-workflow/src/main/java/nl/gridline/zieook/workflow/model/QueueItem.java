@@ -21,7 +21,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 /**
- * Item with id and timeout, designed for use with the DistributedQueue
+ * Item with id and timeout, designed for use with the DistributedQueue. The node name of a queued item holds both
+ * the timeout (release time) and the id: <tt>qn-timeout-id-sequence</tt>, so the queue can be ordered and listed
+ * without reading the data of the nodes. Nodes of older versions are named <tt>qn-timeout-sequence</tt> and keep
+ * the id in their data.
  * <p />
  * Project zieook-backend-workflow<br />
  * QueueItem.java created 15 dec. 2010
@@ -34,27 +37,93 @@ public class QueueItem
 {
 	private final long id;
 	private final long timeout;
+	private final String node;
 
 	public QueueItem(long timeout, long id)
 	{
 		this.id = id;
 		this.timeout = timeout;
+		this.node = null;
 	}
 
-	public QueueItem(String node, byte[] id) throws IOException
+	/**
+	 * Create an item from a node name that holds the id, see {@link #hasId(String)}
+	 * @param node node name
+	 * @throws IOException if the node name is not a valid queue item
+	 */
+	public QueueItem(String node) throws IOException
 	{
 		String[] path = node.split("-");
-		if (path.length >= 1)
+		if (path.length < 4)
+		{
+			throw new IOException("Node name is not a valid queue item: " + node);
+		}
+		this.node = node;
+		try
 		{
 			timeout = Long.parseLong(path[1]);
+			id = Long.parseLong(path[2]);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IOException("Node name is not a valid queue item: " + node, e);
+		}
+	}
+
+	public QueueItem(String node, byte[] id) throws IOException
+	{
+		String[] path = node.split("-");
+		if (path.length >= 2)
+		{
+			try
+			{
+				timeout = Long.parseLong(path[1]);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IOException("Node name is not a valid queue item: " + node, e);
+			}
 		}
 		else
 		{
 			throw new IOException("Node name is not a valid queue item: " + node);
 		}
+		if (id == null || id.length != 8)
+		{
+			throw new IOException("Node data is not a valid queue item id: " + node);
+		}
+		this.node = node;
 		this.id = ByteBuffer.wrap(id).getLong();
 	}
 
+	/**
+	 * Returns true if the node name holds the id, older nodes only have it in their data
+	 * @param node node name
+	 * @return true if {@link #QueueItem(String)} can read the node
+	 */
+	public static boolean hasId(String node)
+	{
+		return node.split("-").length >= 4;
+	}
+
+	/**
+	 * Returns the prefix of the node name of this item, the queue appends the sequence number
+	 * @param prefix queue node prefix
+	 * @return <tt>prefix-timeout-id-</tt>
+	 */
+	public String getNodePrefix(String prefix)
+	{
+		return prefix + timeout + '-' + id + '-';
+	}
+
+	/**
+	 * @return the node name in the queue, or null if the item is not queued
+	 */
+	public String getNode()
+	{
+		return node;
+	}
+
 	public long getId()
 	{
 		return id;
@@ -83,7 +152,7 @@ public class QueueItem
 	@Override
 	public String toString()
 	{
-		return "id=" + id + " id" + timeout;
+		return "id=" + id + " timeout=" + timeout;
 	}
 
 	@Override
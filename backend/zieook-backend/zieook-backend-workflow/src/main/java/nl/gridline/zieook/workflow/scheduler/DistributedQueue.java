@@ -19,11 +19,15 @@ package nl.gridline.zieook.workflow.scheduler;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.TreeMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import nl.gridline.zieook.workflow.model.QueueItem;
 
@@ -38,7 +42,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * An implementation of a distributed queue using ZooKeeper.
+ * An implementation of a distributed queue using ZooKeeper. Items are released at their timeout, the node names hold
+ * the timeout and the id (see {@link QueueItem}) so the queue is ordered and listed from the children names only. An
+ * item is taken by deleting its node, only one client succeeds.
  * <p />
  * Project zieook-backend-workflow<br />
  * DistributedQueue.java created 21 apr. 2011
@@ -47,7 +53,7 @@ import org.slf4j.LoggerFactory;
  * @author <a href="mailto:job@gridline.nl">Job</a>
  * @version $Revision$, $Date$
  */
-public class DistributedQueue
+public class DistributedQueue implements SharedQueue
 {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DistributedQueue.class);
@@ -59,6 +65,27 @@ public class DistributedQueue
 
 	public static final String PREFIX = "qn-";
 
+	/**
+	 * Orders the items by release time, then by node name (sequence)
+	 */
+	public static final Comparator<QueueItem> BY_TIMEOUT = new Comparator<QueueItem>()
+	{
+		@Override
+		public int compare(QueueItem o1, QueueItem o2)
+		{
+			if (o1.getTimeout() != o2.getTimeout())
+			{
+				return o1.getTimeout() < o2.getTimeout() ? -1 : 1;
+			}
+			String n1 = o1.getNode() == null ? "" : o1.getNode();
+			String n2 = o2.getNode() == null ? "" : o2.getNode();
+			return n1.compareTo(n2);
+		}
+	};
+
+	// items of older nodes, that have the id in their data, by node name:
+	private final Map<String, QueueItem> legacy = new HashMap<String, QueueItem>();
+
 	public DistributedQueue(ZooKeeper zookeeper, String dir, List<ACL> acl) throws KeeperException, InterruptedException
 	{
 		this.dir = dir;
@@ -117,72 +144,98 @@ public class DistributedQueue
 	}
 
 	/**
-	 * Returns a Map of the children, ordered by id.
+	 * Returns the items in the queue, ordered by release time. Only the children names are read, except for nodes of
+	 * older versions: those are read once.
 	 * @param watcher optional watcher on getChildren() operation.
-	 * @return map from id to child name for all children
+	 * @return the queued items
 	 */
-	private TreeMap<String, String> orderedChildren(Watcher watcher) throws KeeperException, InterruptedException
+	@Override
+	public List<QueueItem> getItems(Watcher watcher) throws KeeperException, InterruptedException
 	{
-		TreeMap<String, String> orderedChildren = new TreeMap<String, String>();
-
-		List<String> childNames = null;
-		try
-		{
-			childNames = zookeeper.getChildren(dir, watcher);
-		}
-		catch (KeeperException.NoNodeException e)
-		{
-			throw e;
-		}
-		catch (KeeperException.SessionExpiredException e1)
-		{
-			LOG.error("Session expired; {}", e1.getMessage());
-			Thread.sleep(4000); // sleep a while, otherwise this method goes crazy
-			return orderedChildren;
-		}
-
+		List<String> childNames = zookeeper.getChildren(dir, watcher);
+		List<QueueItem> result = new ArrayList<QueueItem>(childNames.size());
 		for (String childName : childNames)
 		{
+			// Check format
+			if (!childName.regionMatches(0, PREFIX, 0, PREFIX.length()))
+			{
+				LOG.warn("Found child node with improper name: " + childName);
+				continue;
+			}
 			try
 			{
-				// Check format
-				if (!childName.regionMatches(0, PREFIX, 0, PREFIX.length()))
-				{
-					LOG.warn("Found child node with improper name: " + childName);
-					continue;
-				}
-				String suffix = childName.substring(PREFIX.length());
-				// Long childId = new Long(suffix);
-				orderedChildren.put(suffix, childName);
+				result.add(QueueItem.hasId(childName) ? new QueueItem(childName) : getLegacyItem(childName));
 			}
-			catch (NumberFormatException e)
+			catch (KeeperException.NoNodeException e)
+			{
+				// Another client removed the node first
+			}
+			catch (IOException e)
 			{
 				LOG.warn("Found child node with improper format : " + childName + " " + e, e);
 			}
 		}
 
-		return orderedChildren;
+		// forget the older nodes that are gone:
+		synchronized (legacy)
+		{
+			if (!legacy.isEmpty())
+			{
+				Iterator<String> i = legacy.keySet().iterator();
+				while (i.hasNext())
+				{
+					if (!childNames.contains(i.next()))
+					{
+						i.remove();
+					}
+				}
+			}
+		}
+
+		Collections.sort(result, BY_TIMEOUT);
+		return result;
 	}
 
-	public List<QueueItem> getScheduled() throws KeeperException, InterruptedException
+	private QueueItem getLegacyItem(String childName) throws KeeperException, InterruptedException, IOException
 	{
-		TreeMap<String, String> items = orderedChildren(null);
-		List<QueueItem> result = new ArrayList<QueueItem>(items.size());
-
-		for (Map.Entry<String, String> item : items.entrySet())
+		synchronized (legacy)
 		{
-			byte[] data = zookeeper.getData(dir + "/" + item.getValue(), false, null);
-			try
+			QueueItem item = legacy.get(childName);
+			if (item == null)
 			{
-				result.add(new QueueItem(item.getKey(), data));
-			}
-			catch (IOException e)
-			{
-				LOG.warn("invalid item: '" + item.getValue() + "' was ignored");
+				item = new QueueItem(childName, zookeeper.getData(dir + "/" + childName, false, null));
+				legacy.put(childName, item);
 			}
+			return item;
 		}
+	}
 
-		return result;
+	/**
+	 * Take a queued item by deleting its node
+	 * @param item an item returned by {@link #getItems(Watcher)}
+	 * @return true if this client took the item, false if another client was first
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	@Override
+	public boolean claim(QueueItem item) throws KeeperException, InterruptedException
+	{
+		try
+		{
+			zookeeper.delete(dir + "/" + item.getNode(), -1);
+			return true;
+		}
+		catch (KeeperException.NoNodeException e)
+		{
+			// Another client deleted the node first.
+			LOG.debug("NoNode: node taken by other client");
+			return false;
+		}
+	}
+
+	public List<QueueItem> getScheduled() throws KeeperException, InterruptedException
+	{
+		return getItems(null);
 	}
 
 	// /**
@@ -250,45 +303,20 @@ public class DistributedQueue
 	 */
 	public QueueItem element() throws NoSuchElementException, KeeperException, InterruptedException, IOException
 	{
-		TreeMap<String, String> orderedChildren;
-
-		// element, take, and remove follow the same pattern.
-		// We want to return the child node with the smallest sequence number.
-		// Since other clients are remove()ing and take()ing nodes concurrently,
-		// the child with the smallest sequence number in orderedChildren might be gone by the time we check.
-		// We don't call getChildren again until we have tried the rest of the nodes in sequence order.
-		while (true)
+		List<QueueItem> items;
+		try
 		{
-			try
-			{
-				orderedChildren = orderedChildren(null);
-			}
-			catch (KeeperException.NoNodeException e)
-			{
-				throw new NoSuchElementException();
-			}
-			if (orderedChildren.size() == 0)
-			{
-				throw new NoSuchElementException();
-			}
-
-			for (String headNode : orderedChildren.values())
-			{
-				if (headNode != null)
-				{
-					try
-					{
-						byte[] data = zookeeper.getData(dir + "/" + headNode, false, null);
-						return new QueueItem(headNode, data);
-					}
-					catch (KeeperException.NoNodeException e)
-					{
-						// Another client removed the node first, try next
-					}
-				}
-			}
-
+			items = getItems(null);
+		}
+		catch (KeeperException.NoNodeException e)
+		{
+			throw new NoSuchElementException();
 		}
+		if (items.isEmpty())
+		{
+			throw new NoSuchElementException();
+		}
+		return items.get(0);
 	}
 
 	/**
@@ -301,42 +329,37 @@ public class DistributedQueue
 	 */
 	public QueueItem remove() throws NoSuchElementException, KeeperException, InterruptedException, IOException
 	{
-		TreeMap<String, String> orderedChildren;
-		// Same as for element. Should refactor this.
 		while (true)
 		{
+			List<QueueItem> items;
 			try
 			{
-				orderedChildren = orderedChildren(null);
+				items = getItems(null);
 			}
 			catch (KeeperException.NoNodeException e)
 			{
 				throw new NoSuchElementException();
 			}
-			if (orderedChildren.size() == 0)
-			{
-				throw new NoSuchElementException();
-			}
 
-			for (String headNode : orderedChildren.values())
+			// the items are ordered by release time, take the first one that's released:
+			boolean taken = false;
+			for (QueueItem item : items)
 			{
-				String path = dir + "/" + headNode;
-				try
+				if (!item.isExpired())
 				{
-					byte[] data = zookeeper.getData(path, false, null);
-					QueueItem item = new QueueItem(headNode, data);
-					if (item.isExpired())
-					{
-						zookeeper.delete(path, -1);
-						return item;
-					}
+					break;
 				}
-				catch (KeeperException.NoNodeException e)
+				if (claim(item))
 				{
-					// Another client deleted the node first.
+					return item;
 				}
+				taken = true;
 			}
-
+			if (!taken)
+			{
+				throw new NoSuchElementException();
+			}
+			// the released items were taken by other clients, look again
 		}
 	}
 
@@ -355,6 +378,10 @@ public class DistributedQueue
 			latch.countDown();
 		}
 
+		public void await(long timeout) throws InterruptedException
+		{
+			latch.await(timeout, TimeUnit.MILLISECONDS);
+		}
 	}
 
 	/**
@@ -370,41 +397,25 @@ public class DistributedQueue
 	}
 
 	/**
-	 * Removes the head of the queue and returns it, an waits timeout seconds
-	 * @param timeout a timeout in ms
-	 * @return The former head of the queue
-	 * @throws NoSuchElementException
+	 * Removes the head of the queue and returns it, it waits at most <tt>timeout</tt> ms for an item to be released.
+	 * The wait ends when the head is released, or when the queue changes.
+	 * @param timeout a timeout in ms, -1 waits forever
+	 * @return The former head of the queue, or null after the timeout
 	 * @throws KeeperException
 	 * @throws InterruptedException
 	 * @throws IOException
 	 */
 	public QueueItem take(long timeout) throws KeeperException, InterruptedException, IOException
 	{
-		TreeMap<String, String> orderedChildren;
-		// Same as for element. Should refactor this.
-		long start = System.currentTimeMillis();
-		long time = 0;
-		if (timeout == -1)
-		{
-			time = Long.MIN_VALUE;
-		}
-
-		while (time < timeout)
+		final long start = System.currentTimeMillis();
+		final long end = timeout < 0 ? Long.MAX_VALUE : start + timeout;
+		while (true)
 		{
-			LatchChildWatcher childWatcher = null;
-
-			if (timeout < 0)
-			{
-				childWatcher = new LatchChildWatcher();
-			}
-			else
-			{
-				time = System.currentTimeMillis() - start;
-			}
-
+			LatchChildWatcher childWatcher = new LatchChildWatcher();
+			List<QueueItem> items;
 			try
 			{
-				orderedChildren = orderedChildren(childWatcher);
+				items = getItems(childWatcher);
 			}
 			catch (KeeperException.NoNodeException e)
 			{
@@ -412,36 +423,29 @@ public class DistributedQueue
 				continue;
 			}
 
-			if (orderedChildren.size() == 0)
-			{
-				continue;
-			}
-
-			for (String headNode : orderedChildren.values())
+			long now = System.currentTimeMillis();
+			long wait = end - now;
+			for (QueueItem item : items)
 			{
-				String path = dir + "/" + headNode;
-				try
+				if (item.getTimeout() > now)
 				{
-					byte[] data = zookeeper.getData(path, false, null);
-					QueueItem item = new QueueItem(headNode, data);
-					if (item.isExpired())
-					{
-						zookeeper.delete(path, -1);
-						if (timeout > 0)
-						{
-							LOG.debug("waited {}ms for ", time, item);
-						}
-						return item;
-					}
+					// wait for the next release:
+					wait = Math.min(wait, item.getTimeout() - now);
+					break;
 				}
-				catch (KeeperException.NoNodeException e)
+				if (claim(item))
 				{
-					// Another client deleted the node first.
-					LOG.debug("NoNode: node taken by other client");
+					LOG.debug("waited {}ms for {}", now - start, item);
+					return item;
 				}
 			}
+
+			if (wait <= 0)
+			{
+				return null;
+			}
+			childWatcher.await(wait);
 		}
-		return null;
 	}
 
 	/**
@@ -450,21 +454,39 @@ public class DistributedQueue
 	 * @return true if data was successfully added
 	 */
 	public boolean offer(QueueItem item) throws KeeperException, InterruptedException
+	{
+		return add(item) != null;
+	}
+
+	/**
+	 * Inserts data into queue.
+	 * @param item
+	 * @return the queued item, with its node name
+	 */
+	public QueueItem add(QueueItem item) throws KeeperException, InterruptedException
 	{
 		for (;;)
 		{
 			try
 			{
-				zookeeper.create(dir + "/" + PREFIX + item.getTimeoutStr() + "-", item.getIdArray(), acl,
+				// the id is also kept in the data, for older versions:
+				String path = zookeeper.create(dir + "/" + item.getNodePrefix(PREFIX), item.getIdArray(), acl,
 						CreateMode.PERSISTENT_SEQUENTIAL);
-				return true;
+				try
+				{
+					return new QueueItem(path.substring(path.lastIndexOf('/') + 1));
+				}
+				catch (IOException e)
+				{
+					// can't happen, the name is created from the item
+					throw new IllegalStateException(e);
+				}
 			}
 			catch (KeeperException.NoNodeException e)
 			{
 				zookeeper.create(dir, new byte[0], acl, CreateMode.PERSISTENT);
 			}
 		}
-
 	}
 
 	/**
@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.workflow.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import nl.gridline.zieook.workflow.model.QueueItem;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local copy of the {@link SharedQueue} (the {@link DistributedQueue}), ordered by release time. A children watch
+ * marks the copy as changed, it is read again (node names only) by the next call. {@link #poll(int, long)} waits
+ * until the head is released, the queue changes or the scheduler is woken up, and then takes all released items it
+ * can handle at once. Every <em>refresh interval</em> the queue is read again anyway, in case a watch got lost.
+ * <p />
+ * The ZooKeeper calls are never made from the watcher (the ZooKeeper event thread), only from the threads that poll
+ * or list the queue.
+ * <p />
+ * Project zieook-backend-workflow<br />
+ * LocalDelayQueue.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LocalDelayQueue implements Watcher
+{
+	private static final Logger LOG = LoggerFactory.getLogger(LocalDelayQueue.class);
+
+	private final SharedQueue queue;
+	private final long refreshInterval;
+
+	private final TreeSet<QueueItem> items = new TreeSet<QueueItem>(DistributedQueue.BY_TIMEOUT);
+
+	private boolean changed = true;
+	private boolean woken;
+	private boolean closed;
+	private long refreshed;
+
+	/**
+	 * @param queue the shared queue
+	 * @param refreshInterval maximum time in ms between two reads of the queue
+	 */
+	public LocalDelayQueue(SharedQueue queue, long refreshInterval)
+	{
+		this.queue = queue;
+		this.refreshInterval = refreshInterval;
+	}
+
+	/**
+	 * Add an item that was just offered to the distributed queue, so it's released without waiting for the watch
+	 * @param item queued item with its node name
+	 */
+	public synchronized void add(QueueItem item)
+	{
+		items.add(item);
+		notifyAll();
+	}
+
+	/**
+	 * Let a waiting {@link #poll(int, long)} return, e.g. because a task finished and there's room for new ones
+	 */
+	public synchronized void wakeup()
+	{
+		woken = true;
+		notifyAll();
+	}
+
+	/**
+	 * Stop waiting, all current and later polls return directly
+	 */
+	public synchronized void close()
+	{
+		closed = true;
+		notifyAll();
+	}
+
+	public synchronized boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	 * Take the released items from the queue, at most <tt>max</tt>. Waits at most <tt>timeout</tt> ms for the first
+	 * item, and returns earlier (possibly empty) after {@link #wakeup()} or {@link #close()}.
+	 * @param max maximum number of items to take, 0 only waits
+	 * @param timeout maximum wait in ms, -1 waits until an item is released, or a wake up
+	 * @return the items taken by this client, in order of release time
+	 * @throws InterruptedException
+	 */
+	public List<QueueItem> poll(int max, long timeout) throws InterruptedException
+	{
+		final long end = timeout < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+		final List<QueueItem> result = new ArrayList<QueueItem>(Math.max(max, 0));
+		while (true)
+		{
+			if (isRefreshDue())
+			{
+				refresh();
+			}
+
+			List<QueueItem> released = getReleased(max - result.size());
+			for (QueueItem item : released)
+			{
+				try
+				{
+					if (queue.claim(item))
+					{
+						result.add(item);
+					}
+				}
+				catch (KeeperException e)
+				{
+					// it stays in the distributed queue, the next refresh reads it again:
+					LOG.error("failed to take " + item + " from the queue", e);
+				}
+			}
+
+			synchronized (this)
+			{
+				if (!result.isEmpty() || closed)
+				{
+					return result;
+				}
+				if (!released.isEmpty() || changed)
+				{
+					// the released items were taken by other clients, look again
+					continue;
+				}
+				long now = System.currentTimeMillis();
+				if (woken || now >= end)
+				{
+					woken = false;
+					return result;
+				}
+
+				long wait = Math.min(end, refreshed + refreshInterval) - now;
+				if (max > 0 && !items.isEmpty())
+				{
+					wait = Math.min(wait, items.first().getTimeout() - now);
+				}
+				if (wait > 0)
+				{
+					wait(wait);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the queued items released within the given time span
+	 * @param start start time in ms (exclusive)
+	 * @param end end time in ms (exclusive)
+	 * @param size maximum number of items
+	 * @return the items, in order of release time
+	 * @throws InterruptedException
+	 */
+	public List<QueueItem> getScheduled(long start, long end, int size) throws InterruptedException
+	{
+		if (isRefreshDue())
+		{
+			refresh();
+		}
+		List<QueueItem> result = new ArrayList<QueueItem>();
+		synchronized (this)
+		{
+			for (QueueItem item : items)
+			{
+				if (item.getTimeout() >= end)
+				{
+					break;
+				}
+				if (item.getTimeout() > start)
+				{
+					result.add(item);
+					// handle max-size:
+					if (size == result.size())
+					{
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.zookeeper.Watcher#process(org.apache.zookeeper.WatchedEvent)
+	 */
+	@Override
+	public synchronized void process(WatchedEvent event)
+	{
+		changed = true;
+		notifyAll();
+	}
+
+	private synchronized boolean isRefreshDue()
+	{
+		return !closed && (changed || System.currentTimeMillis() - refreshed >= refreshInterval);
+	}
+
+	/**
+	 * Read the queue again and set a new watch
+	 */
+	private void refresh() throws InterruptedException
+	{
+		synchronized (this)
+		{
+			changed = false;
+		}
+		List<QueueItem> current = null;
+		try
+		{
+			current = queue.getItems(this);
+		}
+		catch (KeeperException e)
+		{
+			// try again after the refresh interval:
+			LOG.error("failed to read the queue", e);
+		}
+		synchronized (this)
+		{
+			if (current != null)
+			{
+				items.clear();
+				items.addAll(current);
+			}
+			refreshed = System.currentTimeMillis();
+		}
+	}
+
+	private synchronized List<QueueItem> getReleased(int max)
+	{
+		List<QueueItem> result = new ArrayList<QueueItem>(Math.max(max, 0));
+		long now = System.currentTimeMillis();
+		while (result.size() < max && !items.isEmpty() && items.first().getTimeout() <= now)
+		{
+			result.add(items.pollFirst());
+		}
+		return result;
+	}
+}
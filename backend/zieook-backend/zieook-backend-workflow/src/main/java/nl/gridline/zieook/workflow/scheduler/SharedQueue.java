@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.workflow.scheduler;
+
+import java.util.List;
+
+import nl.gridline.zieook.workflow.model.QueueItem;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+
+/**
+ * The queue shared by the scheduler instances, as seen by a {@link LocalDelayQueue}: it lists the queued items and
+ * lets one instance claim an item. Implemented by the {@link DistributedQueue}.
+ * <p />
+ * Project zieook-backend-workflow<br />
+ * SharedQueue.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public interface SharedQueue
+{
+	/**
+	 * Returns the items in the queue, ordered by release time (see {@link DistributedQueue#BY_TIMEOUT})
+	 * @param watcher optional watcher, notified once when the queue changes
+	 * @return the queued items
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	List<QueueItem> getItems(Watcher watcher) throws KeeperException, InterruptedException;
+
+	/**
+	 * Take a queued item, only one instance can take an item
+	 * @param item an item returned by {@link #getItems(Watcher)}
+	 * @return true if this instance took the item, false if another instance was first
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	boolean claim(QueueItem item) throws KeeperException, InterruptedException;
+}
@@ -40,7 +40,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * [purpose]
+ * Distributed task scheduler: task ids are queued in ZooKeeper with their release time. A local copy of the queue (see
+ * {@link LocalDelayQueue}) follows the ZooKeeper queue through a watch, so tasks are released as soon as they are due
+ * without polling ZooKeeper.
  * <p />
  * Project zieook-backend-workflow<br />
  * ZkQueue.java created 15 dec. 2010
@@ -57,6 +59,7 @@ public class ZieOokScheduler implements Watcher
 
 	private ZooKeeper zk;
 	private DistributedQueue dq;
+	private LocalDelayQueue local;
 
 	/**
 	 * Creates a ZieOok distributed scheduler
@@ -74,6 +77,22 @@ public class ZieOokScheduler implements Watcher
 	 */
 	public ZieOokScheduler(String connectString, int retries, int sessionTimeout) throws KeeperException,
 			InterruptedException, DistrQueueException
+	{
+		this(connectString, retries, sessionTimeout, sessionTimeout);
+	}
+
+	/**
+	 * Creates a ZieOok distributed scheduler
+	 * @param connectString comma separated host:port pairs, each corresponding to a zk server
+	 * @param sessionTimeout session timeout in milliseconds
+	 * @param refreshInterval maximum time in milliseconds between two reads of the queue, the queue is also read when
+	 *           it changes
+	 * @throws InterruptedException
+	 * @throws KeeperException
+	 * @throws DistrQueueException
+	 */
+	public ZieOokScheduler(String connectString, int retries, int sessionTimeout, long refreshInterval)
+			throws KeeperException, InterruptedException, DistrQueueException
 	{
 		try
 		{
@@ -83,6 +102,7 @@ public class ZieOokScheduler implements Watcher
 
 			// create distributed queue instance:
 			dq = new DistributedQueue(zk, ZIEOOK_QUEUE, null);
+			local = new LocalDelayQueue(dq, refreshInterval);
 
 			LOG.info("zookeeper instance created");
 
@@ -151,6 +171,7 @@ public class ZieOokScheduler implements Watcher
 	public void shutdown()
 	{
 		LOG.info("closing down zookeeper connection");
+		local.close();
 		try
 		{
 			zk.close();
@@ -173,7 +194,8 @@ public class ZieOokScheduler implements Watcher
 	{
 		if (id != -1)
 		{
-			return dq.offer(new QueueItem(release, id));
+			local.add(dq.add(new QueueItem(release, id)));
+			return true;
 		}
 		else
 		{
@@ -194,50 +216,66 @@ public class ZieOokScheduler implements Watcher
 	/**
 	 * Returns the next task-id when available of the task that needs to be executed, it will wait for <tt>timeout</tt>
 	 * milliseconds
-	 * @param timeout milliseconds to wait.
+	 * @param timeout milliseconds to wait, -1 waits forever
 	 * @return task id or -1 if failed
 	 * @throws InterruptedException
 	 */
 	public long poll(long timeout) throws InterruptedException
 	{
-		long time = System.currentTimeMillis();
-		try
+		final long end = timeout < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+		long wait = timeout;
+		while (true)
 		{
-			QueueItem item = dq.take(timeout);
-			time = System.currentTimeMillis() - time;
-			if (item != null)
+			List<Long> result = poll(1, wait);
+			if (!result.isEmpty())
 			{
-				LOG.debug("found: {} in {}ms", item.getId(), time);
-				return item.getId();
+				return result.get(0);
+			}
+			// woken up, or closed:
+			wait = timeout < 0 ? -1 : end - System.currentTimeMillis();
+			if (timeout >= 0 && wait <= 0 || local.isClosed())
+			{
+				return -1;
 			}
 		}
-		catch (KeeperException e)
-		{
-			LOG.error("failed to poll item", e);
-		}
-		catch (IOException e)
+	}
+
+	/**
+	 * Returns the ids of the tasks that need to be executed, at most <tt>max</tt>. It waits at most <tt>timeout</tt>
+	 * milliseconds for the first task to be released, and returns earlier (possibly empty) after a {@link #wakeup()}.
+	 * @param max maximum number of tasks
+	 * @param timeout milliseconds to wait, -1 waits for the first task, or a wake up
+	 * @return the task ids, in order of release time
+	 * @throws InterruptedException
+	 */
+	public List<Long> poll(int max, long timeout) throws InterruptedException
+	{
+		long time = System.currentTimeMillis();
+		List<QueueItem> items = local.poll(max, timeout);
+		List<Long> result = new ArrayList<Long>(items.size());
+		for (QueueItem item : items)
 		{
-			LOG.error("failed to poll item", e);
+			LOG.debug("found: {} released {}ms ago", item.getId(), time - item.getTimeout());
+			result.add(item.getId());
 		}
-		return -1;
+		return result;
+	}
+
+	/**
+	 * Let a waiting {@link #poll(int, long)} return, e.g. because a task finished and there's room for new ones
+	 */
+	public void wakeup()
+	{
+		local.wakeup();
 	}
 
 	public List<Long> getScheduled(long start, long end, int size) throws InterruptedException, KeeperException
 	{
-		List<Long> result = new ArrayList<Long>(size);
-		List<QueueItem> scheduled = dq.getScheduled();
+		List<QueueItem> scheduled = local.getScheduled(start, end, size);
+		List<Long> result = new ArrayList<Long>(scheduled.size());
 		for (QueueItem i : scheduled)
 		{
-			// handle timeout:
-			if (i.getTimeout() > start && i.getTimeout() < end)
-			{
-				result.add(i.getId());
-				// handle max-size:
-				if (size == result.size())
-				{
-					break;
-				}
-			}
+			result.add(i.getId());
 		}
 		return result;
 	}
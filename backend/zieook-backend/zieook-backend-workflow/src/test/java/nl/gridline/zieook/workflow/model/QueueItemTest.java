@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.workflow.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import nl.gridline.zieook.workflow.scheduler.DistributedQueue;
+
+import org.junit.Test;
+
+/**
+ * Node names of queued items, in the current and the older format
+ * <p />
+ * Project zieook-backend-workflow<br />
+ * QueueItemTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class QueueItemTest
+{
+	@Test
+	public void testNode() throws IOException
+	{
+		QueueItem item = new QueueItem(1319000000000L, 42);
+		assertNull(item.getNode());
+
+		String prefix = item.getNodePrefix(DistributedQueue.PREFIX);
+		assertEquals("qn-1319000000000-42-", prefix);
+
+		// the queue appends the sequence:
+		String node = prefix + "0000000007";
+		assertTrue(QueueItem.hasId(node));
+		QueueItem queued = new QueueItem(node);
+		assertEquals(42, queued.getId());
+		assertEquals(1319000000000L, queued.getTimeout());
+		assertEquals(node, queued.getNode());
+		assertEquals(item, queued);
+	}
+
+	@Test
+	public void testLegacyNode() throws IOException
+	{
+		String node = "qn-1319000000000-0000000003";
+		assertFalse(QueueItem.hasId(node));
+
+		QueueItem item = new QueueItem(node, ByteBuffer.allocate(8).putLong(42).array());
+		assertEquals(42, item.getId());
+		assertEquals(1319000000000L, item.getTimeout());
+		assertEquals(node, item.getNode());
+	}
+
+	@Test(expected = IOException.class)
+	public void testLegacyNodeAsNode() throws IOException
+	{
+		new QueueItem("qn-1319000000000-0000000003");
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidNode() throws IOException
+	{
+		new QueueItem("qn-soon-42-0000000007");
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidLegacyNode() throws IOException
+	{
+		new QueueItem("qn-soon-0000000003", ByteBuffer.allocate(8).putLong(42).array());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidLegacyData() throws IOException
+	{
+		new QueueItem("qn-1319000000000-0000000003", new byte[4]);
+	}
+
+	@Test
+	public void testOrder() throws IOException
+	{
+		QueueItem late = new QueueItem("qn-3000-1-0000000001");
+		QueueItem first = new QueueItem("qn-1000-2-0000000003");
+		// same release time, queued later:
+		QueueItem second = new QueueItem("qn-1000-3-0000000004");
+		QueueItem legacy = new QueueItem("qn-2000-0000000002", ByteBuffer.allocate(8).putLong(4).array());
+
+		List<QueueItem> items = new ArrayList<QueueItem>();
+		Collections.addAll(items, late, second, legacy, first);
+		Collections.sort(items, DistributedQueue.BY_TIMEOUT);
+
+		assertEquals(first.getNode(), items.get(0).getNode());
+		assertEquals(second.getNode(), items.get(1).getNode());
+		assertEquals(legacy.getNode(), items.get(2).getNode());
+		assertEquals(late.getNode(), items.get(3).getNode());
+	}
+}
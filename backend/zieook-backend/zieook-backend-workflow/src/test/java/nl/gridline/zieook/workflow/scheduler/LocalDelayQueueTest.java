@@ -0,0 +1,371 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.workflow.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import nl.gridline.zieook.workflow.model.QueueItem;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.junit.Test;
+
+/**
+ * Waiting, claiming and waking up of the {@link LocalDelayQueue}, on an in-memory shared queue
+ * <p />
+ * Project zieook-backend-workflow<br />
+ * LocalDelayQueueTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LocalDelayQueueTest
+{
+	// long enough to never refresh during a test, changes are seen through the watch:
+	private static final long REFRESH = 60000;
+
+	@Test
+	public void testReleased() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		long now = System.currentTimeMillis();
+		queue.offer(now - 10, 3);
+		queue.offer(now - 30, 1);
+		queue.offer(now - 20, 2);
+		queue.offer(now + REFRESH, 4);
+
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		List<QueueItem> taken = local.poll(2, 0);
+		assertEquals(2, taken.size());
+		assertEquals(1, taken.get(0).getId());
+		assertEquals(2, taken.get(1).getId());
+
+		taken = local.poll(10, 0);
+		assertEquals(1, taken.size());
+		assertEquals(3, taken.get(0).getId());
+
+		// only the unreleased item is left:
+		assertEquals(0, local.poll(10, 0).size());
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void testWaitForRelease() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		long release = System.currentTimeMillis() + 200;
+		queue.offer(release, 1);
+
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		List<QueueItem> taken = local.poll(1, 5000);
+		long now = System.currentTimeMillis();
+		assertEquals(1, taken.size());
+		assertTrue(now >= release);
+		assertTrue(now < release + 2000);
+	}
+
+	@Test
+	public void testTimeout() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		queue.offer(System.currentTimeMillis() + REFRESH, 1);
+
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		long start = System.currentTimeMillis();
+		assertEquals(0, local.poll(1, 100).size());
+		long time = System.currentTimeMillis() - start;
+		assertTrue(time >= 100);
+		assertTrue(time < 2000);
+		assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void testWatch() throws InterruptedException
+	{
+		final MemoryQueue queue = new MemoryQueue();
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		assertEquals(0, local.poll(1, 0).size());
+
+		// offered by another instance, this one only sees the watch:
+		later(100, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				queue.offer(System.currentTimeMillis(), 1);
+			}
+		});
+		long start = System.currentTimeMillis();
+		List<QueueItem> taken = local.poll(1, 5000);
+		assertEquals(1, taken.size());
+		assertTrue(System.currentTimeMillis() - start < 2000);
+	}
+
+	@Test
+	public void testAdd() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		assertEquals(0, local.poll(1, 0).size());
+
+		// offered by this instance, without a watch:
+		local.add(queue.offer(System.currentTimeMillis() - 1, 1, false));
+		assertEquals(1, local.poll(1, 0).size());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testWakeup() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		queue.offer(System.currentTimeMillis() - 1, 1);
+
+		final LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		later(100, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				local.wakeup();
+			}
+		});
+		// no room for items: waits for the wake up only
+		long start = System.currentTimeMillis();
+		assertEquals(0, local.poll(0, 5000).size());
+		assertTrue(System.currentTimeMillis() - start < 2000);
+
+		// the wake up is used, the item is still there:
+		assertEquals(1, local.poll(1, 0).size());
+	}
+
+	@Test
+	public void testClose() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		queue.offer(System.currentTimeMillis() + REFRESH, 1);
+
+		final LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		later(100, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				local.close();
+			}
+		});
+		long start = System.currentTimeMillis();
+		assertEquals(0, local.poll(1, -1).size());
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		assertTrue(local.isClosed());
+
+		// and returns directly after:
+		assertEquals(0, local.poll(1, -1).size());
+	}
+
+	@Test
+	public void testScheduled() throws InterruptedException
+	{
+		MemoryQueue queue = new MemoryQueue();
+		for (int i = 1; i <= 5; i++)
+		{
+			queue.offer(i * 1000, i);
+		}
+		LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+		List<QueueItem> scheduled = local.getScheduled(1000, 5000, 10);
+		assertEquals(3, scheduled.size());
+		assertEquals(2, scheduled.get(0).getId());
+		assertEquals(4, scheduled.get(2).getId());
+		assertEquals(2, local.getScheduled(0, 10000, 2).size());
+	}
+
+	@Test
+	public void testClaimRace() throws InterruptedException
+	{
+		final int count = 500;
+		final MemoryQueue queue = new MemoryQueue();
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < count; i++)
+		{
+			queue.offer(now - 1 + (i % 50), i);
+		}
+
+		final Map<Long, Integer> taken = new ConcurrentHashMap<Long, Integer>();
+		final List<Long> duplicates = Collections.synchronizedList(new ArrayList<Long>());
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++)
+		{
+			final int instance = t;
+			// every thread is an instance with its own local queue:
+			final LocalDelayQueue local = new LocalDelayQueue(queue, REFRESH);
+			Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						long end = System.currentTimeMillis() + 10000;
+						while (taken.size() < count && System.currentTimeMillis() < end)
+						{
+							for (QueueItem item : local.poll(3, 100))
+							{
+								if (taken.put(item.getId(), instance) != null)
+								{
+									duplicates.add(item.getId());
+								}
+							}
+						}
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(count, taken.size());
+		assertEquals(0, duplicates.size());
+		assertEquals(0, queue.size());
+	}
+
+	private static void later(final long delay, final Runnable runnable)
+	{
+		new Thread()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(delay);
+					runnable.run();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		}.start();
+	}
+
+	/**
+	 * The shared queue in memory: named nodes, one-shot watches and claims by removing the node
+	 */
+	private static class MemoryQueue implements SharedQueue
+	{
+		private final TreeMap<String, QueueItem> nodes = new TreeMap<String, QueueItem>();
+		private final List<Watcher> watchers = new ArrayList<Watcher>();
+		private int sequence;
+
+		public QueueItem offer(long release, long id)
+		{
+			return offer(release, id, true);
+		}
+
+		public QueueItem offer(long release, long id, boolean watch)
+		{
+			QueueItem item;
+			synchronized (this)
+			{
+				String node = new QueueItem(release, id).getNodePrefix(DistributedQueue.PREFIX)
+						+ String.format("%010d", sequence++);
+				try
+				{
+					item = new QueueItem(node);
+				}
+				catch (IOException e)
+				{
+					throw new IllegalStateException(e);
+				}
+				nodes.put(node, item);
+			}
+			if (watch)
+			{
+				fire();
+			}
+			return item;
+		}
+
+		public synchronized int size()
+		{
+			return nodes.size();
+		}
+
+		@Override
+		public List<QueueItem> getItems(Watcher watcher)
+		{
+			synchronized (this)
+			{
+				if (watcher != null)
+				{
+					watchers.add(watcher);
+				}
+				List<QueueItem> result = new ArrayList<QueueItem>(nodes.values());
+				Collections.sort(result, DistributedQueue.BY_TIMEOUT);
+				return result;
+			}
+		}
+
+		@Override
+		public boolean claim(QueueItem item)
+		{
+			boolean result;
+			synchronized (this)
+			{
+				result = nodes.remove(item.getNode()) != null;
+			}
+			if (result)
+			{
+				fire();
+			}
+			return result;
+		}
+
+		private void fire()
+		{
+			List<Watcher> fired;
+			synchronized (this)
+			{
+				fired = new ArrayList<Watcher>(watchers);
+				watchers.clear();
+			}
+			for (Watcher watcher : fired)
+			{
+				watcher.process(new WatchedEvent(Watcher.Event.EventType.NodeChildrenChanged,
+						Watcher.Event.KeeperState.SyncConnected, null));
+			}
+		}
+	}
+}
@@ -42,4 +42,16 @@ public interface ProcessUpdatesCLI
 
 	@Option(longName = "user-rating-count", description = "reset user rating count, and count again")
 	boolean isUpdateUserRatingCount();
+
+	@Option(longName = "salt-eventlog", description = "move the event log to the salted layout, stop the servers first")
+	boolean isSaltEventLog();
+
+	@Option(longName = "binary-keys", description = "move the recommendations to binary row keys")
+	boolean isBinaryKeys();
+
+	@Option(longName = "buckets", description = "number of event log buckets", defaultValue = "0")
+	int getBuckets();
+
+	@Option(longName = "content-provider", shortName = "cp", description = "content provider", defaultValue = "")
+	String getContentProvider();
 }
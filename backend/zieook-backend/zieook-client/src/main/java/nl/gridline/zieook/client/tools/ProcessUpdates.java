@@ -24,6 +24,9 @@ import nl.gridline.zieook.client.cli.ProcessUpdatesCLI;
 import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.data.hbase.HBaseManager;
 import nl.gridline.zieook.data.hbase.dao.ContentProviderTable;
+import nl.gridline.zieook.data.hbase.dao.EventLogTable;
+import nl.gridline.zieook.data.hbase.dao.NameDictionary;
+import nl.gridline.zieook.data.hbase.dao.RecommendationTable;
 import nl.gridline.zieook.data.hbase.dao.UserTable;
 import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
@@ -99,6 +102,23 @@ public class ProcessUpdates extends AbstractCliExecutor
 		{
 			updateUserRatingCount();
 		}
+		else if (options.isSaltEventLog())
+		{
+			int buckets = options.getBuckets();
+			if (buckets == 0)
+			{
+				buckets = config.getInt(Config.HBASE_EVENTLOG_BUCKETS, 0);
+			}
+			if (buckets < 2)
+			{
+				printHelpAndExit("the number of buckets should be at least 2", ProcessUpdatesCLI.class);
+			}
+			saltEventLog(options.getContentProvider(), buckets);
+		}
+		else if (options.isBinaryKeys())
+		{
+			binaryKeys(options.getContentProvider());
+		}
 		else
 		{
 			printHelpAndExit("no valid argument passed", ProcessUpdatesCLI.class);
@@ -119,7 +139,7 @@ public class ProcessUpdates extends AbstractCliExecutor
 		// check if servers are running, they should not(!)
 
 		// HBase configuration table update:
-		if (configTable.update())
+		if (configTable.update(true))
 		{
 			LOG.info("table updated successfuly");
 		}
@@ -161,18 +181,79 @@ public class ProcessUpdates extends AbstractCliExecutor
 		}
 	}
 
+	/**
+	 * Move the event log of one or all content providers to the salted row key layout
+	 * @param cp content provider, or an empty string for all content providers
+	 * @param buckets number of buckets
+	 * @throws IOException
+	 */
+	public void saltEventLog(String cp, int buckets) throws IOException
+	{
+		EventLogTable events = new EventLogTable(eventlogTable);
+		for (ContentProvider provider : getContentProviders())
+		{
+			String name = provider.getName();
+			if (!cp.isEmpty() && !cp.equals(name))
+			{
+				continue;
+			}
+			if (eventlogTable.tableExists(name))
+			{
+				LOG.info("moving the event log of <{}> to {} buckets", name, buckets);
+				long count = events.migrate(name, buckets);
+				LOG.info("moved {} rows of <{}>", count, name);
+			}
+			else
+			{
+				LOG.error("Content provider <{}> misses a table: {}", name, eventlogTable.getTableName(name));
+			}
+		}
+	}
+
+	/**
+	 * Move the recommendations of one or all content providers to binary row keys, the data servers can keep running.
+	 * The configuration table should have the dictionary family (<tt>--update-tables</tt>).
+	 * @param cp content provider, or an empty string for all content providers
+	 * @throws IOException
+	 */
+	public void binaryKeys(String cp) throws IOException
+	{
+		RecommendationTable recommendations = new RecommendationTable(recommendationTable, null, new NameDictionary(
+				configTable));
+		for (ContentProvider provider : getContentProviders())
+		{
+			String name = provider.getName();
+			if (!cp.isEmpty() && !cp.equals(name))
+			{
+				continue;
+			}
+			if (recommendationTable.tableExists(name))
+			{
+				LOG.info("moving the recommendations of <{}> to binary row keys", name);
+				long count = recommendations.migrate(name);
+				LOG.info("moved {} rows of <{}>", count, name);
+			}
+			else
+			{
+				LOG.error("Content provider <{}> misses a table: {}", name, recommendationTable.getTableName(name));
+			}
+		}
+	}
+
 	// ----------------------
 	// --- helper methods ---
 	// ----------------------
 
 	private boolean updateTables(String cp) throws IOException
 	{
-		boolean result = collectionTable.update(cp);
-		result = result || eventlogTable.update(cp);
-		result = result || recommendationTable.update(cp);
-		result = result || statisticsTable.update(cp);
-		result = result || userTable.update(cp);
-		return false;
+		// update every table, also when an earlier one was updated, storage settings included:
+		boolean result = collectionTable.update(cp, true);
+		result |= eventlogTable.update(cp, true);
+		result |= recommendationTable.update(cp, true);
+		result |= statisticsTable.update(cp, true);
+		// the user table gets the rating index family, the workflow server back fills the index:
+		result |= userTable.update(cp, true);
+		return result;
 	}
 
 	private List<ContentProvider> getContentProviders()
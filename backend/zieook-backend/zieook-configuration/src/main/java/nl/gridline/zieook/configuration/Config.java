@@ -217,6 +217,73 @@ public class Config extends GridlineConfig
 
 	public static final String STATISTICS_POPULARITY_TYPES = "statistics.popularity.types";
 
+	/**
+	 * Maximum number of entries of a materialised top list (leaderboard), larger top lists are read from the statistics
+	 */
+	public static final String STATISTICS_LEADERBOARD_SIZE = "statistics.leaderboard.size";
+
+	/**
+	 * Maximum number of entries the data server returns for one statistics request, larger requests are limited
+	 */
+	public static final String STATISTICS_REQUEST_SIZE = "statistics.request.size.max";
+
+	/**
+	 * Maximum number of counts the statistics mappers aggregate in memory before they're written to the shuffle
+	 */
+	public static final String STATISTICS_INMAPPER_ENTRIES = "statistics.inmapper.entries";
+
+	/**
+	 * Number of incremental runs of an item based recommender between two full rebuilds. An incremental run only
+	 * recomputes the items that are rated since the previous run, 0 always does a full rebuild.
+	 */
+	public static final String RECOMMENDER_FULL_REBUILD = "recommender.itembased.full-rebuild";
+
+	/**
+	 * Maximum number of ratings of a collection that is computed in memory by an item based recommender, larger
+	 * collections are computed with map reduce. 0 always uses map reduce.
+	 */
+	public static final String RECOMMENDER_INMEMORY_MAX_RATINGS = "recommender.itembased.inmemory.max-ratings";
+
+	/**
+	 * Number of threads of the in memory item based recommender, 0 uses one thread per processor.
+	 */
+	public static final String RECOMMENDER_INMEMORY_THREADS = "recommender.itembased.inmemory.threads";
+
+	/**
+	 * If true map reduce jobs that write recommendations, collections or statistics to HBase write sorted HFiles that
+	 * are bulk loaded into the table, instead of sending puts to the region servers. Tasks can override it with
+	 * <tt>task.table.output.bulkload</tt>.
+	 */
+	public static final String HBASE_BULKLOAD = "zieook.hbase.bulkload";
+
+	/**
+	 * Number of buckets of new event log tables, the row keys are salted with a hash of the user and the table is
+	 * pre-split with one region per bucket. 0 creates unsalted tables. Existing tables are migrated with the client
+	 * tool (<tt>--salt-eventlog</tt>).
+	 */
+	public static final String HBASE_EVENTLOG_BUCKETS = "zieook.hbase.eventlog.buckets";
+
+	/**
+	 * Row key version the recommendations are written with: 1 writes binary keys with dictionary ids of the names, 0
+	 * the url encoded string keys. Existing rows are moved with the client tool (<tt>--binary-keys</tt>).
+	 */
+	public static final String HBASE_ROWKEYS_VERSION = "zieook.hbase.rowkeys.version";
+
+	/**
+	 * Data server: also read the string row key of a recommendation if there's no binary row, can be switched off
+	 * once all tables are moved to binary keys.
+	 */
+	public static final String HBASE_ROWKEYS_FALLBACK = "zieook.hbase.rowkeys.fallback";
+
+	/**
+	 * Prefix of the storage profile settings of the column families, followed by the profile name (eventlog,
+	 * statistics, recommendation, collection-raw, collection) and one of: <tt>.compression</tt> (none, gz, lzo),
+	 * <tt>.bloomfilter</tt> (none, row, rowcol), <tt>.blocksize</tt> (bytes), <tt>.ttl</tt> (days, 0 is forever),
+	 * <tt>.versions</tt> or <tt>.inmemory</tt>. Existing tables are changed with the client tool
+	 * (<tt>--update-tables</tt>).
+	 */
+	public static final String HBASE_STORAGE = "zieook.hbase.storage.";
+
 	/**
 	 * Some extra tools specifically designed for Amsterdam Museum.
 	 */
@@ -240,6 +307,99 @@ public class Config extends GridlineConfig
 	 */
 	public static final String TEXT_ANALYSIS_USE_KEYWORDS_DEFAULT = "taalserver.text.analysis.keywords";
 
+	/**
+	 * Maximum number of recommendation rows kept in the data server cache, 0 disables the cache
+	 */
+	public static final String DATA_CACHE_RECOMMENDATIONS_ENTRIES = "zieook.data.cache.recommendations.entries";
+
+	/**
+	 * Maximum memory used by the data server recommendation cache in megabytes
+	 */
+	public static final String DATA_CACHE_RECOMMENDATIONS_MB = "zieook.data.cache.recommendations.mb";
+
+	/**
+	 * Interval in seconds on which the data server checks if a recommender has written a new model
+	 */
+	public static final String DATA_CACHE_RECOMMENDATIONS_CHECK = "zieook.data.cache.recommendations.check.s";
+
+	/**
+	 * Maximum number of meta data lookups (recommenders, collections, content providers) cached by the data server, 0
+	 * disables the cache
+	 */
+	public static final String DATA_CACHE_METADATA_ENTRIES = "zieook.data.cache.metadata.entries";
+
+	/**
+	 * Time to live in seconds of a cached meta data lookup
+	 */
+	public static final String DATA_CACHE_METADATA_TTL = "zieook.data.cache.metadata.ttl.s";
+
+	/**
+	 * Interval in seconds on which the data server checks if the meta data of a content provider has changed
+	 */
+	public static final String DATA_CACHE_METADATA_CHECK = "zieook.data.cache.metadata.check.s";
+
+	/**
+	 * Maximum number of decoded collection items cached by the data server, 0 disables the cache
+	 */
+	public static final String DATA_CACHE_ITEMS_ENTRIES = "zieook.data.cache.items.entries";
+
+	/**
+	 * Time to live in seconds of a cached collection item
+	 */
+	public static final String DATA_CACHE_ITEMS_TTL = "zieook.data.cache.items.ttl.s";
+
+	/**
+	 * Maximum number of view / recommend events waiting to be written by the data server, 0 writes them synchronously
+	 */
+	public static final String DATA_EVENTLOG_QUEUE = "zieook.data.eventlog.queue";
+
+	/**
+	 * Maximum number of events the data server writes in one batch
+	 */
+	public static final String DATA_EVENTLOG_BATCH = "zieook.data.eventlog.batch";
+
+	/**
+	 * Maximum time in milliseconds an event waits in the queue before it's written
+	 */
+	public static final String DATA_EVENTLOG_FLUSH = "zieook.data.eventlog.flush.ms";
+
+	/**
+	 * If true a request waits (at most one flush interval) for space in a full event queue, otherwise the event is
+	 * dropped right away
+	 */
+	public static final String DATA_EVENTLOG_BLOCK = "zieook.data.eventlog.block";
+
+	/**
+	 * Maximum number of sources the data server queries at the same time for multi source (MSrc) requests
+	 */
+	public static final String DATA_MSRC_THREADS = "zieook.data.msrc.threads";
+
+	/**
+	 * Maximum time in milliseconds a multi source request waits for its sources, slower sources are left out
+	 */
+	public static final String DATA_MSRC_TIMEOUT = "zieook.data.msrc.timeout.ms";
+
+	/**
+	 * Maximum number of ratings in one bulk rating request, larger requests are rejected
+	 */
+	public static final String DATA_RATINGS_BATCH_MAX = "zieook.data.ratings.batch.max";
+
+	/**
+	 * Width of the count-min sketches of the real-time statistics of the data server, 0 disables the real-time
+	 * statistics
+	 */
+	public static final String DATA_LIVE_WIDTH = "zieook.data.live.width";
+
+	/**
+	 * Number of heavy hitters the real-time statistics keep per list and time window
+	 */
+	public static final String DATA_LIVE_TOPK = "zieook.data.live.topk";
+
+	/**
+	 * Time in milliseconds between two writes of the hourly real-time counts to the statistics table
+	 */
+	public static final String DATA_LIVE_FLUSH = "zieook.data.live.flush.ms";
+
 	/**
 	 * Key array, these will be read from System.getProperty and override the configuration file setting.
 	 */
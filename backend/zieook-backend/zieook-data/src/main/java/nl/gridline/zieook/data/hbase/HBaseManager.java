@@ -113,12 +113,58 @@ public class HBaseManager
 	}
 
 	/**
-	 * Checks if the given table descriptor has different columns (names) than the given one, if so return true.
+	 * Create a table that is pre-split on the given keys
+	 * @param descriptor table descriptor
+	 * @param splitKeys the first row of every region but the first one
+	 * @throws IOException
+	 */
+	public void createTable(HTableDescriptor descriptor, byte[][] splitKeys) throws IOException
+	{
+		LOG.info("creating table: {} with {} regions", descriptor.getNameAsString(), splitKeys.length + 1);
+		admin.createTable(descriptor, splitKeys);
+	}
+
+	/**
+	 * Replace the descriptor of an existing table, e.g. to change a table value. The table is disabled during the
+	 * update.
+	 * @param descriptor the new table descriptor
+	 * @throws IOException
+	 */
+	public void modifyTable(HTableDescriptor descriptor) throws IOException
+	{
+		String name = descriptor.getNameAsString();
+		LOG.info("modifying table: {}", name);
+		disableTable(name);
+		try
+		{
+			admin.modifyTable(descriptor.getName(), descriptor);
+		}
+		finally
+		{
+			enableTable(name);
+		}
+	}
+
+	/**
+	 * Checks if the given table descriptor has different columns (names) than the given one, or columns with different
+	 * storage settings (see {@link StorageProfile}), if so return true.
 	 * @param updates
 	 * @return {@code true} if the table needs to be updated or {@code false} if not
 	 * @throws IOException
 	 */
 	public boolean needsUpdate(final HTableDescriptor updates) throws IOException
+	{
+		return needsUpdate(updates, true);
+	}
+
+	/**
+	 * Checks if the given table descriptor has different columns (names) than the given one, if so return true.
+	 * @param updates
+	 * @param includeProfiles also compare the storage settings of the columns (see {@link StorageProfile})
+	 * @return {@code true} if the table needs to be updated or {@code false} if not
+	 * @throws IOException
+	 */
+	public boolean needsUpdate(final HTableDescriptor updates, boolean includeProfiles) throws IOException
 	{
 		String name = updates.getNameAsString();
 		LOG.info("checking to update table: {}", name);
@@ -164,10 +210,38 @@ public class HBaseManager
 			}
 		}
 
+		for (HColumnDescriptor family : families)
+		{
+			HColumnDescriptor update = updates.getFamily(family.getName());
+			if (includeProfiles && update != null && StorageProfile.differs(family, update))
+			{
+				LOG.info("column '{}' of <{}> needs new storage settings: {}", new Object[]{family.getNameAsString(),
+						name, update});
+				result = true;
+			}
+		}
+
 		return result;
 	}
 
+	/**
+	 * Adds and deletes columns of an existing table to match the given descriptor, and applies changed storage
+	 * settings. The table should be disabled.
+	 * @param updates
+	 * @throws IOException
+	 */
 	public void updateTable(final HTableDescriptor updates) throws IOException
+	{
+		updateTable(updates, true);
+	}
+
+	/**
+	 * Adds and deletes columns of an existing table to match the given descriptor. The table should be disabled.
+	 * @param updates
+	 * @param includeProfiles also apply changed storage settings of the columns (see {@link StorageProfile})
+	 * @throws IOException
+	 */
+	public void updateTable(final HTableDescriptor updates, boolean includeProfiles) throws IOException
 	{
 		// only do something if the table does exists:
 		String name = updates.getNameAsString();
@@ -217,6 +291,17 @@ public class HBaseManager
 				admin.deleteColumn(name, famName);
 			}
 		}
+
+		for (HColumnDescriptor family : families)
+		{
+			HColumnDescriptor update = updates.getFamily(family.getName());
+			if (includeProfiles && update != null && StorageProfile.differs(family, update))
+			{
+				// new settings apply to new store files, existing files change on the next major compaction:
+				LOG.info("Going to modify column family '{}' of table <{}>", family.getNameAsString(), name);
+				admin.modifyColumn(name, update);
+			}
+		}
 	}
 
 	private HColumnDescriptor getDescriptorFor(String name, HTableDescriptor tabledescriptor)
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase;
+
+import nl.gridline.zieook.configuration.Config;
+
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.io.hfile.Compression;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+
+/**
+ * Storage settings of the column families, per kind of data. Every profile has built in defaults that can be
+ * overridden in the configuration, e.g. <tt>zieook.hbase.storage.eventlog.ttl</tt>, see
+ * {@link Config#HBASE_STORAGE}. The table descriptors create their families through a profile, so
+ * {@link HBaseManager#needsUpdate(org.apache.hadoop.hbase.HTableDescriptor, boolean)} finds the families of existing
+ * tables that differ. Only the explicit table update of the process updates tool applies the settings, the updates
+ * the servers do themselves just add missing families.
+ * <p />
+ * Project zieook-data<br />
+ * StorageProfile.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public enum StorageProfile
+{
+	/**
+	 * event log: written once, read by user and by the statistics jobs, expires
+	 */
+	EVENTLOG("eventlog", "gz", "row", 0, 400, 0, false),
+
+	/**
+	 * statistics: aggregates per day, expire
+	 */
+	STATISTICS("statistics", "gz", "none", 0, 400, 0, false),
+
+	/**
+	 * real-time statistics: hourly counters, incremented by the data server, the batch statistics take over
+	 */
+	STATISTICS_LIVE("statistics-live", "none", "row", 0, 7, 1, false),
+
+	/**
+	 * recommendations: random reads of single rows, rewritten by every model
+	 */
+	RECOMMENDATION("recommendation", "none", "row", 0, 0, 1, true),
+
+	/**
+	 * raw collection data: large xml documents that are hardly read
+	 */
+	COLLECTION_RAW("collection-raw", "gz", "none", 256 * 1024, 0, 0, false),
+
+	/**
+	 * interpreted collection data: random reads of single items
+	 */
+	COLLECTION("collection", "none", "row", 0, 0, 0, false);
+
+	private static final int DAY = 24 * 60 * 60;
+
+	private final String name;
+	private final String compression;
+	private final String bloomFilter;
+	private final int blockSize;
+	private final int ttlDays;
+	private final int versions;
+	private final boolean inMemory;
+
+	/**
+	 * @param name name of the profile in the configuration
+	 * @param compression compression: none, gz or lzo
+	 * @param bloomFilter bloom filter: none, row or rowcol
+	 * @param blockSize block size in bytes, 0 for the default
+	 * @param ttlDays time to live in days, 0 keeps the data forever
+	 * @param versions maximum number of versions, 0 for the default
+	 * @param inMemory true to give the blocks priority in the block cache
+	 */
+	private StorageProfile(String name, String compression, String bloomFilter, int blockSize, int ttlDays,
+			int versions, boolean inMemory)
+	{
+		this.name = name;
+		this.compression = compression;
+		this.bloomFilter = bloomFilter;
+		this.blockSize = blockSize;
+		this.ttlDays = ttlDays;
+		this.versions = versions;
+		this.inMemory = inMemory;
+	}
+
+	/**
+	 * @return name of the profile in the configuration
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Create a column family with the settings of this profile
+	 * @param family family name
+	 * @return a column descriptor
+	 */
+	public HColumnDescriptor create(String family)
+	{
+		return apply(new HColumnDescriptor(family));
+	}
+
+	/**
+	 * Set the settings of this profile on a column family
+	 * @param family column descriptor
+	 * @return the column descriptor
+	 */
+	public HColumnDescriptor apply(HColumnDescriptor family)
+	{
+		Config config = Config.getInstance();
+		family.setCompressionType(Compression.getCompressionAlgorithmByName(config.get(getKey("compression"),
+				compression).toLowerCase()));
+		family.setBloomFilterType(StoreFile.BloomType.valueOf(config.get(getKey("bloomfilter"), bloomFilter)
+				.toUpperCase()));
+
+		int size = config.getInt(getKey("blocksize"), blockSize);
+		family.setBlocksize(size > 0 ? size : HColumnDescriptor.DEFAULT_BLOCKSIZE);
+
+		long ttl = config.getLong(getKey("ttl"), ttlDays) * DAY;
+		family.setTimeToLive(ttl > 0 && ttl < HConstants.FOREVER ? (int) ttl : HConstants.FOREVER);
+
+		int max = config.getInt(getKey("versions"), versions);
+		family.setMaxVersions(max > 0 ? max : HColumnDescriptor.DEFAULT_VERSIONS);
+
+		family.setInMemory(config.getBoolean(getKey("inmemory"), inMemory));
+		return family;
+	}
+
+	/**
+	 * Returns true if the storage settings of two column families differ
+	 * @param current the family of an existing table
+	 * @param wanted the family as it should be
+	 * @return true if the existing family should be modified
+	 */
+	public static boolean differs(HColumnDescriptor current, HColumnDescriptor wanted)
+	{
+		return current.getCompressionType() != wanted.getCompressionType()
+				|| current.getBloomFilterType() != wanted.getBloomFilterType()
+				|| current.getBlocksize() != wanted.getBlocksize()
+				|| current.getTimeToLive() != wanted.getTimeToLive()
+				|| current.getMaxVersions() != wanted.getMaxVersions() || current.isInMemory() != wanted.isInMemory()
+				|| current.isBlockCacheEnabled() != wanted.isBlockCacheEnabled();
+	}
+
+	private String getKey(String setting)
+	{
+		return Config.HBASE_STORAGE + name + '.' + setting;
+	}
+}
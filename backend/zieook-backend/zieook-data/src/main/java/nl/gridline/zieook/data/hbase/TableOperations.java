@@ -67,12 +67,22 @@ public interface TableOperations
 	public boolean drop(String name);
 
 	/**
-	 * Adds and deletes column from an existing table, matching the table descriptor with the existing table.
+	 * Adds and deletes column from an existing table, matching the table descriptor with the existing table. The
+	 * storage settings of existing columns are left as they are.
 	 * @param name table name
 	 * @return true if any updates are applied.
 	 */
 	public boolean update(String name) throws IOException;
 
+	/**
+	 * Adds and deletes column from an existing table, matching the table descriptor with the existing table.
+	 * @param name table name
+	 * @param includeProfiles also apply changed storage settings to existing columns, see
+	 *           {@link StorageProfile}
+	 * @return true if any updates are applied.
+	 */
+	public boolean update(String name, boolean includeProfiles) throws IOException;
+
 	/**
 	 * Return the table descriptor, if changes where made to the table this does not need to match actual table. Use
 	 * {@see TableOperations#getTableDescriptor(String)} to get the actual, existing table descriptor.
@@ -26,6 +26,7 @@ import java.util.NavigableMap;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.workflow.model.Collection;
 
 import org.apache.hadoop.hbase.client.Delete;
@@ -35,9 +36,6 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -133,18 +131,16 @@ public class CollectionMetaTable
 	{
 		List<String> result = new ArrayList<String>();
 
-		Scan scan = new Scan();
-		scan.addFamily(COLUMN_COLLECTION);
-		RowFilter filter;
+		byte[] prefix;
 		if (cp != null)
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getCollectionMetaKey(cp)));
+			prefix = RowKeys.getCollectionMetaKey(cp);
 		}
 		else
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getCollectionMetaKey()));
+			prefix = RowKeys.getCollectionMetaKey();
 		}
-		scan.setFilter(filter);
+		Scan scan = ScanBuilder.prefix(prefix).family(COLUMN_COLLECTION).list().build();
 		try
 		{
 			HTableInterface tableInterface = table.getTable();
@@ -177,18 +173,16 @@ public class CollectionMetaTable
 	{
 		List<Collection> result = new ArrayList<Collection>();
 
-		Scan scan = new Scan();
-		scan.addFamily(COLUMN_COLLECTION);
-		RowFilter filter;
+		byte[] prefix;
 		if (cp != null)
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getCollectionMetaKey(cp)));
+			prefix = RowKeys.getCollectionMetaKey(cp);
 		}
 		else
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getCollectionMetaKey()));
+			prefix = RowKeys.getCollectionMetaKey();
 		}
-		scan.setFilter(filter);
+		Scan scan = ScanBuilder.prefix(prefix).family(COLUMN_COLLECTION).list().build();
 		try
 		{
 			HTableInterface tableInterface = table.getTable();
@@ -19,6 +19,7 @@ package nl.gridline.zieook.data.hbase.dao;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NavigableMap;
 
@@ -27,6 +28,7 @@ import nl.gridline.zieook.data.hbase.model.HBaseCollectionTable;
 import nl.gridline.zieook.mapreduce.HBasePUTFactory;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.Categories;
 import nl.gridline.zieook.model.CollectionItem;
 import nl.gridline.zieook.model.ModelConstants;
@@ -39,12 +41,9 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.Filter;
-import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.RegexStringComparator;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
@@ -79,11 +78,26 @@ public class CollectionTable
 
 	private final int maxcategories;
 
+	// optional cache of decoded items:
+	private final MetadataCache cache;
+
 	// private final String split;
 
 	public CollectionTable(HBaseCollectionTable table)
+	{
+		this(table, null);
+	}
+
+	/**
+	 * Create a collection table that keeps recently read collection items in the given cache, only use this on the read
+	 * side - items are not invalidated on change, they simply expire.
+	 * @param table collection table
+	 * @param cache item cache, or null for no caching
+	 */
+	public CollectionTable(HBaseCollectionTable table, MetadataCache cache)
 	{
 		this.table = table;
+		this.cache = cache;
 
 		Config conf = Config.getInstance(Config.ZIEOOK_DATAMANAGER_FILE);
 
@@ -125,15 +139,152 @@ public class CollectionTable
 
 	public CollectionItem getItem(String cp, String collection, long item)
 	{
+		final String key = getCacheKey(collection, item);
+		if (cache != null)
+		{
+			CollectionItem result = (CollectionItem) cache.get(cp, key);
+			if (result != null)
+			{
+				return result;
+			}
+		}
+
 		Get get = new Get(RowKeys.getCollectionKey(collection, item)).addFamily(COLUMN_INTR);
 		Result result = table.get(cp, get);
 		if (!result.isEmpty())
 		{
-			return new CollectionItem(result.getFamilyMap(COLUMN_INTR));
+			CollectionItem data = new CollectionItem(result.getFamilyMap(COLUMN_INTR));
+			if (cache != null)
+			{
+				cache.put(cp, key, data);
+			}
+			return data;
 		}
 		return null;
 	}
 
+	/**
+	 * Returns a list of items from a collection in a single multi-get, items that are cached are not read again.
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param items item id's
+	 * @return the items in the same order as <tt>items</tt>, with <tt>null</tt> for items that do not exist
+	 */
+	public List<CollectionItem> getItems(String cp, String collection, List<Long> items)
+	{
+		CollectionItem[] result = new CollectionItem[items.size()];
+
+		// collect what is not in the cache:
+		List<Get> gets = new ArrayList<Get>(items.size());
+		List<Integer> index = new ArrayList<Integer>(items.size());
+		for (int i = 0; i < result.length; i++)
+		{
+			Long item = items.get(i);
+			if (item == null)
+			{
+				continue;
+			}
+			if (cache != null)
+			{
+				result[i] = (CollectionItem) cache.get(cp, getCacheKey(collection, item));
+			}
+			if (result[i] == null)
+			{
+				gets.add(new Get(RowKeys.getCollectionKey(collection, item)).addFamily(COLUMN_INTR));
+				index.add(i);
+			}
+		}
+
+		HTableInterface tableInterface = gets.isEmpty() ? null : table.getTable(cp);
+		if (tableInterface != null)
+		{
+			try
+			{
+				Result[] rows = tableInterface.get(gets);
+				for (int i = 0; i < rows.length; i++)
+				{
+					if (rows[i] != null && !rows[i].isEmpty())
+					{
+						int n = index.get(i);
+						result[n] = new CollectionItem(rows[i].getFamilyMap(COLUMN_INTR));
+						if (cache != null)
+						{
+							cache.put(cp, getCacheKey(collection, items.get(n)), result[n]);
+						}
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				LOG.error("failed to get " + gets.size() + " items from " + cp + "/" + collection, e);
+			}
+			finally
+			{
+				table.putTable(tableInterface);
+			}
+		}
+
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Test which of the given items exist, using a single multi-get that only returns the first cell of every row.
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param items item id's
+	 * @return per item {@code true} if it exists, in the same order as <tt>items</tt>
+	 */
+	public boolean[] isCollectionItems(String cp, String collection, List<Long> items)
+	{
+		boolean[] result = new boolean[items.size()];
+		List<Get> gets = new ArrayList<Get>(items.size());
+		List<Integer> index = new ArrayList<Integer>(items.size());
+		for (int i = 0; i < result.length; i++)
+		{
+			Long item = items.get(i);
+			if (item == null)
+			{
+				continue;
+			}
+			if (cache != null && cache.get(cp, getCacheKey(collection, item)) != null)
+			{
+				result[i] = true;
+			}
+			else
+			{
+				gets.add(new Get(RowKeys.getCollectionKey(collection, item)).setFilter(new FirstKeyOnlyFilter()));
+				index.add(i);
+			}
+		}
+
+		HTableInterface tableInterface = gets.isEmpty() ? null : table.getTable(cp);
+		if (tableInterface != null)
+		{
+			try
+			{
+				Result[] rows = tableInterface.get(gets);
+				for (int i = 0; i < rows.length; i++)
+				{
+					result[index.get(i)] = rows[i] != null && !rows[i].isEmpty();
+				}
+			}
+			catch (IOException e)
+			{
+				LOG.error("failed to check " + gets.size() + " items in " + cp + "/" + collection, e);
+			}
+			finally
+			{
+				table.putTable(tableInterface);
+			}
+		}
+		return result;
+	}
+
+	private static String getCacheKey(String collection, long item)
+	{
+		return collection + '/' + item;
+	}
+
 	public boolean isCollectionItem(String cp, String collection, long item)
 	{
 		return table.exists(cp, new Get(RowKeys.getCollectionKey(collection, item)));
@@ -280,16 +431,12 @@ public class CollectionTable
 		Categories result = new Categories(categories);
 
 		// setup a scan:
-		Scan scan = new Scan();
-
-		Filter filter = new RowFilter(CompareOp.EQUAL,
-				new BinaryPrefixComparator(RowKeys.getCategoriesPrefix(collection)));
-
-		scan.setFilter(filter);
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getCategoriesPrefix(collection));
 		if (from != null)
 		{
-			scan.setStartRow(RowKeys.getCategoriesKey(collection, from));
+			builder.from(RowKeys.getCategoriesKey(collection, from));
 		}
+		Scan scan = builder.lookup(maxcategories).build();
 		scan.addColumn(COLLECTION_CATEGORY_COLLUMN, COLLECTION_CATEGORY_NAME);
 		try
 		{
@@ -380,24 +527,19 @@ public class CollectionTable
 	 */
 	public List<CollectionItem> getItems(String cp, String collection, int size)
 	{
-		Filter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		Scan scan = new Scan().addFamily(COLUMN_INTR).setFilter(filter);
+		Scan scan = ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(COLUMN_INTR).lookup(size).build();
 		return getItems(cp, scan, size);
 
 	}
 
 	public List<CollectionItem> searchItems(String cp, String collection, String regexTitle, int size)
 	{
-		FilterList filters = new FilterList();
-
-		filters
-				.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection))));
 		SingleColumnValueFilter value = new SingleColumnValueFilter(COLUMN_INTR, ModelConstants.TITLE, CompareOp.EQUAL,
 				new RegexStringComparator(regexTitle));
 		value.setFilterIfMissing(true);
-		filters.addFilter(value);
 
-		Scan scan = new Scan().addFamily(COLUMN_INTR).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(COLUMN_INTR).filter(value)
+				.lookup(size).build();
 		return getItems(cp, scan, size);
 	}
 
@@ -410,9 +552,8 @@ public class CollectionTable
 	 */
 	public List<CollectionItem> getItems(String cp, String collection, long item, int size)
 	{
-		Scan scan = new Scan(RowKeys.getCollectionKey(collection, item)).addFamily(COLUMN_INTR);
-		Filter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		scan.setFilter(filter);
+		Scan scan = ScanBuilder.prefix(RowKeys.getCollectionKey(collection))
+				.from(RowKeys.getCollectionKey(collection, item)).family(COLUMN_INTR).lookup(size).build();
 		return getItems(cp, scan, size);
 	}
 
@@ -422,14 +563,10 @@ public class CollectionTable
 	 */
 	public void deleteCollection(String cp, String collection)
 	{
-		FilterList filters = new FilterList();
-		filters
-				.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getCollectionKey(collection))));
-
-		Scan scan = new Scan().addFamily(COLUMN_INTR).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(COLUMN_INTR).batch().build();
 		deleteAll(scan, cp, COLUMN_INTR);
 
-		scan = new Scan().addFamily(COLUMN_RAW).setFilter(filters);
+		scan = ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(COLUMN_RAW).batch().build();
 		deleteAll(scan, cp, COLUMN_RAW);
 
 	}
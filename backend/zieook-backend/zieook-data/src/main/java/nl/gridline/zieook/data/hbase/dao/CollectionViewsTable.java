@@ -32,6 +32,8 @@ import nl.gridline.zieook.data.hbase.model.HBaseEventLogTable;
 import nl.gridline.zieook.data.hbase.model.HBaseUserTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.SaltedKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.CollectionItem;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.model.Rating;
@@ -91,7 +93,8 @@ public class CollectionViewsTable
 		List<UserView> result = new ArrayList<UserView>();
 		Set<Long> allIds = new HashSet<Long>();
 
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(getUserViews(user, start, end));
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey()).family(EVENTLOG_COLUMN_USERVIEW)
+				.filter(getUserViews(user, start, end)).batch().build();
 
 		SingleColumnValueFilter filter = new SingleColumnValueFilter(COLUMN_INTR, ModelConstants.TITLE, CompareOp.EQUAL,
 				new RegexStringComparator(regexp));
@@ -99,7 +102,8 @@ public class CollectionViewsTable
 		try
 		{
 			HTableInterface tableInterface = eventsTable.getTable(cp);
-			ResultScanner scanner = tableInterface.getScanner(scan);
+			SaltedScanner scanner = new SaltedScanner(tableInterface, SaltedKeys.scatter(scan, user,
+					eventsTable.getBuckets(cp)));
 			try
 			{
 				Result[] rr = null;
@@ -153,11 +157,13 @@ public class CollectionViewsTable
 		Set<Long> allIds = new HashSet<Long>();
 		SortedSet<Long> items = new TreeSet<Long>();
 
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(getUserViews(user, start, end));
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey()).family(EVENTLOG_COLUMN_USERVIEW)
+				.filter(getUserViews(user, start, end)).batch().build();
 		try
 		{
 			HTableInterface tableInterface = eventsTable.getTable(cp);
-			ResultScanner scanner = tableInterface.getScanner(scan);
+			SaltedScanner scanner = new SaltedScanner(tableInterface, SaltedKeys.scatter(scan, user,
+					eventsTable.getBuckets(cp)));
 			try
 			{
 				Result[] rr = null;
@@ -219,18 +225,12 @@ public class CollectionViewsTable
 	{
 		List<Rating> result = new ArrayList<Rating>();
 
-		byte[] start;
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getRatingKey(collection, user));
 		if (startItem != null)
 		{
-			start = RowKeys.getRatingKey(collection, user, startItem.longValue());
-		}
-		else
-		{
-			start = RowKeys.getRatingKey(collection, user);
+			builder.from(RowKeys.getRatingKey(collection, user, startItem.longValue()));
 		}
-
-		Scan scan = new Scan(start).addFamily(COLUMN_RATING).setFilter(
-				new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey(collection, user))));
+		Scan scan = builder.family(COLUMN_RATING).batch().build();
 
 		SingleColumnValueFilter filter = new SingleColumnValueFilter(COLUMN_INTR, ModelConstants.TITLE, CompareOp.EQUAL,
 				new RegexStringComparator(regexp));
@@ -286,18 +286,12 @@ public class CollectionViewsTable
 		List<CollectionItem> result = new ArrayList<CollectionItem>();
 		SortedSet<Long> items = new TreeSet<Long>();
 
-		byte[] start;
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getRatingKey(collection, user));
 		if (startItem != null)
 		{
-			start = RowKeys.getRatingKey(collection, user, startItem.longValue());
-		}
-		else
-		{
-			start = RowKeys.getRatingKey(collection, user);
+			builder.from(RowKeys.getRatingKey(collection, user, startItem.longValue()));
 		}
-
-		Scan scan = new Scan(start).addFamily(COLUMN_RATING).setFilter(
-				new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey(collection, user))));
+		Scan scan = builder.family(COLUMN_RATING).batch().build();
 
 		Set<Long> allIds = new HashSet<Long>();
 		try
@@ -426,9 +420,7 @@ public class CollectionViewsTable
 		}
 
 		FilterList filters = new FilterList();
-		// filter on collection:
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection))));
-		// filter on items:
+		// filter on items, the scan is limited to the collection:
 		filters.addFilter(itemFilter);
 
 		SingleColumnValueFilter value = new SingleColumnValueFilter(COLUMN_INTR, ModelConstants.TITLE, CompareOp.EQUAL,
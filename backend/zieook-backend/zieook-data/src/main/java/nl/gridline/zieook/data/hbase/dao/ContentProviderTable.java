@@ -25,6 +25,8 @@ import java.util.NavigableMap;
 
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.workflow.model.ContentProvider;
 
 import org.apache.hadoop.hbase.client.Delete;
@@ -34,9 +36,6 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +59,7 @@ public class ContentProviderTable
 			.toBytes(HBaseTableConstants.CONFIGURATION_COLUMN_CONTENTPROVIDER);
 	private static final String CONTENT_PROVIDER = "cp_";
 	private static final byte[] CONTENT_PRIVIDER_BYTES = Bytes.toBytes(CONTENT_PROVIDER);
+	private static final byte[] Q_METADATA_UPDATED = Bytes.toBytes("metadata_updated");
 
 	private final HBaseConfigurationTable table;
 
@@ -101,9 +101,7 @@ public class ContentProviderTable
 	{
 		List<ContentProvider> providers = new LinkedList<ContentProvider>();
 
-		Scan scan = new Scan();
-		scan.addFamily(COLUMN_CONTENTPROVIDER);
-		scan.setFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(CONTENT_PRIVIDER_BYTES)));
+		Scan scan = ScanBuilder.prefix(CONTENT_PRIVIDER_BYTES).family(COLUMN_CONTENTPROVIDER).list().build();
 
 		try
 		{
@@ -162,4 +160,45 @@ public class ContentProviderTable
 		table.delete(null, delete);
 	}
 
+	/**
+	 * Mark the meta data (content provider, collections or recommenders) of a content provider as changed, readers use
+	 * this to invalidate cached meta data
+	 * @param cp content provider
+	 */
+	public void putMetadataUpdated(String cp)
+	{
+		Put put = new Put(RowKeys.getMetadataKey(cp));
+		put.add(COLUMN_CONTENTPROVIDER, Q_METADATA_UPDATED, Bytes.toBytes(System.currentTimeMillis()));
+		table.put(put);
+	}
+
+	/**
+	 * Remove the meta data mark of a deleted content provider, readers see it as changed
+	 * @param cp content provider
+	 */
+	public void deleteMetadataUpdated(String cp)
+	{
+		table.delete(null, new Delete(RowKeys.getMetadataKey(cp)));
+	}
+
+	/**
+	 * Return the time the meta data of the content provider last changed
+	 * @param cp content provider
+	 * @return time in ms, or 0 if it was never marked
+	 */
+	public long getMetadataUpdated(String cp)
+	{
+		Get get = new Get(RowKeys.getMetadataKey(cp)).addColumn(COLUMN_CONTENTPROVIDER, Q_METADATA_UPDATED);
+		Result result = table.get(get);
+		if (!result.isEmpty())
+		{
+			byte[] data = result.getValue(COLUMN_CONTENTPROVIDER, Q_METADATA_UPDATED);
+			if (data != null)
+			{
+				return Bytes.toLong(data);
+			}
+		}
+		return 0;
+	}
+
 }
@@ -29,6 +29,8 @@ import java.util.concurrent.TimeUnit;
 
 import nl.gridline.zieook.data.hbase.model.HBaseEventLogTable;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.SaltedKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.model.Recommended;
 import nl.gridline.zieook.model.Recommended.RecommenderType;
@@ -42,12 +44,8 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.FamilyFilter;
 import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
@@ -58,6 +56,9 @@ import org.slf4j.LoggerFactory;
  * TODO:
  * the user viewekey is faulty. The order now is
  * <p />
+ * If the table is salted (see {@link SaltedKeys}) every row key is prefixed with the bucket of the user. Reads of a
+ * single user read one bucket, reads of all users read every bucket and merge the rows in the unsalted order.
+ * <p />
  * Project zieook-data<br />
  * UserStatsTable.java created 6 jan. 2011
  * <p />
@@ -101,15 +102,8 @@ public class EventLogTable
 		LOG.debug("filtering: cp/recommender/user <start,end> - size == {}/{}/{}  <{},{}>[{}]", new Object[]{cp,
 				recommender, user, start, end, size});
 
-		FilterList filters = new FilterList();
-
-		// basic filter comes first: only look for the given user:
-
-		if (start == null && end == null)
-		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getUserViewIndexKey(
-					recommender, user))));
-		}
+		// only look for the given user:
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getUserViewIndexKey(recommender, user));
 
 		// NOTE:
 		// timestamp's are sorted in inverted order: like Long.MAX_VALUE-time
@@ -119,27 +113,24 @@ public class EventLogTable
 
 		if (end != null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER, new BinaryPrefixComparator(RowKeys.getUserViewIndexKey(
-					recommender, user, end))));
-
+			builder.from(ScanBuilder.getStopRow(RowKeys.getUserViewIndexKey(recommender, user, end)));
 		}
 		if (start != null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.LESS_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getUserViewIndexKey(recommender, user, start))));
+			builder.to(ScanBuilder.getStopRow(RowKeys.getUserViewIndexKey(recommender, user, start)));
 		}
 
 		List<UserView> result = new ArrayList<UserView>();
 
 		Set<Long> items = new HashSet<Long>(); // track items, so we only add them once.
 
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW_INDEX).setFilter(filters);
+		Scan scan = builder.family(EVENTLOG_COLUMN_USERVIEW_INDEX).lookup(size).build();
 
 		try
 		{
 
 			HTableInterface tableInterface = table.getTable(cp);
-			ResultScanner scanner = tableInterface.getScanner(scan);
+			SaltedScanner scanner = getScanner(tableInterface, cp, scan, user);
 			byte[] qualifier = RowKeys.getUserViewIndexKey();
 
 			try
@@ -224,14 +215,8 @@ public class EventLogTable
 	{
 		List<Recommended> result = new ArrayList<Recommended>();
 
-		Scan scan = new Scan();
-		scan.addFamily(EVENTLOG_COLUMN_RECOMMENDED);
-
 		FilterList filters = new FilterList();
 
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommendedItemKey(
-				recommender, user))));
-
 		// time stamp filter:
 		if (startTime != null)
 		{
@@ -248,12 +233,13 @@ public class EventLogTable
 			filters.addFilter(endFilter);
 		}
 
-		scan.setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRecommendedItemKey(recommender, user))
+				.family(EVENTLOG_COLUMN_RECOMMENDED).filter(filters).lookup(size).build();
 
 		try
 		{
 			HTableInterface tableInterface = table.getTable(cp);
-			ResultScanner scanner = tableInterface.getScanner(scan);
+			SaltedScanner scanner = getScanner(tableInterface, cp, scan, user);
 			try
 			{
 				int count = 0;
@@ -323,7 +309,7 @@ public class EventLogTable
 	{
 		// is it in seconds or milliseconds?
 
-		byte[] row = RowKeys.getUserViewKey(recommender, user, item, stamp);
+		byte[] row = salt(cp, RowKeys.getUserViewKey(recommender, user, item, stamp), user, item);
 
 		Get get = new Get(row).addFamily(EVENTLOG_COLUMN_USERVIEW);
 		Result result = table.get(cp, get);
@@ -355,7 +341,7 @@ public class EventLogTable
 
 	private Recommended getRecommended(String cp, String recommender, long user, long item, long stamp)
 	{
-		byte[] row = RowKeys.getRecommendedItemKey(recommender, user, item, stamp);
+		byte[] row = salt(cp, RowKeys.getRecommendedItemKey(recommender, user, item, stamp), user, item);
 		Get get = new Get(row).addFamily(EVENTLOG_COLUMN_RECOMMENDED);
 		Result result = table.get(cp, get);
 		if (!result.isEmpty())
@@ -380,6 +366,19 @@ public class EventLogTable
 	 * @throws IOException
 	 */
 	public void putView(String cp, String recommender, UserView view, TimeUnit unit)
+	{
+		table.put(cp, createViewPuts(cp, recommender, view, unit));
+	}
+
+	/**
+	 * Create the puts (view and view index) that store a view, without writing them
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param view the view, the date is set to now if not given and converted to milliseconds
+	 * @param unit time unit of the view date
+	 * @return a list of puts
+	 */
+	public List<Put> createViewPuts(String cp, String recommender, UserView view, TimeUnit unit)
 	{
 		if (view.getDate() == null)
 		{
@@ -393,16 +392,19 @@ public class EventLogTable
 			}
 			// else: already milliseconds, so ignore.
 		}
-		putView(cp, recommender, view);
+		return createViewPuts(cp, recommender, view);
 	}
 
-	private void putView(String cp, String recommender, UserView view)
+	private List<Put> createViewPuts(String cp, String recommender, UserView view)
 	{
 		// set recommender to view!
 		view.setRecommender(recommender);
 
-		byte[] row = RowKeys.getUserViewKey(recommender, view);
-		byte[] rowi = RowKeys.getUserViewIndexKey(recommender, view);
+		final int buckets = table.getBuckets(cp);
+		final long user = view.getUser();
+		final long item = view.getItem();
+		byte[] row = SaltedKeys.salt(RowKeys.getUserViewKey(recommender, view), user, item, buckets);
+		byte[] rowi = SaltedKeys.salt(RowKeys.getUserViewIndexKey(recommender, view), user, item, buckets);
 		// LOG.debug("Storing view with: {}", Bytes.toString(row));
 		Put put = new Put(row);
 		Put puti = new Put(rowi).add(EVENTLOG_COLUMN_USERVIEW_INDEX, RowKeys.getUserViewKey(), row);
@@ -412,11 +414,26 @@ public class EventLogTable
 		{
 			put.add(EVENTLOG_COLUMN_USERVIEW, entry.getKey(), entry.getValue());
 		}
-		table.put(cp, put);
-		table.put(cp, puti);
+		List<Put> result = new ArrayList<Put>(2);
+		result.add(put);
+		result.add(puti);
+		return result;
 	}
 
 	public void putRecommend(String cp, String recommender, Recommended recommend, TimeUnit unit)
+	{
+		table.put(cp, createRecommendPut(cp, recommender, recommend, unit));
+	}
+
+	/**
+	 * Create the put that stores a recommend event, without writing it
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param recommend the recommend event, the date is set to now if not given and converted to milliseconds
+	 * @param unit time unit of the recommend date
+	 * @return a put
+	 */
+	public Put createRecommendPut(String cp, String recommender, Recommended recommend, TimeUnit unit)
 	{
 		if (recommend.getDate() == null)
 		{
@@ -430,24 +447,35 @@ public class EventLogTable
 			}
 			// else: already milliseconds, so ignore.
 		}
-		putRecommend(cp, recommender, recommend);
+		return createRecommendPut(cp, recommender, recommend);
 	}
 
-	private void putRecommend(String cp, String recommender, Recommended recommend)
+	private Put createRecommendPut(String cp, String recommender, Recommended recommend)
 	{
 		// type needs to be added to the key...
 		// if user_based: use user_id in the row key
 		// if item_based: use item_id int the row key
 
-		byte[] row = RowKeys.getRecommendedItemKey(recommender, recommend.getUser(), recommend.getItem(),
-				recommend.getDate());
+		byte[] row = salt(cp, RowKeys.getRecommendedItemKey(recommender, recommend.getUser(), recommend.getItem(),
+				recommend.getDate()), recommend.getUser(), recommend.getItem());
 		Put put = new Put(row);
 		Map<byte[], byte[]> data = recommend.toMap();
 		for (Map.Entry<byte[], byte[]> entry : data.entrySet())
 		{
 			put.add(EVENTLOG_COLUMN_RECOMMENDED, entry.getKey(), entry.getValue());
 		}
-		table.put(cp, put);
+		return put;
+	}
+
+	/**
+	 * Write a batch of puts created by {@link #createViewPuts(String, String, UserView, TimeUnit)} or
+	 * {@link #createRecommendPut(String, String, Recommended, TimeUnit)}
+	 * @param cp content provider
+	 * @param puts list of puts
+	 */
+	public void putEvents(String cp, List<Put> puts)
+	{
+		table.put(cp, puts);
 	}
 
 	public long deleteView(String cp, String recommender, long user, long item, long stamp, TimeUnit unit)
@@ -467,49 +495,37 @@ public class EventLogTable
 
 	private long deleteView(String cp, String recommender, long user, long item, long stamp)
 	{
-		byte[] row = RowKeys.getUserViewKey(recommender, user, item, stamp);
-		byte[] rowi = RowKeys.getUserViewIndexKey(recommender, user, item, stamp);
+		byte[] row = salt(cp, RowKeys.getUserViewKey(recommender, user, item, stamp), user, item);
+		byte[] rowi = salt(cp, RowKeys.getUserViewIndexKey(recommender, user, item, stamp), user, item);
 		table.delete(cp, Arrays.asList(new Delete(row), new Delete(rowi)));
 		return 1L;
 	}
 
 	public long deleteViews(String cp, String recommender)
 	{
-		FilterList filters = new FilterList();
-
-		// filter column-family & recommender name
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(EVENTLOG_COLUMN_USERVIEW)));
-		filters
-				.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getUserViewKey(recommender))));
-
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey(recommender)).family(EVENTLOG_COLUMN_USERVIEW).batch()
+				.build();
 
 		// TODO put this in a map-reduce delete.. that executes in background..
 		// we only need to pass the table & a scan object. should be quite easy
 
-		long count = deleteAll(scan, cp, EVENTLOG_COLUMN_RECOMMENDED);
+		long count = deleteAll(scan, Long.MIN_VALUE, cp, EVENTLOG_COLUMN_RECOMMENDED);
 
 		return count;
 	}
 
 	public long deleteViews(String cp, String recommender, long user)
 	{
-		FilterList filters = new FilterList();
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(EVENTLOG_COLUMN_USERVIEW)));
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getUserViewKey(recommender,
-				user))));
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(filters);
-		return deleteAll(scan, cp, EVENTLOG_COLUMN_USERVIEW);
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey(recommender, user)).family(EVENTLOG_COLUMN_USERVIEW)
+				.batch().build();
+		return deleteAll(scan, user, cp, EVENTLOG_COLUMN_USERVIEW);
 	}
 
 	public long deleteView(String cp, String recommender, long user, Long startDate, Long endDate)
 	{
-		FilterList filters = new FilterList();
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(EVENTLOG_COLUMN_USERVIEW)));
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getUserViewKey(recommender,
-				user))));
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(filters);
-		return deleteAll(scan, cp, EVENTLOG_COLUMN_USERVIEW);
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey(recommender, user)).family(EVENTLOG_COLUMN_USERVIEW)
+				.batch().build();
+		return deleteAll(scan, user, cp, EVENTLOG_COLUMN_USERVIEW);
 	}
 
 	public long deleteRecommend(String cp, String recommender, long user, long item, long stamp, TimeUnit unit)
@@ -529,7 +545,7 @@ public class EventLogTable
 
 	private long deleteRecommend(String cp, String recommender, long user, long item, long stamp)
 	{
-		byte[] row = RowKeys.getRecommendedItemKey(recommender, user, item, stamp);
+		byte[] row = salt(cp, RowKeys.getRecommendedItemKey(recommender, user, item, stamp), user, item);
 		Delete delete = new Delete(row);
 		table.delete(cp, delete);
 		return 1L;
@@ -537,26 +553,16 @@ public class EventLogTable
 
 	public long deleteRecommend(String cp, String recommender)
 	{
-		FilterList filters = new FilterList();
-
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(EVENTLOG_COLUMN_RECOMMENDED)));
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-				.getRecommendedItemKey(recommender))));
-
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_RECOMMENDED).setFilter(filters);
-		return deleteAll(scan, cp, EVENTLOG_COLUMN_RECOMMENDED);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRecommendedItemKey(recommender)).family(EVENTLOG_COLUMN_RECOMMENDED)
+				.batch().build();
+		return deleteAll(scan, Long.MIN_VALUE, cp, EVENTLOG_COLUMN_RECOMMENDED);
 	}
 
 	public long deleteRecommend(String cp, String recommender, long user)
 	{
-		FilterList filters = new FilterList();
-
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(EVENTLOG_COLUMN_RECOMMENDED)));
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommendedItemKey(
-				recommender, user))));
-
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_RECOMMENDED).setFilter(filters);
-		return deleteAll(scan, cp, EVENTLOG_COLUMN_RECOMMENDED);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRecommendedItemKey(recommender, user))
+				.family(EVENTLOG_COLUMN_RECOMMENDED).batch().build();
+		return deleteAll(scan, user, cp, EVENTLOG_COLUMN_RECOMMENDED);
 	}
 
 	/**
@@ -568,27 +574,26 @@ public class EventLogTable
 		// scan all views, create the 'new' indexed version of that view...
 
 		// scan all views:
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW);
-		scan.setCaching(1000);
+		Scan scan = ScanBuilder.prefix(RowKeys.getUserViewKey()).family(EVENTLOG_COLUMN_USERVIEW).batch().build();
 
 		List<Put> puts = new ArrayList<Put>(1000);
 		long count = 0;
-		ResultScanner scanner = null;
+		SaltedScanner scanner = null;
 		try
 		{
 			HTableInterface tableInterface = table.getTable(cp);
-			scanner = tableInterface.getScanner(scan);
+			scanner = getScanner(tableInterface, cp, scan, Long.MIN_VALUE);
 			for (Result rr = scanner.next(); rr != null; rr = scanner.next())
 			{
 				// decompose the existing row
 				// create a new row and put! - (cached put)
 
-				Object[] row = RowKeys.getStrStrLngLngLng(rr.getRow());
+				Object[] row = RowKeys.getStrStrLngLngLng(SaltedKeys.unsalt(rr.getRow()));
 				String recommender = row[1].toString();
 				long user = (Long) row[2];
 				long item = (Long) row[3];
 				long stamp = (Long) row[4]; // this is an inverted stamp... Long.MAX_VALUE - stamp
-				byte[] rowi = RowKeys.getUserViewIndexKeyNoInvert(recommender, user, item, stamp);
+				byte[] rowi = salt(cp, RowKeys.getUserViewIndexKeyNoInvert(recommender, user, item, stamp), user, item);
 				if (!table.exists(cp, new Get(rowi)))
 				{
 					puts.add(new Put(rowi).add(EVENTLOG_COLUMN_USERVIEW_INDEX, RowKeys.getUserViewIndexKey(), rr.getRow()));
@@ -633,12 +638,113 @@ public class EventLogTable
 
 	}
 
+	/**
+	 * Move all unsalted rows of the event log of a content provider to the salted layout with the given number of
+	 * buckets (see {@link SaltedKeys}). The data servers and statistics tasks of the content provider should not run
+	 * during the migration, an interrupted migration can simply be started again. The regions of the existing table are
+	 * not pre-split, HBase splits them as the salted rows grow.
+	 * @param cp content provider
+	 * @param buckets number of buckets
+	 * @return the number of moved rows
+	 * @throws IOException
+	 */
+	public long migrate(String cp, int buckets) throws IOException
+	{
+		if (buckets < 2 || buckets > SaltedKeys.MAX_BUCKETS)
+		{
+			throw new IllegalArgumentException("number of buckets should be in [2," + SaltedKeys.MAX_BUCKETS + "]: "
+					+ buckets);
+		}
+		final int current = table.getBuckets(cp);
+		if (current > 1 && current != buckets)
+		{
+			throw new IOException("the event log of <" + cp + "> is already salted with " + current + " buckets");
+		}
+		if (current != buckets)
+		{
+			// new events are written in the salted layout from now on:
+			table.setBuckets(cp, buckets);
+		}
+
+		// unsalted rows sort after all buckets:
+		Scan scan = ScanBuilder.all().from(new byte[]{SaltedKeys.MAX_BUCKETS}).batch().build();
+
+		List<Put> puts = new ArrayList<Put>(1000);
+		List<Delete> deletes = new ArrayList<Delete>(1000);
+		long count = 0;
+		HTableInterface tableInterface = table.getTable(cp);
+		ResultScanner scanner = tableInterface.getScanner(scan);
+		try
+		{
+			for (Result rr = scanner.next(); rr != null; rr = scanner.next())
+			{
+				// all event keys end with <user><item><stamp> or, for the view index, <user><stamp><item>
+				byte[] row = rr.getRow();
+				if (row.length < Bytes.SIZEOF_LONG * 3)
+				{
+					LOG.warn("skipping unknown row: {}", Bytes.toStringBinary(row));
+					continue;
+				}
+				final boolean index = rr.containsColumn(EVENTLOG_COLUMN_USERVIEW_INDEX, RowKeys.getUserViewKey())
+						|| rr.containsColumn(EVENTLOG_COLUMN_USERVIEW_INDEX, RowKeys.getUserViewIndexKey());
+				final long user = Bytes.toLong(row, row.length - (Bytes.SIZEOF_LONG * 3), Bytes.SIZEOF_LONG);
+				final long item = Bytes.toLong(row, row.length - (index ? Bytes.SIZEOF_LONG : Bytes.SIZEOF_LONG * 2),
+						Bytes.SIZEOF_LONG);
+
+				Put put = new Put(SaltedKeys.salt(row, user, item, buckets));
+				for (KeyValue kv : rr.raw())
+				{
+					// the view index points to the view row, which has the same user & item:
+					byte[] value = index ? SaltedKeys.salt(kv.getValue(), user, item, buckets) : kv.getValue();
+					put.add(kv.getFamily(), kv.getQualifier(), kv.getTimestamp(), value);
+				}
+				puts.add(put);
+				deletes.add(new Delete(row));
+				count++;
+
+				if (puts.size() >= 1000)
+				{
+					LOG.info("intermediate migrate, reached 1000 rows, total at {}", count);
+					tableInterface.put(puts);
+					tableInterface.delete(deletes);
+					puts.clear();
+					deletes.clear();
+				}
+			}
+			if (!puts.isEmpty())
+			{
+				tableInterface.put(puts);
+				tableInterface.delete(deletes);
+			}
+		}
+		finally
+		{
+			scanner.close();
+			table.putTable(tableInterface);
+		}
+
+		LOG.info("moved {} event log rows of <{}> to the salted layout", count, cp);
+		return count;
+	}
+
+	private SaltedScanner getScanner(HTableInterface tableInterface, String cp, Scan scan, long user)
+			throws IOException
+	{
+		return new SaltedScanner(tableInterface, SaltedKeys.scatter(scan, user, table.getBuckets(cp)));
+	}
+
+	private byte[] salt(String cp, byte[] row, long user, long item)
+	{
+		return SaltedKeys.salt(row, user, item, table.getBuckets(cp));
+	}
+
 	/**
 	 * Delete all rows produces by scan
 	 * @param scan a scan - be careful to produce a correct scan, it deletes stuf from the table!
+	 * @param user the user the scan is limited to, or {@link Long#MIN_VALUE} to scan all buckets of a salted table
 	 * @param cp content provider name
 	 */
-	private long deleteAll(Scan scan, String cp, byte[] family)
+	private long deleteAll(Scan scan, long user, String cp, byte[] family)
 	{
 
 		// scan!!!
@@ -648,7 +754,7 @@ public class EventLogTable
 		{
 			HTableInterface tableInterface = table.getTable(cp);
 
-			ResultScanner scanner = tableInterface.getScanner(scan);
+			SaltedScanner scanner = getScanner(tableInterface, cp, scan, user);
 			try
 			{
 				// get the rows from the table:
@@ -0,0 +1,377 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nl.gridline.zieook.data.hbase.dao.UserTable.UserCounters;
+import nl.gridline.zieook.model.Recommended;
+import nl.gridline.zieook.model.UserView;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind writer for the view and recommend events of the data API. Events are put in a bounded queue and written
+ * by a single background thread in batches: the event log puts are written as one list per content provider and the
+ * user view / recommend counters are coalesced per user, see {@link UserTable#putCounters(String, Map, long)}. A flush
+ * spends at most one flush interval on the counters, the counters of the users it didn't get to are added to the next
+ * flush. At most <em>queue size</em> users wait like that, the counters of more users are dropped.
+ * <p />
+ * Event logging is not critical, when the queue is full an event is dropped (and counted), or - if <em>block</em> is
+ * set - the caller waits at most one flush interval for space before the event is dropped.
+ * <p />
+ * Project zieook-data<br />
+ * EventLogWriter.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class EventLogWriter
+{
+	private static final Logger LOG = LoggerFactory.getLogger(EventLogWriter.class);
+
+	// wakes up the writer on shutdown:
+	private static final Event STOP = new Event(null, null, 0, false);
+
+	private final EventLogTable eventLogTable;
+	private final UserTable userTable;
+
+	private final BlockingQueue<Event> queue;
+	private final int maxPending;
+	private final Map<String, Map<Long, UserCounters>> pending = new HashMap<String, Map<Long, UserCounters>>();
+	private final int batchSize;
+	private final long flushInterval;
+	private final boolean block;
+
+	private final Thread writer;
+	private volatile boolean running;
+
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong written = new AtomicLong();
+	private volatile long lastFlushTime;
+	private volatile long maxFlushTime;
+
+	/**
+	 * Create a new event log writer, call {@link #start()} before use
+	 * @param eventLogTable event log table
+	 * @param userTable user table, for the view and recommend counters
+	 * @param queueSize maximum number of events waiting to be written
+	 * @param batchSize maximum number of events written in one flush
+	 * @param flushInterval maximum time in ms an event waits before it's written
+	 * @param block wait for space in the queue, instead of dropping the event right away
+	 */
+	public EventLogWriter(EventLogTable eventLogTable, UserTable userTable, int queueSize, int batchSize,
+			long flushInterval, boolean block)
+	{
+		this.eventLogTable = eventLogTable;
+		this.userTable = userTable;
+		this.batchSize = Math.max(1, batchSize);
+		this.flushInterval = Math.max(1, flushInterval);
+		this.block = block;
+		queue = new ArrayBlockingQueue<Event>(Math.max(1, queueSize));
+		maxPending = Math.max(1, queueSize);
+		writer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				write();
+			}
+		}, "zieook-eventlog-writer");
+		writer.setDaemon(true);
+	}
+
+	/**
+	 * start the background writer
+	 */
+	public void start()
+	{
+		running = true;
+		writer.start();
+		LOG.info("event log writer started: <batch,flush-ms,block> = <{},{}>", batchSize, flushInterval + "," + block);
+	}
+
+	/**
+	 * stop the background writer, events that are still in the queue are written first
+	 */
+	public void shutdown()
+	{
+		running = false;
+		// if the queue is full the writer is busy, it will see it's stopped soon enough:
+		queue.offer(STOP);
+		try
+		{
+			writer.join(flushInterval * 10);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		LOG.info("event log writer stopped, {} events left in the queue, {} dropped", queue.size(), dropped.get());
+	}
+
+	/**
+	 * Queue a view, and the view count of the user
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param view the view
+	 * @param unit time unit of the view date
+	 */
+	public void putView(String cp, String recommender, UserView view, TimeUnit unit)
+	{
+		offer(new Event(cp, eventLogTable.createViewPuts(cp, recommender, view, unit), view.getUser(), true));
+	}
+
+	/**
+	 * Queue a recommend event, and the recommend count of the user
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param recommend the recommend event
+	 * @param unit time unit of the recommend date
+	 */
+	public void putRecommend(String cp, String recommender, Recommended recommend, TimeUnit unit)
+	{
+		List<Put> puts = new ArrayList<Put>(1);
+		puts.add(eventLogTable.createRecommendPut(cp, recommender, recommend, unit));
+		offer(new Event(cp, puts, recommend.getUser(), false));
+	}
+
+	/**
+	 * @return the number of events waiting to be written
+	 */
+	public int getQueueDepth()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * @return the number of events dropped because the queue was full
+	 */
+	public long getDropped()
+	{
+		return dropped.get();
+	}
+
+	/**
+	 * @return the number of events written
+	 */
+	public long getWritten()
+	{
+		return written.get();
+	}
+
+	/**
+	 * @return duration of the last flush in ms
+	 */
+	public long getLastFlushTime()
+	{
+		return lastFlushTime;
+	}
+
+	/**
+	 * @return duration of the slowest flush in ms
+	 */
+	public long getMaxFlushTime()
+	{
+		return maxFlushTime;
+	}
+
+	private void offer(Event event)
+	{
+		boolean queued;
+		if (block)
+		{
+			try
+			{
+				queued = queue.offer(event, flushInterval, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				queued = false;
+			}
+		}
+		else
+		{
+			queued = queue.offer(event);
+		}
+
+		if (!queued)
+		{
+			// only log now and then, a full queue means there are many events:
+			if (dropped.getAndIncrement() % 1000 == 0)
+			{
+				LOG.warn("event log queue full, {} events dropped so far", dropped.get());
+			}
+		}
+	}
+
+	/**
+	 * background loop: collect events until the batch is full, or the oldest event waited for a flush interval
+	 */
+	private void write()
+	{
+		final List<Event> batch = new ArrayList<Event>(batchSize);
+		long deadline = 0;
+		while (running || !queue.isEmpty() || !batch.isEmpty() || !pending.isEmpty())
+		{
+			try
+			{
+				long wait = flushInterval;
+				if (!running)
+				{
+					// only write what's left:
+					wait = 0;
+				}
+				else if (!batch.isEmpty() || !pending.isEmpty())
+				{
+					wait = deadline - System.currentTimeMillis();
+				}
+				Event event = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+				if (event != null)
+				{
+					if (batch.isEmpty() && pending.isEmpty())
+					{
+						deadline = System.currentTimeMillis() + flushInterval;
+					}
+					batch.add(event);
+					queue.drainTo(batch, batchSize - batch.size());
+					batch.remove(STOP);
+				}
+
+				if ((!batch.isEmpty() || !pending.isEmpty())
+						&& (batch.size() >= batchSize || System.currentTimeMillis() >= deadline || !running))
+				{
+					flush(batch);
+					batch.clear();
+					deadline = System.currentTimeMillis() + flushInterval;
+				}
+			}
+			catch (InterruptedException e)
+			{
+				LOG.warn("event log writer interrupted, stopping");
+				running = false;
+			}
+			catch (RuntimeException e)
+			{
+				// never let the writer die, events are not critical:
+				LOG.error("failed to write " + batch.size() + " events, they are lost", e);
+				batch.clear();
+				pending.clear();
+			}
+		}
+	}
+
+	private void flush(List<Event> batch)
+	{
+		final long start = System.currentTimeMillis();
+
+		// group per content provider, the counters are added to those left by the last flush:
+		Map<String, List<Put>> puts = new HashMap<String, List<Put>>();
+		for (Event event : batch)
+		{
+			List<Put> cpPuts = puts.get(event.cp);
+			if (cpPuts == null)
+			{
+				cpPuts = new ArrayList<Put>(batch.size() * 2);
+				puts.put(event.cp, cpPuts);
+			}
+			cpPuts.addAll(event.puts);
+
+			Map<Long, UserCounters> cpCounters = pending.get(event.cp);
+			if (cpCounters == null)
+			{
+				cpCounters = new LinkedHashMap<Long, UserCounters>();
+				pending.put(event.cp, cpCounters);
+			}
+			UserCounters c = cpCounters.get(event.user);
+			if (c == null)
+			{
+				c = new UserCounters();
+				cpCounters.put(event.user, c);
+			}
+			if (event.view)
+			{
+				c.addView(event.time);
+			}
+			else
+			{
+				c.addRecommend(event.time);
+			}
+		}
+
+		for (Map.Entry<String, List<Put>> entry : puts.entrySet())
+		{
+			eventLogTable.putEvents(entry.getKey(), entry.getValue());
+		}
+
+		// counters take a round trip per user, spend at most a flush interval on them:
+		int left = 0;
+		Iterator<Map.Entry<String, Map<Long, UserCounters>>> i = pending.entrySet().iterator();
+		while (i.hasNext())
+		{
+			Map.Entry<String, Map<Long, UserCounters>> entry = i.next();
+			userTable.putCounters(entry.getKey(), entry.getValue(), start + flushInterval);
+			left += entry.getValue().size();
+			if (entry.getValue().isEmpty())
+			{
+				i.remove();
+			}
+		}
+		if (left > maxPending)
+		{
+			LOG.warn("counters of {} users waiting to be written, dropping them", left);
+			pending.clear();
+		}
+
+		written.addAndGet(batch.size());
+		lastFlushTime = System.currentTimeMillis() - start;
+		maxFlushTime = Math.max(maxFlushTime, lastFlushTime);
+		LOG.debug("written <events,ms,users left> = <{},{}>", batch.size(), lastFlushTime + "," + left);
+	}
+
+	private static final class Event
+	{
+		private final String cp;
+		private final List<Put> puts;
+		private final long user;
+		private final boolean view;
+		private final long time;
+
+		Event(String cp, List<Put> puts, long user, boolean view)
+		{
+			this.cp = cp;
+			this.puts = puts;
+			this.user = user;
+			this.view = view;
+			time = System.currentTimeMillis();
+		}
+	}
+}
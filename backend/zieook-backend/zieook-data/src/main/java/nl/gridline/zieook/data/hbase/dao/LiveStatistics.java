@@ -0,0 +1,443 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nl.gridline.zieook.mapreduce.Leaderboards;
+import nl.gridline.zieook.model.GroupedData;
+import nl.gridline.zieook.model.Rating;
+import nl.gridline.zieook.model.Recommend;
+import nl.gridline.zieook.model.Recommendations;
+import nl.gridline.zieook.model.UserView;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.util.hash.MurmurHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Real-time statistics of the data server: the views, ratings and recommendations are counted as they arrive, so
+ * "trending now" questions are answered from memory instead of the statistics of the last statistics task.
+ * <p />
+ * Per list (see {@link Leaderboards}) and recommender or collection there is a {@link TrendingCounter} for every
+ * {@link Window}: approximate counts (count-min sketches) and the heavy hitters. The exact counts are summed per hour
+ * and added to the live family of the statistics table by a background thread every flush interval, see
+ * {@link StatisticsTable#putLiveCounts(String, String, String, long, Map)}. The statistics task stays the
+ * reconciliation path: it computes the exact statistics from the event log, the live counters expire.
+ * <p />
+ * The counters are per data server, behind a load balancer every server sees its share of the events.
+ * <p />
+ * Project zieook-data<br />
+ * LiveStatistics.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LiveStatistics
+{
+	private static final Logger LOG = LoggerFactory.getLogger(LiveStatistics.class);
+
+	private static final long HOUR = 60 * 60 * 1000L;
+	private static final int DEPTH = 4;
+
+	/**
+	 * The sliding windows of the counters
+	 */
+	public enum Window
+	{
+		MINUTE("minute", 60 * 1000L, 12), HOUR("hour", 60 * 60 * 1000L, 12), DAY("day", 24 * 60 * 60 * 1000L, 24);
+
+		private final String name;
+		private final long length;
+		private final int slots;
+
+		private Window(String name, long length, int slots)
+		{
+			this.name = name;
+			this.length = length;
+			this.slots = slots;
+		}
+
+		/**
+		 * @return name of the window in the api
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * @param name window name
+		 * @return the window, or null if the name is unknown
+		 */
+		public static Window get(String name)
+		{
+			for (Window w : values())
+			{
+				if (w.name.equals(name))
+				{
+					return w;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final StatisticsTable statisticsTable;
+	private final int width;
+	private final int capacity;
+	private final long flushInterval;
+
+	private final ConcurrentMap<String, Scope> scopes = new ConcurrentHashMap<String, Scope>();
+
+	private final Object lock = new Object();
+	private final Thread flusher;
+	private volatile boolean running;
+
+	/**
+	 * Create the real-time statistics, call {@link #start()} to write the counts to the statistics table
+	 * @param statisticsTable statistics table
+	 * @param width width of the count-min sketches, the error of a count is about <tt>3 / width</tt> of the events in
+	 *           the window
+	 * @param topK number of heavy hitters kept per counter
+	 * @param flushInterval time in ms between two writes of the hourly counts
+	 */
+	public LiveStatistics(StatisticsTable statisticsTable, int width, int topK, long flushInterval)
+	{
+		this.statisticsTable = statisticsTable;
+		this.width = width;
+		this.capacity = Math.max(1, topK);
+		this.flushInterval = Math.max(1, flushInterval);
+		flusher = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				write();
+			}
+		}, "zieook-live-statistics");
+		flusher.setDaemon(true);
+	}
+
+	/**
+	 * start the background writer
+	 */
+	public void start()
+	{
+		running = true;
+		flusher.start();
+		LOG.info("live statistics started: <width,top-k,flush-ms> = <{},{}>", width, capacity + "," + flushInterval);
+	}
+
+	/**
+	 * stop the background writer, the counts that are not written yet are written first
+	 */
+	public void shutdown()
+	{
+		running = false;
+		synchronized (lock)
+		{
+			lock.notifyAll();
+		}
+		try
+		{
+			flusher.join(flushInterval * 10);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		LOG.info("live statistics stopped");
+	}
+
+	/**
+	 * Count a view, for the viewed items and the sources of the recommender
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param view the view
+	 */
+	public void addView(String cp, String recommender, UserView view)
+	{
+		final long now = System.currentTimeMillis();
+		if (view.getItem() != null)
+		{
+			count(cp, Leaderboards.VIEWED, recommender, view.getItem().longValue(), null, now);
+		}
+		if (view.getSource() != null)
+		{
+			count(cp, Leaderboards.SOURCES, recommender, hash(view.getSource()), view.getSource(), now);
+		}
+	}
+
+	/**
+	 * Count a rating, for the rated items of the collection
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param rating the rating
+	 */
+	public void addRating(String cp, String collection, Rating rating)
+	{
+		if (rating.getItem() != null)
+		{
+			count(cp, Leaderboards.RATED, collection, rating.getItem().longValue(), null, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Count the items of a recommendation, for the recommended items of the collection
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param recommendations the returned recommendations
+	 */
+	public void addRecommendations(String cp, String collection, Recommendations recommendations)
+	{
+		final List<Recommend> items = recommendations.getRecommended();
+		if (items == null || items.isEmpty())
+		{
+			return;
+		}
+		final long now = System.currentTimeMillis();
+		for (Recommend r : items)
+		{
+			count(cp, Leaderboards.RECOMMENDED, collection, r.getItem(), null, now);
+		}
+	}
+
+	/**
+	 * Returns the ids with the highest counts in a window
+	 * @param cp content provider
+	 * @param list name of the list: {@link Leaderboards#VIEWED}, {@link Leaderboards#SOURCES},
+	 *           {@link Leaderboards#RATED} or {@link Leaderboards#RECOMMENDED}
+	 * @param scopeName recommender (viewed and sources) or collection (rated and recommended)
+	 * @param window the window
+	 * @param size maximum number of entries
+	 * @return the entries, highest count first, the counts are estimates
+	 */
+	public List<GroupedData> getTrending(String cp, String list, String scopeName, Window window, int size)
+	{
+		final Scope scope = scopes.get(getKey(cp, list, scopeName));
+		if (scope == null)
+		{
+			return new ArrayList<GroupedData>(0);
+		}
+
+		final long now = System.currentTimeMillis();
+		final List<TrendingCounter.Entry> top;
+		synchronized (scope)
+		{
+			top = scope.counters[window.ordinal()].getTop(size, now);
+		}
+
+		final boolean recommender = Leaderboards.VIEWED.equals(list) || Leaderboards.SOURCES.equals(list);
+		final boolean source = Leaderboards.SOURCES.equals(list);
+		List<GroupedData> result = new ArrayList<GroupedData>(top.size());
+		for (TrendingCounter.Entry entry : top)
+		{
+			result.add(new GroupedData(recommender ? null : scopeName, recommender ? scopeName : null,
+					source ? entry.getName() : null, source ? null : Long.valueOf(entry.getId()), null, Long
+							.valueOf(entry.getCount()), Long.valueOf(now)));
+		}
+		return result;
+	}
+
+	private void count(String cp, String list, String scopeName, long id, String name, long time)
+	{
+		while (true)
+		{
+			final Scope scope = getScope(cp, list, scopeName);
+			synchronized (scope)
+			{
+				// an idle scope can be dropped by the flush in the mean time:
+				if (!scope.removed)
+				{
+					scope.add(id, name, time);
+					return;
+				}
+			}
+		}
+	}
+
+	private Scope getScope(String cp, String list, String name)
+	{
+		final String key = getKey(cp, list, name);
+		Scope scope = scopes.get(key);
+		if (scope == null)
+		{
+			Scope created = new Scope(cp, list, name);
+			scope = scopes.putIfAbsent(key, created);
+			if (scope == null)
+			{
+				scope = created;
+			}
+		}
+		return scope;
+	}
+
+	private static String getKey(String cp, String list, String name)
+	{
+		return cp + '/' + list + '/' + name;
+	}
+
+	/**
+	 * @return 64 bit hash of a source name, the id of the source in the counters
+	 */
+	private static long hash(String name)
+	{
+		byte[] bytes = Bytes.toBytes(name);
+		MurmurHash murmur = (MurmurHash) MurmurHash.getInstance();
+		return ((long) murmur.hash(bytes, bytes.length, 0) << 32) | (murmur.hash(bytes, bytes.length, 1) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * background loop: write the hourly counts every flush interval
+	 */
+	private void write()
+	{
+		while (running)
+		{
+			synchronized (lock)
+			{
+				try
+				{
+					if (running)
+					{
+						lock.wait(flushInterval);
+					}
+				}
+				catch (InterruptedException e)
+				{
+					LOG.warn("live statistics writer interrupted, stopping");
+					running = false;
+				}
+			}
+			try
+			{
+				flush();
+			}
+			catch (RuntimeException e)
+			{
+				// never let the writer die, the batch statistics reconcile the counts:
+				LOG.error("failed to write the live statistics", e);
+			}
+		}
+	}
+
+	/**
+	 * Write the hourly counts collected since the last flush, and drop the idle counters
+	 */
+	public void flush()
+	{
+		final long start = System.currentTimeMillis();
+		int written = 0;
+		Iterator<Scope> it = scopes.values().iterator();
+		while (it.hasNext())
+		{
+			final Scope scope = it.next();
+			final Map<Long, Map<String, long[]>> pending;
+			synchronized (scope)
+			{
+				pending = scope.pending;
+				scope.pending = new HashMap<Long, Map<String, long[]>>();
+				if (pending.isEmpty() && scope.isIdle(start))
+				{
+					scope.removed = true;
+					it.remove();
+					continue;
+				}
+			}
+			for (Map.Entry<Long, Map<String, long[]>> hour : pending.entrySet())
+			{
+				statisticsTable.putLiveCounts(scope.cp, scope.list, scope.name, hour.getKey(), hour.getValue());
+				written += hour.getValue().size();
+			}
+		}
+		LOG.debug("written {} live counts in {}ms", written, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * the counters of one list of a recommender or collection
+	 */
+	private final class Scope
+	{
+		private final String cp;
+		private final String list;
+		private final String name;
+		private final TrendingCounter[] counters;
+		private Map<Long, Map<String, long[]>> pending = new HashMap<Long, Map<String, long[]>>();
+		private boolean removed;
+
+		Scope(String cp, String list, String name)
+		{
+			this.cp = cp;
+			this.list = list;
+			this.name = name;
+			Window[] windows = Window.values();
+			counters = new TrendingCounter[windows.length];
+			for (int i = 0; i < windows.length; i++)
+			{
+				counters[i] = new TrendingCounter(windows[i].length, windows[i].slots, width, DEPTH, capacity * 2);
+			}
+		}
+
+		void add(long id, String source, long time)
+		{
+			for (TrendingCounter counter : counters)
+			{
+				counter.add(id, source, 1, time);
+			}
+
+			final Long hour = Long.valueOf(time - time % HOUR);
+			Map<String, long[]> counts = pending.get(hour);
+			if (counts == null)
+			{
+				counts = new HashMap<String, long[]>();
+				pending.put(hour, counts);
+			}
+			final String key = source != null ? source : Long.toString(id);
+			long[] count = counts.get(key);
+			if (count == null)
+			{
+				counts.put(key, new long[]{1});
+			}
+			else
+			{
+				count[0]++;
+			}
+		}
+
+		boolean isIdle(long time)
+		{
+			for (TrendingCounter counter : counters)
+			{
+				if (!counter.isIdle(time))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Small LRU cache with a time-to-live for meta data lookups (recommender configurations, existence of content
+ * providers, collections and recommenders). Entries are grouped per content provider. It's also used as the hot item
+ * cache of the {@link CollectionTable}, in that case only the time-to-live applies.
+ * <p />
+ * Besides the time-to-live, the workflow marks changes of the meta data of a content provider (see
+ * {@link ContentProviderTable#getMetadataUpdated(String)}). The stamp is compared at most once every <em>check
+ * interval</em> per content provider and all entries of that content provider are dropped when it changed. The stamps
+ * of the least recently checked content providers are forgotten when more than {@link #MAX_STAMPS} are known.
+ * <p />
+ * Project zieook-data<br />
+ * MetadataCache.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MetadataCache
+{
+	private static final Logger LOG = LoggerFactory.getLogger(MetadataCache.class);
+
+	/**
+	 * maximum number of content providers of which the meta data stamp is kept
+	 */
+	public static final int MAX_STAMPS = 1024;
+
+	private final LinkedHashMap<String, Entry> cache;
+	private final Map<String, long[]> stamps;
+
+	private final int maxEntries;
+	private final long ttl;
+	private final long checkInterval;
+
+	private long hit;
+	private long miss;
+
+	/**
+	 * Create a new meta data cache
+	 * @param maxEntries maximum number of entries in the cache
+	 * @param ttl time to live of an entry in ms
+	 * @param checkInterval interval in ms between two meta data stamp checks of the same content provider
+	 */
+	public MetadataCache(int maxEntries, long ttl, long checkInterval)
+	{
+		this.maxEntries = maxEntries;
+		this.ttl = ttl;
+		this.checkInterval = checkInterval;
+		cache = new LinkedHashMap<String, Entry>(Math.min(maxEntries, 1024), 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+			{
+				return size() > MetadataCache.this.maxEntries;
+			}
+		};
+		stamps = new LinkedHashMap<String, long[]>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest)
+			{
+				return size() > MAX_STAMPS;
+			}
+		};
+	}
+
+	/**
+	 * Return a cached value
+	 * @param cp content provider
+	 * @param key key of the value within the content provider
+	 * @return the value, or null if it's not in the cache or expired
+	 */
+	public synchronized Object get(String cp, String key)
+	{
+		final String k = getKey(cp, key);
+		Entry entry = cache.get(k);
+		if (entry != null && entry.expires < System.currentTimeMillis())
+		{
+			cache.remove(k);
+			entry = null;
+		}
+		if (entry == null)
+		{
+			miss++;
+			return null;
+		}
+		hit++;
+		return entry.value;
+	}
+
+	/**
+	 * Put a value in the cache, null values are not stored
+	 * @param cp content provider
+	 * @param key key of the value within the content provider
+	 * @param value the value
+	 */
+	public synchronized void put(String cp, String key, Object value)
+	{
+		if (value != null && maxEntries > 0)
+		{
+			cache.put(getKey(cp, key), new Entry(value, System.currentTimeMillis() + ttl));
+		}
+	}
+
+	/**
+	 * Remove all entries of the given content provider
+	 * @param cp content provider
+	 */
+	public synchronized void invalidate(String cp)
+	{
+		final String prefix = cp + '/';
+		int count = 0;
+		Iterator<String> i = cache.keySet().iterator();
+		while (i.hasNext())
+		{
+			if (i.next().startsWith(prefix))
+			{
+				i.remove();
+				count++;
+			}
+		}
+		LOG.debug("invalidated {} cached meta data entries for {}", count, cp);
+	}
+
+	/**
+	 * Remove all entries from the cache
+	 */
+	public synchronized void clear()
+	{
+		cache.clear();
+		stamps.clear();
+	}
+
+	/**
+	 * Returns true if the meta data stamp of the given content provider should be checked (again)
+	 * @param cp content provider
+	 * @return {@code true} if the last check is longer than the check interval ago
+	 */
+	public synchronized boolean isStampCheckDue(String cp)
+	{
+		long[] stamp = stamps.get(cp);
+		return stamp == null || System.currentTimeMillis() - stamp[1] >= checkInterval;
+	}
+
+	/**
+	 * Set the current meta data stamp of a content provider, if it differs from the known stamp all entries of the
+	 * content provider are removed from the cache
+	 * @param cp content provider
+	 * @param value meta data stamp as written by the workflow
+	 */
+	public synchronized void setStamp(String cp, long value)
+	{
+		long[] stamp = stamps.get(cp);
+		if (stamp == null)
+		{
+			// the stamp might have been forgotten, entries cached before can't be trusted:
+			invalidate(cp);
+			stamp = new long[]{value, 0};
+			stamps.put(cp, stamp);
+		}
+		else if (stamp[0] != value)
+		{
+			LOG.info("meta data of {} changed, invalidating cached meta data", cp);
+			invalidate(cp);
+			stamp[0] = value;
+		}
+		stamp[1] = System.currentTimeMillis();
+	}
+
+	public synchronized long getHit()
+	{
+		return hit;
+	}
+
+	public synchronized long getMiss()
+	{
+		return miss;
+	}
+
+	public synchronized int size()
+	{
+		return cache.size();
+	}
+
+	private static String getKey(String cp, String key)
+	{
+		return cp + '/' + key;
+	}
+
+	private static final class Entry
+	{
+		private final Object value;
+		private final long expires;
+
+		Entry(Object value, long expires)
+		{
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps content provider, collection and recommender names on the int ids used in binary row keys (see
+ * {@link nl.gridline.zieook.mapreduce.KeyCodec}). The ids are kept in the configuration table: a row per name with
+ * its id and a row per kind of name with the id counter and the reverse lookup. An id never changes once it's
+ * assigned, so they are cached forever. Names that have no id yet are remembered for a short time (and up to a limit),
+ * so the read path does not hit the configuration table on every request.
+ * <p />
+ * Project zieook-data<br />
+ * NameDictionary.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class NameDictionary
+{
+	private static final Logger LOG = LoggerFactory.getLogger(NameDictionary.class);
+
+	public static final String CP = "cp";
+	public static final String COLLECTION = "collection";
+	public static final String RECOMMENDER = "recommender";
+
+	/**
+	 * returned by {@link #findId(String, String)} for a name without id
+	 */
+	public static final int NONE = -1;
+
+	private static final byte[] COLUMN_DICTIONARY = Bytes.toBytes(HBaseTableConstants.CONFIGURATION_COLUMN_DICTIONARY);
+	private static final byte[] Q_ID = Bytes.toBytes("id");
+	private static final byte[] Q_NEXT = Bytes.toBytes("next");
+
+	// time a missing name is remembered:
+	private static final long MISSING_TTL = 60 * 1000;
+
+	// maximum number of missing names remembered, any name can be asked for:
+	private static final int MAX_MISSING = 10000;
+
+	private final HBaseConfigurationTable table;
+	private final ConcurrentMap<String, Integer> ids;
+	private final ConcurrentMap<String, Long> missing;
+
+	public NameDictionary(HBaseConfigurationTable table)
+	{
+		this.table = table;
+		ids = new ConcurrentHashMap<String, Integer>();
+		missing = new ConcurrentHashMap<String, Long>();
+	}
+
+	/**
+	 * Returns the id of a name, a new id is assigned if the name has none
+	 * @param kind kind of name, {@link #CP}, {@link #COLLECTION} or {@link #RECOMMENDER}
+	 * @param name the name
+	 * @return the id
+	 * @throws IOException
+	 */
+	public int getId(String kind, String name) throws IOException
+	{
+		final String key = kind + '/' + name;
+		Integer result = ids.get(key);
+		if (result != null)
+		{
+			return result;
+		}
+
+		final byte[] row = RowKeys.getDictionaryKey(kind, name);
+		final byte[] counter = RowKeys.getDictionaryKey(kind);
+		HTableInterface tableInterface = table.getTable();
+		try
+		{
+			result = read(tableInterface, row);
+			if (result == null)
+			{
+				long next = tableInterface.incrementColumnValue(counter, COLUMN_DICTIONARY, Q_NEXT, 1);
+				if (next > Integer.MAX_VALUE)
+				{
+					throw new IOException("no more dictionary ids for " + kind);
+				}
+				final int id = (int) next;
+
+				// reverse lookup first, the name row makes the id visible:
+				tableInterface.put(new Put(counter).add(COLUMN_DICTIONARY, Bytes.toBytes(id), Bytes.toBytes(name)));
+				Put put = new Put(row).add(COLUMN_DICTIONARY, Q_ID, Bytes.toBytes(id));
+				if (tableInterface.checkAndPut(row, COLUMN_DICTIONARY, Q_ID, null, put))
+				{
+					LOG.info("dictionary id of {} <{}> is {}", new Object[]{kind, name, id});
+					result = id;
+				}
+				else
+				{
+					// assigned concurrently, the id we got is not used:
+					result = read(tableInterface, row);
+					if (result == null)
+					{
+						throw new IOException("failed to assign a dictionary id to " + key);
+					}
+				}
+			}
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+		ids.put(key, result);
+		missing.remove(key);
+		return result;
+	}
+
+	/**
+	 * Returns the id of a name, without assigning a new one
+	 * @param kind kind of name
+	 * @param name the name
+	 * @return the id or {@link #NONE} if the name has no id (yet), or the dictionary can't be read
+	 */
+	public int findId(String kind, String name)
+	{
+		final String key = kind + '/' + name;
+		Integer result = ids.get(key);
+		if (result != null)
+		{
+			return result;
+		}
+		Long expires = missing.get(key);
+		if (expires != null && expires > System.currentTimeMillis())
+		{
+			return NONE;
+		}
+
+		try
+		{
+			HTableInterface tableInterface = table.getTable();
+			try
+			{
+				result = read(tableInterface, RowKeys.getDictionaryKey(kind, name));
+			}
+			finally
+			{
+				table.putTable(tableInterface);
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to read the dictionary id of " + key, e);
+		}
+		if (result == null)
+		{
+			putMissing(key);
+			return NONE;
+		}
+		ids.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Returns the name of an id
+	 * @param kind kind of name
+	 * @param id the id
+	 * @return the name, or null if the id is not assigned
+	 * @throws IOException
+	 */
+	public String getName(String kind, int id) throws IOException
+	{
+		final byte[] qualifier = Bytes.toBytes(id);
+		HTableInterface tableInterface = table.getTable();
+		try
+		{
+			Result result = tableInterface.get(new Get(RowKeys.getDictionaryKey(kind)).addColumn(COLUMN_DICTIONARY,
+					qualifier));
+			byte[] data = result.getValue(COLUMN_DICTIONARY, qualifier);
+			return data == null ? null : Bytes.toString(data);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+	}
+
+	/**
+	 * remember a missing name, expired names are removed when the limit is reached
+	 */
+	private void putMissing(String key)
+	{
+		final long now = System.currentTimeMillis();
+		if (missing.size() >= MAX_MISSING)
+		{
+			Iterator<Long> i = missing.values().iterator();
+			while (i.hasNext())
+			{
+				if (i.next() <= now)
+				{
+					i.remove();
+				}
+			}
+			if (missing.size() >= MAX_MISSING)
+			{
+				// all recent, forget them rather than grow:
+				missing.clear();
+			}
+		}
+		missing.put(key, now + MISSING_TTL);
+	}
+
+	private static Integer read(HTableInterface tableInterface, byte[] row) throws IOException
+	{
+		Result result = tableInterface.get(new Get(row).addColumn(COLUMN_DICTIONARY, Q_ID));
+		byte[] data = result.getValue(COLUMN_DICTIONARY, Q_ID);
+		return data == null ? null : Bytes.toInt(data);
+	}
+}
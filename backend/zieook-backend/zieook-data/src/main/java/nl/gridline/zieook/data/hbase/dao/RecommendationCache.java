@@ -0,0 +1,389 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process LRU cache of decoded recommendation rows, bounded by the number of entries and by an estimate of the used
+ * memory. A row is stored as three primitive arrays (item, rank, score) in the order they where read from the
+ * recommendations table.
+ * <p />
+ * Rows are keyed on the model generation they were read from. A full recommender run writes a new generation and the
+ * workflow switches to it (see {@link RecommenderTable#getModelGeneration(String, String)}), rows of the old
+ * generation are simply no longer requested and age out of the cache. An incremental run updates the active
+ * generation in place, the workflow marks that by updating the model stamp of the recommender (see
+ * {@link RecommenderTable#getModelUpdated(String, String)}). The cache compares stamp and generation at most once every
+ * <em>check interval</em> per recommender and drops all rows of a recommender when the stamp of the same generation
+ * changed. The stamps of the least recently checked recommenders are forgotten when more than {@link #MAX_MODELS}
+ * recommenders are known.
+ * <p />
+ * Project zieook-data<br />
+ * RecommendationCache.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RecommendationCache
+{
+	private static final Logger LOG = LoggerFactory.getLogger(RecommendationCache.class);
+
+	// rough object overhead of a cached row: key, entry, three arrays and the map entry
+	private static final int ENTRY_OVERHEAD = 160;
+
+	/**
+	 * maximum number of recommenders of which the model stamp is kept
+	 */
+	public static final int MAX_MODELS = 1024;
+
+	private final LinkedHashMap<Key, Entry> cache;
+	private final Map<String, long[]> models;
+
+	private final int maxEntries;
+	private final long maxBytes;
+	private final long checkInterval;
+
+	private long bytes;
+	private long hit;
+	private long miss;
+	private long evicted;
+
+	/**
+	 * Create a new recommendation cache
+	 * @param maxEntries maximum number of recommendation rows in the cache
+	 * @param maxBytes maximum (estimated) memory used by the cached rows
+	 * @param checkInterval interval in ms between two model stamp checks of the same recommender
+	 */
+	public RecommendationCache(int maxEntries, long maxBytes, long checkInterval)
+	{
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.checkInterval = checkInterval;
+		cache = new LinkedHashMap<Key, Entry>(Math.min(maxEntries, 1024), 0.75f, true);
+		models = new LinkedHashMap<String, long[]>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest)
+			{
+				return size() > MAX_MODELS;
+			}
+		};
+	}
+
+	/**
+	 * Return the cached recommendation row
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param recommender recommender name
+	 * @param generation model generation
+	 * @param id user or item id
+	 * @return the cached row, or null if it's not in the cache
+	 */
+	public synchronized Entry get(String cp, String collection, String recommender, long generation, long id)
+	{
+		Entry result = cache.get(new Key(cp, collection, recommender, generation, id));
+		if (result == null)
+		{
+			miss++;
+		}
+		else
+		{
+			hit++;
+		}
+		return result;
+	}
+
+	/**
+	 * Put a recommendation row in the cache, this might evict the least recently used rows.
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param recommender recommender name
+	 * @param generation model generation
+	 * @param id user or item id
+	 * @param entry the decoded row
+	 */
+	public synchronized void put(String cp, String collection, String recommender, long generation, long id,
+			Entry entry)
+	{
+		if (maxEntries <= 0 || entry.sizeInBytes() > maxBytes)
+		{
+			return;
+		}
+
+		Entry old = cache.put(new Key(cp, collection, recommender, generation, id), entry);
+		if (old != null)
+		{
+			bytes -= old.sizeInBytes();
+		}
+		bytes += entry.sizeInBytes();
+
+		// evict the eldest until we are within bounds again:
+		Iterator<Entry> i = cache.values().iterator();
+		while ((cache.size() > maxEntries || bytes > maxBytes) && i.hasNext())
+		{
+			bytes -= i.next().sizeInBytes();
+			i.remove();
+			evicted++;
+		}
+	}
+
+	/**
+	 * Remove all rows of the given recommender from the cache
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 */
+	public synchronized void invalidate(String cp, String recommender)
+	{
+		int count = 0;
+		Iterator<Map.Entry<Key, Entry>> i = cache.entrySet().iterator();
+		while (i.hasNext())
+		{
+			Map.Entry<Key, Entry> entry = i.next();
+			if (entry.getKey().isRecommender(cp, recommender))
+			{
+				bytes -= entry.getValue().sizeInBytes();
+				i.remove();
+				count++;
+			}
+		}
+		LOG.debug("invalidated {} cached recommendations for {}", count, cp + "/" + recommender);
+	}
+
+	/**
+	 * Remove all rows from the cache
+	 */
+	public synchronized void clear()
+	{
+		cache.clear();
+		models.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Returns true if the model stamp of the given recommender should be checked (again)
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return {@code true} if the last check is longer than the check interval ago
+	 */
+	public synchronized boolean isModelCheckDue(String cp, String recommender)
+	{
+		long[] model = models.get(cp + '/' + recommender);
+		return model == null || System.currentTimeMillis() - model[1] >= checkInterval;
+	}
+
+	/**
+	 * Set the current model stamp and generation of a recommender. If the generation is the same but the stamp differs
+	 * from the known stamp, the model was updated in place and all rows of the recommender are removed from the cache.
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param stamp model stamp as written by the workflow
+	 * @param generation active model generation
+	 */
+	public synchronized void setModelStamp(String cp, String recommender, long stamp, long generation)
+	{
+		final String key = cp + '/' + recommender;
+		long[] model = models.get(key);
+		if (model == null)
+		{
+			// the stamp might have been forgotten, rows read before can't be trusted:
+			invalidate(cp, recommender);
+			model = new long[]{stamp, 0, generation};
+			models.put(key, model);
+		}
+		else if (model[2] != generation)
+		{
+			LOG.info("recommender model {} switched to generation {}", key, generation);
+			model[0] = stamp;
+			model[2] = generation;
+		}
+		else if (model[0] != stamp)
+		{
+			LOG.info("recommender model {} changed, invalidating cached recommendations", key);
+			invalidate(cp, recommender);
+			model[0] = stamp;
+		}
+		model[1] = System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns the last known model generation of a recommender
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return model generation, or 0 if it's not known
+	 */
+	public synchronized long getModelGeneration(String cp, String recommender)
+	{
+		long[] model = models.get(cp + '/' + recommender);
+		return model == null ? 0 : model[2];
+	}
+
+	public synchronized long getHit()
+	{
+		return hit;
+	}
+
+	public synchronized long getMiss()
+	{
+		return miss;
+	}
+
+	public synchronized long getEvicted()
+	{
+		return evicted;
+	}
+
+	public synchronized int size()
+	{
+		return cache.size();
+	}
+
+	public synchronized long getBytes()
+	{
+		return bytes;
+	}
+
+	/**
+	 * A decoded recommendation row: item, rank and score are stored in separate primitive arrays
+	 */
+	public static final class Entry
+	{
+		private final long[] items;
+		private final long[] ranks;
+		private final double[] scores;
+
+		public Entry(long[] items, long[] ranks, double[] scores)
+		{
+			this.items = items;
+			this.ranks = ranks;
+			this.scores = scores;
+		}
+
+		/**
+		 * Decode the recommendation family of a row, every value is a <tt>score|rank|item</tt> triple, see
+		 * {@link nl.gridline.zieook.model.Recommend#toBytes()}
+		 * @param map family map
+		 * @return a decoded row
+		 */
+		public static Entry fromFamilyMap(NavigableMap<byte[], byte[]> map)
+		{
+			final int size = map.size();
+			long[] items = new long[size];
+			long[] ranks = new long[size];
+			double[] scores = new double[size];
+			int i = 0;
+			for (byte[] data : map.values())
+			{
+				scores[i] = Bytes.toDouble(data, 0);
+				ranks[i] = Bytes.toLong(data, Bytes.SIZEOF_DOUBLE);
+				items[i] = Bytes.toLong(data, Bytes.SIZEOF_DOUBLE + Bytes.SIZEOF_LONG);
+				i++;
+			}
+			return new Entry(items, ranks, scores);
+		}
+
+		public int size()
+		{
+			return items.length;
+		}
+
+		public long getItem(int i)
+		{
+			return items[i];
+		}
+
+		public long getRank(int i)
+		{
+			return ranks[i];
+		}
+
+		public double getScore(int i)
+		{
+			return scores[i];
+		}
+
+		public long sizeInBytes()
+		{
+			return ENTRY_OVERHEAD + (items.length * (Bytes.SIZEOF_LONG * 2 + Bytes.SIZEOF_DOUBLE));
+		}
+	}
+
+	/**
+	 * cp/collection/recommender/generation/id cache key
+	 */
+	private static final class Key
+	{
+		private final String cp;
+		private final String collection;
+		private final String recommender;
+		private final long generation;
+		private final long id;
+
+		Key(String cp, String collection, String recommender, long generation, long id)
+		{
+			this.cp = cp;
+			this.collection = collection;
+			this.recommender = recommender;
+			this.generation = generation;
+			this.id = id;
+		}
+
+		boolean isRecommender(String cp, String recommender)
+		{
+			return this.cp.equals(cp) && this.recommender.equals(recommender);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + cp.hashCode();
+			result = prime * result + collection.hashCode();
+			result = prime * result + recommender.hashCode();
+			result = prime * result + (int) (generation ^ (generation >>> 32));
+			result = prime * result + (int) (id ^ (id >>> 32));
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+			{
+				return true;
+			}
+			if (!(obj instanceof Key))
+			{
+				return false;
+			}
+			Key other = (Key) obj;
+			return id == other.id && generation == other.generation && cp.equals(other.cp)
+					&& collection.equals(other.collection) && recommender.equals(other.recommender);
+		}
+	}
+}
@@ -17,20 +17,27 @@
  */
 package nl.gridline.zieook.data.hbase.dao;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Random;
 
 import nl.gridline.zieook.data.hbase.model.HBaseRecommendationTable;
+import nl.gridline.zieook.mapreduce.KeyCodec;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.Recommend;
 import nl.gridline.zieook.model.Recommendations;
 
+import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +49,10 @@ import org.slf4j.LoggerFactory;
  * Depending on the type recommender, user based or item based the id is a user-id or an item-id.
  * See {@link nl.gridline.zieook.inx.movielens.hbase.RecommendationsImportMap} for writing this data into HBase
  * <p />
+ * The rows are written with binary keys when the collection and recommender have a {@link NameDictionary} id, older
+ * rows have string keys until they are moved by {@link #migrate(String)}. Reads fall back to the string key when
+ * there's no binary row.
+ * <p />
  * Project zieook-data<br />
  * RecommendationTable.java created 5 jan. 2011
  * <p />
@@ -66,15 +77,53 @@ public class RecommendationTable
 
 	private static final Random rnd = new Random();
 
+	private static final int DELETE_BATCH = 1000;
+
 	private final HBaseRecommendationTable table;
 
+	private final RecommendationCache cache;
+
+	private final NameDictionary dictionary;
+
+	private boolean fallback = true;
+
 	public RecommendationTable(HBaseRecommendationTable table)
+	{
+		this(table, null, null);
+	}
+
+	/**
+	 * @param table recommendation table
+	 * @param cache optional cache of decoded recommendation rows, may be null
+	 * @param dictionary dictionary of the binary row keys, may be null: only string keys are used in that case
+	 */
+	public RecommendationTable(HBaseRecommendationTable table, RecommendationCache cache, NameDictionary dictionary)
 	{
 		this.table = table;
+		this.cache = cache;
+		this.dictionary = dictionary;
 	}
 
 	/**
-	 * return the recommendations for the given item of the given recommender from the given content provider
+	 * Read the string key of a row if there's no binary row, can be switched off once all tables are migrated
+	 * @param fallback true to read the string keys too
+	 */
+	public void setFallback(boolean fallback)
+	{
+		this.fallback = fallback;
+	}
+
+	/**
+	 * @return the recommendation cache, or null if caching is disabled
+	 */
+	public RecommendationCache getCache()
+	{
+		return cache;
+	}
+
+	/**
+	 * return the recommendations for the given item of the given recommender from the given content provider, from
+	 * the unversioned model (generation 0)
 	 * @param cp content provider
 	 * @param collection collection
 	 * @param recommender the recommender
@@ -87,18 +136,52 @@ public class RecommendationTable
 	public Recommendations getRecommendationsFor(String cp, String collection, String recommender, long id, int size,
 			String spread)
 	{
-		// GET recommendations for this item:
-		Get get = new Get(RowKeys.getRecommendationKey(collection, recommender, id)).addFamily(RECOMMENDATION_COLUMN);
-		Result result = table.get(cp, get);
+		return getRecommendationsFor(cp, collection, recommender, 0, id, size, spread);
+	}
 
-		if (!result.isEmpty())
+	/**
+	 * return the recommendations for the given item of the given recommender from the given content provider
+	 * @param cp content provider
+	 * @param collection collection
+	 * @param recommender the recommender
+	 * @param generation model generation, see {@link RecommenderTable#getModelGeneration(String, String)}
+	 * @param item the item id to get a recommendation for
+	 * @param size the number of recommendations to return
+	 * @param spread
+	 * @return a recommendations object
+	 */
+	public Recommendations getRecommendationsFor(String cp, String collection, String recommender, long generation,
+			long id, int size, String spread)
+	{
+		RecommendationCache.Entry entry = cache == null ? null : cache.get(cp, collection, recommender, generation, id);
+		if (entry == null)
 		{
-			NavigableMap<byte[], byte[]> map = result.getFamilyMap(RECOMMENDATION_COLUMN);
-			List<Recommend> recommendations = toRecommendations(map, size, spread);
-			return new Recommendations(id, cp, collection, recommender, size, recommendations);
+			// GET recommendations for this item:
+			final byte[] row = getBinaryKey(collection, recommender, generation, id);
+			Result result = null;
+			if (row != null)
+			{
+				result = table.get(cp, new Get(row).addFamily(RECOMMENDATION_COLUMN));
+			}
+			if (row == null || (fallback && result.isEmpty()))
+			{
+				Get get = new Get(RowKeys.getRecommendationKey(collection, recommender, generation, id))
+						.addFamily(RECOMMENDATION_COLUMN);
+				result = table.get(cp, get);
+			}
+			if (result.isEmpty())
+			{
+				return null;
+			}
+			entry = RecommendationCache.Entry.fromFamilyMap(result.getFamilyMap(RECOMMENDATION_COLUMN));
+			if (cache != null)
+			{
+				cache.put(cp, collection, recommender, generation, id, entry);
+			}
 		}
 
-		return null;
+		List<Recommend> recommendations = toRecommendations(entry, size, spread);
+		return new Recommendations(id, cp, collection, recommender, size, recommendations);
 	}
 
 	/**
@@ -109,65 +192,265 @@ public class RecommendationTable
 	 */
 	public void deleteRecommendationFor(String cp, String collection, String recommender, long item)
 	{
-		Delete delete = new Delete(RowKeys.getRecommendationKey(collection, recommender, item));
+		deleteRecommendationFor(cp, collection, recommender, 0, item);
+	}
+
+	/**
+	 * Delete a single recommendation of a model generation
+	 * @param cp - content provider
+	 * @param recommender - recommender
+	 * @param generation model generation
+	 * @param item item identifier
+	 */
+	public void deleteRecommendationFor(String cp, String collection, String recommender, long generation, long item)
+	{
+		Delete delete = new Delete(RowKeys.getRecommendationKey(collection, recommender, generation, item));
 		table.delete(cp, delete);
+		final byte[] row = getBinaryKey(collection, recommender, generation, item);
+		if (row != null)
+		{
+			table.delete(cp, new Delete(row));
+		}
+		if (cache != null)
+		{
+			cache.invalidate(cp, recommender);
+		}
+	}
+
+	/**
+	 * Delete all recommendations of a model generation that is no longer used, see
+	 * {@link RecommenderTable#putModelGeneration(String, String, long, long)}
+	 * @param cp content provider
+	 * @param collection collection
+	 * @param recommender recommender
+	 * @param generation model generation
+	 * @return the number of deleted rows
+	 */
+	public long deleteModelGeneration(String cp, String collection, String recommender, long generation)
+	{
+		long count = 0;
+		try
+		{
+			HTableInterface tableInterface = table.getTable(cp);
+			try
+			{
+				count = deleteRows(tableInterface,
+						RowKeys.getRecommendationGenerationKey(collection, recommender, generation));
+				if (dictionary != null)
+				{
+					int c = dictionary.findId(NameDictionary.COLLECTION, collection);
+					int r = dictionary.findId(NameDictionary.RECOMMENDER, recommender);
+					if (c != NameDictionary.NONE && r != NameDictionary.NONE)
+					{
+						count += deleteRows(tableInterface, RowKeys.getRecommendationGenerationKey(c, r, generation));
+					}
+				}
+			}
+			finally
+			{
+				table.putTable(tableInterface);
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to delete model generation " + generation + " of " + cp + "/" + recommender, e);
+		}
+		LOG.info("deleted {} rows of model generation {}", count, cp + "/" + recommender + "/" + generation);
+		return count;
+	}
+
+	/**
+	 * Move the rows with string keys to binary keys, the data server can keep serving recommendations meanwhile. A
+	 * string row is copied unless there's a binary row already (it's newer), then deleted. This can be run again
+	 * after a failure.
+	 * @param cp content provider
+	 * @return the number of moved rows
+	 * @throws IOException
+	 */
+	public long migrate(String cp) throws IOException
+	{
+		if (dictionary == null)
+		{
+			throw new IllegalStateException("a name dictionary is needed to write binary row keys");
+		}
+
+		// string keys sort before the binary keys:
+		Scan scan = ScanBuilder.all().to(new byte[]{KeyCodec.getTag(0)}).family(RECOMMENDATION_COLUMN).batch().build();
+
+		long count = 0;
+		HTableInterface tableInterface = table.getTable(cp);
+		ResultScanner scanner = tableInterface.getScanner(scan);
+		try
+		{
+			List<Put> puts = new ArrayList<Put>(DELETE_BATCH);
+			List<Delete> deletes = new ArrayList<Delete>(DELETE_BATCH);
+			for (Result rr = scanner.next(); rr != null; rr = scanner.next())
+			{
+				Object[] key = RowKeys.getRecommendationFromKey(rr.getRow());
+				if (key == null)
+				{
+					LOG.warn("skipping unknown row: {}", Bytes.toStringBinary(rr.getRow()));
+					continue;
+				}
+				byte[] row = RowKeys.getRecommendationKey(dictionary.getId(NameDictionary.COLLECTION, (String) key[0]),
+						dictionary.getId(NameDictionary.RECOMMENDER, (String) key[1]), (Long) key[2], (Long) key[3]);
+				if (!tableInterface.exists(new Get(row)))
+				{
+					Put put = new Put(row);
+					for (KeyValue kv : rr.raw())
+					{
+						put.add(kv.getFamily(), kv.getQualifier(), kv.getTimestamp(), kv.getValue());
+					}
+					puts.add(put);
+				}
+				deletes.add(new Delete(rr.getRow()));
+				if (deletes.size() == DELETE_BATCH)
+				{
+					count += write(tableInterface, puts, deletes);
+				}
+			}
+			count += write(tableInterface, puts, deletes);
+		}
+		finally
+		{
+			scanner.close();
+			table.putTable(tableInterface);
+		}
+		LOG.info("moved {} recommendation rows of {} to binary keys", count, cp);
+		return count;
+	}
+
+	private static long write(HTableInterface tableInterface, List<Put> puts, List<Delete> deletes) throws IOException
+	{
+		final long result = deletes.size();
+		// copies first, so a row is never missing:
+		if (!puts.isEmpty())
+		{
+			tableInterface.put(puts);
+			puts.clear();
+		}
+		if (!deletes.isEmpty())
+		{
+			tableInterface.delete(deletes);
+			deletes.clear();
+		}
+		return result;
+	}
+
+	/**
+	 * Delete the rows of a model generation
+	 * @param tableInterface the table
+	 * @param prefix prefix of the generation
+	 * @return the number of deleted rows
+	 * @throws IOException
+	 */
+	private static long deleteRows(HTableInterface tableInterface, byte[] prefix) throws IOException
+	{
+		final int rowLength = prefix.length + Bytes.SIZEOF_LONG;
+		Scan scan = ScanBuilder.prefix(prefix).family(RECOMMENDATION_COLUMN).filter(new FirstKeyOnlyFilter()).batch()
+				.build();
+
+		long count = 0;
+		ResultScanner scanner = tableInterface.getScanner(scan);
+		try
+		{
+			List<Delete> deletes = new ArrayList<Delete>(DELETE_BATCH);
+			for (Result rr = scanner.next(); rr != null; rr = scanner.next())
+			{
+				// a string key prefix also matches the rows of newer generations (and of generation 0):
+				if (rr.getRow().length == rowLength)
+				{
+					deletes.add(new Delete(rr.getRow()));
+					if (deletes.size() == DELETE_BATCH)
+					{
+						count += deletes.size();
+						tableInterface.delete(deletes);
+						deletes = new ArrayList<Delete>(DELETE_BATCH);
+					}
+				}
+			}
+			if (!deletes.isEmpty())
+			{
+				count += deletes.size();
+				tableInterface.delete(deletes);
+			}
+		}
+		finally
+		{
+			scanner.close();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the binary key of a row
+	 * @return the key, or null if the names have no dictionary id
+	 */
+	private byte[] getBinaryKey(String collection, String recommender, long generation, long id)
+	{
+		if (dictionary == null)
+		{
+			return null;
+		}
+		int c = dictionary.findId(NameDictionary.COLLECTION, collection);
+		int r = dictionary.findId(NameDictionary.RECOMMENDER, recommender);
+		if (c == NameDictionary.NONE || r == NameDictionary.NONE)
+		{
+			return null;
+		}
+		return RowKeys.getRecommendationKey(c, r, generation, id);
 	}
 
 	/**
 	 * Creates a recommendations object directly usable for the front end
-	 * @param map
+	 * @param entry decoded recommendation row
 	 * @param size
 	 * @return
 	 */
-	private List<Recommend> toRecommendations(NavigableMap<byte[], byte[]> map, int size, String spread)
+	private List<Recommend> toRecommendations(RecommendationCache.Entry entry, int size, String spread)
 	{
-		List<Recommend> result = null;
+		final int length = Math.min(entry.size(), size);
+		List<Recommend> result = new ArrayList<Recommend>(length);
 
 		if (NOSPREAD.equals(spread))
 		{
-			result = new ArrayList<Recommend>(Math.min(map.size(), size));
 			// rank | recommendeditem
-			int length = 0;
-			for (Map.Entry<byte[], byte[]> entry : map.entrySet())
+			for (int i = 0; i < length; i++)
 			{
-				result.add(new Recommend(entry.getValue()));
-				if (length == size - 1)
-				{
-					break;
-				}
-				length++;
+				result.add(new Recommend(entry.getItem(i), entry.getRank(i), entry.getScore(i)));
 			}
-
 		}
 		else if (GAUSS.equals(spread))
 		{
 			// select size random items from the total set: use gauss distribution for the random order
-			result = new ArrayList<Recommend>(Math.min(map.size(), size));
-			List<Map.Entry<byte[], byte[]>> data = new ArrayList<Map.Entry<byte[], byte[]>>();
-			data.addAll(map.entrySet());
-			for (int i = 0; i < size; i++)
+			List<Integer> data = getIndexes(entry.size());
+			for (int i = 0; i < length; i++)
 			{
 				double gauss = Math.abs(rnd.nextGaussian() / 2);
 				int index = Math.min(data.size() - 1, (int) Math.round(gauss * data.size()));
-				LOG.info("index: {} - size {} - gauss = {}", new Object[]{index, data.size(), gauss});
-				byte[] value = data.get(index).getValue();
-				result.add(new Recommend(value));
-				data.remove(index);
+				LOG.debug("index: {} - size {} - gauss = {}", new Object[]{index, data.size(), gauss});
+				int e = data.remove(index);
+				result.add(new Recommend(entry.getItem(e), entry.getRank(e), entry.getScore(e)));
 			}
 		}
 		else
 		{// select size random items from the total set:
-			result = new ArrayList<Recommend>(Math.min(map.size(), size));
-			List<Map.Entry<byte[], byte[]>> data = new ArrayList<Map.Entry<byte[], byte[]>>();
-			data.addAll(map.entrySet());
-			for (int i = 0; i < size; i++)
+			List<Integer> data = getIndexes(entry.size());
+			for (int i = 0; i < length; i++)
 			{
-				int index = rnd.nextInt(data.size());
-				byte[] value = data.get(index).getValue();
-				result.add(new Recommend(value));
-				data.remove(index);
+				int e = data.remove(rnd.nextInt(data.size()));
+				result.add(new Recommend(entry.getItem(e), entry.getRank(e), entry.getScore(e)));
 			}
+		}
+		return result;
+	}
 
+	private static List<Integer> getIndexes(int size)
+	{
+		List<Integer> result = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++)
+		{
+			result.add(i);
 		}
 		return result;
 	}
@@ -26,6 +26,7 @@ import java.util.NavigableMap;
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.workflow.model.CollectionFilter;
 import nl.gridline.zieook.workflow.model.RecommenderConfig;
@@ -39,10 +40,7 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
@@ -80,6 +78,26 @@ public class RecommenderTable
 	 */
 	private static final byte[] COLUMN_TEMPLATE = Bytes.toBytes(HBaseTableConstants.CONFIGURATION_COLUMN_TEMPLATE);
 
+	/**
+	 * Model stamp qualifier, time the last recommender model was written
+	 */
+	private static final byte[] Q_MODEL_UPDATED = Bytes.toBytes("model_updated");
+
+	/**
+	 * Active model generation qualifier, the generation the recommendations are read from
+	 */
+	private static final byte[] Q_MODEL_GENERATION = Bytes.toBytes("model_generation");
+
+	/**
+	 * Previous model generation qualifier, kept for a rollback
+	 */
+	private static final byte[] Q_MODEL_PREVIOUS = Bytes.toBytes("model_generation_previous");
+
+	/**
+	 * Number of times a model generation switch is tried when the active generation changes concurrently
+	 */
+	private static final int MODEL_SWITCH_ATTEMPTS = 3;
+
 	// recommender config qualifier keys:
 	// private static final byte[] Q_CP = Bytes.toBytes("cp");
 	// private static final byte[] Q_RECOMMENDER = Bytes.toBytes("recommender");
@@ -272,6 +290,219 @@ public class RecommenderTable
 		return null;
 	}
 
+	/**
+	 * Mark the model of the given recommender as updated, readers use this to invalidate cached recommendations
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param stamp time the model was written in ms
+	 */
+	public void putModelUpdated(String cp, String recommender, long stamp)
+	{
+		// don't re-create a row for a recommender that has been deleted in the mean time:
+		if (!isRecommender(cp, recommender))
+		{
+			LOG.warn("recommender {} does not exist, model stamp not written", cp + "/" + recommender);
+			return;
+		}
+		Put put = new Put(RowKeys.getRecommenderKey(cp, recommender));
+		put.add(COLUMN_CONFIG, Q_MODEL_UPDATED, Bytes.toBytes(stamp));
+		table.put(put);
+	}
+
+	/**
+	 * Return the time the model of the given recommender was last written
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return the model stamp, or 0 if there is none
+	 */
+	public long getModelUpdated(String cp, String recommender)
+	{
+		Get get = new Get(RowKeys.getRecommenderKey(cp, recommender));
+		get.addColumn(COLUMN_CONFIG, Q_MODEL_UPDATED);
+		Result result = table.get(get);
+		if (!result.isEmpty())
+		{
+			byte[] data = result.getValue(COLUMN_CONFIG, Q_MODEL_UPDATED);
+			if (data != null)
+			{
+				return Bytes.toLong(data);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Activate a model generation of the given recommender, the previous active generation is kept for a rollback. The
+	 * generation is switched with a single check-and-put on the active generation, readers see either the old or the
+	 * new model and a concurrent switch is not lost: the put is retried on the generations it left. Also marks the
+	 * model as updated, like {@link #putModelUpdated(String, String, long)}.
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @param generation the generation to activate, see
+	 *           {@link nl.gridline.zieook.mapreduce.TaskConfig#MODEL_GENERATION}
+	 * @param stamp time the model was written in ms
+	 * @return the generation that is no longer referenced and can be deleted, or -1 if there is none
+	 */
+	public long putModelGeneration(String cp, String recommender, long generation, long stamp)
+	{
+		if (!isRecommender(cp, recommender))
+		{
+			LOG.warn("recommender {} does not exist, model generation not activated", cp + "/" + recommender);
+			return generation;
+		}
+		final byte[] row = RowKeys.getRecommenderKey(cp, recommender);
+		HTableInterface tableInterface = table.getTable();
+		try
+		{
+			for (int attempt = 0; attempt < MODEL_SWITCH_ATTEMPTS; attempt++)
+			{
+				Result result = tableInterface.get(getModelGet(row));
+				long[] model = getModelGenerations(result);
+				Put put = new Put(row);
+				put.add(COLUMN_CONFIG, Q_MODEL_UPDATED, Bytes.toBytes(stamp));
+				if (model[0] == generation)
+				{
+					// updated in place:
+					tableInterface.put(put);
+					return -1;
+				}
+
+				put.add(COLUMN_CONFIG, Q_MODEL_GENERATION, Bytes.toBytes(generation));
+				put.add(COLUMN_CONFIG, Q_MODEL_PREVIOUS, Bytes.toBytes(model[0]));
+				if (tableInterface.checkAndPut(row, COLUMN_CONFIG, Q_MODEL_GENERATION,
+						result.getValue(COLUMN_CONFIG, Q_MODEL_GENERATION), put))
+				{
+					LOG.info("recommender {} model generation {} activated", cp + "/" + recommender, generation);
+					return model[1] != generation ? model[1] : -1;
+				}
+				LOG.info("model generation of {} switched concurrently, trying again", cp + "/" + recommender);
+			}
+			LOG.error("failed to activate model generation {} of {}", generation, cp + "/" + recommender);
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to activate model generation " + generation + " of " + cp + "/" + recommender, e);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+		// nothing is known to be unused:
+		return -1;
+	}
+
+	/**
+	 * Switch the given recommender back to its previous model generation, the current generation becomes the previous
+	 * one. Like {@link #putModelGeneration(String, String, long, long)} the switch is a check-and-put, it fails if the
+	 * active generation was switched in the mean time.
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return true if there was a previous generation to switch to
+	 */
+	public boolean rollbackModelGeneration(String cp, String recommender)
+	{
+		final byte[] row = RowKeys.getRecommenderKey(cp, recommender);
+		HTableInterface tableInterface = table.getTable();
+		try
+		{
+			Result result = tableInterface.get(getModelGet(row));
+			long[] model = getModelGenerations(result);
+			if (model[1] < 0)
+			{
+				return false;
+			}
+			Put put = new Put(row);
+			put.add(COLUMN_CONFIG, Q_MODEL_UPDATED, Bytes.toBytes(System.currentTimeMillis()));
+			put.add(COLUMN_CONFIG, Q_MODEL_GENERATION, Bytes.toBytes(model[1]));
+			put.add(COLUMN_CONFIG, Q_MODEL_PREVIOUS, Bytes.toBytes(model[0]));
+			if (tableInterface.checkAndPut(row, COLUMN_CONFIG, Q_MODEL_GENERATION,
+					result.getValue(COLUMN_CONFIG, Q_MODEL_GENERATION), put))
+			{
+				LOG.info("recommender {} rolled back to model generation {}", cp + "/" + recommender, model[1]);
+				return true;
+			}
+			LOG.warn("model generation of {} switched concurrently, not rolled back", cp + "/" + recommender);
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to roll back the model generation of " + cp + "/" + recommender, e);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+		return false;
+	}
+
+	/**
+	 * Return the active model generation of the given recommender
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return the active generation, 0 if it has none (the unversioned model)
+	 */
+	public long getModelGeneration(String cp, String recommender)
+	{
+		return getModelGenerations(cp, recommender)[0];
+	}
+
+	/**
+	 * Return the active and the previous model generation of the given recommender
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return <tt>[active, previous]</tt>, active is 0 and previous -1 if they are not set
+	 */
+	public long[] getModelGenerations(String cp, String recommender)
+	{
+		return getModelGenerations(table.get(getModelGet(RowKeys.getRecommenderKey(cp, recommender))));
+	}
+
+	/**
+	 * Return the model stamp and the active model generation of the given recommender, read together
+	 * @param cp content provider
+	 * @param recommender recommender name
+	 * @return <tt>[stamp, active]</tt>, see {@link #getModelUpdated(String, String)} and
+	 *         {@link #getModelGeneration(String, String)}
+	 */
+	public long[] getModelStamp(String cp, String recommender)
+	{
+		Result result = table.get(getModelGet(RowKeys.getRecommenderKey(cp, recommender)));
+		long stamp = 0;
+		byte[] data = result.getValue(COLUMN_CONFIG, Q_MODEL_UPDATED);
+		if (data != null)
+		{
+			stamp = Bytes.toLong(data);
+		}
+		return new long[]{stamp, getModelGenerations(result)[0]};
+	}
+
+	private static Get getModelGet(byte[] row)
+	{
+		Get get = new Get(row);
+		get.addColumn(COLUMN_CONFIG, Q_MODEL_UPDATED);
+		get.addColumn(COLUMN_CONFIG, Q_MODEL_GENERATION);
+		get.addColumn(COLUMN_CONFIG, Q_MODEL_PREVIOUS);
+		return get;
+	}
+
+	private static long[] getModelGenerations(Result result)
+	{
+		long[] model = new long[]{0, -1};
+		if (!result.isEmpty())
+		{
+			byte[] data = result.getValue(COLUMN_CONFIG, Q_MODEL_GENERATION);
+			if (data != null)
+			{
+				model[0] = Bytes.toLong(data);
+			}
+			data = result.getValue(COLUMN_CONFIG, Q_MODEL_PREVIOUS);
+			if (data != null)
+			{
+				model[1] = Bytes.toLong(data);
+			}
+		}
+		return model;
+	}
+
 	public boolean isRecommender(String cp, String recommender)
 	{
 		byte[] rowkey = RowKeys.getRecommenderKey(cp, recommender);
@@ -298,15 +529,12 @@ public class RecommenderTable
 	public List<String> getRecommenderList(String cp, String collection)
 	{
 
-		FilterList filters = new FilterList();
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommenderKey(cp))));
-
 		SingleColumnValueFilter collectionFilter = new SingleColumnValueFilter(COLUMN_CONFIG, ModelConstants.COLLECTION,
 				CompareOp.EQUAL, new BinaryComparator(Bytes.toBytes(collection)));
 		collectionFilter.setFilterIfMissing(true);
 
 		// TODO check if we actually need to add the column_config column here...
-		Scan scan = new Scan().addFamily(COLUMN_CONFIG).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRecommenderKey(cp)).family(COLUMN_CONFIG).list().build();
 
 		// start looking:
 		List<String> result = new ArrayList<String>();
@@ -350,18 +578,18 @@ public class RecommenderTable
 
 		// create a list of template names
 
-		// create a row key filter, we know the recommender key prefix, and possible the cp
-		RowFilter filter;
+		// create a row key range, we know the recommender key prefix, and possible the cp
+		byte[] prefix;
 		if (cp == null)
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommenderKey()));
+			prefix = RowKeys.getRecommenderKey();
 		}
 		else
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommenderKey(cp)));
+			prefix = RowKeys.getRecommenderKey(cp);
 		}
 
-		Scan scan = new Scan().addFamily(COLUMN_CONFIG).setFilter(filter);
+		Scan scan = ScanBuilder.prefix(prefix).family(COLUMN_CONFIG).list().build();
 
 		// start looking:
 		List<String> result = new ArrayList<String>();
@@ -401,19 +629,19 @@ public class RecommenderTable
 	public List<RecommenderConfig> getRecommenders(String cp)
 	{
 
-		// create a row key filter, we know the recommender key prefix, and possible the cp
-		RowFilter filter;
+		// create a row key range, we know the recommender key prefix, and possible the cp
+		byte[] prefix;
 		if (cp == null)
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommenderKey()));
+			prefix = RowKeys.getRecommenderKey();
 		}
 		else
 		{
-			filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommenderKey(cp)));
+			prefix = RowKeys.getRecommenderKey(cp);
 		}
 
-		Scan scan = new Scan().addFamily(COLUMN_CONFIG).addFamily(COLUMN_TEMPLATE).addFamily(COLUMN_FILTER)
-				.setFilter(filter);
+		Scan scan = ScanBuilder.prefix(prefix).family(COLUMN_CONFIG).list().build().addFamily(COLUMN_TEMPLATE)
+				.addFamily(COLUMN_FILTER);
 
 		// start looking:
 		List<RecommenderConfig> result = new ArrayList<RecommenderConfig>();
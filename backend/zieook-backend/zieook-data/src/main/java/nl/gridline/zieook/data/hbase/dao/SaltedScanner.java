@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.gridline.zieook.mapreduce.SaltedKeys;
+
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+/**
+ * Scatter-gather read of a salted table: runs one scanner per bucket (see {@link SaltedKeys#scatter(Scan, int)}) and
+ * merges the rows back in the order of their unsalted keys, so callers see the same order as on an unsalted table.
+ * With a single scan it just forwards the rows.
+ * <p />
+ * Project zieook-data<br />
+ * SaltedScanner.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+class SaltedScanner implements Closeable
+{
+	private final ResultScanner[] scanners;
+	private final Result[] heads;
+
+	SaltedScanner(HTableInterface table, Scan[] scans) throws IOException
+	{
+		scanners = new ResultScanner[scans.length];
+		heads = new Result[scans.length];
+		try
+		{
+			for (int i = 0; i < scans.length; i++)
+			{
+				scanners[i] = table.getScanner(scans[i]);
+				heads[i] = scanners[i].next();
+			}
+		}
+		catch (IOException e)
+		{
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the next row over all buckets, or null if all scanners are exhausted
+	 * @throws IOException
+	 */
+	public Result next() throws IOException
+	{
+		int min = -1;
+		for (int i = 0; i < heads.length; i++)
+		{
+			if (heads[i] != null
+					&& (min == -1 || SaltedKeys.compareUnsalted(heads[i].getRow(), heads[min].getRow()) < 0))
+			{
+				min = i;
+			}
+		}
+		if (min == -1)
+		{
+			return null;
+		}
+		Result result = heads[min];
+		heads[min] = scanners[min].next();
+		return result;
+	}
+
+	/**
+	 * @param rows maximum number of rows
+	 * @return the next rows over all buckets, an empty array if all scanners are exhausted
+	 * @throws IOException
+	 */
+	public Result[] next(int rows) throws IOException
+	{
+		List<Result> result = new ArrayList<Result>(rows);
+		Result r;
+		while (result.size() < rows && (r = next()) != null)
+		{
+			result.add(r);
+		}
+		return result.toArray(new Result[result.size()]);
+	}
+
+	@Override
+	public void close()
+	{
+		for (ResultScanner scanner : scanners)
+		{
+			if (scanner != null)
+			{
+				scanner.close();
+			}
+		}
+	}
+}
@@ -20,25 +20,28 @@ package nl.gridline.zieook.data.hbase.dao;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.NavigableMap;
 
 import nl.gridline.zieook.data.hbase.model.HBaseStatisticsTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.Leaderboards;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
+import nl.gridline.zieook.mapreduce.TopK;
 import nl.gridline.zieook.model.GroupedData;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.model.Popularity;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Increment;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
 import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
@@ -68,6 +71,11 @@ public class StatisticsTable
 	private final byte[] STATS_RECOMMENDED_USERITEM = Bytes.toBytes(HBaseTableConstants.STATS_RECOMMENDED_USERITEM);
 	private final byte[] STATS_RECOMMENDED_USER = Bytes.toBytes(HBaseTableConstants.STATS_RECOMMENDED_USER);
 	private final byte[] STATS_ITEM_POPULARITY = Bytes.toBytes(HBaseTableConstants.STATS_ITEM_POPULARITY);
+	private final byte[] STATS_LEADERBOARD = Bytes.toBytes(HBaseTableConstants.STATS_LEADERBOARD);
+	private final byte[] STATS_LIVE = Bytes.toBytes(HBaseTableConstants.STATS_LIVE);
+
+	// top lists first only read the count, the time stamp is needed for the date filters:
+	private static final byte[][] SORT_COLUMNS = new byte[][]{ModelConstants.COUNT, ModelConstants.TIMESTAMP};
 
 	public StatisticsTable(HBaseStatisticsTable table)
 	{
@@ -77,13 +85,11 @@ public class StatisticsTable
 	public List<GroupedData> getTopRecommended(String cp, String collection, long user, Long startDate, Long endDate,
 			int size)
 	{
-
 		FilterList filters = new FilterList();
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getStatRecommendedItemKey(
-				collection, user))));
 		setDateLimit(STATS_RECOMMENDED_USERITEM, startDate, endDate, filters);
 
-		Scan scan = new Scan().addFamily(STATS_RECOMMENDED_USERITEM).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatRecommendedItemKey(collection, user))
+				.columns(STATS_RECOMMENDED_USERITEM, SORT_COLUMNS).filter(filters).batch().build();
 
 		return getSortedResults(cp, scan, STATS_RECOMMENDED_USERITEM, size);
 	}
@@ -92,21 +98,14 @@ public class StatisticsTable
 			Long endDate, int size)
 	{
 		FilterList filters = new FilterList();
+		setDateLimit(STATS_RECOMMENDED_USERITEM, startDate, endDate, filters);
 
-		if (from == null)
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatRecommendedItemKey(collection, user));
+		if (from != null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getStatRecommendedItemKey(
-					collection, user))));
+			builder.from(RowKeys.getStatRecommendedItemKey(collection, user, from));
 		}
-		else
-		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatRecommendedItemKey(collection, user, from))));
-		}
-
-		setDateLimit(STATS_RECOMMENDED_USERITEM, startDate, endDate, filters);
-
-		Scan scan = new Scan().addFamily(STATS_RECOMMENDED_USERITEM).setFilter(filters);
+		Scan scan = builder.family(STATS_RECOMMENDED_USERITEM).filter(filters).lookup(size).build();
 
 		return getResults(cp, scan, STATS_RECOMMENDED_USERITEM, size);
 	}
@@ -115,34 +114,27 @@ public class StatisticsTable
 			int size)
 	{
 		FilterList filters = new FilterList();
-
-		filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-				.getStatRecommendedKey(collection, user))));
 		setDateLimit(STATS_RECOMMENDED_USER, startDate, endDate, filters);
-		Scan scan = new Scan().addFamily(STATS_RECOMMENDED_USER).setFilter(filters);
+
+		// starts at the given user, within the collection:
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatRecommendedKey(collection))
+				.from(RowKeys.getStatRecommendedKey(collection, user)).family(STATS_RECOMMENDED_USER).filter(filters)
+				.lookup(size).build();
 		return getResults(cp, scan, STATS_RECOMMENDED_USER, size);
 	}
 
 	public List<GroupedData> getUserRated(String cp, String collection, Long from, Long startDate, Long endDate, int size)
 	{
 		// Put put = new Put(RowKeys.getStatRatingsPerItemKey(collection, item, date));
-		Scan scan = new Scan();
-		scan.addFamily(STATS_USER_RATINGS);
 		FilterList filters = new FilterList();
-		if (from == null)
-		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatRatingsPerUserKey(collection))));
-		}
-		else
-		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatRatingsPerUserKey(collection, from.longValue()))));
-		}
-
 		setDateLimit(STATS_USER_RATINGS, startDate, endDate, filters);
 
-		scan.setFilter(filters);
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatRatingsPerUserKey(collection));
+		if (from != null)
+		{
+			builder.from(RowKeys.getStatRatingsPerUserKey(collection, from.longValue()));
+		}
+		Scan scan = builder.family(STATS_USER_RATINGS).filter(filters).lookup(size).build();
 
 		return getResults(cp, scan, STATS_USER_RATINGS, size);
 	}
@@ -150,40 +142,26 @@ public class StatisticsTable
 	public List<GroupedData> getItemRated(String cp, String collection, Long from, Long startDate, Long endDate, int size)
 	{
 		// Put put = new Put(RowKeys.getStatRatingsPerItemKey(collection, item, date));
-		Scan scan = new Scan();
-		scan.addFamily(STATS_ITEM_RATINGS);
 		FilterList filters = new FilterList();
-		if (from == null)
-		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatRatingsPerItemKey(collection))));
-		}
-		else
-		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatRatingsPerItemKey(collection, from.longValue()))));
-		}
-
 		setDateLimit(STATS_ITEM_RATINGS, startDate, endDate, filters);
 
-		scan.setFilter(filters);
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatRatingsPerItemKey(collection));
+		if (from != null)
+		{
+			builder.from(RowKeys.getStatRatingsPerItemKey(collection, from.longValue()));
+		}
+		Scan scan = builder.family(STATS_ITEM_RATINGS).filter(filters).lookup(size).build();
 
 		return getResults(cp, scan, STATS_ITEM_RATINGS, size);
 	}
 
 	public List<GroupedData> getRatedTop(String cp, String collection, Long startDate, Long endDate, int size)
 	{
-
-		Scan scan = new Scan();
-		scan.addFamily(STATS_ITEM_RATINGS);
 		FilterList filters = new FilterList();
-
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-				.getStatRatingsPerItemKey(collection))));
-
 		setDateLimit(STATS_ITEM_RATINGS, startDate, endDate, filters);
 
-		scan.setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatRatingsPerItemKey(collection))
+				.columns(STATS_ITEM_RATINGS, SORT_COLUMNS).filter(filters).batch().build();
 
 		return getSortedResults(cp, scan, STATS_ITEM_RATINGS, size);
 	}
@@ -200,28 +178,15 @@ public class StatisticsTable
 	public List<GroupedData> getCollectionSources(String cp, String collection, String from, Long startDate,
 			Long endDate, Integer size)
 	{
-
-		Scan scan = new Scan().addFamily(STATS_COLLECTION_SOURCE);
-
 		FilterList filters = new FilterList();
+		setDateLimit(STATS_COLLECTION_SOURCE, startDate, endDate, filters);
 
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-				.getStatSourcesCollectionKey(collection))));
-
-		if (from == null)
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatSourcesCollectionKey(collection));
+		if (from != null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatSourcesCollectionKey(collection))));
+			builder.from(RowKeys.getStatSourcesCollectionKey(collection, from));
 		}
-		else
-		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatSourcesCollectionKey(collection, from))));
-		}
-
-		setDateLimit(STATS_COLLECTION_SOURCE, startDate, endDate, filters);
-
-		scan.setFilter(filters);
+		Scan scan = builder.family(STATS_COLLECTION_SOURCE).filter(filters).lookup(size).build();
 
 		return getResults(cp, scan, STATS_COLLECTION_SOURCE, size);
 	}
@@ -236,16 +201,11 @@ public class StatisticsTable
 	 */
 	public List<GroupedData> getCollectionTopSources(String cp, String collection, Long startDate, Long endDate, int size)
 	{
-		Scan scan = new Scan().addFamily(STATS_COLLECTION_SOURCE);
-
 		FilterList filters = new FilterList();
-
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-				.getStatSourcesCollectionKey(collection))));
-
 		setDateLimit(STATS_COLLECTION_SOURCE, startDate, endDate, filters);
 
-		scan.setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatSourcesCollectionKey(collection))
+				.columns(STATS_COLLECTION_SOURCE, SORT_COLUMNS).filter(filters).batch().build();
 
 		return getSortedResults(cp, scan, STATS_COLLECTION_SOURCE, size);
 	}
@@ -256,50 +216,32 @@ public class StatisticsTable
 	 * @param recommender
 	 * @return
 	 * @throws IOException
-	 * @see nl.gridline.zieook.statistics.SourcesByRecommenderMap
-	 * @see nl.gridline.zieook.statistics.SourcesByRecommenderReduce
+	 * @see nl.gridline.zieook.statistics.EventLogStatisticsMap
+	 * @see nl.gridline.zieook.statistics.StatisticsReduce
 	 */
 	public List<GroupedData> getSources(String cp, String recommender, String from, Long startDate, Long endDate,
 			int size)
 	{
-		Scan scan = new Scan();
-		scan.addFamily(STATS_VIEWED_SOURCE);
 		FilterList filters = new FilterList();
+		setDateLimit(STATS_VIEWED_SOURCE, startDate, endDate, filters);
 
-		if (from == null)
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatSourcesKey(recommender));
+		if (from != null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatSourcesKey(recommender))));
+			builder.from(RowKeys.getStatSourcesKey(recommender, from));
 		}
-		else
-		{
-			filters.addFilter(new RowFilter(CompareOp.GREATER_OR_EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatSourcesKey(recommender, from))));
-		}
-
-		setDateLimit(STATS_VIEWED_SOURCE, startDate, endDate, filters);
-
-		scan.setFilter(filters);
+		Scan scan = builder.family(STATS_VIEWED_SOURCE).filter(filters).lookup(size).build();
 
 		return getResults(cp, scan, STATS_VIEWED_SOURCE, size);
 	}
 
 	public List<GroupedData> getTopSources(String cp, String recommender, Long startDate, Long endDate, int size)
 	{
-
-		Scan scan = new Scan();
-		scan.addFamily(STATS_VIEWED_SOURCE);
-
 		FilterList filters = new FilterList();
-
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-				.getStatSourcesKey(recommender))));
-
 		setDateLimit(STATS_VIEWED_SOURCE, startDate, endDate, filters);
 
-		scan.setFilter(filters);
-
-		// use a scanner, and add only if map.size < size
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatSourcesKey(recommender))
+				.columns(STATS_VIEWED_SOURCE, SORT_COLUMNS).filter(filters).batch().build();
 
 		return getSortedResults(cp, scan, STATS_VIEWED_SOURCE, size);
 	}
@@ -314,46 +256,97 @@ public class StatisticsTable
 	 */
 	public List<GroupedData> getTopViewed(String cp, String recommender, Long startDate, Long endDate, int size)
 	{
-		Scan scan = new Scan();
-		scan.addFamily(STATS_VIEWED_ITEM);
-
 		FilterList filters = new FilterList();
-
-		filters.addFilter(new RowFilter(CompareOp.EQUAL,
-				new BinaryPrefixComparator(RowKeys.getStatViewedKey(recommender))));
-
 		setDateLimit(STATS_VIEWED_ITEM, startDate, endDate, filters);
 
-		scan.setFilter(filters);
-
-		// use a scanner, and add only if map.size < size
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatViewedKey(recommender))
+				.columns(STATS_VIEWED_ITEM, SORT_COLUMNS).filter(filters).batch().build();
 
 		return getSortedResults(cp, scan, STATS_VIEWED_ITEM, size);
 	}
 
 	public List<GroupedData> getViewed(String cp, String recommender, Long from, Long startDate, Long endDate, int size)
 	{
-		Scan scan = new Scan();
-		scan.addFamily(STATS_VIEWED_ITEM);
-
 		FilterList filters = new FilterList();
+		setDateLimit(STATS_VIEWED_ITEM, startDate, endDate, filters);
 
+		byte[] prefix;
 		if (from == null)
 		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys
-					.getStatViewedKey(recommender))));
+			prefix = RowKeys.getStatViewedKey(recommender);
 		}
 		else
 		{
-			filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getStatViewedKey(
-					recommender, from.longValue()))));
+			prefix = RowKeys.getStatViewedKey(recommender, from.longValue());
 		}
+		Scan scan = ScanBuilder.prefix(prefix).family(STATS_VIEWED_ITEM).filter(filters).lookup(size).build();
 
-		setDateLimit(STATS_VIEWED_ITEM, startDate, endDate, filters);
+		return getResults(cp, scan, STATS_VIEWED_ITEM, size);
+	}
 
-		scan.setFilter(filters);
+	/**
+	 * Read a top list as written by the statistics task, see {@link Leaderboards}
+	 * @param cp content provider
+	 * @param list name of the list
+	 * @param scope recommender, collection or collection and user of the list
+	 * @param window time window name
+	 * @param size number of entries
+	 * @return the top list, or null if there is no list or it's too short to answer <tt>size</tt>
+	 */
+	public List<GroupedData> getLeaderboard(String cp, String list, String scope, String window, int size)
+	{
+		Get get = new Get(RowKeys.getStatLeaderboardKey(list, scope, window)).addFamily(STATS_LEADERBOARD);
+		Result result = table.get(cp, get);
+		if (result == null || result.isEmpty())
+		{
+			return null;
+		}
+		List<NavigableMap<byte[], byte[]>> ranked = Leaderboards.getRanked(result.getFamilyMap(STATS_LEADERBOARD), size);
+		if (ranked == null)
+		{
+			return null;
+		}
+		List<GroupedData> groups = new ArrayList<GroupedData>(ranked.size());
+		for (NavigableMap<byte[], byte[]> columns : ranked)
+		{
+			groups.add(new GroupedData(columns));
+		}
+		return groups;
+	}
 
-		return getResults(cp, scan, STATS_VIEWED_ITEM, size);
+	/**
+	 * Add the counts of the real-time statistics of an hour, see {@link LiveStatistics}
+	 * @param cp content provider
+	 * @param list name of the list, see {@link Leaderboards}
+	 * @param scope recommender or collection
+	 * @param hour start of the hour in ms
+	 * @param counts counts per item id or source name
+	 */
+	public void putLiveCounts(String cp, String list, String scope, long hour, Map<String, long[]> counts)
+	{
+		HTableInterface tableInterface = table.getTable(cp);
+		if (tableInterface == null)
+		{
+			LOG.error("table not found <{}> ignoring {} live counts", cp, counts.size());
+			return;
+		}
+		try
+		{
+			for (Map.Entry<String, long[]> entry : counts.entrySet())
+			{
+				Increment increment = new Increment(RowKeys.getStatLiveKey(list, scope, entry.getKey(), hour));
+				increment.addColumn(STATS_LIVE, ModelConstants.COUNT, entry.getValue()[0]);
+				tableInterface.increment(increment);
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to add " + counts.size() + " live counts of " + list + "/" + scope + " in " + cp, e);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
 	}
 
 	public Popularity getPopularity(String cp, String collection, String name, long item)
@@ -375,41 +368,26 @@ public class StatisticsTable
 	 */
 	public Popularity getMostPopular(String cp, String collection, String type)
 	{
-		// TODO this is the very dirty version of the implementation
-		// create a proper scan, or use a fi
+		Scan scan = ScanBuilder.prefix(RowKeys.getStatsPopularity(type, collection))
+				.columns(STATS_ITEM_POPULARITY, ModelConstants.POPULARITY).batch().build();
 
-		List<Popularity> list = getPopularity(cp, collection, type, null, 1000);
-		if (list == null || list.size() == 0)
+		List<Result> top = getTop(cp, scan, STATS_ITEM_POPULARITY, ModelConstants.POPULARITY, 1);
+		if (top == null || top.isEmpty())
 		{
 			return null;
 		}
-
-		Popularity result = list.get(0);
-		for (Popularity p : list)
-		{
-			if (p.getPopularity() > result.getPopularity())
-			{
-				result = p;
-			}
-		}
-		return result;
+		return new Popularity(top.get(0).getFamilyMap(STATS_ITEM_POPULARITY));
 	}
 
 	public List<Popularity> getPopularity(String cp, String collection, String name, Long startItem, int size)
 	{
 		// create a scanner / filter:
-		Scan scan;
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getStatsPopularity(name, collection));
 		if (startItem != null)
 		{
-			scan = new Scan(RowKeys.getStatsPopularity(name, collection, startItem.longValue()));
+			builder.from(RowKeys.getStatsPopularity(name, collection, startItem.longValue()));
 		}
-		else
-		{
-			scan = new Scan();
-		}
-		scan.setFilter(
-				new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getStatsPopularity(name, collection))))
-				.addFamily(STATS_ITEM_POPULARITY);
+		Scan scan = builder.family(STATS_ITEM_POPULARITY).lookup(size).build();
 
 		// list data:
 		List<Popularity> result = new ArrayList<Popularity>();
@@ -492,35 +470,78 @@ public class StatisticsTable
 
 	private List<GroupedData> getSortedResults(final String cp, final Scan scan, byte[] family, final int size)
 	{
-		TreeSet<GroupedData> result = getSortedSet();
+		List<Result> top = getTop(cp, scan, family, ModelConstants.COUNT, size);
+		if (top == null)
+		{
+			return null;
+		}
+		List<GroupedData> result = new ArrayList<GroupedData>(top.size());
+		for (Result r : top)
+		{
+			result.add(new GroupedData(r.getFamilyMap(family)));
+		}
+		return result;
+	}
+
+	/**
+	 * Streaming top-<tt>size</tt> of the scanned rows. The scan should only read the sort <tt>column</tt> (and the
+	 * columns its filters need), only the admitted rows are read completely, with one multi-get.
+	 * @param cp content provider
+	 * @param scan scan over the candidates
+	 * @param family family of the rows
+	 * @param column sort column, a <tt>long</tt> or <tt>int</tt> - rows without it are ranked last
+	 * @param size maximum number of rows
+	 * @return the complete rows, highest value first, or null on failure
+	 */
+	private List<Result> getTop(final String cp, final Scan scan, final byte[] family, final byte[] column,
+			final int size)
+	{
+		final TopK top = new TopK(size);
 		try
 		{
 			HTableInterface tableInterface = table.getTable(cp);
-			ResultScanner scanner = tableInterface.getScanner(scan);
 			try
 			{
-				Result scanResult;
-				while ((scanResult = scanner.next()) != null)
+				ResultScanner scanner = tableInterface.getScanner(scan);
+				try
 				{
-					// TODO: check for double items id's - they should be skipped, somehow.
-					GroupedData data = new GroupedData(scanResult.getFamilyMap(family));
-					LOG.info("adding: {}", data);
-					boolean old = result.add(data);
-					if (!old)
+					Result scanResult;
+					while ((scanResult = scanner.next()) != null)
 					{
-						LOG.debug("item was already in the set");
+						long score = getScore(scanResult.getValue(family, column));
+						if (top.accepts(score))
+						{
+							top.offer(score, scanResult.getRow());
+						}
 					}
+				}
+				finally
+				{
+					scanner.close();
+				}
 
-					if (result.size() > size)
+				List<byte[]> rows = top.getRows();
+				List<Get> gets = new ArrayList<Get>(rows.size());
+				for (byte[] row : rows)
+				{
+					gets.add(new Get(row).addFamily(family));
+				}
+				List<Result> result = new ArrayList<Result>(rows.size());
+				if (!gets.isEmpty())
+				{
+					for (Result r : tableInterface.get(gets))
 					{
-						result.remove(result.last());
+						// skip rows that were deleted in the mean time:
+						if (r != null && !r.isEmpty())
+						{
+							result.add(r);
+						}
 					}
-
 				}
+				return result;
 			}
 			finally
 			{
-				scanner.close();
 				table.putTable(tableInterface);
 			}
 		}
@@ -529,12 +550,23 @@ public class StatisticsTable
 			LOG.error("failed to get result", e);
 			return null;
 		}
-		return new ArrayList<GroupedData>(result);
 	}
 
-	private TreeSet<GroupedData> getSortedSet()
+	private static long getScore(byte[] value)
 	{
-		return new TreeSet<GroupedData>();
+		if (value == null)
+		{
+			return Long.MIN_VALUE;
+		}
+		if (value.length == Bytes.SIZEOF_INT)
+		{
+			return Bytes.toInt(value);
+		}
+		if (value.length == Bytes.SIZEOF_LONG)
+		{
+			return Bytes.toLong(value);
+		}
+		return Long.MIN_VALUE;
 	}
 
 }
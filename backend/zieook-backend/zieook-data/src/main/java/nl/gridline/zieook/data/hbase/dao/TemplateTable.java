@@ -25,6 +25,7 @@ import java.util.NavigableMap;
 
 import nl.gridline.zieook.data.hbase.model.HBaseConfigurationTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.workflow.model.Template;
 import nl.gridline.zieook.workflow.model.Templates;
 
@@ -35,9 +36,6 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -166,11 +164,8 @@ public class TemplateTable
 		// to collect all templates
 
 		// create a list of template names
-		Scan scan = new Scan().addFamily(COLUMN_TEMPLATE);
-
-		// create a row key filter, we know the template key prefix.
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(TEMPLATE_KEY_PREFIX)));
-		scan.setFilter(filter);
+		// we know the template key prefix:
+		Scan scan = ScanBuilder.prefix(Bytes.toBytes(TEMPLATE_KEY_PREFIX)).family(COLUMN_TEMPLATE).list().build();
 
 		List<String> result = new ArrayList<String>();
 		try
@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import nl.gridline.zieook.mapreduce.CountMinSketch;
+
+/**
+ * Approximate counts over a sliding time window, with the heavy hitters: the window is a ring of slots, every slot a
+ * {@link CountMinSketch} of the events in its time span. The count of an id is the sum of the estimates of the slots
+ * that are still in the window. Besides the sketches a bounded set of candidates is kept, the ids with the highest
+ * estimates, so the top of the window is known without a scan.
+ * <p />
+ * The sketch of a slot is dropped when it slides out of the window, an idle counter holds hardly any memory. Not
+ * thread safe.
+ * <p />
+ * Project zieook-data<br />
+ * TrendingCounter.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TrendingCounter
+{
+	private static final Comparator<Entry> BY_COUNT = new Comparator<Entry>()
+	{
+		@Override
+		public int compare(Entry o1, Entry o2)
+		{
+			return o1.count > o2.count ? -1 : (o1.count == o2.count ? 0 : 1);
+		}
+	};
+
+	private final long slotLength;
+	private final CountMinSketch[] slots;
+	private final long[] slotStart;
+	private final int width;
+	private final int depth;
+	private final int capacity;
+
+	private final Map<Long, Entry> candidates;
+	private long minCount;
+
+	/**
+	 * @param window length of the window in ms
+	 * @param slotCount number of slots of the window
+	 * @param width width of the sketches
+	 * @param depth depth of the sketches
+	 * @param capacity maximum number of candidates
+	 */
+	public TrendingCounter(long window, int slotCount, int width, int depth, int capacity)
+	{
+		slotLength = Math.max(1, window / slotCount);
+		slots = new CountMinSketch[slotCount];
+		slotStart = new long[slotCount];
+		this.width = width;
+		this.depth = depth;
+		this.capacity = Math.max(1, capacity);
+		candidates = new HashMap<Long, Entry>(this.capacity * 2);
+	}
+
+	/**
+	 * Count an event
+	 * @param id item id, or the hash of a source
+	 * @param name name of the id, e.g. the source, may be null
+	 * @param count count of the event
+	 * @param time time of the event in ms
+	 */
+	public void add(long id, String name, int count, long time)
+	{
+		final long start = time - time % slotLength;
+		final int i = (int) ((time / slotLength) % slots.length);
+		if (slots[i] == null || slotStart[i] != start)
+		{
+			if (slotStart[i] > start)
+			{
+				// older than the window, already slid out:
+				return;
+			}
+			slots[i] = new CountMinSketch(width, depth);
+			slotStart[i] = start;
+			refresh(time);
+		}
+		slots[i].add(id, count);
+
+		final long estimate = estimate(id, time);
+		Entry entry = candidates.get(id);
+		if (entry != null)
+		{
+			entry.count = estimate;
+		}
+		else if (candidates.size() < capacity)
+		{
+			candidates.put(id, new Entry(id, name, estimate));
+			if (candidates.size() == capacity)
+			{
+				updateMin();
+			}
+		}
+		else if (estimate > minCount)
+		{
+			// replace the candidate with the lowest count:
+			Iterator<Entry> it = candidates.values().iterator();
+			while (it.hasNext())
+			{
+				if (it.next().count <= minCount)
+				{
+					it.remove();
+					break;
+				}
+			}
+			candidates.put(id, new Entry(id, name, estimate));
+			updateMin();
+		}
+	}
+
+	/**
+	 * @param id the id
+	 * @param time now, in ms
+	 * @return estimated count of the id in the window that ends at the given time
+	 */
+	public long estimate(long id, long time)
+	{
+		long result = 0;
+		for (int i = 0; i < slots.length; i++)
+		{
+			if (isLive(i, time))
+			{
+				result += slots[i].estimate(id);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the ids with the highest counts
+	 * @param size maximum number of entries
+	 * @param time now, in ms
+	 * @return the entries, highest count first
+	 */
+	public List<Entry> getTop(int size, long time)
+	{
+		refresh(time);
+		List<Entry> result = new ArrayList<Entry>(candidates.size());
+		for (Entry entry : candidates.values())
+		{
+			result.add(new Entry(entry.id, entry.name, entry.count));
+		}
+		Collections.sort(result, BY_COUNT);
+		return result.size() > size ? result.subList(0, size) : result;
+	}
+
+	/**
+	 * @param time now, in ms
+	 * @return true if none of the slots is in the window
+	 */
+	public boolean isIdle(long time)
+	{
+		for (int i = 0; i < slots.length; i++)
+		{
+			if (isLive(i, time))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isLive(int slot, long time)
+	{
+		return slots[slot] != null && slotStart[slot] > time - slotLength * slots.length;
+	}
+
+	/**
+	 * drop the slots that slid out of the window and recompute the counts of the candidates
+	 */
+	private void refresh(long time)
+	{
+		for (int i = 0; i < slots.length; i++)
+		{
+			if (!isLive(i, time))
+			{
+				slots[i] = null;
+			}
+		}
+		Iterator<Entry> it = candidates.values().iterator();
+		while (it.hasNext())
+		{
+			Entry entry = it.next();
+			entry.count = estimate(entry.id, time);
+			if (entry.count == 0)
+			{
+				it.remove();
+			}
+		}
+		updateMin();
+	}
+
+	private void updateMin()
+	{
+		if (candidates.size() < capacity)
+		{
+			minCount = 0;
+			return;
+		}
+		long min = Long.MAX_VALUE;
+		for (Entry entry : candidates.values())
+		{
+			min = Math.min(min, entry.count);
+		}
+		minCount = min;
+	}
+
+	/**
+	 * An id and its estimated count
+	 */
+	public static final class Entry
+	{
+		private final long id;
+		private final String name;
+		private long count;
+
+		Entry(long id, String name, long count)
+		{
+			this.id = id;
+			this.name = name;
+			this.count = count;
+		}
+
+		public long getId()
+		{
+			return id;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+	}
+}
@@ -23,14 +23,21 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import nl.gridline.zieook.data.hbase.model.HBaseUserTable;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.model.Rating;
 import nl.gridline.zieook.model.User;
@@ -39,16 +46,15 @@ import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Increment;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.FamilyFilter;
 import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
@@ -77,6 +83,19 @@ public class UserTable
 
 	private static final byte[] COLUMN_FOAF = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_FOAF);
 	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+	private static final byte[] COLUMN_RATING_INDEX = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING_INDEX);
+	private static final byte[] RATING_INDEX_READY = RowKeys.getRatingIndexReadyKey();
+	private static final byte[] RATING_INDEX_STAMP = Bytes.toBytes(HBaseTableConstants.TIMESTAMP);
+
+	/**
+	 * interval in ms between two checks of a missing rating index
+	 */
+	private static final long RATING_INDEX_CHECK_INTERVAL = 60 * 1000;
+
+	// content providers with a rating index family (maintained on write) and with a complete index (used on read):
+	private final Set<String> ratingIndexed = Collections.synchronizedSet(new HashSet<String>());
+	private final Set<String> ratingIndexReady = Collections.synchronizedSet(new HashSet<String>());
+	private final Map<String, Long> ratingIndexChecked = new ConcurrentHashMap<String, Long>();
 
 	public UserTable(HBaseUserTable table)
 	{
@@ -253,8 +272,24 @@ public class UserTable
 	 */
 	private final long DAY = 1000 * 60 * 60 * 24;
 
+	/**
+	 * Return the latest ratings of a user, newest first
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param user user id
+	 * @param startdate earliest rating date in ms (inclusive), or null
+	 * @param enddate latest rating date in ms (exclusive), or null
+	 * @param size maximum number of ratings
+	 * @return
+	 */
 	public List<Rating> getRatings(String cp, String collection, long user, Long startdate, Long enddate, int size)
 	{
+		if (isRatingIndexReady(cp))
+		{
+			return getIndexedRatings(cp, collection, user, startdate, enddate, size);
+		}
+
+		// no (complete) rating index yet, search back in time:
 		long epoch = getEpochFor(cp);
 
 		// date range:
@@ -353,6 +388,54 @@ public class UserTable
 		return result;
 	}
 
+	/**
+	 * Read the latest ratings of a user from the rating index: a single scan over the user's index rows, these are
+	 * sorted newest first.
+	 */
+	private List<Rating> getIndexedRatings(String cp, String collection, long user, Long startdate, Long enddate,
+			int size)
+	{
+		// index rows hold (MAX - stamp): the end date is where the scan starts, the start date where it stops
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getRatingIndexKey(collection, user));
+		if (enddate != null)
+		{
+			builder.from(ScanBuilder.getStopRow(RowKeys.getRatingIndexKey(collection, user, enddate.longValue())));
+		}
+		if (startdate != null)
+		{
+			builder.to(ScanBuilder.getStopRow(RowKeys.getRatingIndexKey(collection, user, startdate.longValue())));
+		}
+		Scan scan = builder.family(COLUMN_RATING_INDEX).lookup(size).build();
+
+		final List<Rating> result = new ArrayList<Rating>(Math.min(size, ScanBuilder.CACHING_BATCH));
+		try
+		{
+			HTableInterface tableInterface = table.getTable(cp);
+			ResultScanner scanner = tableInterface.getScanner(scan);
+			try
+			{
+				for (Result rr = scanner.next(); rr != null && result.size() < size; rr = scanner.next())
+				{
+					Rating rating = new Rating(rr.getFamilyMap(COLUMN_RATING_INDEX));
+					rating.setCp(cp);
+					rating.setCollection(collection);
+					result.add(rating);
+				}
+			}
+			finally
+			{
+				scanner.close();
+				table.putTable(tableInterface);
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to get ratings from the rating index", e);
+		}
+
+		return result;
+	}
+
 	public List<Rating> getRatings(String cp, String collection, long user, Double lowRating, Double highRating,
 			int size, Long startItem)
 	{
@@ -380,11 +463,12 @@ public class UserTable
 			filterlist.addFilter(upperValue);
 		}
 
-		Scan scan = new Scan().addFamily(COLUMN_RATING).setFilter(filterlist);
+		ScanBuilder builder = ScanBuilder.prefix(RowKeys.getRatingKey(collection, user));
 		if (startItem != null)
 		{
-			scan.setStartRow(RowKeys.getRatingKey(collection, user, startItem));
+			builder.from(RowKeys.getRatingKey(collection, user, startItem));
 		}
+		Scan scan = builder.family(COLUMN_RATING).filter(filterlist).lookup(size).build();
 
 		final List<Rating> result = new ArrayList<Rating>(size);
 
@@ -442,7 +526,10 @@ public class UserTable
 	}
 
 	/**
-	 * Put a particular rating the id is: <tt>recommender.user.item-id</tt>
+	 * Put a particular rating the id is: <tt>recommender.user.item-id</tt><br />
+	 * On an indexed table this costs an extra round trip: the stored date of the rating is read first, to remove the
+	 * index row of a rating that moved in time. Bulk imports should use
+	 * {@link #putRatings(String, String, List, TimeUnit)}, which reads the dates of a whole batch with one multi-get.
 	 * @param cp
 	 *           content provider
 	 * @param collection
@@ -456,6 +543,18 @@ public class UserTable
 	 */
 	private void putRating(String cp, String collection, Rating rating)
 	{
+		if (isRatingIndexed(cp))
+		{
+			// a changed date moves the rating in the index:
+			Long date = getRatingDate(cp, collection, rating.getUser(), rating.getItem());
+			if (date != null && !date.equals(rating.getDate()))
+			{
+				table.delete(cp, new Delete(RowKeys.getRatingIndexKey(collection, rating.getUser(), date.longValue(),
+						rating.getItem())));
+			}
+			table.put(cp, createIndexPut(collection, rating));
+		}
+
 		Put put = new Put(RowKeys.getRatingKey(collection, rating.getUser(), rating.getItem()));
 		Map<byte[], byte[]> data = rating.toMap();
 		for (Map.Entry<byte[], byte[]> entry : data.entrySet())
@@ -479,6 +578,305 @@ public class UserTable
 		table.put(cp, put);
 	}
 
+	/**
+	 * Put a batch of ratings: all rating puts are written as one list and the rating count of every user is incremented
+	 * once with the number of new ratings for that user in the batch. Of ratings with the same user and item only the
+	 * last one is stored. The current dates of the ratings are read first with one multi-get: a rating that replaces a
+	 * stored rating is not counted again, and its index row is moved to the new date.<br />
+	 * A rating is only reported as stored when all its writes succeeded, the count is incremented last. Writing a
+	 * failed rating again is safe: the rating and index rows are overwritten and it is counted once.
+	 * @param cp content provider
+	 * @param collection collection name
+	 * @param ratings list of ratings, user and item are required
+	 * @param unit time unit of the rating dates
+	 * @return the stored, new and failed ratings
+	 */
+	public StoredRatings putRatings(String cp, String collection, List<Rating> ratings, TimeUnit unit)
+	{
+		// the last rating of a user and item wins, counting the others would only inflate the rating count:
+		Map<String, Rating> distinct = new LinkedHashMap<String, Rating>();
+		for (Rating rating : ratings)
+		{
+			distinct.put(rating.getUser() + "/" + rating.getItem(), rating);
+		}
+		final List<Rating> batch = new ArrayList<Rating>(distinct.values());
+		final StoredRatings result = new StoredRatings(batch.size());
+
+		final long now = System.currentTimeMillis();
+		final byte[] lastRecommended = Bytes.toBytes(now / 1000);
+		List<Put> puts = new ArrayList<Put>(batch.size());
+		List<Get> gets = new ArrayList<Get>(batch.size());
+		for (Rating rating : batch)
+		{
+			if (rating.getDate() == null)
+			{
+				rating.setDate(now);
+			}
+			else if (TimeUnit.SECONDS == unit)
+			{
+				rating.setDate(rating.getDate() * 1000);
+			}
+
+			byte[] row = RowKeys.getRatingKey(collection, rating.getUser(), rating.getItem());
+			Put put = new Put(row);
+			Map<byte[], byte[]> data = rating.toMap();
+			for (Map.Entry<byte[], byte[]> entry : data.entrySet())
+			{
+				put.add(COLUMN_RATING, entry.getKey(), entry.getValue());
+			}
+			put.add(COLUMN_FOAF, ModelConstants.LAST_RECOMMENDED_DATE, lastRecommended);
+			puts.add(put);
+			gets.add(new Get(row).addColumn(COLUMN_RATING, ModelConstants.TIMESTAMP));
+		}
+
+		HTableInterface tableInterface = table.getTable(cp);
+		if (tableInterface == null)
+		{
+			LOG.error("table not found <{}> ignoring {} ratings", cp, batch.size());
+			result.failed.addAll(batch);
+			return result;
+		}
+
+		try
+		{
+			// 1: the current dates, null for a new rating:
+			Result[] current = tableInterface.get(gets);
+			Map<Rating, Long> dates = new IdentityHashMap<Rating, Long>();
+			for (int i = 0; i < batch.size(); i++)
+			{
+				KeyValue kv = current[i] == null ? null : current[i].getColumnLatest(COLUMN_RATING,
+						ModelConstants.TIMESTAMP);
+				dates.put(batch.get(i), kv == null ? null : Bytes.toLong(kv.getValue()));
+			}
+
+			// 2: the ratings, a failed put only fails its own rating:
+			List<Rating> stored = new ArrayList<Rating>(batch.size());
+			try
+			{
+				tableInterface.put(puts);
+				stored.addAll(batch);
+			}
+			catch (RetriesExhaustedWithDetailsException e)
+			{
+				LOG.error("failed to put " + e.getNumExceptions() + " of " + batch.size() + " ratings in " + cp, e);
+				Set<String> rows = new HashSet<String>();
+				for (int i = 0; i < e.getNumExceptions(); i++)
+				{
+					rows.add(Bytes.toStringBinary(e.getRow(i).getRow()));
+				}
+				for (int i = 0; i < batch.size(); i++)
+				{
+					if (rows.contains(Bytes.toStringBinary(puts.get(i).getRow())))
+					{
+						result.failed.add(batch.get(i));
+					}
+					else
+					{
+						stored.add(batch.get(i));
+					}
+				}
+			}
+
+			// 3: the date index:
+			if (!stored.isEmpty() && isRatingIndexed(cp))
+			{
+				putRatingIndex(tableInterface, collection, stored, dates);
+			}
+
+			// 4: count the new ratings, per user:
+			Map<Long, List<Rating>> users = new HashMap<Long, List<Rating>>();
+			for (Rating rating : stored)
+			{
+				if (dates.get(rating) != null)
+				{
+					result.stored.add(rating);
+					continue;
+				}
+				List<Rating> list = users.get(rating.getUser());
+				if (list == null)
+				{
+					list = new ArrayList<Rating>();
+					users.put(rating.getUser(), list);
+				}
+				list.add(rating);
+			}
+			for (Map.Entry<Long, List<Rating>> entry : users.entrySet())
+			{
+				try
+				{
+					tableInterface.incrementColumnValue(RowKeys.getUserKey(entry.getKey()), COLUMN_FOAF,
+							ModelConstants.COUNT, entry.getValue().size());
+					result.stored.addAll(entry.getValue());
+					result.added.addAll(entry.getValue());
+				}
+				catch (IOException e)
+				{
+					LOG.error("increment rating count failed for " + entry.getKey(), e);
+					result.failed.addAll(entry.getValue());
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to put " + batch.size() + " ratings in " + cp, e);
+			result.stored.clear();
+			result.added.clear();
+			result.failed.clear();
+			result.failed.addAll(batch);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+		return result;
+	}
+
+	/**
+	 * Write the index rows of a batch of ratings, and remove the index rows of ratings that moved in time
+	 * @param dates the dates of the ratings before they were written, null for a new rating
+	 */
+	private void putRatingIndex(HTableInterface tableInterface, String collection, List<Rating> ratings,
+			Map<Rating, Long> dates) throws IOException
+	{
+		List<Delete> deletes = new ArrayList<Delete>();
+		List<Put> puts = new ArrayList<Put>(ratings.size());
+		for (Rating rating : ratings)
+		{
+			Long date = dates.get(rating);
+			if (date != null && date.longValue() != rating.getDate().longValue())
+			{
+				deletes.add(new Delete(RowKeys.getRatingIndexKey(collection, rating.getUser(), date.longValue(),
+						rating.getItem())));
+			}
+			puts.add(createIndexPut(collection, rating));
+		}
+		if (!deletes.isEmpty())
+		{
+			tableInterface.delete(deletes);
+		}
+		tableInterface.put(puts);
+	}
+
+	private Put createIndexPut(String collection, Rating rating)
+	{
+		Put put = new Put(RowKeys.getRatingIndexKey(collection, rating.getUser(), rating.getDate().longValue(),
+				rating.getItem()));
+		Map<byte[], byte[]> data = rating.toMap();
+		for (Map.Entry<byte[], byte[]> entry : data.entrySet())
+		{
+			put.add(COLUMN_RATING_INDEX, entry.getKey(), entry.getValue());
+		}
+		return put;
+	}
+
+	/**
+	 * @return the date of a stored rating, or null if the rating (or its date) does not exist
+	 */
+	private Long getRatingDate(String cp, String collection, long user, long item)
+	{
+		Get get = new Get(RowKeys.getRatingKey(collection, user, item)).addColumn(COLUMN_RATING, ModelConstants.TIMESTAMP);
+		Result result = table.get(cp, get);
+		if (result != null)
+		{
+			KeyValue kv = result.getColumnLatest(COLUMN_RATING, ModelConstants.TIMESTAMP);
+			if (kv != null)
+			{
+				return Bytes.toLong(kv.getValue());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns true if the user table of the content provider has a rating index family, ratings are then indexed on
+	 * write. Tables created before the index need a schema update first.
+	 * @param cp content provider
+	 * @return
+	 */
+	public boolean isRatingIndexed(String cp)
+	{
+		if (ratingIndexed.contains(cp))
+		{
+			return true;
+		}
+		if (isRatingIndexCheckedRecently("family/" + cp))
+		{
+			return false;
+		}
+
+		HTableInterface tableInterface = table.getTable(cp);
+		if (tableInterface == null)
+		{
+			return false;
+		}
+		try
+		{
+			if (tableInterface.getTableDescriptor().hasFamily(COLUMN_RATING_INDEX))
+			{
+				ratingIndexed.add(cp);
+				return true;
+			}
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to read the table descriptor of " + cp, e);
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the rating index of the content provider is complete, i.e. it was created with the index or the
+	 * index was back filled, see {@link #setRatingIndexReady(String)}
+	 * @param cp content provider
+	 * @return
+	 */
+	public boolean isRatingIndexReady(String cp)
+	{
+		if (ratingIndexReady.contains(cp))
+		{
+			return true;
+		}
+		if (!isRatingIndexed(cp) || isRatingIndexCheckedRecently("ready/" + cp))
+		{
+			return false;
+		}
+		if (table.exists(cp, new Get(RATING_INDEX_READY).addFamily(COLUMN_RATING_INDEX)))
+		{
+			LOG.info("rating index of {} is ready", cp);
+			ratingIndexReady.add(cp);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * mark the rating index of the content provider as complete
+	 * @param cp content provider
+	 */
+	public void setRatingIndexReady(String cp)
+	{
+		table.put(cp,
+				new Put(RATING_INDEX_READY).add(COLUMN_RATING_INDEX, RATING_INDEX_STAMP,
+						Bytes.toBytes(System.currentTimeMillis())));
+		ratingIndexReady.add(cp);
+	}
+
+	private boolean isRatingIndexCheckedRecently(String key)
+	{
+		final long now = System.currentTimeMillis();
+		Long checked = ratingIndexChecked.get(key);
+		if (checked != null && now - checked.longValue() < RATING_INDEX_CHECK_INTERVAL)
+		{
+			return true;
+		}
+		ratingIndexChecked.put(key, now);
+		return false;
+	}
+
 	private void decRating(String cp, String collection, long user, long amount)
 	{
 		try
@@ -530,7 +928,7 @@ public class UserTable
 		try
 		{
 			Result result = table.getTable(cp).get(new Get(EPOCH).addFamily(COLUMN_RATING));
-			KeyValue data = result.getColumnLatest(COLUMN_FOAF, EPOCH);
+			KeyValue data = result.getColumnLatest(COLUMN_RATING, EPOCH);
 			if (data != null)
 			{
 				return Bytes.toLong(data.getValue());
@@ -643,6 +1041,69 @@ public class UserTable
 		}
 	}
 
+	/**
+	 * Apply coalesced view and recommend counters for a set of users: a single increment per user and one batched put
+	 * for the last view / recommended dates. HBase 0.90 has no batched increment, so this is still one round trip per
+	 * user; to bound the time it takes no more increments are started after the deadline (but at least one is). The
+	 * counters that were written, or failed, are removed from the map, the rest is left for the next call.
+	 * @param cp content provider
+	 * @param counters counters per user id
+	 * @param deadline time in ms after which no more increments are started
+	 */
+	public void putCounters(String cp, Map<Long, UserCounters> counters, long deadline)
+	{
+		if (counters.isEmpty())
+		{
+			return;
+		}
+		HTableInterface tableInterface = table.getTable(cp);
+		if (tableInterface == null)
+		{
+			LOG.error("table not found <{}> ignoring {} user counters", cp, counters.size());
+			counters.clear();
+			return;
+		}
+		try
+		{
+			List<Put> puts = new ArrayList<Put>(counters.size());
+			Iterator<Map.Entry<Long, UserCounters>> i = counters.entrySet().iterator();
+			while (i.hasNext() && (puts.isEmpty() || System.currentTimeMillis() < deadline))
+			{
+				Map.Entry<Long, UserCounters> entry = i.next();
+				i.remove();
+				final byte[] row = RowKeys.getUserKey(entry.getKey());
+				final UserCounters c = entry.getValue();
+				Increment increment = new Increment(row);
+				Put put = new Put(row);
+				if (c.getViews() != 0)
+				{
+					increment.addColumn(COLUMN_FOAF, ModelConstants.VIEW_COUNT, c.getViews());
+					put.add(COLUMN_FOAF, ModelConstants.LAST_VIEW_DATE, Bytes.toBytes(c.getLastView() / 1000));
+				}
+				if (c.getRecommends() != 0)
+				{
+					increment.addColumn(COLUMN_FOAF, ModelConstants.RECOMMEND_COUNT, c.getRecommends());
+					put.add(COLUMN_FOAF, ModelConstants.LAST_RECOMMENDED_DATE, Bytes.toBytes(c.getLastRecommended() / 1000));
+				}
+				if (!put.isEmpty())
+				{
+					tableInterface.increment(increment);
+					puts.add(put);
+				}
+			}
+			tableInterface.put(puts);
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to update user counters in " + cp + ", " + counters.size() + " more are dropped", e);
+			counters.clear();
+		}
+		finally
+		{
+			table.putTable(tableInterface);
+		}
+	}
+
 	/**
 	 * decrease the number of recommended items for the given {@code useR} and {@code cp}
 	 * @param cp content provider
@@ -670,6 +1131,15 @@ public class UserTable
 	 */
 	public void deleteRating(String cp, String collection, Long user, Long item)
 	{
+		if (isRatingIndexed(cp))
+		{
+			Long date = getRatingDate(cp, collection, user, item);
+			if (date != null)
+			{
+				table.delete(cp, new Delete(RowKeys.getRatingIndexKey(collection, user, date, item)));
+			}
+		}
+
 		Delete delete = new Delete(RowKeys.getRatingKey(collection, user, item));
 		table.delete(cp, delete);
 
@@ -692,11 +1162,16 @@ public class UserTable
 	 */
 	public void deleteRatings(String cp, String collection, long user)
 	{
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey(collection,
-				user)));
-		Scan scan = new Scan().addFamily(COLUMN_RATING).setFilter(filter);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRatingKey(collection, user)).family(COLUMN_RATING).batch().build();
 		long count = deleteAll(scan, cp, COLUMN_RATING);
 		decRating(cp, collection, user, count);
+
+		if (isRatingIndexed(cp))
+		{
+			scan = ScanBuilder.prefix(RowKeys.getRatingIndexKey(collection, user)).family(COLUMN_RATING_INDEX).batch()
+					.build();
+			deleteAll(scan, cp, COLUMN_RATING_INDEX);
+		}
 	}
 
 	/**
@@ -706,15 +1181,15 @@ public class UserTable
 	 */
 	public void deleteRatings(String cp, String collection)
 	{
-		FilterList filters = new FilterList();
-		// create a filter:
-
-		filters.addFilter(new FamilyFilter(CompareOp.EQUAL, new BinaryComparator(COLUMN_RATING)));
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey(collection))));
-
-		Scan scan = new Scan().addFamily(COLUMN_RATING).setFilter(filters);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRatingKey(collection)).family(COLUMN_RATING).batch().build();
 		deleteAll(scan, cp, COLUMN_RATING);
 
+		if (isRatingIndexed(cp))
+		{
+			scan = ScanBuilder.prefix(RowKeys.getRatingIndexKey(collection)).family(COLUMN_RATING_INDEX).batch().build();
+			deleteAll(scan, cp, COLUMN_RATING_INDEX);
+		}
+
 		// TODO hm... this will fuck up the rating count of a user... & needs a fix - track the users... do a batch
 		// decrease on them or something
 	}
@@ -726,7 +1201,7 @@ public class UserTable
 	public void updateCounts(String cp)
 	{
 		// reset all...
-		Scan scan = new Scan().addFamily(COLUMN_FOAF);
+		Scan scan = ScanBuilder.all().family(COLUMN_FOAF).batch().build();
 		long count = 0;
 		try
 		{
@@ -785,7 +1260,7 @@ public class UserTable
 		}
 
 		// count all user ratings, set value..
-		scan = new Scan().addFamily(COLUMN_RATING);
+		scan = ScanBuilder.prefix(RowKeys.getRatingKey()).family(COLUMN_RATING).batch().build();
 		count = 0;
 		try
 		{
@@ -855,9 +1330,8 @@ public class UserTable
 
 		filter.addFilter(endTime);
 
-		Scan scan = new Scan().addFamily(COLUMN_RATING).setFilter(filter)
-				.setStartRow(RowKeys.getRatingKey(collection, user));
-		scan.setCaching(1000);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRatingKey(collection, user)).family(COLUMN_RATING).filter(filter)
+				.batch().build();
 
 		List<Rating> result = new ArrayList<Rating>();
 		try
@@ -952,6 +1426,111 @@ public class UserTable
 		return count;
 	}
 
+	/**
+	 * Outcome of {@link UserTable#putRatings(String, String, List, TimeUnit)}
+	 */
+	public static class StoredRatings
+	{
+		private final List<Rating> stored;
+		private final List<Rating> added;
+		private final List<Rating> failed;
+
+		StoredRatings(int size)
+		{
+			stored = new ArrayList<Rating>(size);
+			added = new ArrayList<Rating>(size);
+			failed = new ArrayList<Rating>();
+		}
+
+		/**
+		 * @return the stored ratings, one per user and item
+		 */
+		public List<Rating> getStored()
+		{
+			return stored;
+		}
+
+		/**
+		 * @return the stored ratings of a user and item that had no rating before
+		 */
+		public List<Rating> getAdded()
+		{
+			return added;
+		}
+
+		/**
+		 * @return the ratings that were not (completely) stored
+		 */
+		public List<Rating> getFailed()
+		{
+			return failed;
+		}
+	}
+
+	/**
+	 * View and recommend counters of a single user, collected before they are written in one go by
+	 * {@link UserTable#putCounters(String, Map, long)}
+	 */
+	public static class UserCounters
+	{
+		private long views;
+		private long recommends;
+		private long lastView;
+		private long lastRecommended;
+
+		/**
+		 * count a view
+		 * @param time view time in ms
+		 */
+		public void addView(long time)
+		{
+			views++;
+			lastView = Math.max(lastView, time);
+		}
+
+		/**
+		 * count a recommend
+		 * @param time recommend time in ms
+		 */
+		public void addRecommend(long time)
+		{
+			recommends++;
+			lastRecommended = Math.max(lastRecommended, time);
+		}
+
+		/**
+		 * add the counts of another collection of events of the same user
+		 * @param other the other counters
+		 */
+		public void add(UserCounters other)
+		{
+			views += other.views;
+			recommends += other.recommends;
+			lastView = Math.max(lastView, other.lastView);
+			lastRecommended = Math.max(lastRecommended, other.lastRecommended);
+		}
+
+		public long getViews()
+		{
+			return views;
+		}
+
+		public long getRecommends()
+		{
+			return recommends;
+		}
+
+		public long getLastView()
+		{
+			return lastView;
+		}
+
+		public long getLastRecommended()
+		{
+			return lastRecommended;
+		}
+	}
+
 	/**
 	 * Compare dates from the rating and put newest first.
 	 * <p />
@@ -1004,12 +1583,10 @@ public class UserTable
 	private long calculateEpoch(String cp)
 	{
 		long currentEpoch = Long.MAX_VALUE;
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey()));
-		Scan scan = new Scan().addFamily(COLUMN_RATING).setFilter(filter);
+		Scan scan = ScanBuilder.prefix(RowKeys.getRatingKey()).family(COLUMN_RATING).batch().build();
 		try
 		{
 			HTableInterface tableInterface = table.getTable(cp);
-			scan.setCaching(1000);
 			ResultScanner scanner = tableInterface.getScanner(scan);
 			try
 			{
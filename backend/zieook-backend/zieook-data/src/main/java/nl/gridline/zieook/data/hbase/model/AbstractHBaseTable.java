@@ -366,17 +366,28 @@ public abstract class AbstractHBaseTable implements TableOperations
 	 */
 	@Override
 	public boolean update(String name) throws IOException
+	{
+		return update(name, false);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see nl.gridline.zieook.data.hbase.TableOperations#update(java.lang.String, boolean)
+	 */
+	@Override
+	public boolean update(String name, boolean includeProfiles) throws IOException
 	{
 		if (tableExists(name))
 		{
 			HTableDescriptor updates = getCurrentDescriptor(name);
 			String tablename = getTableName(name);
-			if (manager.needsUpdate(updates))
+			if (manager.needsUpdate(updates, includeProfiles))
 			{
 				manager.disableTable(tablename);
 				try
 				{
-					manager.updateTable(updates);
+					manager.updateTable(updates, includeProfiles);
 				}
 				finally
 				{
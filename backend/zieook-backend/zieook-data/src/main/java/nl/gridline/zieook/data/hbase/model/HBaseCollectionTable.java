@@ -18,6 +18,7 @@
 package nl.gridline.zieook.data.hbase.model;
 
 import nl.gridline.zieook.data.hbase.HBaseManager;
+import nl.gridline.zieook.data.hbase.StorageProfile;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -69,18 +70,12 @@ public class HBaseCollectionTable extends AbstractHBaseTable
 		HTableDescriptor descriptor = new HTableDescriptor(getTableName(name));
 
 		// column family:
-		HColumnDescriptor rawdata = new HColumnDescriptor(COLLECTION_TABLE_COLUMN_RAW);
+		HColumnDescriptor rawdata = StorageProfile.COLLECTION_RAW.create(COLLECTION_TABLE_COLUMN_RAW);
 		rawdata.setMaxVersions(1); // imported items don't change, so we only allow one version
 
-		HColumnDescriptor interpreted = new HColumnDescriptor(COLLECTION_TABLE_COLUMN_INTR);
+		// the interpretation does change, items are read one by one:
+		HColumnDescriptor interpreted = StorageProfile.COLLECTION.create(COLLECTION_TABLE_COLUMN_INTR);
 		HColumnDescriptor categories = new HColumnDescriptor(COLLECTION_CATEGORY_COLLUMN);
-		// the interpretation does change
-		// rawdata.setMaxVersions(3); <- this is the default
-
-		// It is probably handy to have this information available through an extra
-		// index. Although it only(!) determines if this column is available, which is nice if we do interpretation
-		// after import
-		// interpreted.setBloomfilter(true);
 
 		descriptor.addFamily(rawdata);
 		descriptor.addFamily(interpreted);
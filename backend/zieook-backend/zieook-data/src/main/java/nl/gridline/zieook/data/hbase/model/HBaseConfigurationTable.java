@@ -78,6 +78,7 @@ public class HBaseConfigurationTable extends AbstractHBaseTable
 	private static final String COLUMN_COLLECTIONMETA = HBaseTableConstants.CONFIGURATION_COLUMN_COLLECTIONMETA;
 	private static final String COLUMN_CONTENTPROVIDER = HBaseTableConstants.CONFIGURATION_COLUMN_CONTENTPROVIDER;
 	private static final String COLUMN_ZIEOOK_TASK = HBaseTableConstants.CONFIGURATION_COLUMN_ZIEOOK_TASK;
+	private static final String COLUMN_DICTIONARY = HBaseTableConstants.CONFIGURATION_COLUMN_DICTIONARY;
 
 	public HBaseConfigurationTable(HBaseManager manager)
 	{
@@ -117,6 +118,11 @@ public class HBaseConfigurationTable extends AbstractHBaseTable
 		return update(null);
 	}
 
+	public boolean update(boolean includeProfiles) throws IOException
+	{
+		return update(null, includeProfiles);
+	}
+
 	public boolean drop()
 	{
 		return drop(null);
@@ -174,6 +180,9 @@ public class HBaseConfigurationTable extends AbstractHBaseTable
 
 		HColumnDescriptor zieooktask = new HColumnDescriptor(COLUMN_ZIEOOK_TASK);
 
+		// dictionary ids of the names in binary row keys:
+		HColumnDescriptor dictionary = new HColumnDescriptor(COLUMN_DICTIONARY);
+
 		// the interpretation does change
 		// rawdata.setMaxVersions(3); <- this is the default
 
@@ -187,6 +196,7 @@ public class HBaseConfigurationTable extends AbstractHBaseTable
 		descriptor.addFamily(collection);
 		descriptor.addFamily(contentProvider);
 		descriptor.addFamily(zieooktask);
+		descriptor.addFamily(dictionary);
 
 		return descriptor;
 	}
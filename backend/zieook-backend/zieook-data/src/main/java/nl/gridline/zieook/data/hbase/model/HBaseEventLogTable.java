@@ -17,14 +17,25 @@
  */
 package nl.gridline.zieook.data.hbase.model;
 
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import nl.gridline.zieook.data.hbase.HBaseManager;
+import nl.gridline.zieook.data.hbase.StorageProfile;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.SaltedKeys;
 
 import org.apache.hadoop.hbase.HColumnDescriptor;
 import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * [purpose]
+ * The event log table of a content provider. The table is either unsalted, or salted with a number of buckets that is
+ * stored in the table descriptor, see {@link SaltedKeys}. The layout of a table is read once and cached, the table is
+ * only migrated while the servers are down.
  * <p />
  * Project zieook-data<br />
  * HBaseUserStats.java created 6 jan. 2011
@@ -36,16 +47,32 @@ import org.apache.hadoop.hbase.HTableDescriptor;
 public class HBaseEventLogTable extends AbstractHBaseTable
 {
 
-	// private static final Logger LOG = LoggerFactory.getLogger(HBaseEventLogTable.class);
+	private static final Logger LOG = LoggerFactory.getLogger(HBaseEventLogTable.class);
+
+	// number of buckets of new tables:
+	private final int buckets;
+
+	// number of buckets of the existing tables:
+	private final ConcurrentMap<String, Integer> layouts = new ConcurrentHashMap<String, Integer>();
 
 	public HBaseEventLogTable(HBaseManager manager)
+	{
+		this(manager, 0);
+	}
+
+	/**
+	 * @param manager hbase manager
+	 * @param buckets number of buckets of the tables created by this instance, 0 creates unsalted tables
+	 */
+	public HBaseEventLogTable(HBaseManager manager, int buckets)
 	{
 		super(manager);
+		this.buckets = buckets;
 	}
 
 	public HBaseEventLogTable()
 	{
-		super(null);
+		this(null, 0);
 	}
 
 	public static final String NAME = HBaseTableConstants.USERSTATTABLE_NAME;
@@ -69,9 +96,9 @@ public class HBaseEventLogTable extends AbstractHBaseTable
 	public HTableDescriptor getCurrentDescriptor(String name)
 	{
 		HTableDescriptor descriptor = new HTableDescriptor(getTableName(name));
-		HColumnDescriptor view = new HColumnDescriptor(EVENTLOG_COLUMN_USERVIEW);
-		HColumnDescriptor recommended = new HColumnDescriptor(EVENTLOG_COLUMN_RECOMMENDED);
-		HColumnDescriptor viewindex = new HColumnDescriptor(EVENTLOG_COLUMN_USERVIEW_INDEX);
+		HColumnDescriptor view = StorageProfile.EVENTLOG.create(EVENTLOG_COLUMN_USERVIEW);
+		HColumnDescriptor recommended = StorageProfile.EVENTLOG.create(EVENTLOG_COLUMN_RECOMMENDED);
+		HColumnDescriptor viewindex = StorageProfile.EVENTLOG.create(EVENTLOG_COLUMN_USERVIEW_INDEX);
 
 		descriptor.addFamily(view);
 		descriptor.addFamily(recommended);
@@ -79,4 +106,91 @@ public class HBaseEventLogTable extends AbstractHBaseTable
 		return descriptor;
 	}
 
+	/**
+	 * Creates the table, a salted table is pre-split with one region per bucket
+	 */
+	@Override
+	public boolean create(String name)
+	{
+		if (buckets < 2)
+		{
+			return super.create(name);
+		}
+		if (tableExists(name))
+		{
+			LOG.error("table already exists: {}", name);
+			return true;
+		}
+		HTableDescriptor descriptor = getCurrentDescriptor(name);
+		SaltedKeys.setBuckets(descriptor, buckets);
+		try
+		{
+			manager.createTable(descriptor, SaltedKeys.getSplitKeys(buckets));
+		}
+		catch (IOException e)
+		{
+			LOG.error("failed to create the " + getTableName(name), e);
+			return false;
+		}
+		layouts.put(name, buckets);
+		return true;
+	}
+
+	/**
+	 * Returns the number of buckets of the event log table of a content provider
+	 * @param cp content provider
+	 * @return number of buckets, 0 if the table is not salted
+	 */
+	public int getBuckets(String cp)
+	{
+		Integer result = layouts.get(cp);
+		if (result == null)
+		{
+			HTableInterface table = getTable(cp);
+			if (table == null)
+			{
+				return 0;
+			}
+			try
+			{
+				result = SaltedKeys.getBuckets(table.getTableDescriptor());
+				layouts.put(cp, result);
+			}
+			catch (IOException e)
+			{
+				LOG.error("failed to read the table descriptor of " + getTableName(cp), e);
+				return 0;
+			}
+			finally
+			{
+				putTable(table);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Mark an existing table as salted, the rows should be migrated as well, see
+	 * {@link nl.gridline.zieook.data.hbase.dao.EventLogTable#migrate(String, int)}
+	 * @param cp content provider
+	 * @param value number of buckets
+	 * @throws IOException
+	 */
+	public void setBuckets(String cp, int value) throws IOException
+	{
+		HTableInterface table = getTable(cp);
+		HTableDescriptor descriptor;
+		try
+		{
+			descriptor = new HTableDescriptor(table.getTableDescriptor());
+		}
+		finally
+		{
+			putTable(table);
+		}
+		SaltedKeys.setBuckets(descriptor, value);
+		manager.modifyTable(descriptor);
+		layouts.put(cp, value);
+	}
+
 }
@@ -18,6 +18,7 @@
 package nl.gridline.zieook.data.hbase.model;
 
 import nl.gridline.zieook.data.hbase.HBaseManager;
+import nl.gridline.zieook.data.hbase.StorageProfile;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -66,18 +67,10 @@ public class HBaseRecommendationTable extends AbstractHBaseTable
 		// table descriptor:
 		HTableDescriptor descriptor = new HTableDescriptor(getTableName(name));
 
-		// column family:
-		HColumnDescriptor recomColumn = new HColumnDescriptor(RECOMMENDATION_COLUMN);
+		// column family, rows are read one by one and replaced by every model:
+		HColumnDescriptor recomColumn = StorageProfile.RECOMMENDATION.create(RECOMMENDATION_COLUMN);
 		// HColumnDescriptor metaColumn = new HColumnDescriptor(RECOMMENDER_META_COLUMN);
 
-		// the interpretation does change
-		// rawdata.setMaxVersions(3); <- this is the default
-
-		// It is probably handy to have this information available through an extra
-		// index. Although it only(!) determines if this column is available, which is nice if we do interpretation
-		// after import
-		// interpreted.setBloomfilter(true);
-
 		descriptor.addFamily(recomColumn);
 		// recommendations.addFamily(metaColumn);
 
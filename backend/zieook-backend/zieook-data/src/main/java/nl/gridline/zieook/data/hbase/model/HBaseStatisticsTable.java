@@ -18,6 +18,7 @@
 package nl.gridline.zieook.data.hbase.model;
 
 import nl.gridline.zieook.data.hbase.HBaseManager;
+import nl.gridline.zieook.data.hbase.StorageProfile;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 
 import org.apache.hadoop.hbase.HColumnDescriptor;
@@ -45,6 +46,9 @@ public class HBaseStatisticsTable extends AbstractHBaseTable
 	private static final String STATS_RECOMMENDED_USERITEM = HBaseTableConstants.STATS_RECOMMENDED_USERITEM;
 	private static final String STATS_RECOMMENDED_USER = HBaseTableConstants.STATS_RECOMMENDED_USER;
 	private static final String STATS_ITEM_POPULARITY = HBaseTableConstants.STATS_ITEM_POPULARITY;
+	private static final String STATS_ITEM_POPULARITY_DAY = HBaseTableConstants.STATS_ITEM_POPULARITY_DAY;
+	public static final String STATS_LEADERBOARD = HBaseTableConstants.STATS_LEADERBOARD;
+	public static final String STATS_LIVE = HBaseTableConstants.STATS_LIVE;
 
 	private static final String NAME = HBaseTableConstants.STATISTICS_TABLE;
 
@@ -71,14 +75,19 @@ public class HBaseStatisticsTable extends AbstractHBaseTable
 	{
 		HTableDescriptor descriptor = new HTableDescriptor(getTableName(name));
 
-		HColumnDescriptor sourcesStats = new HColumnDescriptor(STATS_COLLECTION_SOURCE);
-		HColumnDescriptor viewSourcesStats = new HColumnDescriptor(STATS_VIEWED_SOURCE);
-		HColumnDescriptor recommendedUserItemStats = new HColumnDescriptor(STATS_RECOMMENDED_USERITEM);
-		HColumnDescriptor recommendedUserCollection = new HColumnDescriptor(STATS_RECOMMENDED_USER);
-		HColumnDescriptor itemRatingStats = new HColumnDescriptor(STATS_ITEM_RATINGS);
-		HColumnDescriptor userRatingStats = new HColumnDescriptor(STATS_USER_RATINGS);
-		HColumnDescriptor viewedStats = new HColumnDescriptor(STATS_VIEWED_ITEM);
-		HColumnDescriptor popularity = new HColumnDescriptor(STATS_ITEM_POPULARITY);
+		HColumnDescriptor sourcesStats = StorageProfile.STATISTICS.create(STATS_COLLECTION_SOURCE);
+		HColumnDescriptor viewSourcesStats = StorageProfile.STATISTICS.create(STATS_VIEWED_SOURCE);
+		HColumnDescriptor recommendedUserItemStats = StorageProfile.STATISTICS.create(STATS_RECOMMENDED_USERITEM);
+		HColumnDescriptor recommendedUserCollection = StorageProfile.STATISTICS.create(STATS_RECOMMENDED_USER);
+		HColumnDescriptor itemRatingStats = StorageProfile.STATISTICS.create(STATS_ITEM_RATINGS);
+		HColumnDescriptor userRatingStats = StorageProfile.STATISTICS.create(STATS_USER_RATINGS);
+		HColumnDescriptor viewedStats = StorageProfile.STATISTICS.create(STATS_VIEWED_ITEM);
+		HColumnDescriptor popularity = StorageProfile.STATISTICS.create(STATS_ITEM_POPULARITY);
+		HColumnDescriptor popularityDay = StorageProfile.STATISTICS.create(STATS_ITEM_POPULARITY_DAY);
+		popularityDay.setMaxVersions(1);
+		HColumnDescriptor leaderboard = StorageProfile.STATISTICS.create(STATS_LEADERBOARD);
+		leaderboard.setMaxVersions(1);
+		HColumnDescriptor live = StorageProfile.STATISTICS_LIVE.create(STATS_LIVE);
 
 		descriptor.addFamily(recommendedUserCollection);
 		descriptor.addFamily(sourcesStats);
@@ -88,6 +97,9 @@ public class HBaseStatisticsTable extends AbstractHBaseTable
 		descriptor.addFamily(itemRatingStats);
 		descriptor.addFamily(userRatingStats);
 		descriptor.addFamily(popularity);
+		descriptor.addFamily(popularityDay);
+		descriptor.addFamily(leaderboard);
+		descriptor.addFamily(live);
 
 		return descriptor;
 	}
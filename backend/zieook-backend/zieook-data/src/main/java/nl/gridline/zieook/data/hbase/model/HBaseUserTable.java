@@ -43,6 +43,7 @@ public class HBaseUserTable extends AbstractHBaseTable
 	private static final String NAME = HBaseTableConstants.USERTABLE_NAME;
 	private static final String COLUMN_FOAF = HBaseTableConstants.USERTABLE_COLUMN_FOAF;
 	private static final String COLUMN_RATING = HBaseTableConstants.USERTABLE_COLUMN_RATING;
+	private static final String COLUMN_RATING_INDEX = HBaseTableConstants.USERTABLE_COLUMN_RATING_INDEX;
 
 	public HBaseUserTable(HBaseManager manager)
 	{
@@ -79,6 +80,9 @@ public class HBaseUserTable extends AbstractHBaseTable
 		HColumnDescriptor foaf = new HColumnDescriptor(COLUMN_FOAF);
 		// depending on the tests we may need to add some details on these columns:
 		HColumnDescriptor rating = new HColumnDescriptor(COLUMN_RATING);
+		// reverse time index of the ratings, only the latest version is of interest:
+		HColumnDescriptor ratingIndex = new HColumnDescriptor(COLUMN_RATING_INDEX);
+		ratingIndex.setMaxVersions(1);
 
 		// It is probably handy to have this information available through an extra
 		// index. Although it only(!) determines if this column is available, which is nice if we do interpretation
@@ -87,6 +91,7 @@ public class HBaseUserTable extends AbstractHBaseTable
 
 		descriptor.addFamily(foaf);
 		descriptor.addFamily(rating);
+		descriptor.addFamily(ratingIndex);
 
 		return descriptor;
 	}
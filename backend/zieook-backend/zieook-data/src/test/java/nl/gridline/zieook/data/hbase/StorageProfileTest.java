@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import nl.gridline.zieook.configuration.Config;
+
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.io.hfile.Compression;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the settings of the {@link StorageProfile}s, their configuration overrides and the comparison with existing
+ * families
+ * <p />
+ * Project zieook-data<br />
+ * StorageProfileTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class StorageProfileTest
+{
+	private static final int DAY = 24 * 60 * 60;
+	private static final String[] SETTINGS = {"compression", "bloomfilter", "blocksize", "ttl", "versions",
+			"inmemory"};
+
+	@Before
+	public void setUp()
+	{
+		clear();
+	}
+
+	@After
+	public void tearDown()
+	{
+		clear();
+	}
+
+	@Test
+	public void testDefaults()
+	{
+		HColumnDescriptor eventlog = StorageProfile.EVENTLOG.create("data");
+		assertEquals(Compression.Algorithm.GZ, eventlog.getCompressionType());
+		assertEquals(StoreFile.BloomType.ROW, eventlog.getBloomFilterType());
+		assertEquals(HColumnDescriptor.DEFAULT_BLOCKSIZE, eventlog.getBlocksize());
+		assertEquals(400 * DAY, eventlog.getTimeToLive());
+		assertEquals(HColumnDescriptor.DEFAULT_VERSIONS, eventlog.getMaxVersions());
+		assertFalse(eventlog.isInMemory());
+
+		HColumnDescriptor recommendation = StorageProfile.RECOMMENDATION.create("data");
+		assertEquals(Compression.Algorithm.NONE, recommendation.getCompressionType());
+		assertEquals(HConstants.FOREVER, recommendation.getTimeToLive());
+		assertEquals(1, recommendation.getMaxVersions());
+		assertTrue(recommendation.isInMemory());
+
+		assertEquals(256 * 1024, StorageProfile.COLLECTION_RAW.create("data").getBlocksize());
+	}
+
+	@Test
+	public void testOverrides()
+	{
+		Config config = Config.getInstance();
+		config.set(getKey(StorageProfile.EVENTLOG, "compression"), "NONE");
+		config.set(getKey(StorageProfile.EVENTLOG, "bloomfilter"), "rowcol");
+		config.set(getKey(StorageProfile.EVENTLOG, "ttl"), "7");
+		config.set(getKey(StorageProfile.EVENTLOG, "versions"), "2");
+		config.set(getKey(StorageProfile.EVENTLOG, "inmemory"), "true");
+
+		HColumnDescriptor eventlog = StorageProfile.EVENTLOG.create("data");
+		assertEquals(Compression.Algorithm.NONE, eventlog.getCompressionType());
+		assertEquals(StoreFile.BloomType.ROWCOL, eventlog.getBloomFilterType());
+		assertEquals(7 * DAY, eventlog.getTimeToLive());
+		assertEquals(2, eventlog.getMaxVersions());
+		assertTrue(eventlog.isInMemory());
+
+		// the other profiles keep their settings:
+		assertEquals(400 * DAY, StorageProfile.STATISTICS.create("data").getTimeToLive());
+
+		// 0 keeps the data forever:
+		config.set(getKey(StorageProfile.EVENTLOG, "ttl"), "0");
+		assertEquals(HConstants.FOREVER, StorageProfile.EVENTLOG.create("data").getTimeToLive());
+	}
+
+	@Test
+	public void testDiffers()
+	{
+		HColumnDescriptor current = StorageProfile.EVENTLOG.create("data");
+		assertFalse(StorageProfile.differs(current, StorageProfile.EVENTLOG.create("data")));
+
+		// a family of a table created before the profiles:
+		HColumnDescriptor plain = new HColumnDescriptor("data");
+		assertTrue(StorageProfile.differs(plain, current));
+		assertTrue(StorageProfile.differs(plain, StorageProfile.RECOMMENDATION.create("data")));
+
+		// a changed setting:
+		Config.getInstance().set(getKey(StorageProfile.EVENTLOG, "ttl"), "30");
+		assertTrue(StorageProfile.differs(current, StorageProfile.EVENTLOG.create("data")));
+
+		// apply brings the family in line:
+		assertFalse(StorageProfile.differs(StorageProfile.EVENTLOG.apply(current),
+				StorageProfile.EVENTLOG.create("data")));
+	}
+
+	private static String getKey(StorageProfile profile, String setting)
+	{
+		return Config.HBASE_STORAGE + profile.getName() + '.' + setting;
+	}
+
+	private static void clear()
+	{
+		Config config = Config.getInstance();
+		for (StorageProfile profile : StorageProfile.values())
+		{
+			for (String setting : SETTINGS)
+			{
+				config.remove(getKey(profile, setting));
+			}
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import nl.gridline.zieook.data.hbase.dao.UserTable.UserCounters;
+import nl.gridline.zieook.model.Recommended;
+import nl.gridline.zieook.model.UserView;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the batching, dropping and draining of the {@link EventLogWriter}, on tables that only record what is written,
+ * does not need a running HBase
+ * <p />
+ * Project zieook-data<br />
+ * EventLogWriterTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class EventLogWriterTest
+{
+	private static final String CP = "cp";
+	private static final String RECOMMENDER = "recommender";
+
+	@Test
+	public void testBatching()
+	{
+		RecordingEventLogTable events = new RecordingEventLogTable();
+		RecordingUserTable users = new RecordingUserTable(Integer.MAX_VALUE);
+		EventLogWriter writer = new EventLogWriter(events, users, 100, 10, 50, true);
+		writer.start();
+		for (int i = 0; i < 25; i++)
+		{
+			writer.putView(CP, RECOMMENDER, createView(i % 5), TimeUnit.MILLISECONDS);
+		}
+		for (int i = 0; i < 5; i++)
+		{
+			writer.putRecommend(CP, RECOMMENDER, createRecommended(i), TimeUnit.MILLISECONDS);
+		}
+		writer.shutdown();
+
+		assertEquals(30, writer.getWritten());
+		assertEquals(0, writer.getDropped());
+		assertEquals(30, events.getPuts());
+		for (Integer size : events.getBatches())
+		{
+			assertTrue(size <= 10);
+		}
+
+		// coalesced per user:
+		assertEquals(5, users.getViews().size());
+		for (long user = 0; user < 5; user++)
+		{
+			assertEquals(Long.valueOf(5), users.getViews().get(user));
+			assertEquals(Long.valueOf(1), users.getRecommends().get(user));
+		}
+		assertTrue(users.getCalls() < 30);
+	}
+
+	@Test
+	public void testDropOnFull()
+	{
+		RecordingEventLogTable events = new RecordingEventLogTable();
+		RecordingUserTable users = new RecordingUserTable(Integer.MAX_VALUE);
+		EventLogWriter writer = new EventLogWriter(events, users, 2, 10, 50, false);
+
+		// not started, nothing takes events from the queue:
+		for (int i = 0; i < 5; i++)
+		{
+			writer.putView(CP, RECOMMENDER, createView(i), TimeUnit.MILLISECONDS);
+		}
+		assertEquals(2, writer.getQueueDepth());
+		assertEquals(3, writer.getDropped());
+
+		writer.start();
+		writer.shutdown();
+		assertEquals(2, writer.getWritten());
+		assertEquals(0, writer.getQueueDepth());
+		assertEquals(2, events.getPuts());
+	}
+
+	@Test
+	public void testDrainOnShutdown()
+	{
+		RecordingEventLogTable events = new RecordingEventLogTable();
+		RecordingUserTable users = new RecordingUserTable(Integer.MAX_VALUE);
+		// batch and interval that are never reached within the test:
+		EventLogWriter writer = new EventLogWriter(events, users, 1000, 1000, 60000, false);
+		writer.start();
+		for (int i = 0; i < 100; i++)
+		{
+			writer.putView(CP, RECOMMENDER, createView(i), TimeUnit.MILLISECONDS);
+		}
+
+		long start = System.currentTimeMillis();
+		writer.shutdown();
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		assertEquals(100, writer.getWritten());
+		assertEquals(100, events.getPuts());
+		assertEquals(100, users.getViews().size());
+	}
+
+	@Test
+	public void testCountersLeft()
+	{
+		RecordingEventLogTable events = new RecordingEventLogTable();
+		// the deadline is reached after 3 users:
+		RecordingUserTable users = new RecordingUserTable(3);
+		EventLogWriter writer = new EventLogWriter(events, users, 100, 20, 20, true);
+		writer.start();
+		for (int i = 0; i < 40; i++)
+		{
+			writer.putView(CP, RECOMMENDER, createView(i % 20), TimeUnit.MILLISECONDS);
+		}
+		writer.shutdown();
+
+		// the counters of the users that didn't fit in a flush are written later, and still add up:
+		assertEquals(40, writer.getWritten());
+		assertEquals(20, users.getViews().size());
+		for (long user = 0; user < 20; user++)
+		{
+			assertEquals(Long.valueOf(2), users.getViews().get(user));
+		}
+	}
+
+	private static UserView createView(long user)
+	{
+		UserView result = new UserView();
+		result.setUser(user);
+		result.setItem(user * 10);
+		return result;
+	}
+
+	private static Recommended createRecommended(long user)
+	{
+		Recommended result = new Recommended();
+		result.setUser(user);
+		result.setItem(user * 10);
+		return result;
+	}
+
+	/**
+	 * Creates a single put per event and records the batches
+	 */
+	private static class RecordingEventLogTable extends EventLogTable
+	{
+		private final List<Integer> batches = new ArrayList<Integer>();
+
+		RecordingEventLogTable()
+		{
+			super(null);
+		}
+
+		@Override
+		public List<Put> createViewPuts(String cp, String recommender, UserView view, TimeUnit unit)
+		{
+			List<Put> result = new ArrayList<Put>(1);
+			result.add(new Put(Bytes.toBytes(view.getUser())));
+			return result;
+		}
+
+		@Override
+		public Put createRecommendPut(String cp, String recommender, Recommended recommend, TimeUnit unit)
+		{
+			return new Put(Bytes.toBytes(recommend.getUser()));
+		}
+
+		@Override
+		public synchronized void putEvents(String cp, List<Put> puts)
+		{
+			batches.add(puts.size());
+		}
+
+		synchronized List<Integer> getBatches()
+		{
+			return new ArrayList<Integer>(batches);
+		}
+
+		synchronized int getPuts()
+		{
+			int result = 0;
+			for (Integer size : batches)
+			{
+				result += size;
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Adds up the counters, writes at most a fixed number of users per call like a slow table that reaches the
+	 * deadline
+	 */
+	private static class RecordingUserTable extends UserTable
+	{
+		private final int maxUsers;
+		private final Map<Long, Long> views = new HashMap<Long, Long>();
+		private final Map<Long, Long> recommends = new HashMap<Long, Long>();
+		private int calls;
+
+		RecordingUserTable(int maxUsers)
+		{
+			super(null);
+			this.maxUsers = maxUsers;
+		}
+
+		@Override
+		public synchronized void putCounters(String cp, Map<Long, UserCounters> counters, long deadline)
+		{
+			calls++;
+			int count = 0;
+			Iterator<Map.Entry<Long, UserCounters>> i = counters.entrySet().iterator();
+			while (i.hasNext() && count++ < maxUsers)
+			{
+				Map.Entry<Long, UserCounters> entry = i.next();
+				add(views, entry.getKey(), entry.getValue().getViews());
+				add(recommends, entry.getKey(), entry.getValue().getRecommends());
+				i.remove();
+			}
+		}
+
+		private static void add(Map<Long, Long> map, Long user, long count)
+		{
+			if (count != 0)
+			{
+				Long old = map.get(user);
+				map.put(user, old == null ? count : old + count);
+			}
+		}
+
+		synchronized Map<Long, Long> getViews()
+		{
+			return new HashMap<Long, Long>(views);
+		}
+
+		synchronized Map<Long, Long> getRecommends()
+		{
+			return new HashMap<Long, Long>(recommends);
+		}
+
+		synchronized int getCalls()
+		{
+			return calls;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the expiry and invalidation of the {@link MetadataCache}, does not need a running HBase
+ * <p />
+ * Project zieook-data<br />
+ * MetadataCacheTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MetadataCacheTest
+{
+
+	@Test
+	public void testPutGet()
+	{
+		MetadataCache cache = new MetadataCache(10, 60000, 60000);
+		cache.put("cp", "recommender:a", Boolean.TRUE);
+		cache.put("cp", "recommender:b", Boolean.FALSE);
+		cache.put("cp", "recommender:c", null);
+		assertEquals(Boolean.TRUE, cache.get("cp", "recommender:a"));
+		assertEquals(Boolean.FALSE, cache.get("cp", "recommender:b"));
+		assertNull(cache.get("cp", "recommender:c"));
+		assertEquals(2, cache.getHit());
+		assertEquals(1, cache.getMiss());
+	}
+
+	@Test
+	public void testExpired() throws InterruptedException
+	{
+		MetadataCache cache = new MetadataCache(10, 10, 60000);
+		cache.put("cp", "key", "value");
+		Thread.sleep(50);
+		assertNull(cache.get("cp", "key"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testMaxEntries()
+	{
+		MetadataCache cache = new MetadataCache(2, 60000, 60000);
+		cache.put("cp", "a", "a");
+		cache.put("cp", "b", "b");
+		cache.put("cp", "c", "c");
+		assertEquals(2, cache.size());
+		assertNull(cache.get("cp", "a"));
+	}
+
+	@Test
+	public void testStamp()
+	{
+		MetadataCache cache = new MetadataCache(10, 60000, 60000);
+		cache.setStamp("cp", 1);
+		cache.put("cp", "key", "value");
+		cache.put("other", "key", "value");
+
+		cache.setStamp("cp", 1);
+		assertEquals("value", cache.get("cp", "key"));
+
+		cache.setStamp("cp", 2);
+		assertNull(cache.get("cp", "key"));
+		assertEquals("value", cache.get("other", "key"));
+	}
+
+	@Test
+	public void testMaxStamps()
+	{
+		MetadataCache cache = new MetadataCache(10, 60000, 60000);
+		cache.setStamp("cp", 1);
+		cache.put("cp", "key", "value");
+		for (int i = 0; i < MetadataCache.MAX_STAMPS; i++)
+		{
+			cache.setStamp("cp-" + i, 1);
+		}
+
+		// the least recently checked content provider is forgotten, and its entries with it:
+		assertTrue(cache.isStampCheckDue("cp"));
+		assertFalse(cache.isStampCheckDue("cp-0"));
+		cache.setStamp("cp", 1);
+		assertNull(cache.get("cp", "key"));
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import nl.gridline.zieook.model.Recommend;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the bounds and invalidation of the {@link RecommendationCache}, does not need a running HBase
+ * <p />
+ * Project zieook-data<br />
+ * RecommendationCacheTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RecommendationCacheTest
+{
+
+	private static final String CP = "cp";
+	private static final String COLLECTION = "collection";
+	private static final String RECOMMENDER = "recommender";
+
+	private static RecommendationCache.Entry createEntry(int size)
+	{
+		NavigableMap<byte[], byte[]> map = new TreeMap<byte[], byte[]>(Bytes.BYTES_COMPARATOR);
+		for (int i = 0; i < size; i++)
+		{
+			map.put(Bytes.toBytes((long) i), new Recommend(100 + i, i, 1.0 / (i + 1)).toBytes());
+		}
+		return RecommendationCache.Entry.fromFamilyMap(map);
+	}
+
+	@Test
+	public void testDecode()
+	{
+		RecommendationCache.Entry entry = createEntry(10);
+		assertEquals(10, entry.size());
+		for (int i = 0; i < 10; i++)
+		{
+			assertEquals(100 + i, entry.getItem(i));
+			assertEquals(i, entry.getRank(i));
+			assertEquals(1.0 / (i + 1), entry.getScore(i), 0.0);
+		}
+	}
+
+	@Test
+	public void testMaxEntries()
+	{
+		RecommendationCache cache = new RecommendationCache(10, Long.MAX_VALUE, 1000);
+		for (long i = 0; i < 20; i++)
+		{
+			cache.put(CP, COLLECTION, RECOMMENDER, 0, i, createEntry(5));
+		}
+		assertEquals(10, cache.size());
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 0));
+		assertNotNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 19));
+		assertEquals(10, cache.getEvicted());
+	}
+
+	@Test
+	public void testMaxBytes()
+	{
+		RecommendationCache.Entry entry = createEntry(100);
+		RecommendationCache cache = new RecommendationCache(1000, entry.sizeInBytes() * 3, 1000);
+		for (long i = 0; i < 10; i++)
+		{
+			cache.put(CP, COLLECTION, RECOMMENDER, 0, i, createEntry(100));
+		}
+		assertEquals(3, cache.size());
+		assertTrue(cache.getBytes() <= entry.sizeInBytes() * 3);
+	}
+
+	@Test
+	public void testLeastRecentlyUsed()
+	{
+		RecommendationCache cache = new RecommendationCache(2, Long.MAX_VALUE, 1000);
+		cache.put(CP, COLLECTION, RECOMMENDER, 0, 1, createEntry(1));
+		cache.put(CP, COLLECTION, RECOMMENDER, 0, 2, createEntry(1));
+		// touch 1, so 2 will be evicted:
+		assertNotNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 1));
+		cache.put(CP, COLLECTION, RECOMMENDER, 0, 3, createEntry(1));
+		assertNotNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 1));
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 2));
+	}
+
+	@Test
+	public void testModelStamp()
+	{
+		RecommendationCache cache = new RecommendationCache(100, Long.MAX_VALUE, 60000);
+		assertTrue(cache.isModelCheckDue(CP, RECOMMENDER));
+		cache.setModelStamp(CP, RECOMMENDER, 1, 0);
+		assertFalse(cache.isModelCheckDue(CP, RECOMMENDER));
+
+		cache.put(CP, COLLECTION, RECOMMENDER, 0, 1, createEntry(1));
+		cache.put(CP, COLLECTION, "other", 0, 1, createEntry(1));
+
+		// same stamp, keeps the data:
+		cache.setModelStamp(CP, RECOMMENDER, 1, 0);
+		assertNotNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 1));
+
+		// new model, drops the data of this recommender only:
+		cache.setModelStamp(CP, RECOMMENDER, 2, 0);
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 0, 1));
+		assertNotNull(cache.get(CP, COLLECTION, "other", 0, 1));
+	}
+
+	@Test
+	public void testModelGeneration()
+	{
+		RecommendationCache cache = new RecommendationCache(100, Long.MAX_VALUE, 60000);
+		cache.setModelStamp(CP, RECOMMENDER, 1, 10);
+		assertEquals(10, cache.getModelGeneration(CP, RECOMMENDER));
+		cache.put(CP, COLLECTION, RECOMMENDER, 10, 1, createEntry(1));
+
+		// switch to a new generation, rows of the old generation are kept but no longer match:
+		cache.setModelStamp(CP, RECOMMENDER, 2, 20);
+		assertEquals(20, cache.getModelGeneration(CP, RECOMMENDER));
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 20, 1));
+		assertNotNull(cache.get(CP, COLLECTION, RECOMMENDER, 10, 1));
+
+		// in place update of the active generation drops the rows:
+		cache.put(CP, COLLECTION, RECOMMENDER, 20, 1, createEntry(1));
+		cache.setModelStamp(CP, RECOMMENDER, 3, 20);
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 20, 1));
+	}
+
+	@Test
+	public void testMaxModels()
+	{
+		RecommendationCache cache = new RecommendationCache(100, Long.MAX_VALUE, 60000);
+		cache.setModelStamp(CP, RECOMMENDER, 1, 10);
+		cache.put(CP, COLLECTION, RECOMMENDER, 10, 1, createEntry(1));
+		for (int i = 0; i < RecommendationCache.MAX_MODELS; i++)
+		{
+			cache.setModelStamp(CP, "recommender-" + i, 1, 0);
+		}
+
+		// the least recently checked recommender is forgotten, and its rows with it:
+		assertTrue(cache.isModelCheckDue(CP, RECOMMENDER));
+		assertEquals(0, cache.getModelGeneration(CP, RECOMMENDER));
+		assertFalse(cache.isModelCheckDue(CP, "recommender-0"));
+		cache.setModelStamp(CP, RECOMMENDER, 1, 10);
+		assertNull(cache.get(CP, COLLECTION, RECOMMENDER, 10, 1));
+	}
+}
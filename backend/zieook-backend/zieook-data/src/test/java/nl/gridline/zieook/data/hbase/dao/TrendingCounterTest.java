@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.data.hbase.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the heavy hitters and the sliding window of the {@link TrendingCounter}, does not need a running HBase
+ * <p />
+ * Project zieook-data<br />
+ * TrendingCounterTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TrendingCounterTest
+{
+	private static final long MINUTE = 60 * 1000L;
+
+	@Test
+	public void testHeavyHitters()
+	{
+		TrendingCounter counter = new TrendingCounter(MINUTE, 12, 512, 4, 20);
+		Random random = new Random(42);
+		long now = 1000000 * MINUTE;
+		for (int i = 0; i < 20000; i++)
+		{
+			// ids 1..5 are hot, the rest is noise over 10000 ids:
+			long id = i % 4 == 0 ? 1 + (i / 4) % 5 : 100 + random.nextInt(10000);
+			counter.add(id, null, 1, now + i);
+		}
+
+		List<TrendingCounter.Entry> top = counter.getTop(5, now + 20000);
+		assertEquals(5, top.size());
+		for (TrendingCounter.Entry entry : top)
+		{
+			assertTrue(entry.getId() >= 1 && entry.getId() <= 5);
+			// never lower than the real count (1000), the noise adds at most a few percent:
+			assertTrue(entry.getCount() >= 1000);
+			assertTrue(entry.getCount() < 1100);
+		}
+		assertTrue(top.get(0).getCount() >= top.get(4).getCount());
+	}
+
+	@Test
+	public void testWindow()
+	{
+		TrendingCounter counter = new TrendingCounter(MINUTE, 12, 256, 4, 10);
+		long now = 1000000 * MINUTE;
+		counter.add(1, "a", 3, now);
+		counter.add(2, "b", 1, now + MINUTE / 2);
+		assertEquals(3, counter.estimate(1, now + MINUTE / 2));
+
+		List<TrendingCounter.Entry> top = counter.getTop(10, now + MINUTE / 2);
+		assertEquals(2, top.size());
+		assertEquals(1, top.get(0).getId());
+		assertEquals("a", top.get(0).getName());
+
+		// the first event slid out of the window, the second not yet:
+		top = counter.getTop(10, now + MINUTE + MINUTE / 4);
+		assertEquals(1, top.size());
+		assertEquals(2, top.get(0).getId());
+		assertFalse(counter.isIdle(now + MINUTE + MINUTE / 4));
+
+		assertTrue(counter.isIdle(now + 3 * MINUTE));
+		assertEquals(0, counter.getTop(10, now + 3 * MINUTE).size());
+	}
+}
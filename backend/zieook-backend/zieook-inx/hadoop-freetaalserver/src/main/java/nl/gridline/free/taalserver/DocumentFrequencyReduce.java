@@ -19,28 +19,36 @@ package nl.gridline.free.taalserver;
 
 import java.io.IOException;
 
-import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.mahout.math.VarIntWritable;
 
 /**
- * Round 5 - data written to text value - that can be used as input for mahout's collaborative filtering.
+ * Sums the (partial) document frequencies of a term: term => number of documents that contain the term. The combiner
+ * of the {@link TermFrequencyMap}, the {@link TermDictionaryReduce} does the final sum.
  * <p />
  * Project hadoop-freetaalserver<br />
- * TFIdfSerializeReduce.java created Sep 13, 2011
+ * DocumentFrequencyReduce.java created 18 okt. 2026
  * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
  * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
+ * @version $Revision$, $Date$
  */
-public class TFIdfSerializeReduce extends Reducer<Text, NullWritable, Text, NullWritable>
+public class DocumentFrequencyReduce extends Reducer<Text, VarIntWritable, Text, VarIntWritable>
 {
+	private final VarIntWritable sum = new VarIntWritable();
+
 	@Override
-	protected void reduce(Text keyIn, Iterable<NullWritable> values, Context context) throws IOException,
+	protected void reduce(Text key, Iterable<VarIntWritable> values, Context context) throws IOException,
 			InterruptedException
 	{
-		// just put the values through:
-		context.write(keyIn, NullWritable.get());
+		int count = 0;
+		for (VarIntWritable v : values)
+		{
+			count += v.get();
+		}
+		sum.set(count);
+		context.write(key, sum);
 		context.progress();
-	};
+	}
 }
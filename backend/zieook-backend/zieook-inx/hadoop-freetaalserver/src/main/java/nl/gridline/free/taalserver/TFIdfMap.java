@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver;
+
+import java.io.File;
+import java.io.IOException;
+
+import nl.gridline.free.taalserver.writable.TermVector;
+import nl.gridline.zieook.mapreduce.TaskConfig;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.filecache.DistributedCache;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.mahout.math.VarLongWritable;
+
+/**
+ * Second pass of the free text vectorizer (map only): resolves the terms of every document to their ids with the
+ * {@link TermDictionary}, memory mapped from the distributed cache, and writes the tf-idf values as preferences:
+ * <tt>term id,document,tf-idf</tt>, the input of the item based recommender. Pruned terms are left out.
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TFIdfMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TFIdfMap extends Mapper<VarLongWritable, TermVector, Text, NullWritable>
+{
+	private static final Log LOG = LogFactory.getLog(TFIdfMap.class);
+
+	public enum Counter
+	{
+		PREFERENCES, PRUNED
+	}
+
+	private final Text out = new Text();
+	private final StringBuilder line = new StringBuilder();
+
+	private TermDictionary dictionary;
+	private long totalDocs;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		Configuration conf = context.getConfiguration();
+		totalDocs = conf.getLong(TaskConfig.TEXT_DOCUMENT_COUNT, 0);
+		if (totalDocs <= 0)
+		{
+			throw new IOException("The <" + TaskConfig.TEXT_DOCUMENT_COUNT
+					+ "> is not defined, please set it in the job configuration");
+		}
+
+		Path[] files = DistributedCache.getLocalCacheFiles(conf);
+		if (files == null || files.length == 0)
+		{
+			throw new IOException("no term dictionary in the distributed cache");
+		}
+		dictionary = TermDictionary.open(new File(files[0].toUri().getPath()));
+		LOG.info("term dictionary of " + dictionary.size() + (dictionary.isHashed() ? " hashed" : "") + " terms in "
+				+ totalDocs + " documents");
+	}
+
+	@Override
+	protected void map(VarLongWritable key, TermVector value, Context context) throws IOException,
+			InterruptedException
+	{
+		final int wordsPerDoc = value.size();
+		for (int i = 0; i < wordsPerDoc; i++)
+		{
+			final int term;
+			if (dictionary.isHashed())
+			{
+				// the terms of a hashed vector are already the buckets:
+				term = dictionary.getBucketId(value.getData(), value.getStart(i), value.getLength(i));
+			}
+			else
+			{
+				term = dictionary.getId(value.getData(), value.getStart(i), value.getLength(i));
+			}
+			final int docsPerWord = term < 0 ? 0 : dictionary.getDocumentFrequency(term);
+			if (docsPerWord <= 0 || docsPerWord >= totalDocs)
+			{
+				// pruned or in every document: no information
+				context.getCounter(Counter.PRUNED).increment(1);
+				continue;
+			}
+
+			// userID,itemID,preference
+			line.setLength(0);
+			line.append(term).append(',').append(key.get()).append(',')
+					.append(tfIdf(value.getCount(i), wordsPerDoc, docsPerWord, totalDocs));
+			out.set(line.toString());
+			context.write(out, NullWritable.get());
+			context.getCounter(Counter.PREFERENCES).increment(1);
+		}
+		context.progress();
+	}
+
+	/**
+	 * The tf-idf value of a term in a document
+	 * @param wordCount occurrences of the term in the document
+	 * @param wordsPerDoc number of distinct terms in the document
+	 * @param docsPerWord number of documents that contain the term
+	 * @param totalDocs number of documents
+	 * @return tf-idf value
+	 */
+	public static double tfIdf(int wordCount, int wordsPerDoc, int docsPerWord, long totalDocs)
+	{
+		return (wordCount / (double) wordsPerDoc) / Math.log(totalDocs / (double) docsPerWord);
+	}
+}
@@ -0,0 +1,401 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.mahout.math.list.IntArrayList;
+
+/**
+ * Collision free term => id mapping of the free text vectorizer, with the document frequency of every term. The
+ * dictionary is written once (by the {@link TermDictionaryReduce}) and memory mapped by the mappers that use it, so it
+ * is shared between the tasks on a node and costs no heap.
+ * <p />
+ * There are two layouts:
+ * <ul>
+ * <li><em>sorted</em>: the UTF-8 bytes of the terms in byte order, the id of a term is its position. Lookups are a
+ * binary search over the term bytes.</li>
+ * <li><em>hashed</em> (feature hashing, for very large vocabularies): the id of a term is its hash modulo
+ * 2<sup>bits</sup> (its <em>bucket</em>), only the document frequency per id is stored. The terms are hashed before
+ * the documents are counted, so a document that contains several terms of a bucket counts once.</li>
+ * </ul>
+ * File layout (big endian):
+ * 
+ * <pre>
+ * sorted: term bytes, offsets int[size + 1], document frequencies int[size], trailer
+ * hashed: document frequencies int[2^bits], trailer
+ * trailer: size int, bits int (0 for sorted), magic long
+ * </pre>
+ * 
+ * Pruned terms are left out of the sorted dictionary, pruned hash buckets have a document frequency of 0, in both
+ * cases {@link #getId(byte[], int, int)} returns -1.
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TermDictionary.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TermDictionary
+{
+	/**
+	 * file name of the dictionary in the output of the first vectorizer pass
+	 */
+	public static final String FILE_NAME = "dictionary";
+
+	/**
+	 * largest number of hash bits, the hashed dictionary is 4 * 2^bits bytes
+	 */
+	public static final int MAX_BITS = 26;
+
+	private static final long MAGIC = 0x5A4F4B5444494354L; // ZOKTDICT
+	private static final int TRAILER = 16;
+
+	private final MappedByteBuffer buffer;
+	private final int size;
+	private final int bits;
+	private final int offsetsStart;
+	private final int frequenciesStart;
+
+	private TermDictionary(MappedByteBuffer buffer) throws IOException
+	{
+		this.buffer = buffer;
+		int length = buffer.limit();
+		if (length < TRAILER || buffer.getLong(length - 8) != MAGIC)
+		{
+			throw new IOException("not a term dictionary");
+		}
+		size = buffer.getInt(length - TRAILER);
+		bits = buffer.getInt(length - TRAILER + 4);
+		frequenciesStart = length - TRAILER - 4 * size;
+		offsetsStart = bits == 0 ? frequenciesStart - 4 * (size + 1) : 0;
+	}
+
+	/**
+	 * Memory map a dictionary
+	 * @param file local dictionary file
+	 * @return the dictionary
+	 * @throws IOException
+	 */
+	public static TermDictionary open(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try
+		{
+			// the mapping stays valid after the channel is closed:
+			return new TermDictionary(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()));
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+
+	/**
+	 * @return number of term ids
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return true if this is a feature hashing dictionary
+	 */
+	public boolean isHashed()
+	{
+		return bits > 0;
+	}
+
+	/**
+	 * Returns the id of a term
+	 * @param term UTF-8 bytes of the term
+	 * @param start start of the term
+	 * @param length length of the term
+	 * @return term id, or -1 if the term is unknown or pruned
+	 */
+	public int getId(byte[] term, int start, int length)
+	{
+		if (bits > 0)
+		{
+			int id = getBucket(term, start, length, bits);
+			return getDocumentFrequency(id) > 0 ? id : -1;
+		}
+
+		int low = 0;
+		int high = size - 1;
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int c = compare(mid, term, start, length);
+			if (c < 0)
+			{
+				low = mid + 1;
+			}
+			else if (c > 0)
+			{
+				high = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the id of a bucket key (see {@link #getBucketKey(int)}) of a hashed dictionary
+	 * @param key bytes of the key
+	 * @param start start of the key
+	 * @param length length of the key
+	 * @return the bucket, or -1 if the bucket is pruned or out of range
+	 */
+	public int getBucketId(byte[] key, int start, int length)
+	{
+		int id = parseBucketKey(key, start, length);
+		return id >= 0 && id < size && getDocumentFrequency(id) > 0 ? id : -1;
+	}
+
+	/**
+	 * @param id term id
+	 * @return number of documents that contain the term
+	 */
+	public int getDocumentFrequency(int id)
+	{
+		return buffer.getInt(frequenciesStart + 4 * id);
+	}
+
+	private int compare(int id, byte[] term, int start, int length)
+	{
+		int from = buffer.getInt(offsetsStart + 4 * id);
+		int to = buffer.getInt(offsetsStart + 4 * (id + 1));
+		int n = Math.min(to - from, length);
+		for (int i = 0; i < n; i++)
+		{
+			int a = buffer.get(from + i) & 0xff;
+			int b = term[start + i] & 0xff;
+			if (a != b)
+			{
+				return a - b;
+			}
+		}
+		return (to - from) - length;
+	}
+
+	/**
+	 * Returns the bucket of a term of a hashed dictionary
+	 * @param term UTF-8 bytes of the term
+	 * @param start start of the term
+	 * @param length length of the term
+	 * @param bits number of hash bits
+	 * @return the bucket, the term id in a hashed dictionary
+	 */
+	public static int getBucket(byte[] term, int start, int length, int bits)
+	{
+		return hash(term, start, length) & ((1 << bits) - 1);
+	}
+
+	/**
+	 * The key of a bucket: the feature hashing vectorizer counts and shuffles the buckets of the terms in place of the
+	 * terms themselves
+	 * @param bucket the bucket
+	 * @return the key, the decimal bucket number
+	 */
+	public static String getBucketKey(int bucket)
+	{
+		return Integer.toString(bucket);
+	}
+
+	/**
+	 * Parse a bucket key, see {@link #getBucketKey(int)}
+	 * @param key bytes of the key
+	 * @param start start of the key
+	 * @param length length of the key
+	 * @return the bucket, or -1 if it's not a bucket key
+	 */
+	public static int parseBucketKey(byte[] key, int start, int length)
+	{
+		if (length == 0 || length > 9)
+		{
+			return -1;
+		}
+		int result = 0;
+		for (int i = start; i < start + length; i++)
+		{
+			int digit = key[i] - '0';
+			if (digit < 0 || digit > 9)
+			{
+				return -1;
+			}
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+
+	/**
+	 * 32 bit FNV-1a hash with a final mix, used for feature hashing
+	 * @param data bytes
+	 * @param start start of the bytes to hash
+	 * @param length number of bytes
+	 * @return hash
+	 */
+	public static int hash(byte[] data, int start, int length)
+	{
+		int h = 0x811c9dc5;
+		for (int i = start; i < start + length; i++)
+		{
+			h ^= data[i] & 0xff;
+			h *= 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * Writes a dictionary: call {@link #add(byte[], int, int)} in byte order of the terms (sorted) or
+	 * {@link #addBucket(int, int)} for every bucket (hashed), then {@link #close()}.
+	 */
+	public static class Writer
+	{
+		private final DataOutputStream out;
+		private final IntArrayList offsets = new IntArrayList();
+		private final IntArrayList frequencies = new IntArrayList();
+		private final int[] buckets;
+		private final int bits;
+		private int position;
+
+		/**
+		 * @param out output stream, closed by {@link #close()}
+		 * @param bits number of hash bits for feature hashing, 0 for a sorted dictionary
+		 */
+		public Writer(DataOutputStream out, int bits)
+		{
+			if (bits < 0 || bits > MAX_BITS)
+			{
+				throw new IllegalArgumentException("hash bits should be 0 .. " + MAX_BITS + ": " + bits);
+			}
+			this.out = out;
+			this.bits = bits;
+			buckets = bits > 0 ? new int[1 << bits] : null;
+			offsets.add(0);
+		}
+
+		/**
+		 * Add a term to a sorted dictionary
+		 * @param term UTF-8 bytes of the term
+		 * @param length length of the term
+		 * @param documentFrequency number of documents that contain the term
+		 * @return id of the term
+		 * @throws IOException
+		 */
+		public int add(byte[] term, int length, int documentFrequency) throws IOException
+		{
+			if (buckets != null)
+			{
+				throw new IllegalStateException("terms are counted per bucket in a hashed dictionary, use addBucket");
+			}
+			out.write(term, 0, length);
+			position += length;
+			offsets.add(position);
+			frequencies.add(documentFrequency);
+			return frequencies.size() - 1;
+		}
+
+		/**
+		 * Set the document frequency of a bucket of a hashed dictionary
+		 * @param bucket the bucket, see {@link TermDictionary#getBucket(byte[], int, int, int)}
+		 * @param documentFrequency number of documents that contain one or more terms of the bucket
+		 */
+		public void addBucket(int bucket, int documentFrequency)
+		{
+			if (buckets == null)
+			{
+				throw new IllegalStateException("not a hashed dictionary");
+			}
+			buckets[bucket] = documentFrequency;
+		}
+
+		/**
+		 * Clear the hash buckets outside the document frequency range, only for a hashed dictionary (terms of a sorted
+		 * dictionary are pruned before they are added)
+		 * @param min minimum document frequency
+		 * @param max maximum document frequency
+		 * @return number of pruned buckets
+		 */
+		public int prune(int min, long max)
+		{
+			int result = 0;
+			if (buckets != null)
+			{
+				for (int i = 0; i < buckets.length; i++)
+				{
+					if (buckets[i] > 0 && (buckets[i] < min || buckets[i] > max))
+					{
+						buckets[i] = 0;
+						result++;
+					}
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Write the index and close the stream
+		 * @throws IOException
+		 */
+		public void close() throws IOException
+		{
+			int size;
+			if (buckets != null)
+			{
+				size = buckets.length;
+				for (int b : buckets)
+				{
+					out.writeInt(b);
+				}
+			}
+			else
+			{
+				size = frequencies.size();
+				for (int i = 0; i < offsets.size(); i++)
+				{
+					out.writeInt(offsets.get(i));
+				}
+				for (int i = 0; i < size; i++)
+				{
+					out.writeInt(frequencies.get(i));
+				}
+			}
+			out.writeInt(size);
+			out.writeInt(bits);
+			out.writeLong(MAGIC);
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.mapreduce.TaskConfig;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.mahout.math.VarIntWritable;
+
+/**
+ * Reducer of the first vectorizer pass: sums the document frequencies of the terms and writes the
+ * {@link TermDictionary} as a side file (<tt>dictionary</tt>, next to the job output). Terms in fewer than
+ * {@link TaskConfig#TEXT_DF_MIN} documents or in more than {@link TaskConfig#TEXT_DF_MAX_PERCENT} percent of the
+ * documents are pruned, they don't add to the similarity of the items. The output is term => id of the kept terms
+ * (only for the sorted dictionary). For a hashed dictionary the keys are the buckets of the terms, each counted once
+ * per document by the {@link TermFrequencyMap}.
+ * <p />
+ * The terms arrive in byte order, so the job should run with a single reducer. The documents are counted under the
+ * empty term, which is always the first key.
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TermDictionaryReduce.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TermDictionaryReduce extends Reducer<Text, VarIntWritable, Text, VarIntWritable>
+{
+	private static final Log LOG = LogFactory.getLog(TermDictionaryReduce.class);
+
+	public enum Counter
+	{
+		TERMS, PRUNED
+	}
+
+	private final VarIntWritable id = new VarIntWritable();
+
+	private TermDictionary.Writer writer;
+	private int minDf;
+	private int maxPercent;
+	private long maxDf;
+	private long totalDocs;
+	private boolean hashed;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		Configuration conf = context.getConfiguration();
+		minDf = conf.getInt(TaskConfig.TEXT_DF_MIN, 2);
+		maxPercent = conf.getInt(TaskConfig.TEXT_DF_MAX_PERCENT, 80);
+		int bits = conf.getInt(TaskConfig.TEXT_FEATURE_BITS, 0);
+		hashed = bits > 0;
+
+		Path file = new Path(FileOutputFormat.getWorkOutputPath(context), TermDictionary.FILE_NAME);
+		writer = new TermDictionary.Writer(file.getFileSystem(conf).create(file), bits);
+		LOG.info("writing " + (hashed ? "hashed (" + bits + " bits)" : "sorted")
+				+ " term dictionary, document frequency " + minDf + " .. " + maxPercent + "%");
+	}
+
+	@Override
+	protected void reduce(Text key, Iterable<VarIntWritable> values, Context context) throws IOException,
+			InterruptedException
+	{
+		int count = 0;
+		for (VarIntWritable v : values)
+		{
+			count += v.get();
+		}
+
+		if (key.getLength() == 0)
+		{
+			totalDocs = count;
+			maxDf = Math.max(1, totalDocs * maxPercent / 100);
+			return;
+		}
+
+		if (hashed)
+		{
+			int bucket = TermDictionary.parseBucketKey(key.getBytes(), 0, key.getLength());
+			if (bucket < 0)
+			{
+				throw new IOException("not a bucket key: " + key);
+			}
+			writer.addBucket(bucket, count);
+			context.getCounter(Counter.TERMS).increment(1);
+		}
+		else if (count < minDf || count > maxDf)
+		{
+			context.getCounter(Counter.PRUNED).increment(1);
+		}
+		else
+		{
+			id.set(writer.add(key.getBytes(), key.getLength(), count));
+			context.write(key, id);
+			context.getCounter(Counter.TERMS).increment(1);
+		}
+		context.progress();
+	}
+
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		if (writer != null)
+		{
+			if (hashed)
+			{
+				context.getCounter(Counter.PRUNED).increment(writer.prune(minDf, maxDf));
+			}
+			writer.close();
+		}
+	}
+}
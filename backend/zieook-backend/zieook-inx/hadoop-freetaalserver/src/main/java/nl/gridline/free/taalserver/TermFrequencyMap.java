@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver;
+
+import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import nl.gridline.free.taalserver.writable.TermVector;
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.model.CollectionItem;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.mahout.math.VarIntWritable;
+import org.apache.mahout.math.VarLongWritable;
+
+/**
+ * First pass of the free text vectorizer: tokenizes the title, description and / or keywords of every collection item
+ * and counts the terms of the document in memory. The term frequencies of the document are written to a side file
+ * (<tt>tf-m-xxxxx</tt>, next to the job output) as a {@link TermVector}, and every distinct term is emitted once with
+ * a count of 1, summed by the {@link DocumentFrequencyReduce} combiner. Every document is also counted under the
+ * empty term ({@link #DOCUMENTS_KEY}), it sorts first so the {@link TermDictionaryReduce} knows the number of
+ * documents before it prunes the terms.
+ * <p />
+ * With feature hashing ({@link TaskConfig#TEXT_FEATURE_BITS}) the terms of a document are merged per bucket first: the
+ * vector and the document frequencies hold the bucket keys (see {@link TermDictionary#getBucketKey(int)}), so a
+ * document counts once for a bucket, however many of its terms share it.
+ * <p />
+ * Replaces the TokenizeMap, WordCount, WordCountPerDoc and DocCountPerWord jobs, the number of documents is also the
+ * {@link Counter#DOCUMENTS} counter of the job.
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TermFrequencyMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TermFrequencyMap extends TableMapper<Text, VarIntWritable>
+{
+	private static final Log LOG = LogFactory.getLog(TermFrequencyMap.class);
+
+	/**
+	 * prefix of the term frequency side files in the job output
+	 */
+	public static final String TF_PREFIX = "tf-";
+
+	/**
+	 * the term under which the documents are counted
+	 */
+	public static final Text DOCUMENTS_KEY = new Text();
+
+	private static final byte[] COLLUMN_INTR = Bytes.toBytes(HBaseTableConstants.COLLECTION_TABLE_COLUMN_INTR);
+
+	public enum Counter
+	{
+		DOCUMENTS, EMPTY, TERMS
+	}
+
+	private boolean useDescription = true;
+	private boolean useTitle = true;
+	private boolean useKeywords = false;
+
+	private BreakIterator splitter;
+
+	private final Map<String, int[]> counts = new HashMap<String, int[]>();
+	private final Map<Integer, int[]> buckets = new HashMap<Integer, int[]>();
+	private int bits;
+	private final TermVector vector = new TermVector();
+	private final VarLongWritable docId = new VarLongWritable();
+	private final Text term = new Text();
+	private final VarIntWritable one = new VarIntWritable(1);
+
+	private SequenceFile.Writer writer;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		Configuration conf = context.getConfiguration();
+		String loc = conf.get(TaskConfig.TEXT_LANGUAGE);
+		splitter = BreakIterator.getWordInstance(new Locale(loc == null ? "nl_NL" : loc));
+
+		useDescription = getBoolean(conf, TaskConfig.TEXT_ANALYSIS_USE_DESCRIPTION, true);
+		useTitle = getBoolean(conf, TaskConfig.TEXT_ANALYSIS_USE_TITLE, true);
+		useKeywords = getBoolean(conf, TaskConfig.TEXT_ANALYSIS_USE_KEYWORDS, false);
+		bits = conf.getInt(TaskConfig.TEXT_FEATURE_BITS, 0);
+
+		// side file, committed together with the task output:
+		Path work = FileOutputFormat.getWorkOutputPath(context);
+		Path file = new Path(work, TF_PREFIX + String.format("m-%05d", context.getTaskAttemptID().getTaskID().getId()));
+		FileSystem fs = file.getFileSystem(conf);
+		writer = SequenceFile.createWriter(fs, conf, file, VarLongWritable.class, TermVector.class,
+				SequenceFile.CompressionType.BLOCK);
+	}
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		CollectionItem item = new CollectionItem(value.getFamilyMap(COLLUMN_INTR));
+		Long itemid = item.getId();
+		if (itemid == null)
+		{
+			throw new IOException("collection item not valid (missing id): " + item.toString());
+		}
+		context.getCounter(Counter.DOCUMENTS).increment(1);
+
+		StringBuilder data = new StringBuilder();
+		if (useTitle && item.getTitle() != null)
+		{
+			data.append(item.getTitle()).append(' ');
+		}
+		if (useDescription && item.getDescription() != null)
+		{
+			data.append(item.getDescription()).append(' ');
+		}
+		if (useKeywords)
+		{
+			data.append(getKeywords(item));
+		}
+
+		// count the terms of this document:
+		counts.clear();
+		splitter.setText(data.toString());
+		int start = splitter.first();
+		for (int end = splitter.next(); end != BreakIterator.DONE; start = end, end = splitter.next())
+		{
+			if (isWord(data, start, end))
+			{
+				String word = data.substring(start, end);
+				int[] count = counts.get(word);
+				if (count == null)
+				{
+					counts.put(word, new int[]{1});
+				}
+				else
+				{
+					count[0]++;
+				}
+			}
+		}
+
+		context.write(DOCUMENTS_KEY, one);
+		if (counts.isEmpty())
+		{
+			context.getCounter(Counter.EMPTY).increment(1);
+			return;
+		}
+
+		vector.clear();
+		if (bits > 0)
+		{
+			addBuckets(context);
+		}
+		else
+		{
+			for (Map.Entry<String, int[]> entry : counts.entrySet())
+			{
+				term.set(entry.getKey());
+				vector.add(term.getBytes(), term.getLength(), entry.getValue()[0]);
+				context.write(term, one);
+			}
+		}
+		docId.set(itemid.longValue());
+		writer.append(docId, vector);
+
+		context.getCounter(Counter.TERMS).increment(vector.size());
+		context.progress();
+	}
+
+	/**
+	 * Merge the term counts of the document per bucket, and write every bucket once
+	 */
+	private void addBuckets(Context context) throws IOException, InterruptedException
+	{
+		buckets.clear();
+		for (Map.Entry<String, int[]> entry : counts.entrySet())
+		{
+			term.set(entry.getKey());
+			Integer bucket = TermDictionary.getBucket(term.getBytes(), 0, term.getLength(), bits);
+			int[] count = buckets.get(bucket);
+			if (count == null)
+			{
+				buckets.put(bucket, new int[]{entry.getValue()[0]});
+			}
+			else
+			{
+				count[0] += entry.getValue()[0];
+			}
+		}
+		for (Map.Entry<Integer, int[]> entry : buckets.entrySet())
+		{
+			term.set(TermDictionary.getBucketKey(entry.getKey().intValue()));
+			vector.add(term.getBytes(), term.getLength(), entry.getValue()[0]);
+			context.write(term, one);
+		}
+	}
+
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		if (writer != null)
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * the word break iterator also returns white space and punctuation, a term should contain a letter or digit
+	 */
+	private static boolean isWord(CharSequence data, int start, int end)
+	{
+		for (int i = start; i < end; i++)
+		{
+			if (Character.isLetterOrDigit(data.charAt(i)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean getBoolean(Configuration conf, String key, boolean def)
+	{
+		String value = conf.get(key);
+		if (value == null || value.isEmpty())
+		{
+			LOG.warn("parameter missing <" + key + "> defaulting to: " + def);
+			return def;
+		}
+		return Boolean.parseBoolean(value);
+	}
+
+	private String getKeywords(CollectionItem item)
+	{
+		Set<String> set = new HashSet<String>();
+		List<String> list = item.getKeywords();
+		if (list != null)
+		{
+			set.addAll(list);
+		}
+		list = item.getCategory();
+		if (list != null)
+		{
+			set.addAll(list);
+		}
+
+		StringBuilder result = new StringBuilder();
+		for (String i : set)
+		{
+			result.append(i).append('\n');
+		}
+		return result.toString().trim();
+	}
+}
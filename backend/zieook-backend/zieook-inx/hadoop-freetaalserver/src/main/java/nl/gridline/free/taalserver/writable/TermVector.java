@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver.writable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Term frequencies of a single document: the UTF-8 bytes of the terms and the number of times every term occurs in
+ * the document. The terms are resolved to their ids through the {@link nl.gridline.free.taalserver.TermDictionary}.
+ * The arrays are reused, only the first {@link #size()} entries are valid.
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TermVector.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TermVector implements Writable
+{
+	private byte[] data = new byte[256];
+	private int[] offsets = new int[17];
+	private int[] counts = new int[16];
+	private int size;
+
+	public TermVector()
+	{
+		// no-arg constructor
+	}
+
+	/**
+	 * Remove all terms
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+
+	/**
+	 * Add a term, the term should not be in the vector already
+	 * @param term UTF-8 bytes of the term
+	 * @param length length of the term
+	 * @param count number of occurrences in the document
+	 */
+	public void add(byte[] term, int length, int count)
+	{
+		ensureCapacity(size + 1, offsets[size] + length);
+		System.arraycopy(term, 0, data, offsets[size], length);
+		counts[size] = count;
+		offsets[size + 1] = offsets[size] + length;
+		size++;
+	}
+
+	/**
+	 * @return number of distinct terms in the document
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the UTF-8 bytes of all terms, see {@link #getStart(int)} and {@link #getLength(int)}
+	 */
+	public byte[] getData()
+	{
+		return data;
+	}
+
+	/**
+	 * @param index 0 .. {@link #size()}
+	 * @return start of the term in {@link #getData()}
+	 */
+	public int getStart(int index)
+	{
+		return offsets[index];
+	}
+
+	/**
+	 * @param index 0 .. {@link #size()}
+	 * @return length of the term in bytes
+	 */
+	public int getLength(int index)
+	{
+		return offsets[index + 1] - offsets[index];
+	}
+
+	/**
+	 * @param index 0 .. {@link #size()}
+	 * @return number of occurrences of the term in the document
+	 */
+	public int getCount(int index)
+	{
+		return counts[index];
+	}
+
+	private void ensureCapacity(int terms, int bytes)
+	{
+		if (terms > counts.length)
+		{
+			int length = Math.max(terms, counts.length * 2);
+			int[] o = new int[length + 1];
+			int[] c = new int[length];
+			System.arraycopy(offsets, 0, o, 0, size + 1);
+			System.arraycopy(counts, 0, c, 0, size);
+			offsets = o;
+			counts = c;
+		}
+		if (bytes > data.length)
+		{
+			byte[] d = new byte[Math.max(bytes, data.length * 2)];
+			System.arraycopy(data, 0, d, 0, offsets[size]);
+			data = d;
+		}
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException
+	{
+		WritableUtils.writeVInt(out, size);
+		for (int i = 0; i < size; i++)
+		{
+			WritableUtils.writeVInt(out, getLength(i));
+			out.write(data, offsets[i], getLength(i));
+			WritableUtils.writeVInt(out, counts[i]);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException
+	{
+		int length = WritableUtils.readVInt(in);
+		size = 0;
+		for (int i = 0; i < length; i++)
+		{
+			int bytes = WritableUtils.readVInt(in);
+			ensureCapacity(i + 1, offsets[i] + bytes);
+			in.readFully(data, offsets[i], bytes);
+			counts[i] = WritableUtils.readVInt(in);
+			offsets[i + 1] = offsets[i] + bytes;
+			size++;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder b = new StringBuilder().append('{');
+		for (int i = 0; i < size; i++)
+		{
+			if (i > 0)
+			{
+				b.append(',');
+			}
+			b.append(Bytes.toString(data, offsets[i], getLength(i))).append(':').append(counts[i]);
+		}
+		return b.append('}').toString();
+	}
+}
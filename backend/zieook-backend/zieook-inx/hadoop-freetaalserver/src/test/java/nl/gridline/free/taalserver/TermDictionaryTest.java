@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.free.taalserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import org.junit.Test;
+
+/**
+ * Writes term dictionaries and reads them back
+ * <p />
+ * Project hadoop-freetaalserver<br />
+ * TermDictionaryTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TermDictionaryTest
+{
+	// in byte order, the 'é' (0xc3 0xa9) sorts after all ascii terms:
+	private static final String[] TERMS = {"appel", "beer", "zee", "été"};
+	private static final int[] DF = {3, 2, 7, 4};
+
+	@Test
+	public void testSorted() throws IOException
+	{
+		File file = createFile();
+		TermDictionary.Writer writer = new TermDictionary.Writer(new DataOutputStream(new FileOutputStream(file)), 0);
+		for (int i = 0; i < TERMS.length; i++)
+		{
+			byte[] term = utf8(TERMS[i]);
+			assertEquals(i, writer.add(term, term.length, DF[i]));
+		}
+		writer.close();
+
+		TermDictionary dictionary = TermDictionary.open(file);
+		assertFalse(dictionary.isHashed());
+		assertEquals(TERMS.length, dictionary.size());
+		for (int i = 0; i < TERMS.length; i++)
+		{
+			assertEquals(i, getId(dictionary, TERMS[i]));
+			assertEquals(DF[i], dictionary.getDocumentFrequency(i));
+		}
+
+		// pruned (never added), prefixes and extensions of terms, before the first and after the last term:
+		assertEquals(-1, getId(dictionary, "kat"));
+		assertEquals(-1, getId(dictionary, "appe"));
+		assertEquals(-1, getId(dictionary, "appels"));
+		assertEquals(-1, getId(dictionary, "aap"));
+		assertEquals(-1, getId(dictionary, "étés"));
+		assertEquals(-1, getId(dictionary, ""));
+
+		// a term in the middle of a buffer:
+		byte[] buffer = utf8("de beer is los");
+		assertEquals(1, dictionary.getId(buffer, 3, 4));
+	}
+
+	@Test
+	public void testSortedEmpty() throws IOException
+	{
+		File file = createFile();
+		new TermDictionary.Writer(new DataOutputStream(new FileOutputStream(file)), 0).close();
+
+		TermDictionary dictionary = TermDictionary.open(file);
+		assertEquals(0, dictionary.size());
+		assertEquals(-1, getId(dictionary, "appel"));
+	}
+
+	@Test
+	public void testHashed() throws IOException
+	{
+		final int bits = 4;
+		byte[] appel = utf8("appel");
+		int bucket = TermDictionary.getBucket(appel, 0, appel.length, bits);
+		int rare = (bucket + 1) & 15;
+		int common = (bucket + 2) & 15;
+
+		File file = createFile();
+		TermDictionary.Writer writer = new TermDictionary.Writer(new DataOutputStream(new FileOutputStream(file)), bits);
+		writer.addBucket(bucket, 3);
+		writer.addBucket(rare, 1);
+		writer.addBucket(common, 10);
+		assertEquals(2, writer.prune(2, 8));
+		writer.close();
+
+		TermDictionary dictionary = TermDictionary.open(file);
+		assertTrue(dictionary.isHashed());
+		assertEquals(16, dictionary.size());
+		assertEquals(bucket, getId(dictionary, "appel"));
+		assertEquals(3, dictionary.getDocumentFrequency(bucket));
+
+		// the vectors of the feature hashing vectorizer hold the bucket keys:
+		byte[] key = utf8(TermDictionary.getBucketKey(bucket));
+		assertEquals(bucket, dictionary.getBucketId(key, 0, key.length));
+
+		// pruned buckets:
+		assertEquals(0, dictionary.getDocumentFrequency(rare));
+		assertEquals(0, dictionary.getDocumentFrequency(common));
+		key = utf8(TermDictionary.getBucketKey(rare));
+		assertEquals(-1, dictionary.getBucketId(key, 0, key.length));
+
+		// out of range:
+		key = utf8(TermDictionary.getBucketKey(16));
+		assertEquals(-1, dictionary.getBucketId(key, 0, key.length));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testHashedAdd() throws IOException
+	{
+		byte[] term = utf8("appel");
+		new TermDictionary.Writer(new DataOutputStream(new FileOutputStream(createFile())), 4).add(term, term.length, 1);
+	}
+
+	@Test
+	public void testBucketKey() throws UnsupportedEncodingException
+	{
+		for (int bucket : new int[]{0, 7, 12345, (1 << TermDictionary.MAX_BITS) - 1})
+		{
+			byte[] key = utf8(TermDictionary.getBucketKey(bucket));
+			assertEquals(bucket, TermDictionary.parseBucketKey(key, 0, key.length));
+		}
+		assertEquals(-1, TermDictionary.parseBucketKey(new byte[0], 0, 0));
+		byte[] key = utf8("12a");
+		assertEquals(-1, TermDictionary.parseBucketKey(key, 0, key.length));
+		assertEquals(12, TermDictionary.parseBucketKey(key, 0, 2));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotADictionary() throws IOException
+	{
+		File file = createFile();
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+		out.writeLong(0);
+		out.writeLong(0);
+		out.close();
+		TermDictionary.open(file);
+	}
+
+	private static int getId(TermDictionary dictionary, String term) throws UnsupportedEncodingException
+	{
+		byte[] bytes = utf8(term);
+		return dictionary.getId(bytes, 0, bytes.length);
+	}
+
+	private static byte[] utf8(String term) throws UnsupportedEncodingException
+	{
+		return term.getBytes("UTF-8");
+	}
+
+	private static File createFile() throws IOException
+	{
+		File file = File.createTempFile("dictionary", null);
+		file.deleteOnExit();
+		return file;
+	}
+}
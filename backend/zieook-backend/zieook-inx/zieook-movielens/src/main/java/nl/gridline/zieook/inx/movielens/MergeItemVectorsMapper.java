@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens;
+
+import java.io.IOException;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.mahout.math.NamedVector;
+import org.apache.mahout.math.VectorWritable;
+
+/**
+ * Reads the cached item-user matrix and the item vectors of the changed ratings, the latter are marked so the
+ * {@link MergeItemVectorsReducer} can let them override the cached values.
+ * <p />
+ * Project zieook-movielens<br />
+ * MergeItemVectorsMapper.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MergeItemVectorsMapper extends Mapper<IntWritable, VectorWritable, IntWritable, VectorWritable>
+{
+	/**
+	 * path of the item vectors of the changed ratings
+	 */
+	public static final String DELTA_PATH = MergeItemVectorsMapper.class.getName() + ".deltaPath";
+
+	/**
+	 * name of the vectors that override the cached values
+	 */
+	public static final String DELTA = "delta";
+
+	private boolean delta;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		String deltaPath = context.getConfiguration().get(DELTA_PATH);
+		if (deltaPath == null)
+		{
+			throw new IOException("delta path is missing please set <" + DELTA_PATH + "> key in job configuration");
+		}
+
+		// compare the directories, both qualified by the file system of the split:
+		Path split = ((FileSplit) context.getInputSplit()).getPath();
+		Path path = new Path(deltaPath);
+		path = path.makeQualified(path.getFileSystem(context.getConfiguration()));
+		delta = split.getParent().makeQualified(split.getFileSystem(context.getConfiguration())).equals(path);
+	}
+
+	@Override
+	protected void map(IntWritable key, VectorWritable value, Context context) throws IOException,
+			InterruptedException
+	{
+		if (delta)
+		{
+			context.write(key, new VectorWritable(new NamedVector(value.get(), DELTA)));
+		}
+		else
+		{
+			context.write(key, value);
+		}
+	}
+}
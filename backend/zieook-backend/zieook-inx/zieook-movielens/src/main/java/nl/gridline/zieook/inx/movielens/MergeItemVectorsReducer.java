@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.mahout.math.NamedVector;
+import org.apache.mahout.math.RandomAccessSparseVector;
+import org.apache.mahout.math.SequentialAccessSparseVector;
+import org.apache.mahout.math.Vector;
+import org.apache.mahout.math.VectorWritable;
+
+/**
+ * Merges the cached item vector of an item with the item vector of the ratings that changed since the last run. A
+ * changed rating replaces the cached preference of the same user, new users and items are added.
+ * <p />
+ * Project zieook-movielens<br />
+ * MergeItemVectorsReducer.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class MergeItemVectorsReducer extends Reducer<IntWritable, VectorWritable, IntWritable, VectorWritable>
+{
+
+	@Override
+	protected void reduce(IntWritable key, Iterable<VectorWritable> values, Context context) throws IOException,
+			InterruptedException
+	{
+		Vector merged = new RandomAccessSparseVector(Integer.MAX_VALUE, 100);
+		List<Vector> deltas = new ArrayList<Vector>(1);
+		for (VectorWritable value : values)
+		{
+			Vector vector = value.get();
+			if (vector instanceof NamedVector && MergeItemVectorsMapper.DELTA.equals(((NamedVector) vector).getName()))
+			{
+				// applied after the cached values, the order of the values is not defined:
+				deltas.add(((NamedVector) vector).getDelegate());
+			}
+			else
+			{
+				assign(merged, vector);
+			}
+		}
+		for (Vector delta : deltas)
+		{
+			assign(merged, delta);
+		}
+
+		context.write(key, new VectorWritable(new SequentialAccessSparseVector(merged)));
+	}
+
+	private static void assign(Vector target, Vector source)
+	{
+		Iterator<Vector.Element> elements = source.iterateNonZero();
+		while (elements.hasNext())
+		{
+			Vector.Element element = elements.next();
+			target.setQuick(element.index(), element.get());
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.mahout.cf.taste.hadoop.EntityPrefWritable;
+import org.apache.mahout.cf.taste.hadoop.TasteHadoopUtils;
+import org.apache.mahout.cf.taste.hadoop.item.RecommenderJob;
+import org.apache.mahout.math.VarLongWritable;
+import org.apache.mahout.math.hadoop.DistributedRowMatrix;
+
+/**
+ * Binary counterpart of the {@link ToItemEntriesMapper}: maps the preferences written by the
+ * {@link nl.gridline.zieook.inx.movielens.hbase.BinaryDataPrepareMap} to entries of the item-user matrix.
+ * <p />
+ * Project zieook-movielens<br />
+ * PrefsToItemEntriesMapper.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class PrefsToItemEntriesMapper
+		extends
+			Mapper<VarLongWritable, EntityPrefWritable, IntWritable, DistributedRowMatrix.MatrixEntryWritable>
+{
+	private final IntWritable item = new IntWritable();
+	private final DistributedRowMatrix.MatrixEntryWritable entry = new DistributedRowMatrix.MatrixEntryWritable();
+
+	private boolean booleanData;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		booleanData = context.getConfiguration().getBoolean(RecommenderJob.BOOLEAN_DATA, false);
+	}
+
+	@Override
+	protected void map(VarLongWritable user, EntityPrefWritable pref, Context context) throws IOException,
+			InterruptedException
+	{
+		int itemIndex = TasteHadoopUtils.idToIndex(pref.getID());
+		item.set(itemIndex);
+		entry.setRow(itemIndex);
+		entry.setCol(TasteHadoopUtils.idToIndex(user.get()));
+		entry.setVal(booleanData ? 1.0f : pref.getPrefValue());
+		context.write(item, entry);
+	}
+}
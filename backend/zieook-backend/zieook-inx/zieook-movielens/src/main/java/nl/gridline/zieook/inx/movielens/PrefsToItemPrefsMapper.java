@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens;
+
+import java.io.IOException;
+
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.mahout.cf.taste.hadoop.EntityPrefWritable;
+import org.apache.mahout.cf.taste.hadoop.item.RecommenderJob;
+import org.apache.mahout.math.VarLongWritable;
+
+/**
+ * Binary counterpart of the <tt>ToItemPrefsMapper</tt>: passes the preferences written by the
+ * {@link nl.gridline.zieook.inx.movielens.hbase.BinaryDataPrepareMap} on to the <tt>ToUserVectorReducer</tt>, for
+ * boolean data only the item id is written.
+ * <p />
+ * Project zieook-movielens<br />
+ * PrefsToItemPrefsMapper.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class PrefsToItemPrefsMapper
+		extends
+			Mapper<VarLongWritable, EntityPrefWritable, VarLongWritable, VarLongWritable>
+{
+	private final VarLongWritable itemID = new VarLongWritable();
+
+	private boolean booleanData;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		booleanData = context.getConfiguration().getBoolean(RecommenderJob.BOOLEAN_DATA, false);
+	}
+
+	@Override
+	protected void map(VarLongWritable user, EntityPrefWritable pref, Context context) throws IOException,
+			InterruptedException
+	{
+		if (booleanData)
+		{
+			itemID.set(pref.getID());
+			context.write(user, itemID);
+		}
+		else
+		{
+			context.write(user, pref);
+		}
+	}
+}
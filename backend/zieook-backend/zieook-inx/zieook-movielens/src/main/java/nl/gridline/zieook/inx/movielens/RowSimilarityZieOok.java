@@ -25,8 +25,11 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapreduce.InputFormat;
 import org.apache.hadoop.mapreduce.Job;
@@ -38,6 +41,7 @@ import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.partition.HashPartitioner;
 import org.apache.hadoop.util.ToolRunner;
+import org.apache.mahout.cf.taste.impl.common.FastIDSet;
 import org.apache.mahout.common.AbstractJob;
 import org.apache.mahout.math.RandomAccessSparseVector;
 import org.apache.mahout.math.SequentialAccessSparseVector;
@@ -69,11 +73,16 @@ public class RowSimilarityZieOok extends AbstractJob
 	public static final String NUMBER_OF_COLUMNS = RowSimilarityJob.class.getName() + ".numberOfColumns";
 	public static final String MAX_SIMILARITIES_PER_ROW = RowSimilarityJob.class.getName() + ".maxSimilaritiesPerRow";
 
+	/**
+	 * path with sequence files, if set only the similarity rows of the keys in those files are computed
+	 */
+	public static final String ROWS_PATH = RowSimilarityZieOok.class.getName() + ".rowsPath";
+
 	private static final int DEFAULT_MAX_SIMILARITIES_PER_ROW = 100;
 
 	public enum Counter
 	{
-		COOCCURRENCES, SIMILAR_ROWS
+		COOCCURRENCES, SIMILAR_ROWS, COLUMNS
 	}
 
 	public static void main(String[] args) throws Exception
@@ -87,7 +96,9 @@ public class RowSimilarityZieOok extends AbstractJob
 
 		addInputOption();
 		addOutputOption();
-		addOption("numberOfColumns", "r", "Number of columns in the input matrix");
+		addOption("numberOfColumns", "r", "Number of columns in the input matrix, counted if it's not given");
+		addOption("rowsPath", "rp", "Only compute the similarity rows of the (IntWritable) keys of the sequence "
+				+ "files in this path");
 		addOption("similarityClassname", "s", "Name of distributed similarity class to instantiate, alternatively use "
 				+ "one of the predefined similarities (" + SimilarityType.listEnumNames() + ')');
 		addOption("maxSimilaritiesPerRow", "m", "Number of maximum similarities per row (default: "
@@ -99,7 +110,9 @@ public class RowSimilarityZieOok extends AbstractJob
 			return -1;
 		}
 
-		int numberOfColumns = Integer.parseInt(parsedArgs.get("--numberOfColumns"));
+		String numberOfColumnsArg = parsedArgs.get("--numberOfColumns");
+		int numberOfColumns = numberOfColumnsArg == null ? -1 : Integer.parseInt(numberOfColumnsArg);
+		String rowsPath = parsedArgs.get("--rowsPath");
 		String similarityClassnameArg = parsedArgs.get("--similarityClassname");
 		String distributedSimilarityClassname;
 		try
@@ -131,6 +144,12 @@ public class RowSimilarityZieOok extends AbstractJob
 
 			weights.getConfiguration().set(DISTRIBUTED_SIMILARITY_CLASSNAME, distributedSimilarityClassname);
 			weights.waitForCompletion(true);
+
+			if (numberOfColumns < 1)
+			{
+				// every reduce call is a column:
+				numberOfColumns = (int) weights.getCounters().findCounter(Counter.COLUMNS).getValue();
+			}
 		}
 
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
@@ -143,6 +162,10 @@ public class RowSimilarityZieOok extends AbstractJob
 			Configuration pairwiseConf = pairwiseSimilarity.getConfiguration();
 			pairwiseConf.set(DISTRIBUTED_SIMILARITY_CLASSNAME, distributedSimilarityClassname);
 			pairwiseConf.setInt(NUMBER_OF_COLUMNS, numberOfColumns);
+			if (rowsPath != null)
+			{
+				pairwiseConf.set(ROWS_PATH, rowsPath);
+			}
 			pairwiseSimilarity.waitForCompletion(true);
 		}
 
@@ -224,7 +247,12 @@ public class RowSimilarityZieOok extends AbstractJob
 		return name.toString();
 	}
 
-	static DistributedVectorSimilarity instantiateSimilarity(String classname)
+	/**
+	 * Instantiates the similarity measure, also used by the in-memory item similarity
+	 * @param classname class name of a {@link DistributedVectorSimilarity}
+	 * @return a new instance
+	 */
+	public static DistributedVectorSimilarity instantiateSimilarity(String classname)
 	{
 		try
 		{
@@ -244,6 +272,46 @@ public class RowSimilarityZieOok extends AbstractJob
 		}
 	}
 
+	/**
+	 * Reads the rows to compute from the sequence files in {@link #ROWS_PATH}
+	 * @param conf job configuration
+	 * @return the row indexes, or null if all rows should be computed
+	 * @throws IOException
+	 */
+	static FastIDSet readRows(Configuration conf) throws IOException
+	{
+		String path = conf.get(ROWS_PATH);
+		if (path == null)
+		{
+			return null;
+		}
+
+		FastIDSet result = new FastIDSet();
+		Path rowsPath = new Path(path);
+		FileSystem fs = rowsPath.getFileSystem(conf);
+		IntWritable row = new IntWritable();
+		for (FileStatus status : fs.listStatus(rowsPath))
+		{
+			if (status.isDir() || !status.getPath().getName().startsWith("part-"))
+			{
+				continue;
+			}
+			SequenceFile.Reader reader = new SequenceFile.Reader(fs, status.getPath(), conf);
+			try
+			{
+				while (reader.next(row))
+				{
+					result.add(row.get());
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * applies {@link DistributedVectorSimilarity#weight(Vector)} to each row of the input matrix
 	 */
@@ -296,6 +364,7 @@ public class RowSimilarityZieOok extends AbstractJob
 			{
 				collectedWeightedOccurrences.add(weightedOccurrence.clone());
 			}
+			ctx.getCounter(Counter.COLUMNS).increment(1);
 
 			ctx.write(
 					column,
@@ -305,13 +374,23 @@ public class RowSimilarityZieOok extends AbstractJob
 	}
 
 	/**
-	 * maps all pairs of weighted entries of a column vector
+	 * maps all pairs of weighted entries of a column vector, if {@link RowSimilarityZieOok#ROWS_PATH} is set only the
+	 * pairs that contain one of those rows
 	 */
 	public static class CooccurrencesMapper
 			extends
 				Mapper<VarIntWritable, WeightedOccurrenceArray, WeightedRowPair, Cooccurrence>
 	{
 
+		private FastIDSet rows;
+
+		@Override
+		protected void setup(Context ctx) throws IOException, InterruptedException
+		{
+			super.setup(ctx);
+			rows = readRows(ctx.getConfiguration());
+		}
+
 		@Override
 		protected void map(VarIntWritable column, WeightedOccurrenceArray weightedOccurrenceArray, Context ctx)
 				throws IOException, InterruptedException
@@ -331,6 +410,10 @@ public class RowSimilarityZieOok extends AbstractJob
 				for (int m = n; m < weightedOccurrences.length; m++)
 				{
 					int rowB = weightedOccurrences[m].getRow();
+					if (rows != null && !rows.contains(rowA) && !rows.contains(rowB))
+					{
+						continue;
+					}
 					double weightB = weightedOccurrences[m].getWeight();
 					double valueB = weightedOccurrences[m].getValue();
 					if (rowA <= rowB)
@@ -360,6 +443,7 @@ public class RowSimilarityZieOok extends AbstractJob
 
 		private DistributedVectorSimilarity similarity;
 		private int numberOfColumns;
+		private FastIDSet rows;
 
 		@Override
 		protected void setup(Context ctx) throws IOException, InterruptedException
@@ -371,6 +455,7 @@ public class RowSimilarityZieOok extends AbstractJob
 			{
 				throw new IllegalStateException("Number of columns was not correctly set!");
 			}
+			rows = readRows(ctx.getConfiguration());
 		}
 
 		@Override
@@ -390,12 +475,16 @@ public class RowSimilarityZieOok extends AbstractJob
 				DistributedRowMatrix.MatrixEntryWritable entry = new DistributedRowMatrix.MatrixEntryWritable();
 				entry.setVal(similarityValue);
 
-				entry.setRow(rowA);
-				entry.setCol(rowB);
-				key.set(rowA, similarityValue);
-				ctx.write(key, entry);
+				// the row of a pair that is not computed would be incomplete:
+				if (rows == null || rows.contains(rowA))
+				{
+					entry.setRow(rowA);
+					entry.setCol(rowB);
+					key.set(rowA, similarityValue);
+					ctx.write(key, entry);
+				}
 
-				if (rowA != rowB)
+				if (rowA != rowB && (rows == null || rows.contains(rowB)))
 				{
 					entry.setRow(rowB);
 					entry.setCol(rowA);
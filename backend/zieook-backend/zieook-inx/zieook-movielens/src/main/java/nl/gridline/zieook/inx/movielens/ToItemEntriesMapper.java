@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.mahout.cf.taste.hadoop.TasteHadoopUtils;
+import org.apache.mahout.cf.taste.hadoop.item.RecommenderJob;
+import org.apache.mahout.math.hadoop.DistributedRowMatrix;
+
+/**
+ * Reads preference lines (<tt>userID,itemID[,preference]</tt>) and maps them to entries of the item-user matrix,
+ * keyed by item index. Together with the <tt>ToItemVectorsReducer</tt> this turns the ratings that changed since the
+ * last run into item vectors, without building user vectors first.
+ * <p />
+ * Project zieook-movielens<br />
+ * ToItemEntriesMapper.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class ToItemEntriesMapper
+		extends
+			Mapper<LongWritable, Text, IntWritable, DistributedRowMatrix.MatrixEntryWritable>
+{
+	private final IntWritable item = new IntWritable();
+	private final DistributedRowMatrix.MatrixEntryWritable entry = new DistributedRowMatrix.MatrixEntryWritable();
+
+	private boolean booleanData;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		booleanData = context.getConfiguration().getBoolean(RecommenderJob.BOOLEAN_DATA, false);
+	}
+
+	@Override
+	protected void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException
+	{
+		String[] tokens = TasteHadoopUtils.splitPrefTokens(value.toString());
+		if (tokens.length < 2)
+		{
+			return;
+		}
+		int itemIndex = TasteHadoopUtils.idToIndex(Long.parseLong(tokens[1]));
+		float preference = 1.0f;
+		if (!booleanData && tokens.length > 2)
+		{
+			preference = Float.parseFloat(tokens[2]);
+		}
+
+		item.set(itemIndex);
+		entry.setRow(itemIndex);
+		entry.setCol(TasteHadoopUtils.idToIndex(Long.parseLong(tokens[0])));
+		entry.setVal(preference);
+		context.write(item, entry);
+	}
+}
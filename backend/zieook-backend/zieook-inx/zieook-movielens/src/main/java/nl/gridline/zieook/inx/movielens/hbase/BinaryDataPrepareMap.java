@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens.hbase;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.model.ModelConstants;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.mahout.cf.taste.hadoop.EntityPrefWritable;
+import org.apache.mahout.cf.taste.impl.common.FastIDSet;
+import org.apache.mahout.math.VarLongWritable;
+
+/**
+ * Map only replacement of the {@link DataPrepareMap} / {@link DataPrepareReduce} and the filter jobs: reads the user,
+ * item and rating of the user ratings and writes them as binary preferences (user, item + preference), the input of
+ * the recommender jobs. If {@link #FILTER_PATH} is set only the ratings of the items in the output of the
+ * {@link CollectionFilterMap} are written, the item set is read by every mapper (a map side join).
+ * <p />
+ * Project zieook-movielens<br />
+ * BinaryDataPrepareMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class BinaryDataPrepareMap extends TableMapper<VarLongWritable, EntityPrefWritable>
+{
+	private static final Log LOG = LogFactory.getLog(BinaryDataPrepareMap.class);
+
+	/**
+	 * sequence files with the allowed item ids as key, not set if the ratings are not filtered
+	 */
+	public static final String FILTER_PATH = BinaryDataPrepareMap.class.getName() + ".filterPath";
+
+	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+
+	public enum Counter
+	{
+		PREFERENCES, INCOMPLETE, FILTERED
+	}
+
+	private final VarLongWritable user = new VarLongWritable();
+
+	private FastIDSet items;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		items = readItems(context.getConfiguration());
+		if (items != null)
+		{
+			LOG.info("filtering ratings on " + items.size() + " items");
+		}
+	}
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		byte[] userValue = value.getValue(COLUMN_RATING, ModelConstants.USER);
+		byte[] itemValue = value.getValue(COLUMN_RATING, ModelConstants.ITEM);
+		if (userValue == null || userValue.length != Bytes.SIZEOF_LONG || itemValue == null
+				|| itemValue.length != Bytes.SIZEOF_LONG)
+		{
+			LOG.error("given rating not complete: " + Bytes.toStringBinary(key.get()));
+			context.getCounter(Counter.INCOMPLETE).increment(1);
+			return;
+		}
+
+		long item = Bytes.toLong(itemValue);
+		if (items != null && !items.contains(item))
+		{
+			context.getCounter(Counter.FILTERED).increment(1);
+			return;
+		}
+
+		// same default as Rating:
+		byte[] ratingValue = value.getValue(COLUMN_RATING, ModelConstants.RATING);
+		double rating = ratingValue == null || ratingValue.length != Bytes.SIZEOF_DOUBLE ? Double.MIN_VALUE : Bytes
+				.toDouble(ratingValue);
+
+		user.set(Bytes.toLong(userValue));
+		context.write(user, new EntityPrefWritable(item, (float) rating));
+		context.getCounter(Counter.PREFERENCES).increment(1);
+	}
+
+	/**
+	 * Reads the item ids in {@link #FILTER_PATH}
+	 * @param conf job configuration
+	 * @return the item ids, or null if the ratings are not filtered
+	 * @throws IOException
+	 */
+	static FastIDSet readItems(Configuration conf) throws IOException
+	{
+		String path = conf.get(FILTER_PATH);
+		if (path == null)
+		{
+			return null;
+		}
+
+		FastIDSet result = new FastIDSet();
+		Path filterPath = new Path(path);
+		FileSystem fs = filterPath.getFileSystem(conf);
+		Text item = new Text();
+		for (FileStatus status : fs.listStatus(filterPath))
+		{
+			if (status.isDir() || !status.getPath().getName().startsWith("part-"))
+			{
+				continue;
+			}
+			SequenceFile.Reader reader = new SequenceFile.Reader(fs, status.getPath(), conf);
+			try
+			{
+				while (reader.next(item))
+				{
+					result.add(Long.parseLong(item.toString()));
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		return result;
+	}
+}
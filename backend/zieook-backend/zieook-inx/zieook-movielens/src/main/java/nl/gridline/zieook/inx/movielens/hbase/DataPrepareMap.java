@@ -68,7 +68,10 @@ public class DataPrepareMap extends TableMapper<ImmutableBytesWritable, Text>
 		else
 		{
 			String data = new StringBuilder().append(user).append(',').append(item).append(',').append(rating).toString();
-			LOG.info("data: " + data);
+			if (LOG.isDebugEnabled())
+			{
+				LOG.debug("data: " + data);
+			}
 			text.set(data);
 			context.write(key, text);
 		}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.inx.movielens.hbase;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.model.Rating;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Back fills the reverse time rating index: writes the index row of every rating in the user table. Ratings without a
+ * date (or user or item) are skipped.
+ * <p />
+ * Project zieook-movielens<br />
+ * RatingIndexMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RatingIndexMap extends TableMapper<ImmutableBytesWritable, Put>
+{
+	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+	private static final byte[] COLUMN_RATING_INDEX = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING_INDEX);
+
+	public enum Counter
+	{
+		INDEXED, SKIPPED
+	}
+
+	private final ImmutableBytesWritable outKey = new ImmutableBytesWritable();
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		NavigableMap<byte[], byte[]> map = value.getFamilyMap(COLUMN_RATING);
+		Rating rating = new Rating(map);
+		if (rating.getDate() == null || rating.getUser() == null || rating.getItem() == null)
+		{
+			context.getCounter(Counter.SKIPPED).increment(1);
+			return;
+		}
+
+		// rating key: R/collection user item
+		String collection = (String) RowKeys.getStrStrLngLng(value.getRow())[1];
+
+		byte[] row = RowKeys.getRatingIndexKey(collection, rating.getUser(), rating.getDate(), rating.getItem());
+		Put put = new Put(row);
+		for (Map.Entry<byte[], byte[]> entry : map.entrySet())
+		{
+			put.add(COLUMN_RATING_INDEX, entry.getKey(), entry.getValue());
+		}
+		outKey.set(row);
+		context.write(outKey, put);
+		context.getCounter(Counter.INDEXED).increment(1);
+	}
+}
@@ -63,12 +63,18 @@ public class RecommendationsImportMap extends Mapper<IntWritable, VectorWritable
 	private static final byte[] RECOMMENDATION_COLUMN = Bytes.toBytes(HBaseTableConstants.RECOMMENDATION_COLUMN);
 	private String collection;
 	private String recommender;
+	private long generation;
+	private int collectionId;
+	private int recommenderId;
 
 	@Override
 	protected void setup(Context context) throws IOException, InterruptedException
 	{
 		collection = context.getConfiguration().get(TaskConfig.COLLECTION);
 		recommender = context.getConfiguration().get(TaskConfig.RECOMMENDER);
+		generation = context.getConfiguration().getLong(TaskConfig.MODEL_GENERATION, 0);
+		collectionId = context.getConfiguration().getInt(TaskConfig.COLLECTION_ID, -1);
+		recommenderId = context.getConfiguration().getInt(TaskConfig.RECOMMENDER_ID, -1);
 		if (collection == null)
 		{
 			throw new IOException("collection is missing please set <" + TaskConfig.COLLECTION
@@ -86,11 +92,26 @@ public class RecommendationsImportMap extends Mapper<IntWritable, VectorWritable
 	@Override
 	public void map(IntWritable key, VectorWritable value, Context context) throws IOException, InterruptedException
 	{
+		// explicit time stamp, allows the reducer to replace the previous row (see RecommendationsImportReduce):
+		byte[] row = RowKeys.getRecommendationKey(collection, recommender, collectionId, recommenderId, generation,
+				key.get());
+		Put put = createPut(row, key.get(), value.get(), System.currentTimeMillis());
+		context.write(new LongWritable(key.get()), put);
+	}
 
-		Vector similarityMatrixRow = value.get();
-
+	/**
+	 * Turns a row of the similarity matrix into the recommendations of an item, ordered by similarity. Also used by
+	 * the in-memory recommender, so both write the same rows.
+	 * @param row row key, see {@link RowKeys#getRecommendationKey(String, String, int, int, long, long)}
+	 * @param item item index
+	 * @param similarityMatrixRow similarities of the item, this vector is modified
+	 * @param stamp time stamp of the put
+	 * @return the put for the recommendation table
+	 */
+	public static Put createPut(byte[] row, int item, Vector similarityMatrixRow, long stamp)
+	{
 		// Remove self similarity
-		similarityMatrixRow.set(key.get(), Double.NEGATIVE_INFINITY); // from the equation
+		similarityMatrixRow.set(item, Double.NEGATIVE_INFINITY); // from the equation
 
 		// determine max non-zero element: (==item index)
 		List<RecommendationElement> recommendations = new ArrayList<RecommendationElement>();
@@ -106,10 +127,9 @@ public class RecommendationsImportMap extends Mapper<IntWritable, VectorWritable
 
 		// sorted list of recommendations: now we have an item id, and similarity value:
 		Collections.sort(recommendations, new SimilarityComparator());
-		LOG.info("sorted: " + recommendations.size());
 
 		int rank = 1;
-		Put put = new Put(RowKeys.getRecommendationKey(collection, recommender, key.get()));
+		Put put = new Put(row, stamp);
 		for (RecommendationElement el : recommendations)
 		{
 			// if (el.getSimilarityValue() > 0)
@@ -119,8 +139,7 @@ public class RecommendationsImportMap extends Mapper<IntWritable, VectorWritable
 			rank++;
 			// }
 		}
-		context.write(new LongWritable(key.get()), put);
-
+		return put;
 	}
 
 	static class SimilarityComparator implements Comparator<RecommendationElement>
@@ -19,7 +19,11 @@ package nl.gridline.zieook.inx.movielens.hbase;
 
 import java.io.IOException;
 
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.mapreduce.TableReducer;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Writable;
 
@@ -38,12 +42,21 @@ public class RecommendationsImportReduce extends TableReducer<LongWritable, Writ
 	// @SuppressWarnings("unused")
 	// private static final Logger logger = LoggerFactory.getLogger(RecommendationsImportReduce.class);
 
+	/**
+	 * Optional column family, if set the older cells of this family are deleted for every put with a time stamp. This
+	 * way a shorter row replaces a longer row, instead of leaving the old tail behind.
+	 */
+	public static final String REPLACE_FAMILY = RecommendationsImportReduce.class.getName() + ".replaceFamily";
+
 	private long numRecords;
+	private byte[] replaceFamily;
 
 	@Override
 	public void setup(Context context)
 	{
 		numRecords = 0;
+		String family = context.getConfiguration().get(REPLACE_FAMILY);
+		replaceFamily = family == null ? null : Bytes.toBytes(family);
 	}
 
 	@Override
@@ -59,6 +72,14 @@ public class RecommendationsImportReduce extends TableReducer<LongWritable, Writ
 				context.setStatus(String.valueOf(numRecords) + " records have been loaded.");
 				context.progress();
 			}
+			if (replaceFamily != null && putOrDelete instanceof Put)
+			{
+				long stamp = ((Put) putOrDelete).getTimeStamp();
+				if (stamp != HConstants.LATEST_TIMESTAMP)
+				{
+					context.write(key, new Delete(((Put) putOrDelete).getRow()).deleteFamily(replaceFamily, stamp - 1));
+				}
+			}
 			context.write(key, putOrDelete);
 		}
 
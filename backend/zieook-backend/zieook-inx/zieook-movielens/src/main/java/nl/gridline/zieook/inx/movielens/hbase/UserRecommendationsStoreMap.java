@@ -48,12 +48,18 @@ public class UserRecommendationsStoreMap extends Mapper<VarLongWritable, Recomme
 	private static final byte[] RECOMMENDATION_COLUMN = Bytes.toBytes(HBaseTableConstants.RECOMMENDATION_COLUMN);
 	private String collection;
 	private String recommender;
+	private long generation;
+	private int collectionId;
+	private int recommenderId;
 
 	@Override
 	protected void setup(Context context) throws IOException, InterruptedException
 	{
 		collection = context.getConfiguration().get(TaskConfig.COLLECTION);
 		recommender = context.getConfiguration().get(TaskConfig.RECOMMENDER);
+		generation = context.getConfiguration().getLong(TaskConfig.MODEL_GENERATION, 0);
+		collectionId = context.getConfiguration().getInt(TaskConfig.COLLECTION_ID, -1);
+		recommenderId = context.getConfiguration().getInt(TaskConfig.RECOMMENDER_ID, -1);
 		if (collection == null)
 		{
 			throw new IOException("collection is missing please set <" + TaskConfig.COLLECTION
@@ -76,7 +82,8 @@ public class UserRecommendationsStoreMap extends Mapper<VarLongWritable, Recomme
 
 		List<RecommendedItem> recommendations = value.getRecommendedItems();
 		int rank = 1;
-		Put put = new Put(RowKeys.getRecommendationKey(collection, recommender, key.get()));
+		Put put = new Put(RowKeys.getRecommendationKey(collection, recommender, collectionId, recommenderId,
+				generation, key.get()));
 		for (RecommendedItem el : recommendations)
 		{
 			byte[] data = nl.gridline.zieook.model.Recommend.getRecommendation(el.getItemID(), rank, el.getValue());
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics;
+
+import java.io.IOException;
+import java.util.NavigableMap;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.model.ModelConstants;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
+import nl.gridline.zieook.statistics.io.StatisticsKey.Type;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.LongWritable;
+
+/**
+ * Single scan over the event log for all event log statistics: a view row counts for the sources and the views per
+ * item of the recommender, a recommended row for the recommendations per user and item and per user. The statistics
+ * are written by the {@link StatisticsReduce}. The counts are aggregated in the mapper, see {@link StatisticsCounts}.
+ * <p />
+ * Replaces SourcesByRecommenderMap, ViewsPerItemMap, RecommendedItemToUserMap and RecommendedToUserMap, that each
+ * scanned the event log.
+ * <p />
+ * Project zieook-movielens<br />
+ * EventLogStatisticsMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class EventLogStatisticsMap extends TableMapper<StatisticsKey, LongWritable>
+{
+	private static final Log LOG = LogFactory.getLog(EventLogStatisticsMap.class);
+
+	private static final byte[] COLUMN_USERVIEW = Bytes.toBytes(HBaseTableConstants.EVENTLOG_COLUMN_VIEW);
+	private static final byte[] COLUMN_RECOMMENDED = Bytes.toBytes(HBaseTableConstants.EVENTLOG_COLUMN_RECOMMENDED);
+
+	private final StatisticsKey outKey = new StatisticsKey();
+	private StatisticsCounts counts;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		counts = new StatisticsCounts(context.getConfiguration());
+	}
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		if (hasFamily(value, COLUMN_USERVIEW))
+		{
+			mapView(value, context);
+		}
+		else if (hasFamily(value, COLUMN_RECOMMENDED))
+		{
+			mapRecommended(value, context);
+		}
+		if (counts.isFull())
+		{
+			counts.flush(context);
+		}
+		context.progress();
+	}
+
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		counts.flush(context);
+	}
+
+	private void mapView(Result value, Context context) throws IOException, InterruptedException
+	{
+		KeyValue recommenderKV = value.getColumnLatest(COLUMN_USERVIEW, ModelConstants.RECOMMENDER);
+		if (recommenderKV == null)
+		{
+			LOG.error("no key-value " + Bytes.toString(ModelConstants.RECOMMENDER) + " for "
+					+ Bytes.toStringBinary(value.getRow()));
+			return;
+		}
+		String recommender = Bytes.toString(recommenderKV.getValue());
+
+		KeyValue source = value.getColumnLatest(COLUMN_USERVIEW, ModelConstants.SOURCE);
+		if (source != null)
+		{
+			counts.add(outKey.set(Type.SOURCES, recommender, Bytes.toString(source.getValue()), 0, 0), 1);
+		}
+		else
+		{
+			LOG.error("no key-value " + Bytes.toString(ModelConstants.SOURCE) + " for "
+					+ Bytes.toStringBinary(value.getRow()));
+		}
+
+		KeyValue item = value.getColumnLatest(COLUMN_USERVIEW, ModelConstants.ITEM);
+		if (item != null)
+		{
+			counts.add(outKey.set(Type.VIEWS, recommender, null, 0, Bytes.toLong(item.getValue())), 1);
+		}
+		else
+		{
+			LOG.error("no key-value " + Bytes.toString(ModelConstants.ITEM) + " for "
+					+ Bytes.toStringBinary(value.getRow()));
+		}
+	}
+
+	private static boolean hasFamily(Result value, byte[] family)
+	{
+		NavigableMap<byte[], byte[]> columns = value.getFamilyMap(family);
+		return columns != null && !columns.isEmpty();
+	}
+
+	private void mapRecommended(Result value, Context context) throws IOException, InterruptedException
+	{
+		KeyValue userKV = value.getColumnLatest(COLUMN_RECOMMENDED, ModelConstants.USER);
+		KeyValue collectionKV = value.getColumnLatest(COLUMN_RECOMMENDED, ModelConstants.COLLECTION);
+		if (userKV == null || collectionKV == null)
+		{
+			LOG.error("no key-value " + Bytes.toString(userKV == null ? ModelConstants.USER : ModelConstants.COLLECTION)
+					+ " for " + Bytes.toStringBinary(value.getRow()));
+			return;
+		}
+
+		long user = Bytes.toLong(userKV.getValue());
+		String collection = Bytes.toString(collectionKV.getValue());
+		counts.add(outKey.set(Type.RECOMMENDED_USER, collection, null, user, 0), 1);
+
+		KeyValue itemKV = value.getColumnLatest(COLUMN_RECOMMENDED, ModelConstants.ITEM);
+		if (itemKV != null)
+		{
+			long item = Bytes.toLong(itemKV.getValue());
+			counts.add(outKey.set(Type.RECOMMENDED_ITEM, collection, null, user, item), 1);
+		}
+		else
+		{
+			LOG.error("no key-value " + Bytes.toString(ModelConstants.ITEM) + " for "
+					+ Bytes.toStringBinary(value.getRow()));
+		}
+	}
+}
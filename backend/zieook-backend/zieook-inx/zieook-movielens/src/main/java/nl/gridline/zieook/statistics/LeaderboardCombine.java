@@ -15,42 +15,43 @@
  * KIND, either express or implied.  See the License for the
  * specific language governing permissions and limitations
  */
-package nl.gridline.free.taalserver;
+package nl.gridline.zieook.statistics;
 
 import java.io.IOException;
-import java.util.Iterator;
 
-import org.apache.hadoop.io.LongWritable;
-import org.apache.hadoop.io.NullWritable;
+import nl.gridline.zieook.statistics.io.RankedGroup;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.mapreduce.Reducer;
-import org.apache.mahout.math.VarIntWritable;
-import org.apache.mahout.math.VarLongWritable;
 
 /**
- * Count the documents reduce
+ * Cuts the candidates of a top list down to the list size before they're sent to the {@link LeaderboardReduce}
  * <p />
- * Project hadoop-taalserver<br />
- * CountDocumentsReduce.java created 21 mrt. 2011
+ * Project zieook-movielens<br />
+ * LeaderboardCombine.java created 18 okt. 2026
  * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
  * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision: 1341 $, $Date: 2011-03-23 12:16:55 +0100 (wo, 23 mrt 2011) $
+ * @version $Revision$, $Date$
  */
-public class CountDocumentsReduce extends Reducer<LongWritable, VarLongWritable, VarIntWritable, NullWritable>
+public class LeaderboardCombine extends
+		Reducer<ImmutableBytesWritable, RankedGroup, ImmutableBytesWritable, RankedGroup>
 {
+	private int size;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		size = context.getConfiguration().getInt(LeaderboardReduce.SIZE, LeaderboardReduce.DEFAULT_SIZE);
+	}
 
 	@Override
-	protected void reduce(LongWritable key, java.lang.Iterable<VarLongWritable> values, Context context)
+	protected void reduce(ImmutableBytesWritable key, Iterable<RankedGroup> values, Context context)
 			throws IOException, InterruptedException
 	{
-		int numberOfDocuments = 0;
-		Iterator<VarLongWritable> i = values.iterator();
-		while (i.hasNext()) // VarLongWritable writable : values)
+		for (Object value : LeaderboardReduce.top(values, size).getValues())
 		{
-			numberOfDocuments++;
-			i.next();
+			context.write(key, (RankedGroup) value);
 		}
-		context.write(new VarIntWritable(numberOfDocuments), NullWritable.get());
-		context.progress();
-	};
+	}
 }
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.Leaderboards;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.model.GroupedData;
+import nl.gridline.zieook.statistics.io.RankedGroup;
+import nl.gridline.zieook.statistics.popularity.PopularityStatistics;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Reads the statistics rows written by the other statistics jobs and sends each row to the top lists it's part of:
+ * one per time window (see {@link PopularityStatistics#TYPES}) that contains the date of the row, and the
+ * {@link Leaderboards#ALL} list.
+ * <p />
+ * Project zieook-movielens<br />
+ * LeaderboardMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LeaderboardMap extends TableMapper<ImmutableBytesWritable, RankedGroup>
+{
+	public static final byte[] STATS_VIEWED_ITEM = Bytes.toBytes(HBaseTableConstants.STATS_VIEWED_ITEM);
+	public static final byte[] STATS_VIEWED_SOURCE = Bytes.toBytes(HBaseTableConstants.STATS_VIEWED_SOURCE);
+	public static final byte[] STATS_ITEM_RATINGS = Bytes.toBytes(HBaseTableConstants.STATS_ITEM_RATINGS);
+
+	private final ImmutableBytesWritable keyOut = new ImmutableBytesWritable();
+	private final RankedGroup valueOut = new RankedGroup();
+
+	private SortedMap<Long, String> windows;
+	private long now;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		Configuration config = context.getConfiguration();
+		String types = config.get(PopularityStatistics.TYPES);
+		String nowStr = config.get(PopularityStatistics.NOW);
+		if (types == null || nowStr == null)
+		{
+			throw new IOException("no time windows set, please set '" + PopularityStatistics.TYPES + "' and '"
+					+ PopularityStatistics.NOW + "' in the context");
+		}
+		windows = PopularityStatistics.getTypes(types);
+		now = Long.parseLong(nowStr);
+	}
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		write(context, value, STATS_VIEWED_ITEM, Leaderboards.VIEWED);
+		write(context, value, STATS_VIEWED_SOURCE, Leaderboards.SOURCES);
+		write(context, value, STATS_ITEM_RATINGS, Leaderboards.RATED);
+	}
+
+	private void write(Context context, Result value, byte[] family, String list) throws IOException,
+			InterruptedException
+	{
+		NavigableMap<byte[], byte[]> columns = value.getFamilyMap(family);
+		if (columns == null || columns.isEmpty())
+		{
+			return;
+		}
+
+		GroupedData data = new GroupedData(columns);
+		String scope = getScope(list, data);
+		if (scope == null || data.getCount() == null)
+		{
+			return;
+		}
+
+		valueOut.setValues(data.getCount().longValue(), value.getRow(), columns);
+
+		keyOut.set(RowKeys.getStatLeaderboardKey(list, scope, Leaderboards.ALL));
+		context.write(keyOut, valueOut);
+
+		Long date = data.getDate();
+		if (date != null && date.longValue() <= now)
+		{
+			for (Map.Entry<Long, String> window : windows.entrySet())
+			{
+				if (date.longValue() >= now - window.getKey().longValue())
+				{
+					keyOut.set(RowKeys.getStatLeaderboardKey(list, scope, window.getValue()));
+					context.write(keyOut, valueOut);
+				}
+			}
+		}
+		context.progress();
+	}
+
+	private static String getScope(String list, GroupedData data)
+	{
+		if (Leaderboards.VIEWED.equals(list) || Leaderboards.SOURCES.equals(list))
+		{
+			return data.getRecommender();
+		}
+		if (Leaderboards.RATED.equals(list))
+		{
+			return data.getCollection();
+		}
+		return null;
+	}
+}
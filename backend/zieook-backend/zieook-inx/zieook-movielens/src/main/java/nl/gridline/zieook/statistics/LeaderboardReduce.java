@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.Leaderboards;
+import nl.gridline.zieook.mapreduce.TopK;
+import nl.gridline.zieook.statistics.io.RankedGroup;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableReducer;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Writes one top list row, see {@link Leaderboards}
+ * <p />
+ * Project zieook-movielens<br />
+ * LeaderboardReduce.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LeaderboardReduce extends TableReducer<ImmutableBytesWritable, RankedGroup, ImmutableBytesWritable>
+{
+	public static final String DATE = "nl.gridline.zieook.statistics.storage-date";
+	public static final String SIZE = LeaderboardReduce.class.getName() + ".size";
+	public static final int DEFAULT_SIZE = 100;
+
+	private static final byte[] STATS_LEADERBOARD = Bytes.toBytes(HBaseTableConstants.STATS_LEADERBOARD);
+
+	private long date;
+	private int size;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		Configuration config = context.getConfiguration();
+
+		String dateStr = config.get(DATE);
+		if (dateStr == null)
+		{
+			throw new IOException("no date set, please set '" + DATE + "' in the context");
+		}
+
+		date = Long.parseLong(dateStr);
+		size = config.getInt(SIZE, DEFAULT_SIZE);
+	}
+
+	@Override
+	protected void reduce(ImmutableBytesWritable key, Iterable<RankedGroup> values, Context context)
+			throws IOException, InterruptedException
+	{
+		List<Object> top = top(values, size).getValues();
+		List<NavigableMap<byte[], byte[]>> ranked = new ArrayList<NavigableMap<byte[], byte[]>>(top.size());
+		for (Object value : top)
+		{
+			ranked.add(((RankedGroup) value).getColumns());
+		}
+		byte[] row = Arrays.copyOfRange(key.get(), key.getOffset(), key.getOffset() + key.getLength());
+		context.write(key, Leaderboards.createPut(row, STATS_LEADERBOARD, ranked, size, date));
+	}
+
+	/**
+	 * @return the best <tt>size</tt> values, ordered like the top lists of the data API
+	 */
+	static TopK top(Iterable<RankedGroup> values, int size)
+	{
+		TopK top = new TopK(size);
+		for (RankedGroup value : values)
+		{
+			if (top.accepts(value.getScore()))
+			{
+				// hadoop reuses the value object, keep a copy:
+				top.offer(value.getScore(), value.getRow(),
+						new RankedGroup().setValues(value.getScore(), value.getRow(), value.getColumns()));
+			}
+		}
+		return top;
+	}
+}
@@ -21,6 +21,8 @@ import java.io.IOException;
 
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.model.ModelConstants;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
+import nl.gridline.zieook.statistics.io.StatisticsKey.Type;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -32,54 +34,41 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 
 /**
- * Top rated: de top-n items met de meeste ratings per collectie<br />
- * <b>map</b><br />
- * <b>in:</b> Rating object<br />
- * <b>out:</b> item,1 (for all ratings.<br />
- * <br />
- * <b>reduce</b>
- * <b>in:</b> item,[1,1,...]<br />
- * <b>out:</b> GroupedData(item,date,count)<br />
+ * Single scan over the ratings of a collection for the ratings per item and the ratings per user, written by the
+ * {@link StatisticsReduce}. Replaces RatingsPerCollectionItemMap and RatingsPerCPUserMap.
+ * <p />
+ * The counts are aggregated in the mapper, see {@link StatisticsCounts}.
  * <p />
  * Project zieook-movielens<br />
- * RatingsPerCollectionMap.java created 2 nov. 2011
+ * RatingsStatisticsMap.java created 18 okt. 2026
  * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
  * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
- * @see RatingsPerCollectionItemReduce
+ * @version $Revision$, $Date$
  */
-public class RatingsPerCollectionItemMap extends TableMapper<LongWritable, LongWritable>
+public class RatingsStatisticsMap extends TableMapper<StatisticsKey, LongWritable>
 {
-	private static final Log LOG = LogFactory.getLog(RatingsPerCollectionItemMap.class);
+	private static final Log LOG = LogFactory.getLog(RatingsStatisticsMap.class);
 
-	private final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
 
-	private final LongWritable outValue = new LongWritable(1);
-	private final LongWritable outKey = new LongWritable();
+	private final StatisticsKey outKey = new StatisticsKey();
+	private StatisticsCounts counts;
 
 	@Override
 	protected void setup(Context context) throws IOException, InterruptedException
 	{
-		// read cp
-
-	};
+		counts = new StatisticsCounts(context.getConfiguration());
+	}
 
 	@Override
 	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
 			InterruptedException
 	{
-
-		// group by rating: value.getColumn(COLUMN_RATING, ModelConstants.RATING);
 		KeyValue item = value.getColumnLatest(COLUMN_RATING, ModelConstants.ITEM);
 		if (item != null)
 		{
-
-			long itemId = Bytes.toLong(item.getValue());
-			LOG.debug("map: <" + itemId + ",1>");
-			outKey.set(itemId);
-			context.write(outKey, outValue);
-			context.progress();
+			counts.add(outKey.set(Type.ITEM_RATINGS, null, null, 0, Bytes.toLong(item.getValue())), 1);
 		}
 		else
 		{
@@ -87,6 +76,26 @@ public class RatingsPerCollectionItemMap extends TableMapper<LongWritable, LongW
 					+ Bytes.toStringBinary(value.getRow()));
 		}
 
-	};
+		KeyValue user = value.getColumnLatest(COLUMN_RATING, ModelConstants.USER);
+		if (user != null)
+		{
+			counts.add(outKey.set(Type.USER_RATINGS, null, null, Bytes.toLong(user.getValue()), 0), 1);
+		}
+		else
+		{
+			LOG.error("no key-value " + Bytes.toString(ModelConstants.USER) + " for "
+					+ Bytes.toStringBinary(value.getRow()));
+		}
+		if (counts.isFull())
+		{
+			counts.flush(context);
+		}
+		context.progress();
+	}
 
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		counts.flush(context);
+	}
 }
@@ -15,40 +15,40 @@
  * KIND, either express or implied.  See the License for the
  * specific language governing permissions and limitations
  */
-package nl.gridline.free.taalserver;
+package nl.gridline.zieook.statistics;
 
 import java.io.IOException;
 
-import nl.gridline.free.taalserver.writable.WordDocId;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
 
-import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.Reducer;
 
 /**
- * Round - 2: WordCount
+ * Sums the counts of the statistics mappers before they're sent to the {@link StatisticsReduce}, merges the counts of
+ * the flushes of the in-mapper aggregation, see {@link StatisticsCounts}
  * <p />
- * Project hadoop-freetaalserver<br />
- * WordCountReduce.java created Sep 12, 2011
+ * Project zieook-movielens<br />
+ * StatisticsCombine.java created 18 okt. 2026
  * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
  * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
+ * @version $Revision$, $Date$
  */
-public class WordCountReduce extends Reducer<WordDocId, LongWritable, WordDocId, IntWritable>
+public class StatisticsCombine extends Reducer<StatisticsKey, LongWritable, StatisticsKey, LongWritable>
 {
+	private final LongWritable outValue = new LongWritable();
+
 	@Override
-	protected void reduce(WordDocId keyIn, Iterable<LongWritable> values, Context context) throws IOException,
+	protected void reduce(StatisticsKey key, Iterable<LongWritable> values, Context context) throws IOException,
 			InterruptedException
 	{
-		int count = 0;
-
-		for (LongWritable v : values)
+		long count = 0;
+		for (LongWritable value : values)
 		{
-			count += (int) v.get();
+			count += value.get();
 		}
-
-		context.write(keyIn, new IntWritable(count));
-		context.progress();
-	};
+		outValue.set(count);
+		context.write(key, outValue);
+	}
 }
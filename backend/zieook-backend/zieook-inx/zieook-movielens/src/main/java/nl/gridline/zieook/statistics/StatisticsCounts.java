@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.mapreduce.InMapperCounts;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+/**
+ * In-mapper aggregation of the {@link StatisticsKey} counts of the statistics mappers. The id of the key (the item of
+ * the per item statistics, the user of the per user statistics) is counted in a primitive map per group, the group is
+ * the rest of the key.
+ * <p />
+ * Project zieook-movielens<br />
+ * StatisticsCounts.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class StatisticsCounts extends InMapperCounts<StatisticsKey>
+{
+	private final StatisticsKey group = new StatisticsKey();
+
+	/**
+	 * @param conf job configuration, reads {@link InMapperCounts#MAX_ENTRIES}
+	 */
+	public StatisticsCounts(Configuration conf)
+	{
+		super(conf.getInt(MAX_ENTRIES, DEFAULT_MAX_ENTRIES));
+	}
+
+	/**
+	 * Add a count
+	 * @param key the key, may be reused by the caller
+	 * @param count the count
+	 */
+	public void add(StatisticsKey key, long count)
+	{
+		switch (key.getType())
+		{
+			case VIEWS :
+			case RECOMMENDED_ITEM :
+			case ITEM_RATINGS :
+				group.set(key.getType(), key.getName(), key.getSource(), key.getUser(), 0);
+				add(group, key.getItem(), count);
+				break;
+			case RECOMMENDED_USER :
+			case USER_RATINGS :
+				group.set(key.getType(), key.getName(), key.getSource(), 0, key.getItem());
+				add(group, key.getUser(), count);
+				break;
+			default :
+				add(key, 0, count);
+				break;
+		}
+	}
+
+	/**
+	 * Write all counts to the context and clear
+	 * @param context mapper context
+	 */
+	public void flush(final TaskInputOutputContext<?, ?, StatisticsKey, LongWritable> context) throws IOException,
+			InterruptedException
+	{
+		final StatisticsKey outKey = new StatisticsKey();
+		final LongWritable outValue = new LongWritable();
+		flush(new Emitter<StatisticsKey>()
+		{
+			@Override
+			public void emit(StatisticsKey key, long id, long count) throws IOException, InterruptedException
+			{
+				outValue.set(count);
+				context.write(getKey(outKey, key, id), outValue);
+			}
+		});
+	}
+
+	/**
+	 * Returns the full key of an id in a group
+	 * @param outKey the key to set
+	 * @param group the group
+	 * @param id the id
+	 * @return outKey
+	 */
+	static StatisticsKey getKey(StatisticsKey outKey, StatisticsKey group, long id)
+	{
+		switch (group.getType())
+		{
+			case VIEWS :
+			case RECOMMENDED_ITEM :
+			case ITEM_RATINGS :
+				return outKey.set(group.getType(), group.getName(), group.getSource(), group.getUser(), id);
+			case RECOMMENDED_USER :
+			case USER_RATINGS :
+				return outKey.set(group.getType(), group.getName(), group.getSource(), id, group.getItem());
+			default :
+				return outKey.set(group.getType(), group.getName(), group.getSource(), group.getUser(),
+						group.getItem());
+		}
+	}
+
+	@Override
+	protected StatisticsKey copy(StatisticsKey key)
+	{
+		return new StatisticsKey().set(key.getType(), key.getName(), key.getSource(), key.getUser(), key.getItem());
+	}
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 
 import nl.gridline.zieook.mapreduce.HBasePUTFactory;
 import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,27 +31,21 @@ import org.apache.hadoop.hbase.mapreduce.TableReducer;
 import org.apache.hadoop.io.LongWritable;
 
 /**
- * Top rated: de top-n items met de meeste ratings per collectie<br />
- * <b>map</b><br />
- * <b>in:</b> Rating object<br />
- * <b>out:</b> item,1 (for all ratings.<br />
- * <br />
- * <b>reduce</b>
- * <b>in:</b> item,[1,1,...]<br />
- * <b>out:</b> GroupedData(item,date,count)<br />
+ * Reducer of the fused statistics jobs ({@link EventLogStatisticsMap}, {@link RatingsStatisticsMap}): sums the counts
+ * of a {@link StatisticsKey} and routes the result to the column family of the statistic, all in the statistics
+ * table.
  * <p />
  * Project zieook-movielens<br />
- * RatingsPerCollectionReduce.java created 2 nov. 2011
+ * StatisticsReduce.java created 18 okt. 2026
  * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
  * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
- * @see RatingsPerCollectionItemMap
+ * @version $Revision$, $Date$
  */
-public class RatingsPerCollectionItemReduce extends TableReducer<LongWritable, LongWritable, LongWritable>
+public class StatisticsReduce extends TableReducer<StatisticsKey, LongWritable, StatisticsKey>
 {
+	private static final Log LOG = LogFactory.getLog(StatisticsReduce.class);
 
-	private static final Log LOG = LogFactory.getLog(RatingsPerCollectionItemReduce.class);
 	public static final String DATE = "nl.gridline.zieook.statistics.storage-date";
 
 	private long date;
@@ -60,7 +55,6 @@ public class RatingsPerCollectionItemReduce extends TableReducer<LongWritable, L
 	protected void setup(Context context) throws IOException, InterruptedException
 	{
 		Configuration config = context.getConfiguration();
-
 		String dateStr = config.get(DATE);
 		if (dateStr == null)
 		{
@@ -68,20 +62,45 @@ public class RatingsPerCollectionItemReduce extends TableReducer<LongWritable, L
 		}
 		date = Long.parseLong(dateStr);
 		collection = config.get(TaskConfig.COLLECTION);
-	};
+	}
 
 	@Override
-	protected void reduce(LongWritable key, Iterable<LongWritable> values, Context context) throws IOException,
+	protected void reduce(StatisticsKey key, Iterable<LongWritable> values, Context context) throws IOException,
 			InterruptedException
 	{
-		long item = key.get();
 		long count = 0;
 		for (LongWritable v : values)
 		{
 			count += v.get();
 		}
-		Put put = HBasePUTFactory.putStatisticsItemRatings(collection, item, date, count);
-		LOG.debug("reduce  <[" + item + "," + date + "]," + count + ">");
+
+		final Put put;
+		switch (key.getType())
+		{
+			case SOURCES :
+				put = HBasePUTFactory.putStatisticsSources(key.getName(), key.getSource(), date, count);
+				break;
+			case VIEWS :
+				put = HBasePUTFactory.putStatisticsItemViews(key.getName(), key.getItem(), date, count);
+				break;
+			case RECOMMENDED_ITEM :
+				put = HBasePUTFactory.putRecommendedUser(key.getName(), key.getUser(), key.getItem(), count, date);
+				break;
+			case RECOMMENDED_USER :
+				put = HBasePUTFactory.putRecommendedCollectionUser(key.getName(), key.getUser(), count, date);
+				break;
+			case ITEM_RATINGS :
+				put = HBasePUTFactory.putStatisticsItemRatings(collection, key.getItem(), date, count);
+				break;
+			case USER_RATINGS :
+				put = HBasePUTFactory.putStatisticsRatingsUser(collection, key.getUser(), date, count);
+				break;
+			default :
+				throw new IOException("unknown statistic: " + key);
+		}
+
+		LOG.debug("reduce <" + key + "," + count + ">");
 		context.write(key, put);
-	};
+		context.progress();
+	}
 }
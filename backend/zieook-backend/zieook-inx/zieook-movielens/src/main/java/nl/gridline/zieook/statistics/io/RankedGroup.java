@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Writable;
+
+/**
+ * A statistics row on its way to a top list: the score it's ranked by, its row key and its columns.
+ * <p />
+ * Project zieook-movielens<br />
+ * RankedGroup.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RankedGroup implements Writable
+{
+	private long score;
+	private byte[] row;
+	private NavigableMap<byte[], byte[]> columns;
+
+	public RankedGroup()
+	{
+
+	}
+
+	public RankedGroup setValues(long score, byte[] row, NavigableMap<byte[], byte[]> columns)
+	{
+		this.score = score;
+		this.row = row;
+		this.columns = columns;
+		return this;
+	}
+
+	public long getScore()
+	{
+		return score;
+	}
+
+	public byte[] getRow()
+	{
+		return row;
+	}
+
+	public NavigableMap<byte[], byte[]> getColumns()
+	{
+		return columns;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.hadoop.io.Writable#write(java.io.DataOutput)
+	 */
+	@Override
+	public void write(DataOutput out) throws IOException
+	{
+		out.writeLong(score);
+		Bytes.writeByteArray(out, row);
+		out.writeInt(columns.size());
+		for (Map.Entry<byte[], byte[]> entry : columns.entrySet())
+		{
+			Bytes.writeByteArray(out, entry.getKey());
+			Bytes.writeByteArray(out, entry.getValue());
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
+	 */
+	@Override
+	public void readFields(DataInput in) throws IOException
+	{
+		// always new instances, a top list keeps references to them:
+		score = in.readLong();
+		row = Bytes.readByteArray(in);
+		int size = in.readInt();
+		columns = new TreeMap<byte[], byte[]>(Bytes.BYTES_COMPARATOR);
+		for (int i = 0; i < size; i++)
+		{
+			columns.put(Bytes.readByteArray(in), Bytes.readByteArray(in));
+		}
+	}
+}
@@ -1,190 +0,0 @@
-/**
- * Licensed to the Apache Software Foundation (ASF) under one
- * or more contributor license agreements.  See the NOTICE file
- * distributed with this work for additional information
- * regarding copyright ownership.  The ASF licenses this file
- * to you under the Apache License, Version 2.0 (the
- * "License"); you may not use this file except in compliance
- * with the License.  You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing,
- * software distributed under the License is distributed on an
- * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- * KIND, either express or implied.  See the License for the
- * specific language governing permissions and limitations
- */
-package nl.gridline.zieook.statistics.io;
-
-import java.io.DataInput;
-import java.io.DataOutput;
-import java.io.IOException;
-
-import org.apache.hadoop.io.WritableComparable;
-
-/**
- * [purpose]
- * <p />
- * Project zieook-movielens<br />
- * RecommenderSource.java created 4 nov. 2011
- * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
- * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
- */
-public class RecommenderSource implements WritableComparable<RecommenderSource>, Cloneable
-{
-	private String recommender;
-	private String source;
-
-	public RecommenderSource()
-	{
-
-	}
-
-	public RecommenderSource(String recommender, String source)
-	{
-		this.recommender = recommender;
-		this.source = source;
-	}
-
-	public void setValues(String recommender, String source)
-	{
-		this.recommender = recommender;
-		this.source = source;
-	}
-
-	public String getRecommender()
-	{
-		return recommender;
-	}
-
-	public String getSource()
-	{
-		return source;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#clone()
-	 */
-	@Override
-	protected Object clone() throws CloneNotSupportedException
-	{
-		return new RecommenderSource(recommender, source);
-	}
-
-	@Override
-	public String toString()
-	{
-		return new StringBuilder().append('<').append(recommender).append(',').append(source).append('>').toString();
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.apache.hadoop.io.Writable#write(java.io.DataOutput)
-	 */
-	@Override
-	public void write(DataOutput out) throws IOException
-	{
-		out.writeUTF(recommender);
-		out.writeUTF(source);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
-	 */
-	@Override
-	public void readFields(DataInput in) throws IOException
-	{
-		recommender = in.readUTF();
-		source = in.readUTF();
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Comparable#compareTo(java.lang.Object)
-	 */
-	@Override
-	public int compareTo(RecommenderSource o)
-	{
-		if (o == null)
-		{
-			throw new NullPointerException("cannot compare to null");
-		}
-		int result = recommender.compareTo(o.recommender);
-		if (result == 0)
-		{
-			return source.compareTo(o.source);
-		}
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#hashCode()
-	 */
-	@Override
-	public int hashCode()
-	{
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((recommender == null) ? 0 : recommender.hashCode());
-		result = prime * result + ((source == null) ? 0 : source.hashCode());
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#equals(java.lang.Object)
-	 */
-	@Override
-	public boolean equals(Object obj)
-	{
-		if (this == obj)
-		{
-			return true;
-		}
-		if (obj == null)
-		{
-			return false;
-		}
-		if (getClass() != obj.getClass())
-		{
-			return false;
-		}
-		RecommenderSource other = (RecommenderSource) obj;
-		if (recommender == null)
-		{
-			if (other.recommender != null)
-			{
-				return false;
-			}
-		}
-		else if (!recommender.equals(other.recommender))
-		{
-			return false;
-		}
-		if (source == null)
-		{
-			if (other.source != null)
-			{
-				return false;
-			}
-		}
-		else if (!source.equals(other.source))
-		{
-			return false;
-		}
-		return true;
-	}
-
-}
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.io.WritableComparable;
+
+/**
+ * Tagged key of the fused statistics jobs: the statistic ({@link Type}) and the fields it is grouped by. Unused fields
+ * are empty or 0. Replaces the RecommenderSource, RecommenderItem, UserCollection and UserCollectionItem keys of the
+ * separate jobs, see {@link nl.gridline.zieook.statistics.StatisticsReduce}.
+ * <p />
+ * Project zieook-movielens<br />
+ * StatisticsKey.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class StatisticsKey implements WritableComparable<StatisticsKey>
+{
+	/**
+	 * the statistics, with the fields they use
+	 */
+	public enum Type
+	{
+		/**
+		 * views per recommender and source: name = recommender, source
+		 */
+		SOURCES,
+
+		/**
+		 * views per recommender and item: name = recommender, item
+		 */
+		VIEWS,
+
+		/**
+		 * recommendations of an item to a user: name = collection, user, item
+		 */
+		RECOMMENDED_ITEM,
+
+		/**
+		 * recommendations to a user: name = collection, user
+		 */
+		RECOMMENDED_USER,
+
+		/**
+		 * ratings per item: item
+		 */
+		ITEM_RATINGS,
+
+		/**
+		 * ratings per user: user
+		 */
+		USER_RATINGS
+	}
+
+	private static final Type[] TYPES = Type.values();
+
+	private Type type;
+	private String name = "";
+	private String source = "";
+	private long user;
+	private long item;
+
+	public StatisticsKey()
+	{
+		// no-arg constructor
+	}
+
+	/**
+	 * Set all fields of the key
+	 * @param type the statistic
+	 * @param name recommender or collection name, null if not used
+	 * @param source source, null if not used
+	 * @param user user id, 0 if not used
+	 * @param item item id, 0 if not used
+	 * @return this
+	 */
+	public StatisticsKey set(Type type, String name, String source, long user, long item)
+	{
+		this.type = type;
+		this.name = name == null ? "" : name;
+		this.source = source == null ? "" : source;
+		this.user = user;
+		this.item = item;
+		return this;
+	}
+
+	public Type getType()
+	{
+		return type;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public String getSource()
+	{
+		return source;
+	}
+
+	public long getUser()
+	{
+		return user;
+	}
+
+	public long getItem()
+	{
+		return item;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException
+	{
+		out.writeByte(type.ordinal());
+		out.writeUTF(name);
+		out.writeUTF(source);
+		out.writeLong(user);
+		out.writeLong(item);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException
+	{
+		type = TYPES[in.readByte()];
+		name = in.readUTF();
+		source = in.readUTF();
+		user = in.readLong();
+		item = in.readLong();
+	}
+
+	@Override
+	public int compareTo(StatisticsKey o)
+	{
+		int r = type.compareTo(o.type);
+		if (r == 0)
+		{
+			r = name.compareTo(o.name);
+		}
+		if (r == 0)
+		{
+			r = source.compareTo(o.source);
+		}
+		if (r == 0)
+		{
+			r = user < o.user ? -1 : (user == o.user ? 0 : 1);
+		}
+		if (r == 0)
+		{
+			r = item < o.item ? -1 : (item == o.item ? 0 : 1);
+		}
+		return r;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + type.ordinal();
+		result = prime * result + name.hashCode();
+		result = prime * result + source.hashCode();
+		result = prime * result + (int) (user ^ (user >>> 32));
+		result = prime * result + (int) (item ^ (item >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+		{
+			return true;
+		}
+		if (!(obj instanceof StatisticsKey))
+		{
+			return false;
+		}
+		return compareTo((StatisticsKey) obj) == 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder().append('<').append(type).append(',').append(name).append(',').append(source)
+				.append(',').append(user).append(',').append(item).append('>').toString();
+	}
+}
@@ -1,194 +0,0 @@
-/**
- * Licensed to the Apache Software Foundation (ASF) under one
- * or more contributor license agreements.  See the NOTICE file
- * distributed with this work for additional information
- * regarding copyright ownership.  The ASF licenses this file
- * to you under the Apache License, Version 2.0 (the
- * "License"); you may not use this file except in compliance
- * with the License.  You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing,
- * software distributed under the License is distributed on an
- * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- * KIND, either express or implied.  See the License for the
- * specific language governing permissions and limitations
- */
-package nl.gridline.zieook.statistics.io;
-
-import java.io.DataInput;
-import java.io.DataOutput;
-import java.io.IOException;
-
-import org.apache.hadoop.io.WritableComparable;
-
-/**
- * [purpose]
- * <p />
- * Project zieook-movielens<br />
- * UserCollection.java created 4 nov. 2011
- * <p />
- * Copyright, all rights reserved 2011 GridLine Amsterdam
- * @author <a href="mailto:job@gridline.nl">Job</a>
- * @version $Revision:$, $Date:$
- */
-public class UserCollection implements WritableComparable<UserCollection>, Cloneable
-{
-
-	private long user;
-	private String collection;
-
-	public UserCollection()
-	{
-
-	}
-
-	public UserCollection(String collection, long user)
-	{
-		this.collection = collection;
-		this.user = user;
-	}
-
-	public UserCollection setData(String collection, long user)
-	{
-		this.collection = collection;
-		this.user = user;
-		return this;
-	}
-
-	public long getUser()
-	{
-		return user;
-	}
-
-	public String getCollection()
-	{
-		return collection;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#clone()
-	 */
-	@Override
-	protected Object clone() throws CloneNotSupportedException
-	{
-		return new UserCollection(collection, user);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.apache.hadoop.io.Writable#write(java.io.DataOutput)
-	 */
-	@Override
-	public void write(DataOutput out) throws IOException
-	{
-		out.writeUTF(collection);
-		out.writeLong(user);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.apache.hadoop.io.Writable#readFields(java.io.DataInput)
-	 */
-	@Override
-	public void readFields(DataInput in) throws IOException
-	{
-		collection = in.readUTF();
-		user = in.readLong();
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Comparable#compareTo(java.lang.Object)
-	 */
-	@Override
-	public int compareTo(UserCollection o)
-	{
-		if (o == null)
-		{
-			throw new NullPointerException("cannot compare to null");
-		}
-		int result = collection.compareTo(o.collection);
-		if (result == 0)
-		{
-			if (user < o.user)
-			{
-				return -1;
-			}
-			else if (user > o.user)
-			{
-				return 1;
-			}
-			return 0;
-
-		}
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#hashCode()
-	 */
-	@Override
-	public int hashCode()
-	{
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((collection == null) ? 0 : collection.hashCode());
-		result = prime * result + (int) (user ^ (user >>> 32));
-		return result;
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#equals(java.lang.Object)
-	 */
-	@Override
-	public boolean equals(Object obj)
-	{
-		if (this == obj)
-		{
-			return true;
-		}
-		if (obj == null)
-		{
-			return false;
-		}
-		if (getClass() != obj.getClass())
-		{
-			return false;
-		}
-		UserCollection other = (UserCollection) obj;
-		if (collection == null)
-		{
-			if (other.collection != null)
-			{
-				return false;
-			}
-		}
-		else if (!collection.equals(other.collection))
-		{
-			return false;
-		}
-		if (user != other.user)
-		{
-			return false;
-		}
-		return true;
-	}
-
-	@Override
-	public String toString()
-	{
-		return new StringBuilder("<collection,user>=<").append(collection).append(',').append(user).append('>')
-				.toString();
-	}
-}
@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics.popularity;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.mapreduce.HBasePUTFactory;
+import nl.gridline.zieook.statistics.popularity.io.ItemTime;
+
+import org.apache.hadoop.hbase.mapreduce.TableReducer;
+import org.apache.hadoop.io.LongWritable;
+
+/**
+ * Writes the number of ratings per item per day (the time of the key) as a bucket in the statistics table. A day that
+ * is counted again replaces its previous bucket, so a run can safely recount the day it stopped in.
+ * <p />
+ * Project zieook-movielens<br />
+ * PopularityBucketReduce.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class PopularityBucketReduce extends TableReducer<ItemTime, LongWritable, ItemTime>
+{
+	@Override
+	protected void reduce(ItemTime key, Iterable<LongWritable> values, Context context) throws IOException,
+			InterruptedException
+	{
+		long count = 0;
+		for (LongWritable value : values)
+		{
+			count += value.get();
+		}
+		context.write(key,
+				HBasePUTFactory.putStatisticsPopularityDay(key.getCollection(), key.getItem(), key.getTime(), count));
+	};
+}
@@ -19,13 +19,15 @@ package nl.gridline.zieook.statistics.popularity;
 
 import java.io.IOException;
 
+import nl.gridline.zieook.mapreduce.LongCounts;
 import nl.gridline.zieook.statistics.popularity.io.ItemTime;
 
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.Mapper;
 
 /**
- * [purpose]
+ * Sums the rating counts per time span (popularity type), the sums are kept in the mapper and written in the
+ * cleanup: one record per type per mapper.
  * <p />
  * Project zieook-movielens<br />
  * PopularityCountMap.java created 13 dec. 2011
@@ -42,10 +44,22 @@ public class PopularityCountMap extends Mapper<ItemTime, LongWritable, LongWrita
 	LongWritable outKey = new LongWritable();
 	LongWritable outValue = new LongWritable();
 
+	private final LongCounts counts = new LongCounts();
+
 	@Override
 	protected void map(ItemTime key, LongWritable value, Context context) throws IOException, InterruptedException
 	{
-		outKey.set(key.getTime());
-		context.write(outKey, value);
+		counts.add(key.getTime(), value.get());
 	};
+
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		for (int i = counts.next(0); i >= 0; i = counts.next(i + 1))
+		{
+			outKey.set(counts.getKey(i));
+			outValue.set(counts.getValue(i));
+			context.write(outKey, outValue);
+		}
+	}
 }
@@ -18,10 +18,9 @@
 package nl.gridline.zieook.statistics.popularity;
 
 import java.io.IOException;
-import java.util.Collection;
-import java.util.Map;
 
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.InMapperCounts;
 import nl.gridline.zieook.mapreduce.RowKeys;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.statistics.popularity.io.ItemTime;
@@ -36,7 +35,10 @@ import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 
 /**
- * [purpose]
+ * Counts the ratings per item per day, the input are the ratings since the previous run. The counts are aggregated in
+ * the mapper per collection and day, so the shuffle carries one record per item and day per flush instead of one per
+ * rating. The days are written as buckets by {@link PopularityBucketReduce} and summed into the popularity spans by
+ * {@link PopularityRollupMap}.
  * <p />
  * Project zieook-movielens<br />
  * PopularityMap.java created 13 dec. 2011
@@ -53,38 +55,34 @@ public class PopularityMap extends TableMapper<ItemTime, LongWritable>
 	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
 
 	private final ItemTime ratedItem = new ItemTime();
-	private final LongWritable one = new LongWritable(1);
+	private final ItemTime group = new ItemTime();
+	private final LongWritable outValue = new LongWritable();
 
-	private Collection<Long> types;
-	private Map<Long, String> typeMap;
-	private long now;
+	private InMapperCounts<ItemTime> counts;
+	private InMapperCounts.Emitter<ItemTime> emitter;
 
 	@Override
 	protected void setup(Context context) throws IOException, InterruptedException
 	{
-
-		String types = context.getConfiguration().get(PopularityStatistics.TYPES);
-		if (types == null)
+		counts = new InMapperCounts<ItemTime>(context.getConfiguration().getInt(InMapperCounts.MAX_ENTRIES,
+				InMapperCounts.DEFAULT_MAX_ENTRIES))
 		{
-			throw new IOException("failed to read <" + PopularityStatistics.TYPES + "> please set the configuration item");
-		}
-
-		now = context.getConfiguration().getLong(PopularityStatistics.NOW, Long.MIN_VALUE);
-		if (now == Long.MIN_VALUE)
-		{
-			throw new IOException("failed to read <" + PopularityStatistics.NOW + "> please set the configuration item");
-		}
-
-		typeMap = PopularityStatistics.getTypes(types);
-
-		this.types = typeMap.keySet();
-		LOG.info("setting now to: " + now);
-		LOG.info("types: '" + types + "' split into " + this.types.size() + " items");
-		for (Map.Entry<Long, String> entry : typeMap.entrySet())
+			@Override
+			protected ItemTime copy(ItemTime key)
+			{
+				return new ItemTime(key.getItem(), key.getCollection(), key.getTime());
+			}
+		};
+		final Context out = context;
+		emitter = new InMapperCounts.Emitter<ItemTime>()
 		{
-			LOG.info(entry.getValue() + " <" + (now - entry.getKey()) + "," + now + ">");
-		}
-
+			@Override
+			public void emit(ItemTime key, long item, long count) throws IOException, InterruptedException
+			{
+				outValue.set(count);
+				out.write(ratedItem.set(item, key.getCollection(), key.getTime()), outValue);
+			}
+		};
 	};
 
 	@Override
@@ -148,17 +146,18 @@ public class PopularityMap extends TableMapper<ItemTime, LongWritable>
 		// remark, we check for null-ness of the collection string, as this can be obtained through the fallback:
 		if (itemKV != null && dateKV != null && collection != null)
 		{
-			for (long type : types)
+			counts.add(group.set(0, collection, PopularityStatistics.getDay(date)), item, 1);
+			if (counts.isFull())
 			{
-				final long earliest = now - type;
-				if (date > earliest && date < now)
-				{
-					context.write(ratedItem.set(item, collection, type), one);
-				}
+				counts.flush(emitter);
 			}
-
 		}
 		context.progress();
-		// write ratings with: itemid-timerange
 	};
+
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException
+	{
+		counts.flush(emitter);
+	}
 }
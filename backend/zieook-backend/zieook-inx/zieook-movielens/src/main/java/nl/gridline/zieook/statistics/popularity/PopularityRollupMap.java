@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics.popularity;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.statistics.popularity.io.ItemTime;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.LongWritable;
+
+/**
+ * Sums the daily rating buckets of an item (one row, written by {@link PopularityBucketReduce}) into the popularity
+ * spans: a bucket counts for a span if its day starts within the span. Buckets older than the largest span are
+ * skipped, they expire with the time to live of the family. The output is one record per item and span, the input
+ * of {@link PopularityCountMap} and {@link PopularityScoreMap}.
+ * <p />
+ * Project zieook-movielens<br />
+ * PopularityRollupMap.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class PopularityRollupMap extends TableMapper<ItemTime, LongWritable>
+{
+	private static final Log LOG = LogFactory.getLog(PopularityRollupMap.class);
+
+	private final ItemTime outKey = new ItemTime();
+	private final LongWritable outValue = new LongWritable();
+
+	private String collection;
+	private long now;
+	private long[] spans;
+	private long[] sums;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException
+	{
+		String types = context.getConfiguration().get(PopularityStatistics.TYPES);
+		if (types == null)
+		{
+			throw new IOException("failed to read <" + PopularityStatistics.TYPES + "> please set the configuration item");
+		}
+
+		now = context.getConfiguration().getLong(PopularityStatistics.NOW, Long.MIN_VALUE);
+		if (now == Long.MIN_VALUE)
+		{
+			throw new IOException("failed to read <" + PopularityStatistics.NOW + "> please set the configuration item");
+		}
+
+		collection = context.getConfiguration().get(TaskConfig.COLLECTION);
+		if (collection == null)
+		{
+			throw new IOException("failed to read <" + TaskConfig.COLLECTION + "> please set the configuration item");
+		}
+
+		SortedMap<Long, String> typeMap = PopularityStatistics.getTypes(types);
+		spans = new long[typeMap.size()];
+		sums = new long[spans.length];
+		int i = 0;
+		for (Map.Entry<Long, String> entry : typeMap.entrySet())
+		{
+			spans[i++] = entry.getKey();
+			LOG.info(entry.getValue() + " <" + (now - entry.getKey()) + "," + now + ">");
+		}
+	};
+
+	@Override
+	protected void map(ImmutableBytesWritable key, Result value, Context context) throws IOException,
+			InterruptedException
+	{
+		Arrays.fill(sums, 0);
+		for (KeyValue kv : value.raw())
+		{
+			add(spans, sums, now, Bytes.toLong(kv.getQualifier()), Bytes.toLong(kv.getValue()));
+		}
+
+		final long item = RowKeys.getStatsPopularityDayItem(value.getRow());
+		for (int i = 0; i < spans.length; i++)
+		{
+			if (sums[i] > 0)
+			{
+				outValue.set(sums[i]);
+				context.write(outKey.set(item, collection, spans[i]), outValue);
+			}
+		}
+		context.progress();
+	};
+
+	/**
+	 * Add the count of a day bucket to the sum of every span the day starts in
+	 * @param spans span lengths in ms
+	 * @param sums sums per span
+	 * @param now end of the spans
+	 * @param day start of the day bucket
+	 * @param count number of ratings on that day
+	 */
+	static void add(long[] spans, long[] sums, long now, long day, long count)
+	{
+		if (day >= now)
+		{
+			return;
+		}
+		for (int i = 0; i < spans.length; i++)
+		{
+			if (day >= now - spans[i])
+			{
+				sums[i] += count;
+			}
+		}
+	}
+}
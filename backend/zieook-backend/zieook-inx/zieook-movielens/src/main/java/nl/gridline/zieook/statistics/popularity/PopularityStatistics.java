@@ -53,6 +53,21 @@ public class PopularityStatistics
 	public static final String TYPES_COUNT = PopularityStatistics.class.getName() + ".types-count";
 	public static final String NOW = PopularityMap.class.getName() + ".now";
 
+	/**
+	 * length of the rating count buckets the popularity spans are summed from: a day in ms
+	 */
+	public static final long DAY = 24 * 60 * 60 * 1000L;
+
+	/**
+	 * Returns the bucket of a rating: the start of its (UTC) day
+	 * @param time rating time in ms
+	 * @return start of the day in ms
+	 */
+	public static long getDay(long time)
+	{
+		return time - (time % DAY);
+	}
+
 	/**
 	 * parse a String into a map of long,string:
 	 * @param types
@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.InMapperCounts;
+import nl.gridline.zieook.model.ModelConstants;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
+import nl.gridline.zieook.statistics.io.StatisticsKey.Type;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Map output of the ratings statistics ({@link RatingsStatisticsMap}) with and without the in-mapper aggregation of
+ * {@link StatisticsCounts}: the counts should add up to the number of ratings, in fewer records. The input is a small
+ * skewed sample of ratings, read by a few mappers: once as serialised map output and once by the mapper itself in a
+ * local job, which compares the map output bytes the shuffle gets.
+ * <p />
+ * Project zieook-movielens<br />
+ * StatisticsCountsTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class StatisticsCountsTest
+{
+	private static final int RATINGS = 20000;
+	private static final int USERS = 600;
+	private static final int ITEMS = 370;
+	private static final int MAPPERS = 4;
+
+	// the map output counters of the local job runner:
+	private static final String TASK_COUNTERS = "org.apache.hadoop.mapred.Task$Counter";
+	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+
+	private File dir;
+
+	@Before
+	public void setUp()
+	{
+		dir = new File(System.getProperty("java.io.tmpdir"), "statistics-counts-" + System.nanoTime());
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		FileSystem.getLocal(new Configuration()).delete(new Path(dir.getAbsolutePath()), true);
+	}
+
+	@Test
+	public void testCounts() throws IOException, InterruptedException
+	{
+		long[] naive = shuffle(0);
+		long[] aggregated = shuffle(InMapperCounts.DEFAULT_MAX_ENTRIES);
+		// a small bound flushes often, but still reduces the output (the combiner does the rest):
+		long[] bounded = shuffle(100);
+
+		// the counts add up to the number of ratings for both statistics:
+		assertEquals(2L * RATINGS, naive[2]);
+		assertEquals(2L * RATINGS, aggregated[2]);
+		assertEquals(2L * RATINGS, bounded[2]);
+
+		assertEquals(2L * RATINGS, naive[0]);
+		assertTrue(aggregated[0] <= MAPPERS * (USERS + ITEMS));
+		assertTrue(aggregated[1] < naive[1]);
+		assertTrue(bounded[0] < naive[0]);
+		assertTrue(bounded[0] >= aggregated[0]);
+	}
+
+	@Test
+	public void testMapOutput() throws Exception
+	{
+		Configuration conf = new Configuration();
+		conf.set("fs.default.name", "file:///");
+		conf.set("mapred.job.tracker", "local");
+		conf.set("hadoop.tmp.dir", new File(dir, "tmp").getAbsolutePath());
+		Path input = writeRatings(conf, new Path(dir.getAbsolutePath(), "ratings"));
+
+		// a single entry flushes every count, like the mapper did before the aggregation:
+		Job naive = runRatingsStatistics(conf, input, new Path(dir.getAbsolutePath(), "naive"), 1);
+		Job aggregated = runRatingsStatistics(conf, input, new Path(dir.getAbsolutePath(), "aggregated"),
+				InMapperCounts.DEFAULT_MAX_ENTRIES);
+
+		Counters before = naive.getCounters();
+		Counters after = aggregated.getCounters();
+		assertEquals(2L * RATINGS, before.findCounter(TASK_COUNTERS, "MAP_OUTPUT_RECORDS").getValue());
+		assertTrue(after.findCounter(TASK_COUNTERS, "MAP_OUTPUT_RECORDS").getValue() <= MAPPERS * (USERS + ITEMS));
+		long bytesBefore = before.findCounter(TASK_COUNTERS, "MAP_OUTPUT_BYTES").getValue();
+		long bytesAfter = after.findCounter(TASK_COUNTERS, "MAP_OUTPUT_BYTES").getValue();
+		assertTrue(bytesBefore > 0);
+		assertTrue("map output bytes " + bytesAfter + " should be well below " + bytesBefore,
+				bytesAfter * 4 < bytesBefore);
+
+		// same statistics, the counts add up to the number of ratings for both:
+		Map<StatisticsKey, Long> expected = readCounts(conf, new Path(dir.getAbsolutePath(), "naive"));
+		long total = 0;
+		for (Long count : expected.values())
+		{
+			total += count;
+		}
+		assertEquals(2L * RATINGS, total);
+		assertEquals(expected, readCounts(conf, new Path(dir.getAbsolutePath(), "aggregated")));
+	}
+
+	private static Job runRatingsStatistics(Configuration conf, Path input, Path output, int maxEntries)
+			throws Exception
+	{
+		Job job = new Job(new Configuration(conf));
+		job.setJobName("statistics counts test");
+		job.getConfiguration().setInt(InMapperCounts.MAX_ENTRIES, maxEntries);
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		FileInputFormat.addInputPath(job, input);
+		job.setMapperClass(RatingsStatisticsMap.class);
+		job.setMapOutputKeyClass(StatisticsKey.class);
+		job.setMapOutputValueClass(LongWritable.class);
+		job.setCombinerClass(StatisticsCombine.class);
+		job.setReducerClass(StatisticsCombine.class);
+		job.setOutputKeyClass(StatisticsKey.class);
+		job.setOutputValueClass(LongWritable.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+		FileOutputFormat.setOutputPath(job, output);
+		assertTrue(job.waitForCompletion(false));
+		return job;
+	}
+
+	/**
+	 * Writes the ratings as the rows a table mapper reads, a file per mapper
+	 */
+	private static Path writeRatings(Configuration conf, Path input) throws IOException
+	{
+		FileSystem fs = FileSystem.getLocal(conf);
+		Random random = new Random(42);
+		ImmutableBytesWritable row = new ImmutableBytesWritable();
+		for (int m = 0; m < MAPPERS; m++)
+		{
+			SequenceFile.Writer writer = SequenceFile.createWriter(fs, conf, new Path(input, "part-" + m),
+					ImmutableBytesWritable.class, Result.class);
+			try
+			{
+				for (int i = 0; i < RATINGS / MAPPERS; i++)
+				{
+					long item = 1 + (long) (ITEMS * Math.pow(random.nextDouble(), 3));
+					long user = 1 + (long) (USERS * Math.pow(random.nextDouble(), 2));
+					byte[] key = Bytes.add(Bytes.toBytes(user), Bytes.toBytes(item));
+					KeyValue[] kvs = new KeyValue[]{
+							new KeyValue(key, COLUMN_RATING, ModelConstants.ITEM, Bytes.toBytes(item)),
+							new KeyValue(key, COLUMN_RATING, ModelConstants.USER, Bytes.toBytes(user))};
+					Arrays.sort(kvs, KeyValue.COMPARATOR);
+					row.set(key);
+					writer.append(row, new Result(kvs));
+				}
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		return input;
+	}
+
+	private static Map<StatisticsKey, Long> readCounts(Configuration conf, Path output) throws IOException
+	{
+		FileSystem fs = FileSystem.getLocal(conf);
+		Map<StatisticsKey, Long> result = new HashMap<StatisticsKey, Long>();
+		for (FileStatus status : fs.listStatus(output))
+		{
+			if (!status.getPath().getName().startsWith("part-"))
+			{
+				continue;
+			}
+			SequenceFile.Reader reader = new SequenceFile.Reader(fs, status.getPath(), conf);
+			try
+			{
+				StatisticsKey key = new StatisticsKey();
+				LongWritable value = new LongWritable();
+				while (reader.next(key, value))
+				{
+					result.put(key, value.get());
+					key = new StatisticsKey();
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Serialises the map output of the ratings, as the shuffle would
+	 * @param maxEntries maximum in-mapper entries, 0 writes every rating
+	 * @return records, bytes and the sum of the counts
+	 */
+	private static long[] shuffle(int maxEntries) throws IOException, InterruptedException
+	{
+		final long[] result = new long[3];
+		final DataOutputBuffer buffer = new DataOutputBuffer();
+		final StatisticsKey outKey = new StatisticsKey();
+		final LongWritable outValue = new LongWritable();
+
+		Configuration conf = new Configuration(false);
+		conf.setInt(InMapperCounts.MAX_ENTRIES, maxEntries);
+		StatisticsCounts counts = new StatisticsCounts(conf);
+		InMapperCounts.Emitter<StatisticsKey> emitter = new InMapperCounts.Emitter<StatisticsKey>()
+		{
+			@Override
+			public void emit(StatisticsKey group, long id, long count) throws IOException
+			{
+				buffer.reset();
+				StatisticsCounts.getKey(outKey, group, id).write(buffer);
+				outValue.set(count);
+				outValue.write(buffer);
+				result[0]++;
+				result[1] += buffer.getLength();
+				result[2] += count;
+			}
+		};
+
+		StatisticsKey key = new StatisticsKey();
+		Random random = new Random(42);
+		for (int i = 0; i < RATINGS; i++)
+		{
+			long item = 1 + (long) (ITEMS * Math.pow(random.nextDouble(), 3));
+			long user = 1 + (long) (USERS * Math.pow(random.nextDouble(), 2));
+
+			if (maxEntries == 0)
+			{
+				emitter.emit(key.set(Type.ITEM_RATINGS, null, null, 0, 0), item, 1);
+				emitter.emit(key.set(Type.USER_RATINGS, null, null, 0, 0), user, 1);
+				continue;
+			}
+			counts.add(key.set(Type.ITEM_RATINGS, null, null, 0, item), 1);
+			counts.add(key.set(Type.USER_RATINGS, null, null, user, 0), 1);
+			// end of a mapper:
+			if (counts.isFull() || (i + 1) % (RATINGS / MAPPERS + 1) == 0)
+			{
+				counts.flush(emitter);
+			}
+		}
+		counts.flush(emitter);
+		return result;
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.statistics.popularity;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the popularity spans summed from daily buckets, counted incrementally over a number of runs, equal the
+ * spans counted directly from the ratings.
+ * <p />
+ * Project zieook-movielens<br />
+ * PopularityRollupMapTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class PopularityRollupMapTest
+{
+	private static final long DAY = PopularityStatistics.DAY;
+
+	// day, week, 3 months, 6 months, year:
+	private static final long[] SPANS = {DAY, 7 * DAY, 7884000000L, 15768000000L, 365 * DAY};
+
+	@Test
+	public void testIncremental()
+	{
+		Random random = new Random(42);
+		long first = PopularityStatistics.getDay(1300000000000L);
+		long[] ratings = new long[20000];
+		for (int i = 0; i < ratings.length; i++)
+		{
+			ratings[i] = first + (long) (random.nextDouble() * 500 * DAY);
+		}
+
+		// the buckets as in the table, a recount of a day replaces the bucket:
+		Map<Long, Long> buckets = new HashMap<Long, Long>();
+		long counted = Long.MIN_VALUE;
+
+		// a run every midnight, and some in between:
+		for (long end = first + 10 * DAY; end < first + 500 * DAY; end += (end % 3 == 0 ? DAY / 3 : DAY))
+		{
+			long from = PopularityStatistics.getDay(Math.max(counted, end - SPANS[SPANS.length - 1]));
+			Map<Long, Long> recount = new HashMap<Long, Long>();
+			for (long rating : ratings)
+			{
+				if (rating >= from && rating < end)
+				{
+					Long day = PopularityStatistics.getDay(rating);
+					Long count = recount.get(day);
+					recount.put(day, count == null ? 1 : count + 1);
+				}
+			}
+			buckets.putAll(recount);
+			counted = Math.max(counted, end);
+
+			if (end % DAY == 0)
+			{
+				long[] sums = new long[SPANS.length];
+				for (Map.Entry<Long, Long> bucket : buckets.entrySet())
+				{
+					PopularityRollupMap.add(SPANS, sums, end, bucket.getKey(), bucket.getValue());
+				}
+				assertArrayEquals(count(ratings, end), sums);
+			}
+		}
+	}
+
+	private static long[] count(long[] ratings, long end)
+	{
+		long[] result = new long[SPANS.length];
+		for (long rating : ratings)
+		{
+			for (int i = 0; i < SPANS.length; i++)
+			{
+				// the spans of whole days:
+				if (rating >= PopularityStatistics.getDay(end - SPANS[i] + DAY - 1) && rating < end)
+				{
+					result[i]++;
+				}
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.configuration.Config;
+import nl.gridline.zieook.mapreduce.BulkLoadOutputFormat;
+import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.tasks.ZieOokTask;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.HFileOutputFormat;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
+import org.apache.hadoop.hbase.mapreduce.TableReducer;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the output of a table reducer either directly to the table (<tt>TableOutputFormat</tt>) or, in bulk load
+ * mode, as HFiles that are loaded into the table when the job is done. Bulk load mode is chosen per task with
+ * {@link TaskConfig#OUTPUT_BULKLOAD}, the default is {@link Config#HBASE_BULKLOAD}.
+ * <p />
+ * In bulk load mode the reducer writes its puts and deletes as cells (see {@link BulkLoadOutputFormat}), a second job
+ * sorts the cells into one HFile per region and column family, the files are moved into the regions by
+ * <tt>LoadIncrementalHFiles</tt>. The region servers only have to open the new files, instead of handling a put for
+ * every row. The HFiles are moved, so the region servers need write access to the work directory.
+ * <p />
+ * Project zieook-runner<br />
+ * HFileBulkLoad.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public final class HFileBulkLoad
+{
+	private static final Logger LOG = LoggerFactory.getLogger(HFileBulkLoad.class);
+
+	private HFileBulkLoad()
+	{
+		// hide constructor
+	}
+
+	/**
+	 * Returns true if the task writes its output tables through a bulk load
+	 * @param config task configuration
+	 * @return true for bulk load mode
+	 */
+	public static boolean isEnabled(TaskConfig config)
+	{
+		return config.getBoolean(TaskConfig.OUTPUT_BULKLOAD,
+				Config.getInstance().getBoolean(Config.HBASE_BULKLOAD, false));
+	}
+
+	/**
+	 * Set the output of the job to the given table, see <tt>TableMapReduceUtil.initTableReducerJob</tt>
+	 * @param table output table
+	 * @param reducer table reducer
+	 * @param job the job
+	 * @param bulkLoad if true, the reducer writes cells to a work directory that are loaded by
+	 *           {@link #waitForCompletion(ZieOokTask, Configuration, Job, boolean)}
+	 * @throws IOException
+	 */
+	@SuppressWarnings("rawtypes")
+	public static void initTableReducerJob(String table, Class<? extends TableReducer> reducer, Job job,
+			boolean bulkLoad) throws IOException
+	{
+		if (!bulkLoad)
+		{
+			TableMapReduceUtil.initTableReducerJob(table, reducer, job);
+			return;
+		}
+
+		Config zieook = Config.getInstance();
+		Path work = new Path(zieook.get(Config.ZIEOOK_HDFS_SERVER) + zieook.get(Config.ZIEOOK_HDFS_PATH), "bulkload/"
+				+ table + "/" + System.currentTimeMillis());
+
+		job.getConfiguration().set(BulkLoadOutputFormat.TABLE, table);
+		job.setReducerClass(reducer);
+		job.setOutputFormatClass(BulkLoadOutputFormat.class);
+		job.setOutputKeyClass(ImmutableBytesWritable.class);
+		job.setOutputValueClass(Writable.class);
+		FileOutputFormat.setOutputPath(job, new Path(work, "cells"));
+	}
+
+	/**
+	 * Run the job and, if it's set up for a bulk load, sort its output into HFiles and load them into the table.
+	 * Cancelling the task stops the job that is running, the table is only changed by the final load.
+	 * @param task the task, that runs the jobs
+	 * @param conf base configuration of the sort job
+	 * @param job job prepared with {@link #initTableReducerJob(String, Class, Job, boolean)}
+	 * @param verbose print the progress of the jobs
+	 * @return true if the jobs succeeded and the output is in the table
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ClassNotFoundException
+	 */
+	public static boolean waitForCompletion(ZieOokTask task, Configuration conf, Job job, boolean verbose)
+			throws IOException, InterruptedException, ClassNotFoundException
+	{
+		if (!task.setCurrentJob(job).waitForCompletion(verbose))
+		{
+			return false;
+		}
+		String table = job.getConfiguration().get(BulkLoadOutputFormat.TABLE);
+		if (table == null)
+		{
+			return true;
+		}
+
+		Path cells = FileOutputFormat.getOutputPath(job);
+		Path work = cells.getParent();
+		Path hfiles = new Path(work, "hfiles");
+		HTable htable = new HTable(HBaseConfiguration.create(conf), table);
+		try
+		{
+			Job sort = new Job(new Configuration(conf));
+			sort.setJobName(job.getJobName() + "-HFiles");
+			sort.setInputFormatClass(SequenceFileInputFormat.class);
+			sort.setMapperClass(Mapper.class);
+			sort.setMapOutputKeyClass(ImmutableBytesWritable.class);
+			sort.setMapOutputValueClass(KeyValue.class);
+			FileInputFormat.setInputPaths(sort, cells);
+			FileOutputFormat.setOutputPath(sort, hfiles);
+
+			// total order partitioner on the region start keys, one reducer per region:
+			HFileOutputFormat.configureIncrementalLoad(sort, htable);
+
+			if (!task.setCurrentJob(sort).waitForCompletion(verbose))
+			{
+				return false;
+			}
+
+			LOG.info("loading HFiles into <{}>", table);
+			new LoadIncrementalHFiles(htable.getConfiguration()).doBulkLoad(hfiles, htable);
+			return true;
+		}
+		finally
+		{
+			htable.close();
+			work.getFileSystem(conf).delete(work, true);
+			LOG.debug("cleanup <{}>", work);
+		}
+	}
+}
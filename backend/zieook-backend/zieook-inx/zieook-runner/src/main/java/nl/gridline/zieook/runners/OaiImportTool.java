@@ -34,6 +34,8 @@ import nl.gridline.zieook.inx.movielens.categories.CategoriesExtractReduce;
 import nl.gridline.zieook.inx.movielens.categories.CategoriesImportMap;
 import nl.gridline.zieook.inx.movielens.categories.CategoriesImportReduce;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
@@ -42,9 +44,6 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
@@ -276,15 +275,14 @@ public class OaiImportTool extends ZieOokRunnerTool
 				CategoriesImportMap.class, Text.class, Put.class, CategoriesImportReduce.class);
 		importCategories.getConfiguration().set(TaskConfig.COLLECTION, task.getConfig().get(TaskConfig.COLLECTION));
 
-		result = task.setCurrentJob(importCategories).waitForCompletion(LOG.isDebugEnabled());
+		result = waitForTableOutput(importCategories, LOG.isDebugEnabled());
 
 		return result;
 	}
 
 	private Scan getScanner(String collection)
 	{
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		return new Scan().addFamily(INTR).setFilter(filter);
+		return ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(INTR).mapreduce().build();
 	}
 
 	private Long parseDate(String date)
@@ -340,11 +340,50 @@ public abstract class ZieOokRunnerTool extends Configured implements Tool
 		job.setMapOutputKeyClass(mapperKey);
 		job.setMapOutputValueClass(mapperValue);
 
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), reducer, job);
+		initTableReducerJob(getOutputTable(), reducer, job);
 
 		return job;
 	}
 
+	/**
+	 * Returns true if the output tables of this task are written through a bulk load, see {@link HFileBulkLoad}
+	 * @return true for bulk load mode
+	 */
+	protected boolean isBulkLoad()
+	{
+		return HFileBulkLoad.isEnabled(getTaskConfiguration());
+	}
+
+	/**
+	 * Set the output of the job to the given table, through a bulk load if {@link #isBulkLoad()}. Run the job with
+	 * {@link #waitForTableOutput(Job, boolean)}
+	 * @param table output table
+	 * @param reducer table reducer
+	 * @param job the job
+	 * @throws IOException
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void initTableReducerJob(String table, Class<? extends TableReducer> reducer, Job job)
+			throws IOException
+	{
+		HFileBulkLoad.initTableReducerJob(table, reducer, job, isBulkLoad());
+	}
+
+	/**
+	 * Run a job that writes to a table, in bulk load mode the output is loaded into the table afterwards
+	 * @param job job prepared with {@link #initTableReducerJob(String, Class, Job)}
+	 * @param verbose print the progress of the job
+	 * @return true if the job succeeded
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ClassNotFoundException
+	 */
+	protected boolean waitForTableOutput(Job job, boolean verbose) throws IOException, InterruptedException,
+			ClassNotFoundException
+	{
+		return HFileBulkLoad.waitForCompletion(task, getConf(), job, verbose);
+	}
+
 	/**
 	 * Generates a nice Job name: class-mapper.class-reducer.class
 	 * @param job
@@ -0,0 +1,605 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners.cf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.gridline.zieook.inx.movielens.RowSimilarityZieOok;
+
+import org.apache.mahout.cf.taste.hadoop.TasteHadoopUtils;
+import org.apache.mahout.math.RandomAccessSparseVector;
+import org.apache.mahout.math.SequentialAccessSparseVector;
+import org.apache.mahout.math.Vector;
+import org.apache.mahout.math.hadoop.similarity.Cooccurrence;
+import org.apache.mahout.math.hadoop.similarity.vector.DistributedVectorSimilarity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the item-item similarities of {@link ItemSimilarityJobZieook} within one JVM, for collections that are too
+ * small to be worth a chain of map reduce jobs. The steps are the same: the preferences of a user are pruned to at
+ * most <tt>maxCooccurrencesPerItem</tt> items (as the <tt>MaybePruneRowsMapper</tt> does, users are processed in
+ * ascending order), the same {@link DistributedVectorSimilarity} is applied to the co-occurrences of every pair of
+ * items and the <tt>maxSimilaritiesPerItem + 1</tt> most similar items (including the item itself) are kept. Rows
+ * are indexed by {@link TasteHadoopUtils#idToIndex(long)} just like the rows of the similarity matrix.
+ * <p />
+ * The preferences are kept in primitive arrays (compressed rows by user and by item), the rows are computed by a
+ * fixed number of threads that take the next item from a shared counter.
+ * <p />
+ * Project zieook-runner<br />
+ * InMemoryItemSimilarity.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class InMemoryItemSimilarity
+{
+	private static final Logger LOG = LoggerFactory.getLogger(InMemoryItemSimilarity.class);
+
+	/**
+	 * Receives the computed rows, called from several threads at the same time
+	 */
+	public interface RowHandler
+	{
+		/**
+		 * @param item row index of the item
+		 * @param similarities the most similar items, including the item itself
+		 * @throws IOException
+		 */
+		void row(int item, Vector similarities) throws IOException;
+	}
+
+	private final String similarityClassname;
+	private final int maxSimilaritiesPerItem;
+	private final int maxCooccurrencesPerItem;
+	private final boolean booleanData;
+
+	// preferences as added:
+	private long[] users = new long[1024];
+	private long[] items = new long[1024];
+	private float[] values = new float[1024];
+	private int size;
+
+	// built by prepare():
+	private int[] rows; // row index per item
+	private int[] columns; // column index per user
+	private int[] userStart;
+	private int[] userItems;
+	private float[] userValues;
+	private int[] itemStart;
+	private int[] itemUsers;
+	private float[] itemValues;
+	private double[] weights;
+
+	/**
+	 * @param similarityClassname class name of a {@link DistributedVectorSimilarity}
+	 * @param maxSimilaritiesPerItem maximum number of similar items per item
+	 * @param maxCooccurrencesPerItem maximum number of items per user that are taken into account
+	 * @param booleanData ignore the preference values
+	 */
+	public InMemoryItemSimilarity(String similarityClassname, int maxSimilaritiesPerItem, int maxCooccurrencesPerItem,
+			boolean booleanData)
+	{
+		this.similarityClassname = similarityClassname;
+		this.maxSimilaritiesPerItem = maxSimilaritiesPerItem;
+		this.maxCooccurrencesPerItem = maxCooccurrencesPerItem;
+		this.booleanData = booleanData;
+	}
+
+	/**
+	 * Add a preference, if a user has more than one preference for an item the last one is used
+	 * @param user user id
+	 * @param item item id
+	 * @param value preference value, stored as a float like the preferences of the map reduce job
+	 */
+	public void addPreference(long user, long item, float value)
+	{
+		if (size == users.length)
+		{
+			int capacity = size + (size >> 1);
+			users = Arrays.copyOf(users, capacity);
+			items = Arrays.copyOf(items, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		users[size] = user;
+		items[size] = item;
+		values[size] = booleanData ? 1.0f : value;
+		size++;
+	}
+
+	/**
+	 * @return number of preferences added
+	 */
+	public int getPreferenceCount()
+	{
+		return size;
+	}
+
+	/**
+	 * Compute the similar items of all items
+	 * @param threads number of threads
+	 * @param handler receives the rows
+	 * @return number of rows passed to the handler
+	 * @throws IOException if the handler fails
+	 * @throws InterruptedException
+	 */
+	public int compute(int threads, final RowHandler handler) throws IOException, InterruptedException
+	{
+		long start = System.currentTimeMillis();
+		prepare();
+		final int numberOfColumns = columns.length;
+		LOG.info("prepared {} items and {} users in {}ms", new Object[]{rows.length, numberOfColumns,
+				System.currentTimeMillis() - start});
+
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicInteger written = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<Object>> futures = new ArrayList<Future<Object>>(threads);
+			for (int i = 0; i < threads; i++)
+			{
+				futures.add(executor.submit(new Callable<Object>()
+				{
+					@Override
+					public Object call() throws Exception
+					{
+						Worker worker = new Worker(numberOfColumns);
+						int item;
+						while ((item = next.getAndIncrement()) < rows.length)
+						{
+							Vector row = worker.computeRow(item);
+							if (row != null)
+							{
+								handler.row(rows[item], row);
+								written.incrementAndGet();
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Object> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					// stop the other workers:
+					next.set(rows.length);
+					if (e.getCause() instanceof IOException)
+					{
+						throw (IOException) e.getCause();
+					}
+					throw new IllegalStateException("item similarity computation failed", e.getCause());
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		LOG.info("computed {} rows in {}ms", written.get(), System.currentTimeMillis() - start);
+		return written.get();
+	}
+
+	/**
+	 * Builds the pruned user and item rows and the item weights from the added preferences
+	 */
+	private void prepare()
+	{
+		// dense numbering of the users (by id) and items (by row index):
+		long[] userIds = distinct(Arrays.copyOf(users, size));
+		int[] itemIndex = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			itemIndex[i] = TasteHadoopUtils.idToIndex(items[i]);
+		}
+		rows = distinct(Arrays.copyOf(itemIndex, size));
+		columns = new int[userIds.length];
+		for (int u = 0; u < userIds.length; u++)
+		{
+			columns[u] = TasteHadoopUtils.idToIndex(userIds[u]);
+		}
+
+		int[] user = new int[size];
+		int[] item = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			user[i] = Arrays.binarySearch(userIds, users[i]);
+			item[i] = Arrays.binarySearch(rows, itemIndex[i]);
+		}
+
+		// order by item then (stable) by user, the items of a user are ordered and duplicates are adjacent:
+		int[] byItem = countingSort(identity(size), item, rows.length);
+		int[] byUser = countingSort(byItem, user, userIds.length);
+
+		// user rows, the last preference of duplicates wins:
+		int[] start = new int[userIds.length + 1];
+		int[] entries = new int[size];
+		float[] entryValues = new float[size];
+		int n = 0;
+		for (int k = 0; k < size; k++)
+		{
+			int p = byUser[k];
+			if (n > 0 && k > 0 && user[byUser[k - 1]] == user[p] && entries[n - 1] == item[p])
+			{
+				n--;
+			}
+			else
+			{
+				start[user[p] + 1]++;
+			}
+			entries[n] = item[p];
+			entryValues[n] = values[p];
+			n++;
+		}
+		for (int u = 0; u < userIds.length; u++)
+		{
+			start[u + 1] += start[u];
+		}
+
+		// prune the users with too many items, see MaybePruneRowsMapper:
+		int[] seen = new int[rows.length];
+		boolean[] pruned = new boolean[n];
+		int prunedUsers = 0;
+		for (int u = 0; u < userIds.length; u++)
+		{
+			for (int k = start[u]; k < start[u + 1]; k++)
+			{
+				seen[entries[k]]++;
+			}
+			int count = start[u + 1] - start[u];
+			if (count > maxCooccurrencesPerItem)
+			{
+				int[] counts = new int[count];
+				for (int k = 0; k < count; k++)
+				{
+					counts[k] = seen[entries[start[u] + k]];
+				}
+				Arrays.sort(counts);
+				// smallest count that keeps more than the maximum number of items:
+				int cutoff = counts[maxCooccurrencesPerItem];
+				for (int k = start[u]; k < start[u + 1]; k++)
+				{
+					pruned[k] = seen[entries[k]] > cutoff;
+				}
+				prunedUsers++;
+			}
+		}
+		LOG.debug("pruned the items of {} users", prunedUsers);
+
+		// compact user rows and transpose them into the item rows:
+		userStart = new int[userIds.length + 1];
+		itemStart = new int[rows.length + 1];
+		int kept = 0;
+		for (int u = 0; u < userIds.length; u++)
+		{
+			for (int k = start[u]; k < start[u + 1]; k++)
+			{
+				if (!pruned[k])
+				{
+					entries[kept] = entries[k];
+					entryValues[kept] = entryValues[k];
+					itemStart[entries[k] + 1]++;
+					kept++;
+				}
+			}
+			userStart[u + 1] = kept;
+		}
+		userItems = Arrays.copyOf(entries, kept);
+		userValues = Arrays.copyOf(entryValues, kept);
+
+		for (int r = 0; r < rows.length; r++)
+		{
+			itemStart[r + 1] += itemStart[r];
+		}
+		itemUsers = new int[kept];
+		itemValues = new float[kept];
+		int[] fill = Arrays.copyOf(itemStart, rows.length);
+		for (int u = 0; u < userIds.length; u++)
+		{
+			for (int k = userStart[u]; k < userStart[u + 1]; k++)
+			{
+				int pos = fill[userItems[k]]++;
+				itemUsers[pos] = u;
+				itemValues[pos] = userValues[k];
+			}
+		}
+
+		// weights of the item vectors:
+		DistributedVectorSimilarity similarity = RowSimilarityZieOok.instantiateSimilarity(similarityClassname);
+		weights = new double[rows.length];
+		for (int r = 0; r < rows.length; r++)
+		{
+			Vector vector = new RandomAccessSparseVector(Integer.MAX_VALUE, itemStart[r + 1] - itemStart[r]);
+			for (int k = itemStart[r]; k < itemStart[r + 1]; k++)
+			{
+				vector.setQuick(columns[itemUsers[k]], itemValues[k]);
+			}
+			weights[r] = similarity.weight(vector);
+		}
+	}
+
+	/**
+	 * Computes the rows of the items, one per thread
+	 */
+	private final class Worker
+	{
+		private final DistributedVectorSimilarity similarity;
+		private final int numberOfColumns;
+
+		private final int[] count = new int[rows.length];
+		private final int[] fill = new int[rows.length];
+		private final int[] touched = new int[rows.length];
+		private int[] cooccurrenceColumns = new int[1024];
+		private float[] valuesA = new float[1024];
+		private float[] valuesB = new float[1024];
+
+		Worker(int numberOfColumns)
+		{
+			this.similarity = RowSimilarityZieOok.instantiateSimilarity(similarityClassname);
+			this.numberOfColumns = numberOfColumns;
+		}
+
+		/**
+		 * @param item dense item number
+		 * @return the most similar items of the item, indexed by row index, or null if there are none
+		 */
+		Vector computeRow(int item)
+		{
+			// count the co-occurrences per other item:
+			int numTouched = 0;
+			for (int k = itemStart[item]; k < itemStart[item + 1]; k++)
+			{
+				int user = itemUsers[k];
+				for (int l = userStart[user]; l < userStart[user + 1]; l++)
+				{
+					if (count[userItems[l]]++ == 0)
+					{
+						touched[numTouched++] = userItems[l];
+					}
+				}
+			}
+			int total = 0;
+			for (int t = 0; t < numTouched; t++)
+			{
+				fill[touched[t]] = total;
+				total += count[touched[t]];
+			}
+			if (total > cooccurrenceColumns.length)
+			{
+				cooccurrenceColumns = new int[total];
+				valuesA = new float[total];
+				valuesB = new float[total];
+			}
+
+			// collect them, value A belongs to the lowest row index like the pairs of the CooccurrencesMapper:
+			for (int k = itemStart[item]; k < itemStart[item + 1]; k++)
+			{
+				int user = itemUsers[k];
+				float value = itemValues[k];
+				for (int l = userStart[user]; l < userStart[user + 1]; l++)
+				{
+					int other = userItems[l];
+					int pos = fill[other]++;
+					cooccurrenceColumns[pos] = columns[user];
+					valuesA[pos] = item <= other ? value : userValues[l];
+					valuesB[pos] = item <= other ? userValues[l] : value;
+				}
+			}
+
+			final int[] candidates = new int[numTouched];
+			final double[] similarities = new double[numTouched];
+			int numCandidates = 0;
+			for (int t = 0; t < numTouched; t++)
+			{
+				int other = touched[t];
+				int end = fill[other];
+				int begin = end - count[other];
+				count[other] = 0;
+
+				Cooccurrences cooccurrences = new Cooccurrences(begin, end);
+				double value;
+				if (item <= other)
+				{
+					value = similarity.similarity(rows[item], rows[other], cooccurrences, weights[item], weights[other],
+							numberOfColumns);
+				}
+				else
+				{
+					value = similarity.similarity(rows[other], rows[item], cooccurrences, weights[other], weights[item],
+							numberOfColumns);
+				}
+				if (!Double.isNaN(value))
+				{
+					candidates[numCandidates] = other;
+					similarities[numCandidates] = value;
+					numCandidates++;
+				}
+			}
+
+			// keep the most similar items:
+			Integer[] order = new Integer[numCandidates];
+			for (int c = 0; c < numCandidates; c++)
+			{
+				order[c] = c;
+			}
+			Arrays.sort(order, new Comparator<Integer>()
+			{
+				@Override
+				public int compare(Integer o1, Integer o2)
+				{
+					int result = Double.compare(similarities[o2], similarities[o1]);
+					return result != 0 ? result : candidates[o1] - candidates[o2];
+				}
+			});
+			int keep = Math.min(numCandidates, maxSimilaritiesPerItem + 1);
+			if (keep == 0)
+			{
+				// the similarity job does not write empty rows either:
+				return null;
+			}
+			// dense numbers are ordered like the row indexes, add the kept items in that order:
+			Arrays.sort(order, 0, keep, new Comparator<Integer>()
+			{
+				@Override
+				public int compare(Integer o1, Integer o2)
+				{
+					return candidates[o1] - candidates[o2];
+				}
+			});
+
+			Vector vector = new SequentialAccessSparseVector(Integer.MAX_VALUE, keep);
+			for (int c = 0; c < keep; c++)
+			{
+				vector.setQuick(rows[candidates[order[c]]], similarities[order[c]]);
+			}
+			return vector;
+		}
+
+		/**
+		 * The co-occurrences of a pair of items, the same instance is returned for every element
+		 */
+		private final class Cooccurrences implements Iterable<Cooccurrence>
+		{
+			private final int begin;
+			private final int end;
+
+			Cooccurrences(int begin, int end)
+			{
+				this.begin = begin;
+				this.end = end;
+			}
+
+			@Override
+			public Iterator<Cooccurrence> iterator()
+			{
+				return new Iterator<Cooccurrence>()
+				{
+					private final Cooccurrence cooccurrence = new Cooccurrence();
+					private int pos = begin;
+
+					@Override
+					public boolean hasNext()
+					{
+						return pos < end;
+					}
+
+					@Override
+					public Cooccurrence next()
+					{
+						if (pos >= end)
+						{
+							throw new NoSuchElementException();
+						}
+						cooccurrence.set(cooccurrenceColumns[pos], valuesA[pos], valuesB[pos]);
+						pos++;
+						return cooccurrence;
+					}
+
+					@Override
+					public void remove()
+					{
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		}
+	}
+
+	private static long[] distinct(long[] values)
+	{
+		Arrays.sort(values);
+		int n = 0;
+		for (int i = 0; i < values.length; i++)
+		{
+			if (n == 0 || values[n - 1] != values[i])
+			{
+				values[n++] = values[i];
+			}
+		}
+		return Arrays.copyOf(values, n);
+	}
+
+	private static int[] distinct(int[] values)
+	{
+		Arrays.sort(values);
+		int n = 0;
+		for (int i = 0; i < values.length; i++)
+		{
+			if (n == 0 || values[n - 1] != values[i])
+			{
+				values[n++] = values[i];
+			}
+		}
+		return Arrays.copyOf(values, n);
+	}
+
+	private static int[] identity(int size)
+	{
+		int[] result = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			result[i] = i;
+		}
+		return result;
+	}
+
+	/**
+	 * Stable sort of the positions by their key
+	 * @param positions positions to sort
+	 * @param keys key of every position, between 0 and <tt>numKeys</tt>
+	 * @param numKeys number of distinct keys
+	 * @return sorted positions
+	 */
+	private static int[] countingSort(int[] positions, int[] keys, int numKeys)
+	{
+		int[] start = new int[numKeys + 1];
+		for (int p : positions)
+		{
+			start[keys[p] + 1]++;
+		}
+		for (int k = 0; k < numKeys; k++)
+		{
+			start[k + 1] += start[k];
+		}
+		int[] result = new int[positions.length];
+		for (int p : positions)
+		{
+			result[start[keys[p]]++] = p;
+		}
+		return result;
+	}
+}
@@ -18,19 +18,29 @@
 package nl.gridline.zieook.runners.cf;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import nl.gridline.zieook.inx.movielens.MergeItemVectorsMapper;
+import nl.gridline.zieook.inx.movielens.MergeItemVectorsReducer;
+import nl.gridline.zieook.inx.movielens.PrefsToItemEntriesMapper;
+import nl.gridline.zieook.inx.movielens.PrefsToItemIDIndexMapper;
+import nl.gridline.zieook.inx.movielens.PrefsToItemPrefsMapper;
 import nl.gridline.zieook.inx.movielens.RowSimilarityZieOok;
+import nl.gridline.zieook.inx.movielens.ToItemEntriesMapper;
 import nl.gridline.zieook.inx.movielens.hbase.RecommendationsImportMap;
 import nl.gridline.zieook.inx.movielens.hbase.RecommendationsImportReduce;
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.runners.HFileBulkLoad;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Put;
-import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
@@ -94,8 +104,15 @@ import org.mortbay.log.Log;
  * <li>--maxSimilaritiesPerItem (integer): Maximum number of similarities considered per item (100)</li>
  * <li>--maxCooccurrencesPerItem (integer): Maximum number of cooccurrences considered per item (100)</li>
  * <li>--booleanData (boolean): Treat input data as having no pref values (false)</li>
+ * <li>--modelDir (path): directory that keeps the item-user matrix between two runs</li>
+ * <li>--incremental (boolean): the input only contains the preferences that changed since the previous run (false)</li>
  * </ol>
  * <p>
+ * An incremental run merges the changed preferences into the item-user matrix of the previous run and only recomputes
+ * the similarity rows of the items that have changed preferences, only those rows are rewritten in the output table.
+ * The similarities of the other items with the changed items are updated on the next full run.
+ * </p>
+ * <p>
  * General command line options are documented in {@link AbstractJob}.
  * </p>
  * <p>
@@ -116,12 +133,19 @@ public class ItemSimilarityJobZieook extends AbstractJob
 	static final String ITEM_ID_INDEX_PATH_STR = ItemSimilarityJob.class.getName() + ".itemIDIndexPathStr";
 	static final String MAX_SIMILARITIES_PER_ITEM = ItemSimilarityJob.class.getName() + ".maxSimilarItemsPerItem";
 
+	/**
+	 * name of the item-user matrix in the model directory
+	 */
+	public static final String MODEL_MATRIX = "itemUserMatrix";
+
 	private static final int DEFAULT_MAX_SIMILAR_ITEMS_PER_ITEM = 100;
 	private static final int DEFAULT_MAX_COOCCURRENCES_PER_ITEM = 100;
 	private static final int DEFAULT_MIN_PREFS_PER_USER = 1;
 
 	private final ZieOokTask task;
 
+	private boolean binaryInput;
+
 	public ItemSimilarityJobZieook(ZieOokTask task)
 	{
 		this.task = task;
@@ -147,6 +171,11 @@ public class ItemSimilarityJobZieook extends AbstractJob
 		addOption("minPrefsPerUser", "mp", "ignore users with less preferences than this " + "(default: "
 				+ DEFAULT_MIN_PREFS_PER_USER + ')', String.valueOf(DEFAULT_MIN_PREFS_PER_USER));
 		addOption("booleanData", "b", "Treat input as without pref values", Boolean.FALSE.toString());
+		addOption("modelDir", "md", "Directory that keeps the item-user matrix between runs");
+		addOption("incremental", "inc", "Input only contains the changed preferences, requires a model directory",
+				Boolean.FALSE.toString());
+		addOption("binaryInput", "bi", "Input is a sequence file of user ids and EntityPrefWritable preferences",
+				Boolean.FALSE.toString());
 
 		Map<String, String> parsedArgs = parseArguments(args);
 		if (parsedArgs == null)
@@ -159,6 +188,14 @@ public class ItemSimilarityJobZieook extends AbstractJob
 		int maxCooccurrencesPerItem = Integer.parseInt(parsedArgs.get("--maxCooccurrencesPerItem"));
 		int minPrefsPerUser = Integer.parseInt(parsedArgs.get("--minPrefsPerUser"));
 		boolean booleanData = Boolean.valueOf(parsedArgs.get("--booleanData"));
+		boolean incremental = Boolean.valueOf(parsedArgs.get("--incremental"));
+		binaryInput = Boolean.valueOf(parsedArgs.get("--binaryInput"));
+		String modelDir = parsedArgs.get("--modelDir");
+		Path modelMatrixPath = modelDir == null ? null : new Path(modelDir, MODEL_MATRIX);
+		if (incremental && modelMatrixPath == null)
+		{
+			throw new IllegalStateException("an incremental run needs the item-user matrix of a previous run");
+		}
 
 		Path inputPath = getInputPath();
 		// Path outputPath = getOutputPath();
@@ -170,23 +207,46 @@ public class ItemSimilarityJobZieook extends AbstractJob
 		Path userVectorPath = new Path(tempDirPath, "userVectors");
 		Path itemUserMatrixPath = new Path(tempDirPath, "itemUserMatrix");
 		Path similarityMatrixPath = new Path(tempDirPath, "similarityMatrix");
+		Path deltaVectorPath = new Path(tempDirPath, "deltaItemVectors");
+
+		if (incremental)
+		{
+			if (!mergeItemVectors(inputPath, modelMatrixPath, deltaVectorPath, itemUserMatrixPath, booleanData))
+			{
+				return -1;
+			}
+
+			// the number of users is counted from the merged matrix, only the rows of the changed items are computed:
+			computeSimilarities(itemUserMatrixPath, similarityMatrixPath, tempDirPath, -1, deltaVectorPath,
+					similarityClassName, maxSimilarItemsPerItem);
+			Job mostSimilarItems = prepareMostSimilarItems(similarityMatrixPath, outputTable);
+			if (!HFileBulkLoad.waitForCompletion(task, getConf(), mostSimilarItems, Log.isDebugEnabled()))
+			{
+				return -1;
+			}
+
+			storeModel(itemUserMatrixPath, modelMatrixPath);
+			return 0;
+		}
 
 		AtomicInteger currentPhase = new AtomicInteger();
 
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
 		{
-			Job itemIDIndex = prepareJob(inputPath, itemIDIndexPath, TextInputFormat.class, ItemIDIndexMapper.class,
-					VarIntWritable.class, VarLongWritable.class, ItemIDIndexReducer.class, VarIntWritable.class,
-					VarLongWritable.class, SequenceFileOutputFormat.class);
+			Job itemIDIndex = prepareJob(inputPath, itemIDIndexPath, getInputFormat(),
+					binaryInput ? PrefsToItemIDIndexMapper.class : ItemIDIndexMapper.class, VarIntWritable.class,
+					VarLongWritable.class, ItemIDIndexReducer.class, VarIntWritable.class, VarLongWritable.class,
+					SequenceFileOutputFormat.class);
 			itemIDIndex.setCombinerClass(ItemIDIndexReducer.class);
 			task.setCurrentJob(itemIDIndex).waitForCompletion(true);
 		}
 
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
 		{
-			Job toUserVector = prepareJob(inputPath, userVectorPath, TextInputFormat.class, ToItemPrefsMapper.class,
-					VarLongWritable.class, booleanData ? VarLongWritable.class : EntityPrefWritable.class,
-					ToUserVectorReducer.class, VarLongWritable.class, VectorWritable.class, SequenceFileOutputFormat.class);
+			Job toUserVector = prepareJob(inputPath, userVectorPath, getInputFormat(),
+					binaryInput ? PrefsToItemPrefsMapper.class : ToItemPrefsMapper.class, VarLongWritable.class,
+					booleanData ? VarLongWritable.class : EntityPrefWritable.class, ToUserVectorReducer.class,
+					VarLongWritable.class, VectorWritable.class, SequenceFileOutputFormat.class);
 			toUserVector.getConfiguration().setBoolean(RecommenderJob.BOOLEAN_DATA, booleanData);
 			toUserVector.getConfiguration().setInt(ToUserVectorReducer.MIN_PREFERENCES_PER_USER, minPrefsPerUser);
 			task.setCurrentJob(toUserVector).waitForCompletion(true);
@@ -214,24 +274,8 @@ public class ItemSimilarityJobZieook extends AbstractJob
 
 		int numberOfUsers = TasteHadoopUtils.readIntFromFile(getConf(), countUsersPath);
 
-		/*
-		 * Once DistributedRowMatrix uses the hadoop 0.20 API, we should refactor this call to something like
-		 * new DistributedRowMatrix(...).rowSimilarity(...)
-		 */
-		try
-		{
-			ToolRunner.run(
-					getConf(),
-					new RowSimilarityZieOok(),
-					new String[]{"-Dmapred.input.dir=" + itemUserMatrixPath, "-Dmapred.output.dir=" + similarityMatrixPath,
-							"--numberOfColumns", String.valueOf(numberOfUsers), "--similarityClassname", similarityClassName,
-							"--maxSimilaritiesPerRow", String.valueOf(maxSimilarItemsPerItem + 1), "--tempDir",
-							tempDirPath.toString()});
-		}
-		catch (Exception e)
-		{
-			throw new IllegalStateException("item-item-similarity computation failed", e);
-		}
+		computeSimilarities(itemUserMatrixPath, similarityMatrixPath, tempDirPath, numberOfUsers, null,
+				similarityClassName, maxSimilarItemsPerItem);
 
 		// This step writes the data to a file, we don't want that, it should be written in HBase directly:
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
@@ -245,7 +289,7 @@ public class ItemSimilarityJobZieook extends AbstractJob
 
 			// mostSimilarItems.waitForCompletion(true);
 
-			task.setCurrentJob(mostSimilarItems).waitForCompletion(Log.isDebugEnabled());
+			HFileBulkLoad.waitForCompletion(task, getConf(), mostSimilarItems, Log.isDebugEnabled());
 
 			// Job mostSimilarItems = prepareJob(similarityMatrixPath, outputPath, SequenceFileInputFormat.class,
 			// MostSimilarItemPairsMapper.class, EntityEntityWritable.class, DoubleWritable.class,
@@ -258,9 +302,105 @@ public class ItemSimilarityJobZieook extends AbstractJob
 			// mostSimilarItems.waitForCompletion(true);
 		}
 
+		if (modelMatrixPath != null)
+		{
+			storeModel(itemUserMatrixPath, modelMatrixPath);
+		}
+
 		return 0;
 	}
 
+	/**
+	 * @return the input format of the preferences, see the <tt>binaryInput</tt> option
+	 */
+	@SuppressWarnings("rawtypes")
+	private Class<? extends InputFormat> getInputFormat()
+	{
+		return binaryInput ? SequenceFileInputFormat.class : TextInputFormat.class;
+	}
+
+	/**
+	 * Turns the changed preferences into item vectors and merges them into the item-user matrix of the previous run
+	 * @return true if both jobs succeeded
+	 */
+	private boolean mergeItemVectors(Path inputPath, Path modelMatrixPath, Path deltaVectorPath,
+			Path itemUserMatrixPath, boolean booleanData) throws IOException, InterruptedException,
+			ClassNotFoundException
+	{
+		Job toItemVectors = prepareJob(inputPath, deltaVectorPath, getInputFormat(),
+				binaryInput ? PrefsToItemEntriesMapper.class : ToItemEntriesMapper.class, IntWritable.class,
+				DistributedRowMatrix.MatrixEntryWritable.class, ToItemVectorsReducer.class, IntWritable.class,
+				VectorWritable.class, SequenceFileOutputFormat.class);
+		toItemVectors.getConfiguration().setBoolean(RecommenderJob.BOOLEAN_DATA, booleanData);
+		if (!task.setCurrentJob(toItemVectors).waitForCompletion(true))
+		{
+			return false;
+		}
+
+		Job merge = prepareJob(modelMatrixPath, itemUserMatrixPath, SequenceFileInputFormat.class,
+				MergeItemVectorsMapper.class, IntWritable.class, VectorWritable.class, MergeItemVectorsReducer.class,
+				IntWritable.class, VectorWritable.class, SequenceFileOutputFormat.class);
+		FileInputFormat.addInputPath(merge, deltaVectorPath);
+		merge.getConfiguration().set(MergeItemVectorsMapper.DELTA_PATH, deltaVectorPath.toString());
+		return task.setCurrentJob(merge).waitForCompletion(true);
+	}
+
+	/**
+	 * Runs the row similarity job on the item-user matrix
+	 * @param numberOfUsers number of users, or -1 to let the job count them
+	 * @param rowsPath sequence files with the items to compute, or null to compute all items
+	 */
+	private void computeSimilarities(Path itemUserMatrixPath, Path similarityMatrixPath, Path tempDirPath,
+			int numberOfUsers, Path rowsPath, String similarityClassName, int maxSimilarItemsPerItem)
+	{
+		List<String> args = new ArrayList<String>();
+		args.add("-Dmapred.input.dir=" + itemUserMatrixPath);
+		args.add("-Dmapred.output.dir=" + similarityMatrixPath);
+		if (numberOfUsers > 0)
+		{
+			args.add("--numberOfColumns");
+			args.add(String.valueOf(numberOfUsers));
+		}
+		if (rowsPath != null)
+		{
+			args.add("--rowsPath");
+			args.add(rowsPath.toString());
+		}
+		args.add("--similarityClassname");
+		args.add(similarityClassName);
+		args.add("--maxSimilaritiesPerRow");
+		args.add(String.valueOf(maxSimilarItemsPerItem + 1));
+		args.add("--tempDir");
+		args.add(tempDirPath.toString());
+
+		/*
+		 * Once DistributedRowMatrix uses the hadoop 0.20 API, we should refactor this call to something like
+		 * new DistributedRowMatrix(...).rowSimilarity(...)
+		 */
+		try
+		{
+			ToolRunner.run(getConf(), new RowSimilarityZieOok(), args.toArray(new String[args.size()]));
+		}
+		catch (Exception e)
+		{
+			throw new IllegalStateException("item-item-similarity computation failed", e);
+		}
+	}
+
+	/**
+	 * Replaces the cached item-user matrix with the matrix of this run, it's the input of the next incremental run
+	 */
+	private void storeModel(Path itemUserMatrixPath, Path modelMatrixPath) throws IOException
+	{
+		FileSystem fs = modelMatrixPath.getFileSystem(getConf());
+		fs.delete(modelMatrixPath, true);
+		fs.mkdirs(modelMatrixPath.getParent());
+		if (!fs.rename(itemUserMatrixPath, modelMatrixPath))
+		{
+			throw new IOException("failed to move the item-user matrix to " + modelMatrixPath);
+		}
+	}
+
 	protected Job prepareMostSimilarItems(Path inputFile, String outputTable) throws IOException
 	{
 
@@ -269,6 +409,15 @@ public class ItemSimilarityJobZieook extends AbstractJob
 
 		job.getConfiguration().set(TaskConfig.COLLECTION, task.getConfig().get(TaskConfig.COLLECTION));
 		job.getConfiguration().set(TaskConfig.RECOMMENDER, task.getConfig().get(TaskConfig.RECOMMENDER));
+		job.getConfiguration().setLong(TaskConfig.MODEL_GENERATION,
+				task.getConfig().getLong(TaskConfig.MODEL_GENERATION, 0));
+		job.getConfiguration().setInt(TaskConfig.COLLECTION_ID,
+				(int) task.getConfig().getLong(TaskConfig.COLLECTION_ID, -1));
+		job.getConfiguration().setInt(TaskConfig.RECOMMENDER_ID,
+				(int) task.getConfig().getLong(TaskConfig.RECOMMENDER_ID, -1));
+		// rows are rewritten, not merged with the previous recommendations:
+		job.getConfiguration().set(RecommendationsImportReduce.REPLACE_FAMILY,
+				HBaseTableConstants.RECOMMENDATION_COLUMN);
 
 		job.setMapperClass(RecommendationsImportMap.class);
 		job.setInputFormatClass(SequenceFileInputFormat.class);
@@ -276,7 +425,8 @@ public class ItemSimilarityJobZieook extends AbstractJob
 		job.setMapOutputValueClass(Put.class);
 		job.setNumReduceTasks(4);
 
-		TableMapReduceUtil.initTableReducerJob(outputTable, RecommendationsImportReduce.class, job);
+		HFileBulkLoad.initTableReducerJob(outputTable, RecommendationsImportReduce.class, job,
+				HFileBulkLoad.isEnabled(task.getConfig()));
 
 		// job.setCombinerClass(RecommendationsImportReduce.class);
 
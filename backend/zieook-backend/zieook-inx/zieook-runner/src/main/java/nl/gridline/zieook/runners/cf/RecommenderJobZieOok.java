@@ -24,6 +24,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import nl.gridline.zieook.inx.movielens.AggregateAndRecommendReducer;
+import nl.gridline.zieook.inx.movielens.PrefsToItemIDIndexMapper;
+import nl.gridline.zieook.inx.movielens.PrefsToItemPrefsMapper;
 import nl.gridline.zieook.inx.movielens.RowSimilarityZieOok;
 import nl.gridline.zieook.inx.movielens.UserVectorSplitterMapper;
 import nl.gridline.zieook.tasks.ZieOokTask;
@@ -162,6 +164,8 @@ public class RecommenderJobZieOok extends AbstractJob
 		addOption("similarityClassname", "s", "Name of distributed similarity class to instantiate, alternatively use "
 				+ "one of the predefined similarities (" + SimilarityType.listEnumNames() + ')',
 				String.valueOf(SimilarityType.SIMILARITY_COOCCURRENCE));
+		addOption("binaryInput", "bi", "Input is a sequence file of user ids and EntityPrefWritable preferences",
+				Boolean.FALSE.toString());
 
 		Map<String, String> parsedArgs = parseArguments(args);
 		if (parsedArgs == null)
@@ -182,6 +186,7 @@ public class RecommenderJobZieOok extends AbstractJob
 		int maxSimilaritiesPerItem = Integer.parseInt(parsedArgs.get("--maxSimilaritiesPerItem"));
 		int maxCooccurrencesPerItem = Integer.parseInt(parsedArgs.get("--maxCooccurrencesPerItem"));
 		String similarityClassname = parsedArgs.get("--similarityClassname");
+		boolean binaryInput = Boolean.valueOf(parsedArgs.get("--binaryInput"));
 
 		Path userVectorPath = new Path(tempDirPath, "userVectors");
 		Path itemIDIndexPath = new Path(tempDirPath, "itemIDIndex");
@@ -197,18 +202,22 @@ public class RecommenderJobZieOok extends AbstractJob
 
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
 		{
-			Job itemIDIndex = prepareJob(inputPath, itemIDIndexPath, TextInputFormat.class, ItemIDIndexMapper.class,
-					VarIntWritable.class, VarLongWritable.class, ItemIDIndexReducer.class, VarIntWritable.class,
-					VarLongWritable.class, SequenceFileOutputFormat.class);
+			Job itemIDIndex = prepareJob(inputPath, itemIDIndexPath,
+					binaryInput ? SequenceFileInputFormat.class : TextInputFormat.class,
+					binaryInput ? PrefsToItemIDIndexMapper.class : ItemIDIndexMapper.class, VarIntWritable.class,
+					VarLongWritable.class, ItemIDIndexReducer.class, VarIntWritable.class, VarLongWritable.class,
+					SequenceFileOutputFormat.class);
 			itemIDIndex.setCombinerClass(ItemIDIndexReducer.class);
 			task.setCurrentJob(itemIDIndex).waitForCompletion(true);
 		}
 
 		if (shouldRunNextPhase(parsedArgs, currentPhase))
 		{
-			Job toUserVector = prepareJob(inputPath, userVectorPath, TextInputFormat.class, ToItemPrefsMapper.class,
-					VarLongWritable.class, booleanData ? VarLongWritable.class : EntityPrefWritable.class,
-					ToUserVectorReducer.class, VarLongWritable.class, VectorWritable.class, SequenceFileOutputFormat.class);
+			Job toUserVector = prepareJob(inputPath, userVectorPath,
+					binaryInput ? SequenceFileInputFormat.class : TextInputFormat.class,
+					binaryInput ? PrefsToItemPrefsMapper.class : ToItemPrefsMapper.class, VarLongWritable.class,
+					booleanData ? VarLongWritable.class : EntityPrefWritable.class, ToUserVectorReducer.class,
+					VarLongWritable.class, VectorWritable.class, SequenceFileOutputFormat.class);
 			toUserVector.getConfiguration().setBoolean(BOOLEAN_DATA, booleanData);
 			toUserVector.getConfiguration().setInt(ToUserVectorReducer.MIN_PREFERENCES_PER_USER, minPrefsPerUser);
 			task.setCurrentJob(toUserVector).waitForCompletion(true);
@@ -23,15 +23,14 @@ import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.inx.movielens.categories.CategoriesExtractMap;
 import nl.gridline.zieook.inx.movielens.categories.CategoriesExtractReduce;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.runners.ZieOokRunnerTool;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
@@ -117,7 +116,6 @@ public class CategoriesExtractTool extends ZieOokRunnerTool
 
 	private Scan getScanner(String collection)
 	{
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		return new Scan().addFamily(INTR).setFilter(filter);
+		return ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(INTR).mapreduce().build();
 	}
 }
@@ -27,6 +27,8 @@ import nl.gridline.zieook.inx.movielens.categories.CategoriesImportReduce;
 import nl.gridline.zieook.inx.movielens.hbase.CollectionImportMap;
 import nl.gridline.zieook.inx.movielens.hbase.CollectionImportReduce;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.runners.ZieOokRunnerTool;
 import nl.gridline.zieook.tasks.ZieOokTask;
@@ -35,10 +37,6 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
-import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
@@ -115,12 +113,12 @@ public class CollectionImportTool extends ZieOokRunnerTool
 		// necessary?
 		job.setNumReduceTasks(4); // is this needed?
 
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), CollectionImportReduce.class, job);
+		initTableReducerJob(getOutputTable(), CollectionImportReduce.class, job);
 		FileInputFormat.addInputPath(job, inputFile);
 
 		// before it's really executed log the configuration to debug:
 		// printConfiguration();
-		boolean result = task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
+		boolean result = waitForTableOutput(job, LOG.isDebugEnabled());
 
 		cleanup(inputFile); // remove the input
 
@@ -158,14 +156,13 @@ public class CollectionImportTool extends ZieOokRunnerTool
 				CategoriesImportMap.class, Text.class, Put.class, CategoriesImportReduce.class);
 		importCategories.getConfiguration().set(TaskConfig.COLLECTION, task.getConfig().get(TaskConfig.COLLECTION));
 
-		result = task.setCurrentJob(importCategories).waitForCompletion(LOG.isDebugEnabled());
+		result = waitForTableOutput(importCategories, LOG.isDebugEnabled());
 
 		return result;
 	}
 
 	private Scan getScanner(String collection)
 	{
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		return new Scan().addFamily(INTR).setFilter(filter);
+		return ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).family(INTR).mapreduce().build();
 	}
 }
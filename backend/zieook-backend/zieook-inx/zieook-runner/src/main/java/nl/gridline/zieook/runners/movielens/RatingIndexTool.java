@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners.movielens;
+
+import java.io.IOException;
+
+import nl.gridline.zieook.configuration.Config;
+import nl.gridline.zieook.inx.movielens.hbase.RatingIndexMap;
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
+import nl.gridline.zieook.runners.ZieOokRunnerTool;
+import nl.gridline.zieook.tasks.ZieOokTask;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.mapreduce.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Back fills the reverse time rating index of a user table (map only) and marks the index as ready when it's done, from
+ * then on the data API reads the latest ratings of a user from the index.
+ * <p />
+ * Project zieook-runner<br />
+ * RatingIndexTool.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RatingIndexTool extends ZieOokRunnerTool
+{
+
+	private static final Logger LOG = LoggerFactory.getLogger(RatingIndexTool.class);
+
+	private String table;
+
+	/**
+	 * @param task
+	 */
+	public RatingIndexTool(ZieOokTask task)
+	{
+		super(task);
+	}
+
+	public RatingIndexTool configure(String table) throws IOException
+	{
+		setBasics();
+		setJar(Config.getInstance().get(Config.MAPRED_MOVIELENS));
+
+		this.table = table;
+		LOG.info("RatingIndexTool configured; table: <{}>", table);
+
+		return this;
+	}
+
+	@Override
+	public boolean execute() throws Exception
+	{
+		Configuration conf = getConf();
+		Job job = new Job(conf);
+		job.setJobName(getClass().getSimpleName() + "-" + RatingIndexMap.class.getSimpleName());
+
+		Scan scan = ScanBuilder.prefix(RowKeys.getRatingKey())
+				.family(Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING)).mapreduce().build();
+
+		TableMapReduceUtil.initTableMapperJob(table, scan, RatingIndexMap.class, ImmutableBytesWritable.class,
+				Put.class, job);
+
+		// map only, the index puts are written straight into the same table:
+		TableMapReduceUtil.initTableReducerJob(table, null, job);
+		job.setNumReduceTasks(0);
+
+		boolean result = task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
+		if (result)
+		{
+			setReady(conf);
+		}
+		return result;
+	}
+
+	/**
+	 * write the row that tells the data API the rating index is complete
+	 */
+	private void setReady(Configuration conf) throws IOException
+	{
+		HTable htable = new HTable(HBaseConfiguration.create(conf), table);
+		try
+		{
+			htable.put(new Put(RowKeys.getRatingIndexReadyKey()).add(
+					Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING_INDEX),
+					Bytes.toBytes(HBaseTableConstants.TIMESTAMP), Bytes.toBytes(System.currentTimeMillis())));
+		}
+		finally
+		{
+			htable.close();
+		}
+		LOG.info("rating index of <{}> is ready", table);
+	}
+}
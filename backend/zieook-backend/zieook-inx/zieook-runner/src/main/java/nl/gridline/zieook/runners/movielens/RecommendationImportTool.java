@@ -30,7 +30,6 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Put;
-import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
@@ -84,10 +83,10 @@ public class RecommendationImportTool extends ZieOokRunnerTool
 		job.setMapOutputKeyClass(LongWritable.class);
 		job.setMapOutputValueClass(Put.class);
 
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), RecommendationsImportReduce.class, job);
+		initTableReducerJob(getOutputTable(), RecommendationsImportReduce.class, job);
 		FileInputFormat.addInputPath(job, new Path(inputFile));
 
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
+		return waitForTableOutput(job, LOG.isDebugEnabled());
 	}
 
 }
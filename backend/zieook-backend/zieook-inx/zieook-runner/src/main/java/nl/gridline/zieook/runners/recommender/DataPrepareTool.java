@@ -20,6 +20,7 @@ package nl.gridline.zieook.runners.recommender;
 import java.io.IOException;
 
 import nl.gridline.zieook.configuration.Config;
+import nl.gridline.zieook.inx.movielens.hbase.BinaryDataPrepareMap;
 import nl.gridline.zieook.inx.movielens.hbase.CollectionFilterMap;
 import nl.gridline.zieook.inx.movielens.hbase.CollectionFilterReduce;
 import nl.gridline.zieook.inx.movielens.hbase.DataPrepareMap;
@@ -28,16 +29,15 @@ import nl.gridline.zieook.inx.movielens.items.FilterDataMap;
 import nl.gridline.zieook.inx.movielens.items.FilterDataReduce;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.runners.ZieOokRunnerTool;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -45,10 +45,13 @@ import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Reducer;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.mahout.cf.taste.hadoop.EntityPrefWritable;
+import org.apache.mahout.math.VarLongWritable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,6 +86,10 @@ public class DataPrepareTool extends ZieOokRunnerTool
 
 	private boolean needsFilter;
 
+	private long since = -1;
+
+	private boolean binary;
+
 	/**
 	 * @param task
 	 */
@@ -159,6 +166,49 @@ public class DataPrepareTool extends ZieOokRunnerTool
 		return this;
 	}
 
+	/**
+	 * Only export the ratings that are written at or after the given time, used by incremental recommender runs
+	 * @param stamp time in ms, -1 exports all ratings
+	 * @return this
+	 */
+	public DataPrepareTool since(long stamp)
+	{
+		since = stamp;
+		return this;
+	}
+
+	/**
+	 * Write the ratings as binary preferences (a sequence file of <tt>VarLongWritable</tt> user,
+	 * <tt>EntityPrefWritable</tt> item + preference) with a single map only job, instead of text lines. The recommender
+	 * needs to read its input with <tt>--binaryInput</tt>.
+	 * @param binary true for binary output
+	 * @return this
+	 */
+	public DataPrepareTool binary(boolean binary)
+	{
+		this.binary = binary;
+		return this;
+	}
+
+	/**
+	 * Returns true if the prepare filters the ratings on the collection items, the same rules as
+	 * {@link #configure(String, String, String)}
+	 * @param config task configuration
+	 * @return true if a filter key, start date or end date is set
+	 */
+	public static boolean hasFilter(TaskConfig config)
+	{
+		String key = config.get(TaskConfig.FILTER_KEY);
+		String start = config.get(TaskConfig.FILTER_STARTDATE);
+		String end = config.get(TaskConfig.FILTER_ENDDATE);
+		if (start != null && start.equals(end))
+		{
+			return key != null && !key.trim().isEmpty();
+		}
+		return (key != null && !key.trim().isEmpty()) || (start != null && !"0".equals(start))
+				|| (end != null && !"0".equals(end));
+	}
+
 	/**
 	 * If the long values of both start & end are 0 -> we are not filtering.
 	 * Also
@@ -180,6 +230,11 @@ public class DataPrepareTool extends ZieOokRunnerTool
 	@Override
 	public boolean execute() throws IOException, InterruptedException, ClassNotFoundException
 	{
+		if (binary)
+		{
+			return executeBinary();
+		}
+
 
 		Configuration conf = getConf();
 		conf.set(TableInputFormat.SCAN_COLUMN_FAMILY, HBaseTableConstants.USERTABLE_COLUMN_RATING);
@@ -209,22 +264,7 @@ public class DataPrepareTool extends ZieOokRunnerTool
 					CollectionFilterMap.class, Text.class, LongWritable.class, CollectionFilterReduce.class, Text.class,
 					Text.class, SequenceFileOutputFormat.class);
 
-			if (filterKey != null)
-			{
-				LOG.info("Setting filters: <{}> = <{}>", filterKey, filterValues);
-				filterMap.getConfiguration().set(TaskConfig.FILTER_KEY, filterKey);
-				filterMap.getConfiguration().set(TaskConfig.FILTER_VALUE, filterValues);
-			}
-			if (filterStart != null)
-			{
-				LOG.info("Setting filters: <{}> = <{}>", TaskConfig.FILTER_STARTDATE, filterStart);
-				filterMap.getConfiguration().set(TaskConfig.FILTER_STARTDATE, filterStart);
-			}
-			if (filterEnd != null)
-			{
-				LOG.info("Setting filters: <{}> = <{}>", TaskConfig.FILTER_ENDDATE, filterEnd);
-				filterMap.getConfiguration().set(TaskConfig.FILTER_ENDDATE, filterEnd);
-			}
+			setFilter(filterMap);
 
 			result = task.setCurrentJob(filterMap).waitForCompletion(LOG.isDebugEnabled());
 			if (!result || task.isCancelled())
@@ -254,6 +294,89 @@ public class DataPrepareTool extends ZieOokRunnerTool
 
 	}
 
+	/**
+	 * Map only prepare: the allowed items (if filtered) are collected first, the ratings are joined with them in the
+	 * mapper and written as binary preferences
+	 */
+	private boolean executeBinary() throws IOException, InterruptedException, ClassNotFoundException
+	{
+		cleanup(filterPath);
+		cleanup(outputPath);
+
+		if (needsFilter)
+		{
+			LOG.info("Setting filters");
+
+			// the item ids are only looked up, no need to remove duplicates:
+			Job filterMap = prepareTableMapper(collectionTable, filterPath, getCollectionScanner(),
+					CollectionFilterMap.class, Text.class, LongWritable.class, Reducer.class, Text.class,
+					LongWritable.class, SequenceFileOutputFormat.class);
+			filterMap.setNumReduceTasks(0);
+			setFilter(filterMap);
+
+			boolean result = task.setCurrentJob(filterMap).waitForCompletion(LOG.isDebugEnabled());
+			if (!result || task.isCancelled())
+			{
+				return result;
+			}
+		}
+		else
+		{
+			LOG.info("No filters applied");
+		}
+
+		LOG.info("writing preferences: from <{}> to <{}>", userTable, outputPath);
+
+		Job prepare = prepareTableMapper(userTable, outputPath, getPreferenceScanner(), BinaryDataPrepareMap.class,
+				VarLongWritable.class, EntityPrefWritable.class, Reducer.class, VarLongWritable.class,
+				EntityPrefWritable.class, SequenceFileOutputFormat.class);
+		prepare.setNumReduceTasks(0);
+		if (needsFilter)
+		{
+			prepare.getConfiguration().set(BinaryDataPrepareMap.FILTER_PATH, filterPath.toString());
+		}
+
+		return task.setCurrentJob(prepare).waitForCompletion(LOG.isDebugEnabled());
+	}
+
+	private void setFilter(Job filterMap)
+	{
+		if (filterKey != null)
+		{
+			LOG.info("Setting filters: <{}> = <{}>", filterKey, filterValues);
+			filterMap.getConfiguration().set(TaskConfig.FILTER_KEY, filterKey);
+			filterMap.getConfiguration().set(TaskConfig.FILTER_VALUE, filterValues);
+		}
+		if (filterStart != null)
+		{
+			LOG.info("Setting filters: <{}> = <{}>", TaskConfig.FILTER_STARTDATE, filterStart);
+			filterMap.getConfiguration().set(TaskConfig.FILTER_STARTDATE, filterStart);
+		}
+		if (filterEnd != null)
+		{
+			LOG.info("Setting filters: <{}> = <{}>", TaskConfig.FILTER_ENDDATE, filterEnd);
+			filterMap.getConfiguration().set(TaskConfig.FILTER_ENDDATE, filterEnd);
+		}
+	}
+
+	/**
+	 * Return a scanner for the user, item and rating of the ratings in the user table
+	 * @return
+	 * @throws IOException
+	 */
+	private Scan getPreferenceScanner() throws IOException
+	{
+		String collection = getConf().get(TaskConfig.COLLECTION);
+		if (collection == null)
+		{
+			// fail!
+			throw new IOException("collection not set");
+		}
+		return ScanBuilder.prefix(RowKeys.getRatingKey(collection))
+				.columns(COLUMN_RATING, ModelConstants.USER, ModelConstants.ITEM, ModelConstants.RATING).since(since)
+				.mapreduce().build();
+	}
+
 	/**
 	 * Return a scanner for rating column in the user table. Also filters on
 	 * @return
@@ -267,15 +390,14 @@ public class DataPrepareTool extends ZieOokRunnerTool
 			// fail!
 			throw new IOException("collection not set");
 		}
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey(collection)));
-		Scan result = new Scan().addFamily(COLUMN_RATING).setFilter(filter);
-
-		return result;
+		return ScanBuilder.prefix(RowKeys.getRatingKey(collection)).family(COLUMN_RATING).since(since).mapreduce()
+				.build();
 	}
 
 	private Scan getCollectionScanner() throws IOException
 	{
 
-		return new Scan().addFamily(Bytes.toBytes(HBaseTableConstants.COLLECTION_TABLE_COLUMN_INTR));
+		return ScanBuilder.all().family(Bytes.toBytes(HBaseTableConstants.COLLECTION_TABLE_COLUMN_INTR)).mapreduce()
+				.build();
 	}
 }
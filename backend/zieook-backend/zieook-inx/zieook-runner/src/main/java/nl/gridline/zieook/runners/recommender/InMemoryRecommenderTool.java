@@ -0,0 +1,233 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners.recommender;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.gridline.zieook.configuration.Config;
+import nl.gridline.zieook.inx.movielens.hbase.RecommendationsImportMap;
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
+import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.model.Rating;
+import nl.gridline.zieook.runners.ZieOokRunnerTool;
+import nl.gridline.zieook.runners.cf.InMemoryItemSimilarity;
+import nl.gridline.zieook.tasks.ZieOokTask;
+
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.mahout.math.Vector;
+import org.apache.mahout.math.hadoop.similarity.SimilarityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Item based recommender for small collections: reads the ratings straight from the user table, computes the item
+ * similarities with {@link InMemoryItemSimilarity} and writes the recommendations into the recommendations table, the
+ * rows are the same as the rows written by the map reduce recommender ({@link ItemBasedRecommenderTool}).
+ * <p />
+ * Project zieook-runner<br />
+ * InMemoryRecommenderTool.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class InMemoryRecommenderTool extends ZieOokRunnerTool
+{
+
+	private static final Logger LOG = LoggerFactory.getLogger(InMemoryRecommenderTool.class);
+
+	private static final byte[] COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
+	private static final byte[] COLUMN_RECOMMENDATION = Bytes.toBytes(HBaseTableConstants.RECOMMENDATION_COLUMN);
+
+	// number of rows per write:
+	private static final int WRITE_BATCH = 500;
+
+	private String userTable;
+	private String outputTable;
+	private String collection;
+	private String recommender;
+	private long generation;
+	private int collectionId;
+	private int recommenderId;
+
+	private int maxRatings;
+	private int threads;
+
+	private InMemoryItemSimilarity similarity;
+
+	/**
+	 * @param task
+	 */
+	public InMemoryRecommenderTool(ZieOokTask task)
+	{
+		super(task);
+	}
+
+	public InMemoryRecommenderTool configure(String userTable, String outputTable) throws IOException
+	{
+		setBasics();
+
+		collection = task.getConfig().get(TaskConfig.COLLECTION);
+		recommender = task.getConfig().get(TaskConfig.RECOMMENDER);
+		generation = task.getConfig().getLong(TaskConfig.MODEL_GENERATION, 0);
+		collectionId = (int) task.getConfig().getLong(TaskConfig.COLLECTION_ID, -1);
+		recommenderId = (int) task.getConfig().getLong(TaskConfig.RECOMMENDER_ID, -1);
+		if (collection == null)
+		{
+			throw new IOException("collection not set, please set <" + TaskConfig.COLLECTION
+					+ "> in task configuration");
+		}
+		if (recommender == null)
+		{
+			throw new IOException("recommender not set, please set <" + TaskConfig.RECOMMENDER
+					+ "> in task configuration");
+		}
+
+		// same settings as the map reduce recommender:
+		String similarityClass = task.getConfig().get(TaskConfig.DISTRIBUTED_SIMILARITY_CLASSNAME);
+		String similarityClassname = SimilarityType.valueOf(similarityClass).getSimilarityImplementationClassName();
+		int maxSimilarItemsPerItem = (int) task.getConfig().getLong(TaskConfig.MAX_SIMILARITRIES_PER_ITEM, 100);
+		int maxCooccurrencesPerItem = (int) task.getConfig().getLong(TaskConfig.MAX_CO_OCCURRENCES_PER_ITEM, 100);
+		boolean booleanData = task.getConfig().getBoolean(TaskConfig.BOOLEAN_DATA, true);
+		similarity = new InMemoryItemSimilarity(similarityClassname, maxSimilarItemsPerItem, maxCooccurrencesPerItem,
+				booleanData);
+
+		Config zieook = Config.getInstance();
+		maxRatings = zieook.getInt(Config.RECOMMENDER_INMEMORY_MAX_RATINGS, 0);
+		threads = zieook.getInt(Config.RECOMMENDER_INMEMORY_THREADS, 0);
+		if (threads < 1)
+		{
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+
+		this.userTable = userTable;
+		this.outputTable = outputTable;
+		setOutputTable(outputTable);
+
+		LOG.info("InMemoryRecommenderTool configured; from: <{}> to <{}>", userTable, outputTable);
+		return this;
+	}
+
+	/**
+	 * Read the ratings of the collection
+	 * @return false if the collection has more ratings than {@link Config#RECOMMENDER_INMEMORY_MAX_RATINGS}, the
+	 *         map reduce recommender should be used in that case
+	 * @throws IOException
+	 */
+	public boolean load() throws IOException
+	{
+		HTable table = new HTable(HBaseConfiguration.create(getConf()), userTable);
+		try
+		{
+			ResultScanner scanner = table.getScanner(ScanBuilder.prefix(RowKeys.getRatingKey(collection))
+					.family(COLUMN_RATING).batch().build());
+			try
+			{
+				for (Result result : scanner)
+				{
+					Rating rating = new Rating(result.getFamilyMap(COLUMN_RATING));
+					if (rating.getUser() == null || rating.getItem() == null)
+					{
+						LOG.error("given rating not complete: " + rating.toJSON());
+						continue;
+					}
+					if (similarity.getPreferenceCount() == maxRatings)
+					{
+						LOG.info("collection <{}> has more than {} ratings", collection, maxRatings);
+						return false;
+					}
+					similarity.addPreference(rating.getUser(), rating.getItem(), (float) rating.getRating());
+				}
+			}
+			finally
+			{
+				scanner.close();
+			}
+		}
+		finally
+		{
+			table.close();
+		}
+		LOG.info("read {} ratings of <{}>", similarity.getPreferenceCount(), collection);
+		return true;
+	}
+
+	@Override
+	public boolean execute() throws IOException, InterruptedException
+	{
+		final HTable table = new HTable(HBaseConfiguration.create(getConf()), outputTable);
+		table.setAutoFlush(false);
+		try
+		{
+			final List<Delete> deletes = new ArrayList<Delete>(WRITE_BATCH);
+			final List<Put> puts = new ArrayList<Put>(WRITE_BATCH);
+			int rows = similarity.compute(threads, new InMemoryItemSimilarity.RowHandler()
+			{
+				@Override
+				public void row(int item, Vector similarities) throws IOException
+				{
+					byte[] row = RowKeys.getRecommendationKey(collection, recommender, collectionId, recommenderId,
+							generation, item);
+					Put put = RecommendationsImportMap.createPut(row, item, similarities, System.currentTimeMillis());
+					// replace the previous recommendations of the item, like RecommendationsImportReduce:
+					Delete delete = new Delete(put.getRow());
+					delete.deleteFamily(COLUMN_RECOMMENDATION, put.getTimeStamp() - 1);
+					synchronized (table)
+					{
+						deletes.add(delete);
+						puts.add(put);
+						if (puts.size() == WRITE_BATCH)
+						{
+							write(table, deletes, puts);
+						}
+					}
+				}
+			});
+			write(table, deletes, puts);
+			table.flushCommits();
+			LOG.info("wrote the recommendations of {} items to <{}>", rows, outputTable);
+		}
+		finally
+		{
+			table.close();
+		}
+		return true;
+	}
+
+	private void write(HTable table, List<Delete> deletes, List<Put> puts) throws IOException
+	{
+		if (task.isCancelled())
+		{
+			throw new IOException("task cancelled");
+		}
+		table.delete(deletes);
+		table.put(puts);
+		deletes.clear();
+		puts.clear();
+	}
+}
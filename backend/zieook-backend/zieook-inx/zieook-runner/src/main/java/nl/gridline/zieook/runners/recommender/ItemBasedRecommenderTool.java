@@ -27,6 +27,7 @@ import nl.gridline.zieook.runners.ZieOokRunnerTool;
 import nl.gridline.zieook.runners.cf.ItemSimilarityJobZieook;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.mahout.cf.taste.hadoop.similarity.item.ItemSimilarityJob;
 import org.apache.mahout.math.hadoop.similarity.SimilarityType;
@@ -48,6 +49,7 @@ public class ItemBasedRecommenderTool extends ZieOokRunnerTool
 
 	private Path inputPath;
 	private Path tempDirPath;
+	private Path modelPath;
 	private String outputTable;
 
 	private int maxSimilarItemsPerItem;
@@ -60,6 +62,10 @@ public class ItemBasedRecommenderTool extends ZieOokRunnerTool
 
 	private String distributedSimilarityClassname;
 
+	private boolean keepModel;
+	private boolean incremental;
+	private boolean binaryInput;
+
 	static final String ITEM_ID_INDEX_PATH_STR = ItemSimilarityJob.class.getName() + ".itemIDIndexPathStr";
 
 	/**
@@ -106,6 +112,11 @@ public class ItemBasedRecommenderTool extends ZieOokRunnerTool
 		tempDirPath = new Path(zieook.get(Config.ZIEOOK_HDFS_SERVER) + zieook.get(Config.ZIEOOK_HDFS_PATH), cp + "/"
 				+ collection + "/" + recommender + "/tmp");
 
+		// kept between runs, not cleaned:
+		modelPath = new Path(zieook.get(Config.ZIEOOK_HDFS_SERVER) + zieook.get(Config.ZIEOOK_HDFS_PATH), cp + "/"
+				+ collection + "/" + recommender + "/model");
+		keepModel = zieook.getInt(Config.RECOMMENDER_FULL_REBUILD, 0) > 0;
+
 		// remove old data:
 		cleanup(tempDirPath);
 
@@ -114,6 +125,43 @@ public class ItemBasedRecommenderTool extends ZieOokRunnerTool
 		return this;
 	}
 
+	/**
+	 * Decides whether this run only processes the ratings that changed since the previous run. This is the case if
+	 * incremental runs are enabled, the item-user matrix of a previous run is available and the number of incremental
+	 * runs since the last full rebuild is below {@link Config#RECOMMENDER_FULL_REBUILD}.
+	 * @param modelStamp start of the run that wrote the item-user matrix, -1 if unknown
+	 * @param runs number of incremental runs since the last full rebuild
+	 * @return true if the input only needs the ratings written since <tt>modelStamp</tt>
+	 * @throws IOException
+	 */
+	public boolean setIncremental(long modelStamp, long runs) throws IOException
+	{
+		int fullRebuild = Config.getInstance().getInt(Config.RECOMMENDER_FULL_REBUILD, 0);
+		incremental = keepModel && modelStamp > 0 && runs < fullRebuild;
+		if (incremental)
+		{
+			Path matrix = new Path(modelPath, ItemSimilarityJobZieook.MODEL_MATRIX);
+			incremental = FileSystem.get(matrix.toUri(), getConf()).exists(matrix);
+		}
+		return incremental;
+	}
+
+	/**
+	 * The input is written by the binary data prepare, see {@link DataPrepareTool#binary(boolean)}
+	 * @param binaryInput true if the input is a sequence file of preferences instead of text
+	 * @return this
+	 */
+	public ItemBasedRecommenderTool binaryInput(boolean binaryInput)
+	{
+		this.binaryInput = binaryInput;
+		return this;
+	}
+
+	public boolean isIncremental()
+	{
+		return incremental;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -162,6 +210,17 @@ public class ItemBasedRecommenderTool extends ZieOokRunnerTool
 		args.add("--booleanData");
 		args.add(Boolean.toString(booleanData));
 
+		if (keepModel)
+		{
+			args.add("--modelDir");
+			args.add(modelPath.toString());
+		}
+		args.add("--incremental");
+		args.add(Boolean.toString(incremental));
+
+		args.add("--binaryInput");
+		args.add(Boolean.toString(binaryInput));
+
 		boolean result = 0 == itemSimilarity.run(args.toArray(new String[args.size()]));
 
 		return result;
@@ -67,6 +67,7 @@ public class UserBasedRecommenderTool extends ZieOokRunnerTool
 	private int maxPrefsPerUser;
 	private int maxSimilaritiesPerItem;
 	private int maxCooccurrencesPerItem;
+	private boolean binaryInput;
 
 	private Path recommendationsPath;
 
@@ -121,6 +122,17 @@ public class UserBasedRecommenderTool extends ZieOokRunnerTool
 		return this;
 	}
 
+	/**
+	 * The input is written by the binary data prepare, see {@link DataPrepareTool#binary(boolean)}
+	 * @param binaryInput true if the input is a sequence file of preferences instead of text
+	 * @return this
+	 */
+	public UserBasedRecommenderTool binaryInput(boolean binaryInput)
+	{
+		this.binaryInput = binaryInput;
+		return this;
+	}
+
 	@Override
 	public boolean execute() throws IOException, ClassNotFoundException, InterruptedException
 	{
@@ -170,6 +182,9 @@ public class UserBasedRecommenderTool extends ZieOokRunnerTool
 		list.add("--maxCooccurrencesPerItem");
 		list.add(Integer.toString(maxCooccurrencesPerItem));
 
+		list.add("--binaryInput");
+		list.add(Boolean.toString(binaryInput));
+
 		if (usersFile != null)
 		{
 			list.add("--usersFile");
@@ -194,8 +209,14 @@ public class UserBasedRecommenderTool extends ZieOokRunnerTool
 
 			storage.getConfiguration().set(TaskConfig.COLLECTION, task.getConfig().get(TaskConfig.COLLECTION));
 			storage.getConfiguration().set(TaskConfig.RECOMMENDER, task.getConfig().get(TaskConfig.RECOMMENDER));
-
-			result = task.setCurrentJob(storage).waitForCompletion(LOG.isDebugEnabled());
+			storage.getConfiguration().setLong(TaskConfig.MODEL_GENERATION,
+					task.getConfig().getLong(TaskConfig.MODEL_GENERATION, 0));
+			storage.getConfiguration().setInt(TaskConfig.COLLECTION_ID,
+					(int) task.getConfig().getLong(TaskConfig.COLLECTION_ID, -1));
+			storage.getConfiguration().setInt(TaskConfig.RECOMMENDER_ID,
+					(int) task.getConfig().getLong(TaskConfig.RECOMMENDER_ID, -1));
+
+			result = waitForTableOutput(storage, LOG.isDebugEnabled());
 		}
 		return result;
 	}
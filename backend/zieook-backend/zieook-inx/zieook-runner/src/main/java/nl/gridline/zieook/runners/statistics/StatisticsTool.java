@@ -22,30 +22,29 @@ import java.util.Date;
 
 import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.mapreduce.InMapperCounts;
+import nl.gridline.zieook.mapreduce.Leaderboards;
 import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.SaltedTableInputFormat;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.model.ModelConstants;
 import nl.gridline.zieook.runners.ZieOokRunnerTool;
-import nl.gridline.zieook.statistics.RatingsPerCPUserMap;
-import nl.gridline.zieook.statistics.RatingsPerCPUserReduce;
-import nl.gridline.zieook.statistics.RatingsPerCollectionItemMap;
-import nl.gridline.zieook.statistics.RatingsPerCollectionItemReduce;
-import nl.gridline.zieook.statistics.RecommendedItemToUserMap;
-import nl.gridline.zieook.statistics.RecommendedItemToUserReduce;
-import nl.gridline.zieook.statistics.RecommendedToUserMap;
-import nl.gridline.zieook.statistics.RecommendedToUserReduce;
-import nl.gridline.zieook.statistics.SourcesByRecommenderMap;
-import nl.gridline.zieook.statistics.SourcesByRecommenderReduce;
-import nl.gridline.zieook.statistics.ViewsPerItemMap;
-import nl.gridline.zieook.statistics.ViewsPerItemReduce;
-import nl.gridline.zieook.statistics.io.RecommenderItem;
-import nl.gridline.zieook.statistics.io.RecommenderSource;
-import nl.gridline.zieook.statistics.io.UserCollection;
-import nl.gridline.zieook.statistics.io.UserCollectionItem;
+import nl.gridline.zieook.statistics.EventLogStatisticsMap;
+import nl.gridline.zieook.statistics.LeaderboardCombine;
+import nl.gridline.zieook.statistics.LeaderboardMap;
+import nl.gridline.zieook.statistics.LeaderboardReduce;
+import nl.gridline.zieook.statistics.RatingsStatisticsMap;
+import nl.gridline.zieook.statistics.StatisticsCombine;
+import nl.gridline.zieook.statistics.StatisticsReduce;
+import nl.gridline.zieook.statistics.io.RankedGroup;
+import nl.gridline.zieook.statistics.io.StatisticsKey;
+import nl.gridline.zieook.statistics.popularity.PopularityBucketReduce;
 import nl.gridline.zieook.statistics.popularity.PopularityCountMap;
 import nl.gridline.zieook.statistics.popularity.PopularityCountReduce;
 import nl.gridline.zieook.statistics.popularity.PopularityMap;
 import nl.gridline.zieook.statistics.popularity.PopularityReduce;
+import nl.gridline.zieook.statistics.popularity.PopularityRollupMap;
 import nl.gridline.zieook.statistics.popularity.PopularityScoreMap;
 import nl.gridline.zieook.statistics.popularity.PopularityScoreReduce;
 import nl.gridline.zieook.statistics.popularity.PopularityStatistics;
@@ -53,15 +52,18 @@ import nl.gridline.zieook.statistics.popularity.io.ItemTime;
 import nl.gridline.zieook.statistics.popularity.io.PopularityWritable;
 import nl.gridline.zieook.tasks.ZieOokTask;
 
-import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
 import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.hbase.mapreduce.TableOutputFormat;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -95,6 +97,10 @@ public class StatisticsTool extends ZieOokRunnerTool
 
 	private static final byte[] USERTABLE_COLUMN_RATING = Bytes.toBytes(HBaseTableConstants.USERTABLE_COLUMN_RATING);
 
+	private static final byte[] STATS_ITEM_POPULARITY_DAY = Bytes
+			.toBytes(HBaseTableConstants.STATS_ITEM_POPULARITY_DAY);
+	private static final byte[] TIMESTAMP = Bytes.toBytes(HBaseTableConstants.TIMESTAMP);
+
 	private Long startDate;
 	private Long endDate;
 
@@ -154,6 +160,9 @@ public class StatisticsTool extends ZieOokRunnerTool
 
 		Config zieook = Config.getInstance();
 
+		getConf().setInt(InMapperCounts.MAX_ENTRIES,
+				zieook.getInt(Config.STATISTICS_INMAPPER_ENTRIES, InMapperCounts.DEFAULT_MAX_ENTRIES));
+
 		tempDirPath = new Path(zieook.get(Config.ZIEOOK_HDFS_SERVER) + zieook.get(Config.ZIEOOK_HDFS_PATH), cp + "/"
 				+ collection + "/statistics");
 
@@ -175,191 +184,76 @@ public class StatisticsTool extends ZieOokRunnerTool
 
 		// run all tasks, but check for cancellation:
 
-		boolean result = processSources();
+		// one scan per source table, every scan feeds all statistics of that table:
+		boolean result = processEventLog();
 		if (task.isCancelled())
 		{
 			return false;
 		}
-		result = result && processUserRated();
+		result = result && processRatings();
 		if (task.isCancelled())
 		{
 			return false;
 		}
-		result = result && processRecommendedItem();
-		if (task.isCancelled())
-		{
-			return false;
-		}
-		result = result && processItemRated();
-		if (task.isCancelled())
-		{
-			return false;
-		}
-		result = result && processRecommended();
-		if (task.isCancelled())
-		{
-			return false;
-		}
-		result = result && processViewed();
+
+		result = processPopularity();
 		if (task.isCancelled())
 		{
 			return false;
 		}
 
-		result = processPopularity();
-
-		return result;
-	}
-
-	private boolean processSources() throws IOException, InterruptedException, ClassNotFoundException
-	{
-
-		// creates data for:
-		// Get the number of different sources for a recommender & and show the count
-		// Recommendeds getSources(@PathParam("cp") String cp, @PathParam("recommender") String recommender);
-
-		Configuration conf = getConf();
-
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, SourcesByRecommenderMap.class, SourcesByRecommenderReduce.class));
-		// job.getConfiguration().set(TableInputFormat.INPUT_TABLE, eventLogTable);
-		job.getConfiguration().set(SourcesByRecommenderReduce.DATE, Long.toString(endDate));
-		// maps directly from and to a table:
-
-		// mapper:
-		TableMapReduceUtil.initTableMapperJob(eventLogTable, getEventLogViewScanner(startDate, endDate),
-				SourcesByRecommenderMap.class, RecommenderSource.class, LongWritable.class, job);
+		// the top lists are read from the results of all jobs above:
+		result = result && processLeaderboards();
 
-		// reducer:
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), SourcesByRecommenderReduce.class, job);
-
-		boolean result = task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
-
-		// The top-n of most used sources.
-		// Recommendeds topSources(@PathParam("cp") String cp, @PathParam("recommender") String recommender,
-		// @QueryParam("startdate") Long startDate, @QueryParam("enddate") Long endDate, @QueryParam("size") Integer
-		// size);
-
-		// Get the number of different sources for a recommender & and show the count
-		// Recommendeds getSources(@PathParam("cp") String cp, @PathParam("collection") String collection,
-		// @QueryParam("from") String from, Integer size);
-
-		// The top-n of most used sources.
-		// Recommendeds topSources(@PathParam("cp") String cp, @PathParam("collection") String collection,
-		// @QueryParam("start_time") Long startTime, @QueryParam("end_time") Long endTime,
-		// @QueryParam("size") Integer size);
 		return result;
 	}
 
-	private boolean processItemRated() throws IOException, InterruptedException, ClassNotFoundException
+	/**
+	 * All event log statistics in a single scan over the view and recommended families: sources and views per
+	 * recommender, recommendations per user and item and per user, see {@link EventLogStatisticsMap}
+	 */
+	private boolean processEventLog() throws IOException, InterruptedException, ClassNotFoundException
 	{
-		// Get the top-n (count) of given ratings
-		// Ratings topRated(@PathParam("cp") String cp, @PathParam("collection") String collection,
-		// @QueryParam("startdate") Long startDate, @QueryParam("enddate") Long endDate, @QueryParam("size") Integer
-		// size);
-
-		Configuration conf = getConf();
-
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, RatingsPerCollectionItemMap.class, RatingsPerCollectionItemReduce.class));
-		// job.getConfiguration().set(TableInputFormat.INPUT_TABLE, userTable);
-		job.getConfiguration().set(RatingsPerCollectionItemReduce.DATE, Long.toString(endDate));
+		Job job = new Job(getConf());
+		job.setJobName(getCustomJobName(job, EventLogStatisticsMap.class, StatisticsReduce.class));
+		job.getConfiguration().set(StatisticsReduce.DATE, Long.toString(endDate));
 		job.getConfiguration().set(TaskConfig.COLLECTION, collection);
 
-		TableMapReduceUtil.initTableMapperJob(userTable, getRatingsScanner(collection, startDate, endDate),
-				RatingsPerCollectionItemMap.class, LongWritable.class, LongWritable.class, job);
+		TableMapReduceUtil.initTableMapperJob(eventLogTable, getEventLogScanner(startDate, endDate),
+				EventLogStatisticsMap.class, StatisticsKey.class, LongWritable.class, job);
+		SaltedTableInputFormat.initTableMapperJob(eventLogTable, job);
+		job.setCombinerClass(StatisticsCombine.class);
 
-		// reducer:
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), RatingsPerCollectionItemReduce.class, job);
+		initTableReducerJob(getOutputTable(), StatisticsReduce.class, job);
 
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
+		return waitForTableOutput(job, LOG.isDebugEnabled());
 	}
 
-	private boolean processUserRated() throws IOException, InterruptedException, ClassNotFoundException
+	/**
+	 * The rating statistics in a single scan over the ratings of the collection: ratings per item and per user, see
+	 * {@link RatingsStatisticsMap}
+	 */
+	private boolean processRatings() throws IOException, InterruptedException, ClassNotFoundException
 	{
-		// Get the top-n (count) of given ratings
-		// Ratings topRated(@PathParam("cp") String cp, @PathParam("collection") String collection,
-		// @QueryParam("startdate") Long startDate, @QueryParam("enddate") Long endDate, @QueryParam("size") Integer
-		// size);
-
-		Configuration conf = getConf();
-
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, RatingsPerCPUserMap.class, RatingsPerCPUserReduce.class));
-		// job.getConfiguration().set(TableInputFormat.INPUT_TABLE, userTable);
-		job.getConfiguration().set(RatingsPerCPUserReduce.DATE, Long.toString(endDate));
+		Job job = new Job(getConf());
+		job.setJobName(getCustomJobName(job, RatingsStatisticsMap.class, StatisticsReduce.class));
+		job.getConfiguration().set(StatisticsReduce.DATE, Long.toString(endDate));
 		job.getConfiguration().set(TaskConfig.COLLECTION, collection);
 
 		TableMapReduceUtil.initTableMapperJob(userTable, getRatingsScanner(collection, startDate, endDate),
-				RatingsPerCPUserMap.class, LongWritable.class, LongWritable.class, job);
-
-		// reducer:
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), RatingsPerCPUserReduce.class, job);
-
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
-	}
-
-	private boolean processRecommendedItem() throws IOException, InterruptedException, ClassNotFoundException
-	{
-		// Get the top-n most recommended items to user
-		// Recommends topRecommended(@PathParam("cp") String cp, @PathParam("recommender") String recommender,
-		// @PathParam("user") long user, @QueryParam("size") Integer size);
-
-		// Get the top-n most recommended items to user and return them as collection items
-		// CollectionItems topRecommendedAsCollection(@PathParam("cp") String cp, @PathParam("recommender") String
-		// recommender,
-		// @PathParam("user") long user, @QueryParam("size") Integer size);
-
-		Configuration conf = getConf();
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, RecommendedItemToUserMap.class, RecommendedItemToUserReduce.class));
-		// job.getConfiguration().set(TableInputFormat.INPUT_TABLE, eventLogTable);
-		job.getConfiguration().set(RecommendedItemToUserReduce.DATE, Long.toString(endDate));
-		job.getConfiguration().set(TaskConfig.COLLECTION, collection);
-
-		TableMapReduceUtil.initTableMapperJob(eventLogTable, getEventLogRecommendedScanner(startDate, endDate),
-				RecommendedItemToUserMap.class, UserCollectionItem.class, LongWritable.class, job);
-
-		// reducer:
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), RecommendedItemToUserReduce.class, job);
-
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
-	}
-
-	private boolean processRecommended() throws IOException, InterruptedException, ClassNotFoundException
-	{
-		Configuration conf = getConf();
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, RecommendedToUserMap.class, RecommendedToUserReduce.class));
-		// job.getConfiguration().set(TableInputFormat.INPUT_TABLE, eventLogTable);
-		job.getConfiguration().set(RecommendedItemToUserReduce.DATE, Long.toString(endDate));
-		job.getConfiguration().set(TaskConfig.COLLECTION, collection);
-
-		TableMapReduceUtil.initTableMapperJob(eventLogTable, getEventLogRecommendedScanner(startDate, endDate),
-				RecommendedToUserMap.class, UserCollection.class, LongWritable.class, job);
-
-		// reducer:
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), RecommendedToUserReduce.class, job);
-
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
-	}
-
-	private boolean processViewed() throws IOException, InterruptedException, ClassNotFoundException
-	{
-		Configuration conf = getConf();
-		Job job = new Job(conf);
-		job.setJobName(getCustomJobName(job, ViewsPerItemMap.class, ViewsPerItemReduce.class));
-		job.getConfiguration().set(ViewsPerItemReduce.DATE, Long.toString(endDate));
-		job.getConfiguration().set(TaskConfig.COLLECTION, collection);
-
-		TableMapReduceUtil.initTableMapperJob(eventLogTable, getEventLogViewScanner(startDate, endDate),
-				ViewsPerItemMap.class, RecommenderItem.class, LongWritable.class, job);
+				RatingsStatisticsMap.class, StatisticsKey.class, LongWritable.class, job);
+		job.setCombinerClass(StatisticsCombine.class);
 
-		TableMapReduceUtil.initTableReducerJob(getOutputTable(), ViewsPerItemReduce.class, job);
+		initTableReducerJob(getOutputTable(), StatisticsReduce.class, job);
 
-		return task.setCurrentJob(job).waitForCompletion(LOG.isDebugEnabled());
+		return waitForTableOutput(job, LOG.isDebugEnabled());
 	}
 
+	/**
+	 * Popularity per item and span. The ratings are counted per item per day into buckets in the statistics table,
+	 * every run only counts the ratings since the previous run (starting at the day it stopped in). The spans are sums
+	 * of the buckets, see {@link PopularityRollupMap}.
+	 */
 	private boolean processPopularity() throws IOException, InterruptedException, ClassNotFoundException
 	{
 
@@ -367,30 +261,53 @@ public class StatisticsTool extends ZieOokRunnerTool
 		Path populCount = new Path(tempDirPath, "popularity-count");
 
 		// get the settings:
-		String types = Config
-				.getInstance()
-				.get(Config.STATISTICS_POPULARITY_TYPES,
-						"day,86400;week,604800;3months,7884000;6months,15768000;year,31536000").trim();
+		String types = getPopularityTypes();
 
 		// get the earliest start date: (don't look back forever, if not needed:
 		long end = endDate != null ? endDate.longValue() : System.currentTimeMillis();
 		long start = end - PopularityStatistics.getTypes(types).lastKey();
 
-		LOG.info("popularity between: {} and {}", new Date(start), new Date(endDate));
+		LOG.info("popularity between: {} and {}", new Date(start), new Date(end));
 		LOG.info("using spans: {}", types);
 
-		// first: count ratings per item / time-unit:
-		Job countRatings = prepareTableMapper(userTable, ratingsCount, getRatingsScanner(collection, start, end),
-				PopularityMap.class, ItemTime.class, LongWritable.class, PopularityReduce.class, ItemTime.class,
-				LongWritable.class, SequenceFileOutputFormat.class);
+		// first: count the new ratings per item / day, the first run counts the largest span:
+		long counted = getPopularityCounted();
+		long from = PopularityStatistics.getDay(Math.max(counted, start));
+		boolean result;
+		if (from < end)
+		{
+			LOG.info("counting ratings per day between: {} and {}", new Date(from), new Date(end));
+
+			Job countRatings = new Job(getConf());
+			countRatings.setJobName(getCustomJobName(countRatings, PopularityMap.class, PopularityBucketReduce.class));
+
+			TableMapReduceUtil.initTableMapperJob(userTable, getRatingsScanner(collection, from, end),
+					PopularityMap.class, ItemTime.class, LongWritable.class, countRatings);
+			countRatings.setCombinerClass(PopularityReduce.class);
+
+			initTableReducerJob(getOutputTable(), PopularityBucketReduce.class, countRatings);
 
-		// set the types:
-		countRatings.getConfiguration().set(PopularityStatistics.TYPES, types);
-		// set end date or now:
-		countRatings.getConfiguration().set(PopularityStatistics.NOW,
-				(endDate != null ? endDate.toString() : Long.toString(System.currentTimeMillis())));
+			result = waitForTableOutput(countRatings, LOG.isDebugEnabled());
+			if (!result || task.isCancelled())
+			{
+				LOG.debug("stopping: result={} cancelled={}", result, task.isCancelled());
+				return result;
+			}
+			setPopularityCounted(Math.max(counted, end));
+		}
+
+		// sum the buckets per item / span:
+		Scan buckets = ScanBuilder.prefix(RowKeys.getStatsPopularityDay(collection)).family(STATS_ITEM_POPULARITY_DAY)
+				.since(start).mapreduce().build();
+		Job sumRatings = prepareTableMapper(getOutputTable(), ratingsCount, buckets, PopularityRollupMap.class,
+				ItemTime.class, LongWritable.class, PopularityReduce.class, ItemTime.class, LongWritable.class,
+				SequenceFileOutputFormat.class);
+
+		sumRatings.getConfiguration().set(PopularityStatistics.TYPES, types);
+		sumRatings.getConfiguration().set(PopularityStatistics.NOW, Long.toString(end));
+		sumRatings.getConfiguration().set(TaskConfig.COLLECTION, collection);
 
-		boolean result = task.setCurrentJob(countRatings).waitForCompletion(LOG.isDebugEnabled());
+		result = task.setCurrentJob(sumRatings).waitForCompletion(LOG.isDebugEnabled());
 		if (!result || task.isCancelled())
 		{
 			LOG.debug("stopping: result={} cancelled={}", result, task.isCancelled());
@@ -400,6 +317,7 @@ public class StatisticsTool extends ZieOokRunnerTool
 		Job popularityCount = prepareJob(ratingsCount, populCount, SequenceFileInputFormat.class,
 				PopularityCountMap.class, LongWritable.class, LongWritable.class, PopularityCountReduce.class,
 				LongWritable.class, LongWritable.class, TextOutputFormat.class);
+		popularityCount.setCombinerClass(PopularityCountReduce.class);
 
 		result = task.setCurrentJob(popularityCount).waitForCompletion(LOG.isDebugEnabled());
 		if (!result || task.isCancelled())
@@ -417,7 +335,84 @@ public class StatisticsTool extends ZieOokRunnerTool
 		popularityScore.getConfiguration().set(PopularityStatistics.TYPES_COUNT, typeCount);
 		popularityScore.getConfiguration().set(PopularityStatistics.TYPES, types);
 
-		return task.setCurrentJob(popularityScore).waitForCompletion(LOG.isDebugEnabled());
+		return waitForTableOutput(popularityScore, LOG.isDebugEnabled());
+	}
+
+	/**
+	 * Materialise the top lists of the data API: per list, scope and time window the best rows of the statistics
+	 * written above, see {@link Leaderboards}
+	 */
+	private boolean processLeaderboards() throws IOException, InterruptedException, ClassNotFoundException
+	{
+		String types = getPopularityTypes();
+		long end = endDate != null ? endDate.longValue() : System.currentTimeMillis();
+		int size = Config.getInstance().getInt(Config.STATISTICS_LEADERBOARD_SIZE, LeaderboardReduce.DEFAULT_SIZE);
+
+		Job job = new Job(getConf());
+		job.setJobName(getCustomJobName(job, LeaderboardMap.class, LeaderboardReduce.class));
+		job.getConfiguration().set(PopularityStatistics.TYPES, types);
+		job.getConfiguration().set(PopularityStatistics.NOW, Long.toString(end));
+		job.getConfiguration().set(LeaderboardReduce.DATE, Long.toString(end));
+		job.getConfiguration().setInt(LeaderboardReduce.SIZE, size);
+
+		Scan scan = ScanBuilder.all().mapreduce().build();
+		scan.addFamily(LeaderboardMap.STATS_VIEWED_ITEM);
+		scan.addFamily(LeaderboardMap.STATS_VIEWED_SOURCE);
+		scan.addFamily(LeaderboardMap.STATS_ITEM_RATINGS);
+
+		TableMapReduceUtil.initTableMapperJob(getOutputTable(), scan, LeaderboardMap.class,
+				ImmutableBytesWritable.class, RankedGroup.class, job);
+		job.setCombinerClass(LeaderboardCombine.class);
+
+		initTableReducerJob(getOutputTable(), LeaderboardReduce.class, job);
+
+		return waitForTableOutput(job, LOG.isDebugEnabled());
+	}
+
+	/**
+	 * Returns the time until which the ratings of the collection are counted in the popularity buckets
+	 * @return time in ms, or {@link Long#MIN_VALUE} if the collection is not counted yet
+	 */
+	private long getPopularityCounted() throws IOException
+	{
+		HTable htable = new HTable(HBaseConfiguration.create(getConf()), getOutputTable());
+		try
+		{
+			KeyValue kv = htable.get(
+					new Get(RowKeys.getStatsPopularityCountedKey(collection)).addColumn(STATS_ITEM_POPULARITY_DAY,
+							TIMESTAMP)).getColumnLatest(STATS_ITEM_POPULARITY_DAY, TIMESTAMP);
+			return kv == null ? Long.MIN_VALUE : Bytes.toLong(kv.getValue());
+		}
+		finally
+		{
+			htable.close();
+		}
+	}
+
+	/**
+	 * Write the time until which the ratings of the collection are counted in the popularity buckets
+	 * @param counted time in ms
+	 */
+	private void setPopularityCounted(long counted) throws IOException
+	{
+		HTable htable = new HTable(HBaseConfiguration.create(getConf()), getOutputTable());
+		try
+		{
+			htable.put(new Put(RowKeys.getStatsPopularityCountedKey(collection)).add(STATS_ITEM_POPULARITY_DAY,
+					TIMESTAMP, Bytes.toBytes(counted)));
+		}
+		finally
+		{
+			htable.close();
+		}
+		LOG.info("popularity of <{}> counted until {}", collection, new Date(counted));
+	}
+
+	private static String getPopularityTypes()
+	{
+		return Config.getInstance()
+				.get(Config.STATISTICS_POPULARITY_TYPES,
+						"day,86400;week,604800;3months,7884000;6months,15768000;year,31536000").trim();
 	}
 
 	/**
@@ -431,9 +426,6 @@ public class StatisticsTool extends ZieOokRunnerTool
 	{
 		final FilterList filter = new FilterList();
 
-		// filter on collection:
-		filter.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRatingKey())));
-
 		// set start date if given:
 		if (startDate != null)
 		{
@@ -455,38 +447,46 @@ public class StatisticsTool extends ZieOokRunnerTool
 			filter.addFilter(endTime);
 		}
 
-		return new Scan().addFamily(USERTABLE_COLUMN_RATING).setFilter(filter);
+		// limit to the collection:
+		return ScanBuilder.prefix(RowKeys.getRatingKey(collection)).family(USERTABLE_COLUMN_RATING).filter(filter)
+				.mapreduce().build();
 	}
 
 	/**
-	 * return a recommended scanner with an optional start date and end date
+	 * return a scanner of the views and the recommendations, within optional start / end range
 	 * @param startDate start date
 	 * @param endDate end date
-	 * @return
+	 * @return a scanner object
 	 */
-	public Scan getEventLogRecommendedScanner(Long startDate, Long endDate)
+	public Scan getEventLogScanner(Long startDate, Long endDate)
 	{
-		Scan scan = new Scan().addFamily(EVENTLOG_COLUMN_RECOMMENDED);
-		FilterList filters = new FilterList();
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getRecommendedItemKey())));
-		// timestamp filter:
-		if (startDate != null)
+		ScanBuilder builder = ScanBuilder.all().family(EVENTLOG_COLUMN_USERVIEW).mapreduce();
+		FilterList views = getTimeFilter(EVENTLOG_COLUMN_USERVIEW, startDate, endDate);
+		if (!views.getFilters().isEmpty())
 		{
-			SingleColumnValueFilter startFilter = new SingleColumnValueFilter(EVENTLOG_COLUMN_RECOMMENDED,
-					ModelConstants.TIMESTAMP, CompareOp.GREATER_OR_EQUAL, Bytes.toBytes(startDate.longValue()));
-			startFilter.setFilterIfMissing(true);
-			filters.addFilter(startFilter);
+			// a row is either a view or a recommendation, it passes if the time of its own family is in range. Without
+			// dates there is no filter at all, an empty MUST_PASS_ONE list would drop every row:
+			FilterList filters = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+			filters.addFilter(views);
+			filters.addFilter(getTimeFilter(EVENTLOG_COLUMN_RECOMMENDED, startDate, endDate));
+			builder.filter(filters);
 		}
 
-		if (endDate != null)
-		{
-			SingleColumnValueFilter endFilter = new SingleColumnValueFilter(EVENTLOG_COLUMN_RECOMMENDED,
-					ModelConstants.TIMESTAMP, CompareOp.LESS, Bytes.toBytes(endDate.longValue()));
-			endFilter.setFilterIfMissing(true);
-			filters.addFilter(endFilter);
-		}
+		Scan scan = builder.build();
+		scan.addFamily(EVENTLOG_COLUMN_RECOMMENDED);
+		return scan;
+	}
 
-		return scan.setFilter(filters);
+	/**
+	 * return a recommended scanner with an optional start date and end date
+	 * @param startDate start date
+	 * @param endDate end date
+	 * @return
+	 */
+	public Scan getEventLogRecommendedScanner(Long startDate, Long endDate)
+	{
+		return ScanBuilder.prefix(RowKeys.getRecommendedItemKey()).family(EVENTLOG_COLUMN_RECOMMENDED)
+				.filter(getTimeFilter(EVENTLOG_COLUMN_RECOMMENDED, startDate, endDate)).mapreduce().build();
 	}
 
 	/**
@@ -496,28 +496,35 @@ public class StatisticsTool extends ZieOokRunnerTool
 	 */
 	public Scan getEventLogViewScanner(Long startDate, Long endDate)
 	{
-		FilterList filters = new FilterList();
-
-		// row prefix filter:
-		filters.addFilter(new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(RowKeys.getUserViewKey())));
+		return ScanBuilder.prefix(RowKeys.getUserViewKey()).family(EVENTLOG_COLUMN_USERVIEW)
+				.filter(getTimeFilter(EVENTLOG_COLUMN_USERVIEW, startDate, endDate)).mapreduce().build();
+	}
 
-		// timestamp filter:
+	/**
+	 * Filter on the timestamp column of an event log family
+	 * @param family event log family
+	 * @param startDate optional start date
+	 * @param endDate optional end date
+	 * @return the filters, empty if there are no dates
+	 */
+	private static FilterList getTimeFilter(byte[] family, Long startDate, Long endDate)
+	{
+		FilterList filters = new FilterList();
 		if (startDate != null)
 		{
-			SingleColumnValueFilter startFilter = new SingleColumnValueFilter(EVENTLOG_COLUMN_USERVIEW,
-					ModelConstants.TIMESTAMP, CompareOp.GREATER_OR_EQUAL, Bytes.toBytes(startDate.longValue()));
+			SingleColumnValueFilter startFilter = new SingleColumnValueFilter(family, ModelConstants.TIMESTAMP,
+					CompareOp.GREATER_OR_EQUAL, Bytes.toBytes(startDate.longValue()));
 			startFilter.setFilterIfMissing(true);
 			filters.addFilter(startFilter);
 		}
 
 		if (endDate != null)
 		{
-			SingleColumnValueFilter endFilter = new SingleColumnValueFilter(EVENTLOG_COLUMN_USERVIEW,
-					ModelConstants.TIMESTAMP, CompareOp.LESS, Bytes.toBytes(endDate.longValue()));
+			SingleColumnValueFilter endFilter = new SingleColumnValueFilter(family, ModelConstants.TIMESTAMP,
+					CompareOp.LESS, Bytes.toBytes(endDate.longValue()));
 			endFilter.setFilterIfMissing(true);
 			filters.addFilter(endFilter);
 		}
-
-		return new Scan().addFamily(EVENTLOG_COLUMN_USERVIEW).setFilter(filters);
+		return filters;
 	}
-}
\ No newline at end of file
+}
@@ -19,52 +19,46 @@ package nl.gridline.zieook.runners.taalserver;
 
 import java.io.IOException;
 
-import nl.gridline.free.taalserver.CountDocumentsMap;
-import nl.gridline.free.taalserver.CountDocumentsReduce;
-import nl.gridline.free.taalserver.DocCountPerWordMap;
-import nl.gridline.free.taalserver.DocCountPerWordReduce;
-import nl.gridline.free.taalserver.TFIdfSerializeMap;
-import nl.gridline.free.taalserver.TFIdfSerializeReduce;
-import nl.gridline.free.taalserver.TokenizeMap;
-import nl.gridline.free.taalserver.TokenizeReduce;
-import nl.gridline.free.taalserver.WordCountMap;
-import nl.gridline.free.taalserver.WordCountPerDocMap;
-import nl.gridline.free.taalserver.WordCountPerDocReduce;
-import nl.gridline.free.taalserver.WordCountReduce;
-import nl.gridline.free.taalserver.writable.TFIdfWritable;
-import nl.gridline.free.taalserver.writable.WordCount;
-import nl.gridline.free.taalserver.writable.WordCountWordsPerDoc;
-import nl.gridline.free.taalserver.writable.WordCountWordsPerDocId;
-import nl.gridline.free.taalserver.writable.WordDocId;
-import nl.gridline.free.taalserver.writable.WordVector;
+import nl.gridline.free.taalserver.DocumentFrequencyReduce;
+import nl.gridline.free.taalserver.TFIdfMap;
+import nl.gridline.free.taalserver.TermDictionary;
+import nl.gridline.free.taalserver.TermDictionaryReduce;
+import nl.gridline.free.taalserver.TermFrequencyMap;
+import nl.gridline.free.taalserver.writable.TermVector;
 import nl.gridline.zieook.configuration.Config;
+import nl.gridline.zieook.mapreduce.RowKeys;
+import nl.gridline.zieook.mapreduce.ScanBuilder;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.runners.ZieOokRunnerTool;
 import nl.gridline.zieook.tasks.ZieOokTask;
 import nl.gridline.zieook.tasks.ZieOokTask.Level;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.filecache.DistributedCache;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
-import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
-import org.apache.hadoop.hbase.filter.RowFilter;
-import org.apache.hadoop.hbase.util.Bytes;
-import org.apache.hadoop.io.IntWritable;
-import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Reducer;
 import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
-import org.apache.mahout.cf.taste.hadoop.TasteHadoopUtils;
 import org.apache.mahout.math.VarIntWritable;
-import org.apache.mahout.math.VarLongWritable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * [purpose]
+ * Turns the text of the collection items into tf-idf preferences (term, item, tf-idf) for the item based recommender,
+ * in two passes:
+ * <ol>
+ * <li>{@link TermFrequencyMap} / {@link TermDictionaryReduce}: tokenize, write the term frequencies per document,
+ * sum the document frequencies per term and write the {@link TermDictionary} of the terms that are not pruned</li>
+ * <li>{@link TFIdfMap} (map only): resolve the terms to their dictionary ids, memory mapped from the distributed
+ * cache, and compute the tf-idf values</li>
+ * </ol>
+ * The terms are collision free integer ids in the preferences, or hashed ids if {@link TaskConfig#TEXT_FEATURE_BITS}
+ * is set.
  * <p />
  * Project zieook-runner<br />
  * FreeTextVectorizeTool.java created 20 jun. 2011
@@ -82,11 +76,7 @@ public class FreeTextVectorizeTool extends ZieOokRunnerTool
 	private String cp;
 	private String recommender;
 
-	private Path documentCountPath;
-	private Path vectorizePath;
-	private Path wordCountPath;
-	private Path wordCountPerDocPath;
-	private Path docCountPerWordPath;
+	private Path termFrequencyPath;
 	private Path outputPath;
 
 	/**
@@ -118,11 +108,7 @@ public class FreeTextVectorizeTool extends ZieOokRunnerTool
 		cleanup(tempDirPath);
 		cleanup(this.outputPath);
 
-		documentCountPath = new Path(tempDirPath, "documentCount");
-		vectorizePath = new Path(tempDirPath, "vectorize");
-		wordCountPath = new Path(tempDirPath, "wordCount");
-		wordCountPerDocPath = new Path(tempDirPath, "wordCountPerDoc");
-		docCountPerWordPath = new Path(tempDirPath, "docCountPerWord");
+		termFrequencyPath = new Path(tempDirPath, "termFrequency");
 
 		return this;
 	}
@@ -130,104 +116,64 @@ public class FreeTextVectorizeTool extends ZieOokRunnerTool
 	@Override
 	public boolean execute() throws IOException, InterruptedException, ClassNotFoundException
 	{
-
-		// TODO we can start round 0 & 1 in one go, and check the number of docs later on, when we need it.
-		// though like this we can stop processing as soon as we know there are no documents.
-
-		// round 0: count the number of documents:
-		Job countDocuments = prepareTableMapper(getInputTable(), documentCountPath, getInputScanner(),
-				CountDocumentsMap.class, LongWritable.class, VarLongWritable.class, CountDocumentsReduce.class,
-				VarIntWritable.class, NullWritable.class, TextOutputFormat.class);
-
-		boolean result = task.setCurrentJob(countDocuments).waitForCompletion(LOG.isDebugEnabled());
-		if (!result || task.isCancelled())
-		{
-			return result;
-		}
-
-		int numberOfDocuments = 0;
-		try
-		{
-			numberOfDocuments = TasteHadoopUtils.readIntFromFile(getConf(), documentCountPath);
-		}
-		catch (NumberFormatException e)
-		{
-			LOG.error("probably no data in <{}>", documentCountPath);
-			task.setMessage(Level.ERROR, "no documents to train recommender");
-			return false;
-		}
-
-		LOG.info("Number of documents: {}", numberOfDocuments);
-
-		// TODO if the number of documents is 0 or this throws an error we should stop!
-
-		// round 1: vectorize text:
-		Job vectorizeDocument = prepareTableMapper(getInputTable(), vectorizePath, getInputScanner(), TokenizeMap.class,
-				WordVector.class, LongWritable.class, TokenizeReduce.class, LongWritable.class, Text.class,
-				SequenceFileOutputFormat.class);
+		// pass 1: term frequencies per document (side files) & the term dictionary, the dictionary is sorted:
+		Job termFrequency = prepareTableMapper(getInputTable(), termFrequencyPath, getInputScanner(),
+				TermFrequencyMap.class, Text.class, VarIntWritable.class, TermDictionaryReduce.class, Text.class,
+				VarIntWritable.class, SequenceFileOutputFormat.class);
+		termFrequency.setCombinerClass(DocumentFrequencyReduce.class);
+		termFrequency.setNumReduceTasks(1);
 
 		// set text analysis parts:
-		vectorizeDocument.getConfiguration().set(TaskConfig.TEXT_ANALYSIS_USE_DESCRIPTION,
-				task.getConfig().get(TaskConfig.TEXT_ANALYSIS_USE_DESCRIPTION));
-		vectorizeDocument.getConfiguration().set(TaskConfig.TEXT_ANALYSIS_USE_TITLE,
-				task.getConfig().get(TaskConfig.TEXT_ANALYSIS_USE_TITLE));
-		vectorizeDocument.getConfiguration().set(TaskConfig.TEXT_ANALYSIS_USE_KEYWORDS,
-				task.getConfig().get(TaskConfig.TEXT_ANALYSIS_USE_KEYWORDS));
-
-		result = task.setCurrentJob(vectorizeDocument).waitForCompletion(LOG.isDebugEnabled());
-		if (!result || task.isCancelled())
+		Configuration conf = termFrequency.getConfiguration();
+		TaskConfig taskConfig = task.getConfig();
+		conf.set(TaskConfig.TEXT_ANALYSIS_USE_DESCRIPTION, taskConfig.get(TaskConfig.TEXT_ANALYSIS_USE_DESCRIPTION));
+		conf.set(TaskConfig.TEXT_ANALYSIS_USE_TITLE, taskConfig.get(TaskConfig.TEXT_ANALYSIS_USE_TITLE));
+		conf.set(TaskConfig.TEXT_ANALYSIS_USE_KEYWORDS, taskConfig.get(TaskConfig.TEXT_ANALYSIS_USE_KEYWORDS));
+
+		// term dictionary settings, the reducer has defaults:
+		for (String key : new String[]{TaskConfig.TEXT_DF_MIN, TaskConfig.TEXT_DF_MAX_PERCENT,
+				TaskConfig.TEXT_FEATURE_BITS})
 		{
-			return result;
+			if (taskConfig.get(key) != null)
+			{
+				conf.set(key, taskConfig.get(key));
+			}
 		}
 
-		// round 2: word count
-		Job wordCount = prepareJob(vectorizePath, wordCountPath, SequenceFileInputFormat.class, WordCountMap.class,
-				WordDocId.class, LongWritable.class, WordCountReduce.class, WordDocId.class, IntWritable.class,
-				SequenceFileOutputFormat.class);
-		result = task.setCurrentJob(wordCount).waitForCompletion(LOG.isDebugEnabled());
+		boolean result = task.setCurrentJob(termFrequency).waitForCompletion(LOG.isDebugEnabled());
 		if (!result || task.isCancelled())
 		{
 			return result;
 		}
 
-		// round 3: word count per document
-		Job wordCountPerDoc = prepareJob(wordCountPath, wordCountPerDocPath, SequenceFileInputFormat.class,
-				WordCountPerDocMap.class, LongWritable.class, WordCount.class, WordCountPerDocReduce.class,
-				WordDocId.class, WordCountWordsPerDoc.class, SequenceFileOutputFormat.class);
-		result = task.setCurrentJob(wordCountPerDoc).waitForCompletion(LOG.isDebugEnabled());
-		if (!result || task.isCancelled())
+		long numberOfDocuments = termFrequency.getCounters().findCounter(TermFrequencyMap.Counter.DOCUMENTS).getValue();
+		LOG.info("Number of documents: {}", numberOfDocuments);
+		if (numberOfDocuments == 0)
 		{
-			return result;
+			LOG.error("probably no data in <{}>", getInputTable());
+			task.setMessage(Level.ERROR, "no documents to train recommender");
+			return false;
 		}
 
-		// round 4: doc count per word:
-		Job docCountPerWord = prepareJob(wordCountPerDocPath, docCountPerWordPath, SequenceFileInputFormat.class,
-				DocCountPerWordMap.class, Text.class, WordCountWordsPerDocId.class, DocCountPerWordReduce.class,
-				WordDocId.class, TFIdfWritable.class, SequenceFileOutputFormat.class);
+		// pass 2: tf-idf preferences, map only:
+		Job tfIdf = prepareJob(new Path(termFrequencyPath, TermFrequencyMap.TF_PREFIX + "*"), outputPath,
+				SequenceFileInputFormat.class, TFIdfMap.class, Text.class, NullWritable.class, Reducer.class,
+				Text.class, NullWritable.class, TextOutputFormat.class);
+		tfIdf.setNumReduceTasks(0);
+		tfIdf.getConfiguration().setLong(TaskConfig.TEXT_DOCUMENT_COUNT, numberOfDocuments);
 
-		// write the number of documents in the config (needed to calculate the td-idf value)
-		docCountPerWord.getConfiguration().setLong(TaskConfig.TEXT_DOCUMENT_COUNT, numberOfDocuments);
-		result = task.setCurrentJob(docCountPerWord).waitForCompletion(LOG.isDebugEnabled());
-		if (!result || task.isCancelled())
-		{
-			return result;
-		}
+		// the term dictionary through the distributed cache:
+		DistributedCache.addCacheFile(new Path(termFrequencyPath, TermDictionary.FILE_NAME).toUri(),
+				tfIdf.getConfiguration());
 
-		// round 5: serialize to text, to prepare for collaborative filtering:
-		Job tfIdfSerialize = prepareJob(docCountPerWordPath, outputPath, SequenceFileInputFormat.class,
-				TFIdfSerializeMap.class, Text.class, NullWritable.class, TFIdfSerializeReduce.class, Text.class,
-				NullWritable.class, TextOutputFormat.class);
-		result = task.setCurrentJob(tfIdfSerialize).waitForCompletion(LOG.isDebugEnabled());
+		result = task.setCurrentJob(tfIdf).waitForCompletion(LOG.isDebugEnabled());
 
 		return result;
 	}
 
 	public Scan getInputScanner()
 	{
-		Scan scan = new Scan();
-		RowFilter filter = new RowFilter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(collection)));
-		scan.setFilter(filter);
-		return scan;
+		return ScanBuilder.prefix(RowKeys.getCollectionKey(collection)).mapreduce().build();
 	}
 
 }
@@ -18,11 +18,13 @@
 package nl.gridline.zieook.tasks;
 
 import java.io.IOException;
+import java.util.Date;
 
 import nl.gridline.zieook.configuration.Config;
 import nl.gridline.zieook.mapreduce.HBaseTableConstants;
 import nl.gridline.zieook.mapreduce.TaskConfig;
 import nl.gridline.zieook.runners.recommender.DataPrepareTool;
+import nl.gridline.zieook.runners.recommender.InMemoryRecommenderTool;
 import nl.gridline.zieook.runners.recommender.ItemBasedRecommenderTool;
 
 import org.slf4j.Logger;
@@ -95,8 +97,6 @@ public class ItemBasedRecommenderTask extends ZieOokTask
 
 		if (skipPrepare)
 		{
-			setProgress();
-			setMessage(ZieOokTask.Level.INFO, "item based recommender prepare skipped");
 			// if the prepare is skipped, we need an input
 			intermediate = configuration.get(TaskConfig.INPUT_PATH);
 			if (intermediate == null)
@@ -104,6 +104,58 @@ public class ItemBasedRecommenderTask extends ZieOokTask
 				throw new IOException("prepare is being skipped, but no input data is defined set <"
 						+ TaskConfig.INPUT_PATH + ">");
 			}
+		}
+		else
+		{
+			intermediate = root + "/" + cp + "/" + collection + "/" + recommender + "/input";
+		}
+
+		// small collections are computed in memory, without the prepare and the map reduce jobs:
+		if (!skipPrepare && Config.getInstance().getInt(Config.RECOMMENDER_INMEMORY_MAX_RATINGS, 0) > 0
+				&& !DataPrepareTool.hasFilter(configuration))
+		{
+			String inputtable = configuration.get(TaskConfig.INPUT_TABLE);
+			if (inputtable == null)
+			{
+				throw new IOException("input table <" + TaskConfig.INPUT_TABLE + "> not set in task");
+			}
+
+			InMemoryRecommenderTool inMemory = new InMemoryRecommenderTool(this).configure(inputtable, outputTable);
+			if (inMemory.load())
+			{
+				setProgress();
+				setMessage(ZieOokTask.Level.INFO, "starting in memory itembased recommender");
+				startModelGeneration(false);
+				if (inMemory.execute())
+				{
+					setMessage(ZieOokTask.Level.INFO, "finished itembased recommender");
+					// the cached model of the map reduce recommender is outdated, its next run is a full rebuild:
+					configuration.remove(TaskConfig.MODEL_STAMP);
+					setSucceed();
+				}
+				else
+				{
+					setMessage(ZieOokTask.Level.ERROR, "failed itembased recommender");
+					setFailed();
+				}
+				return;
+			}
+			LOG.info("collection <{}> is too large for the in memory recommender, using map reduce", collection);
+		}
+
+		// the recommender decides between an incremental run and a full rebuild, the prepare depends on it:
+		ItemBasedRecommenderTool recommenderTool = new ItemBasedRecommenderTool(this)
+				.configure(intermediate, outputTable).binaryInput(!skipPrepare);
+		// the cached model can only be updated if its generation is still the active one:
+		long modelStamp = isModelGenerationActive() ? configuration.getLong(TaskConfig.MODEL_STAMP, -1) : -1;
+		long incrementalRuns = configuration.getLong(TaskConfig.MODEL_INCREMENTAL_RUNS, 0);
+		boolean incremental = !skipPrepare && recommenderTool.setIncremental(modelStamp, incrementalRuns);
+		startModelGeneration(incremental);
+
+		if (skipPrepare)
+		{
+			setProgress();
+			setMessage(ZieOokTask.Level.INFO, "item based recommender prepare skipped");
 
 			LOG.info("prepare of data is skipped, assuming data is available in '{}' writing data to: {}", intermediate,
 					outputTable);
@@ -119,14 +171,19 @@ public class ItemBasedRecommenderTask extends ZieOokTask
 				throw new IOException("input table <" + TaskConfig.INPUT_TABLE + "> not set in task");
 			}
 
-			intermediate = root + "/" + cp + "/" + collection + "/" + recommender + "/input";
-
 			LOG.info("reading from {} writing to {})", inputtable, outputTable);
 
 			DataPrepareTool prepare = new DataPrepareTool(this);
 			prepare.configure(inputtable, HBaseTableConstants.COLLECTION_TABLE + cp, intermediate);
 			prepare.set(TaskConfig.COLLECTION, collection);
 			prepare.set(TaskConfig.CP, cp);
+			prepare.binary(true);
+			if (incremental)
+			{
+				// ratings written during the previous run are read again, that's harmless:
+				LOG.info("incremental run, reading ratings since {}", new Date(modelStamp * 1000));
+				prepare.since(modelStamp * 1000);
+			}
 			// execute
 			result = prepare.execute();
 			if (!result)
@@ -147,9 +204,8 @@ public class ItemBasedRecommenderTask extends ZieOokTask
 
 		// - create a RecommenderJob & execute
 		setProgress();
-		setMessage(ZieOokTask.Level.INFO, "starting itembased recommender");
-		ItemBasedRecommenderTool recommenderTool = new ItemBasedRecommenderTool(this)
-				.configure(intermediate, outputTable);
+		setMessage(ZieOokTask.Level.INFO, incremental ? "starting incremental itembased recommender"
+				: "starting itembased recommender");
 
 		// execute:
 		result = recommenderTool.execute();
@@ -162,6 +218,16 @@ public class ItemBasedRecommenderTask extends ZieOokTask
 		else
 		{
 			setMessage(ZieOokTask.Level.INFO, "finished itembased recommender");
+			if (skipPrepare)
+			{
+				// the model is not based on the ratings, the next run does a full rebuild:
+				configuration.remove(TaskConfig.MODEL_STAMP);
+			}
+			else
+			{
+				configuration.setProperty(TaskConfig.MODEL_STAMP, configuration.getStart(-1));
+				configuration.setProperty(TaskConfig.MODEL_INCREMENTAL_RUNS, incremental ? incrementalRuns + 1 : 0);
+			}
 			setSucceed();
 		}
 	}
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.tasks;
+
+import nl.gridline.zieook.mapreduce.TaskConfig;
+import nl.gridline.zieook.runners.movielens.RatingIndexTool;
+
+/**
+ * Back fills the rating index of the user table of a content provider, see {@link RatingIndexTool}
+ * <p />
+ * Project zieook-runner<br />
+ * RatingIndexTask.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class RatingIndexTask extends ZieOokTask
+{
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see nl.gridline.zieook.tasks.ZieOokTask#call()
+	 */
+	@Override
+	public void call() throws Exception
+	{
+		configuration.setStart();
+
+		String userTable = configuration.get(TaskConfig.INPUT_TABLE);
+
+		RatingIndexTool tool = new RatingIndexTool(this).configure(userTable);
+		setProgress();
+		setMessage(ZieOokTask.Level.INFO, "starting rating index task");
+
+		boolean success = tool.execute();
+
+		if (success)
+		{
+			setMessage(ZieOokTask.Level.INFO, "finished rating index task");
+			setSucceed();
+		}
+		else
+		{
+			setMessage(ZieOokTask.Level.ERROR, "failed rating index task");
+			setFailed();
+		}
+	}
+
+}
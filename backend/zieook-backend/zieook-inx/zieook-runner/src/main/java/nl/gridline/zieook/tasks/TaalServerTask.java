@@ -166,6 +166,7 @@ public class TaalServerTask extends ZieOokTask
 		// data is now prepared, or was available, now execute a normal itembased recommender:
 		ItemBasedRecommenderTool itembased = new ItemBasedRecommenderTool(this).configure(intermediate, outputTable);
 
+		startModelGeneration(false);
 		result = itembased.execute();
 
 		if (result)
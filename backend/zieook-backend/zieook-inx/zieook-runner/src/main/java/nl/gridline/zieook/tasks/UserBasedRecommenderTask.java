@@ -121,6 +121,7 @@ public class UserBasedRecommenderTask extends ZieOokTask
 					+ cp, intermediate);
 			prepare.set(TaskConfig.COLLECTION, collection);
 			prepare.set(TaskConfig.CP, cp);
+			prepare.binary(true);
 			// execute
 			result = prepare.execute();
 			if (!result)
@@ -140,8 +141,9 @@ public class UserBasedRecommenderTask extends ZieOokTask
 		setMessage(ZieOokTask.Level.INFO, "starting user-based recommender");
 		// - create a RecommenderJob & execute
 		UserBasedRecommenderTool recommenderTool = new UserBasedRecommenderTool(this)
-				.configure(intermediate, outputTable);
+				.configure(intermediate, outputTable).binaryInput(!skipPrepare);
 
+		startModelGeneration(false);
 		result = recommenderTool.execute();
 		if (!result)
 		{
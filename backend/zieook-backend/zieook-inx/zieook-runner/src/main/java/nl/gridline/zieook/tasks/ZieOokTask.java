@@ -443,6 +443,32 @@ public abstract class ZieOokTask implements Watcher
 		return configuration.getId();
 	}
 
+	/**
+	 * Returns true if the model generation written by the last run of this recommender task is the active one, so it
+	 * can be updated in place. It's not after a failed full run or a rollback of the model.
+	 * @return true if the last written generation is active
+	 */
+	protected boolean isModelGenerationActive()
+	{
+		return configuration.getLong(TaskConfig.MODEL_GENERATION, 0) == configuration.getLong(
+				TaskConfig.MODEL_GENERATION_ACTIVE, 0);
+	}
+
+	/**
+	 * Select the model generation the recommendations of this run are written to, the workflow activates it when the
+	 * task succeeds. A full run writes a new generation, so readers keep reading the active model until the new one is
+	 * complete. An incremental run updates the active generation in place.
+	 * @param incremental true for an incremental run
+	 * @return the generation
+	 */
+	protected long startModelGeneration(boolean incremental)
+	{
+		long generation = incremental ? configuration.getLong(TaskConfig.MODEL_GENERATION_ACTIVE, 0) : System
+				.currentTimeMillis();
+		configuration.setProperty(TaskConfig.MODEL_GENERATION, generation);
+		return generation;
+	}
+
 	public synchronized Job setCurrentJob(Job job)
 	{
 		currentJob = job;
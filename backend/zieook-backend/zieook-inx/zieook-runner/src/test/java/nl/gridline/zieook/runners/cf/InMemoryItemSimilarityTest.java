@@ -0,0 +1,354 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners.cf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import nl.gridline.zieook.inx.movielens.RowSimilarityZieOok;
+
+import org.apache.mahout.cf.taste.hadoop.TasteHadoopUtils;
+import org.apache.mahout.math.RandomAccessSparseVector;
+import org.apache.mahout.math.Vector;
+import org.apache.mahout.math.hadoop.similarity.Cooccurrence;
+import org.apache.mahout.math.hadoop.similarity.SimilarityType;
+import org.apache.mahout.math.hadoop.similarity.vector.DistributedVectorSimilarity;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Compares the rows of the in memory item similarity with a straightforward implementation of the map reduce steps
+ * (MaybePruneRowsMapper, RowSimilarityJob) on MovieLens shaped data: a generated sample and, if available, the first
+ * ratings of <tt>test-data-big/ratings.dat</tt>.
+ * <p />
+ * Project zieook-runner<br />
+ * InMemoryItemSimilarityTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class InMemoryItemSimilarityTest
+{
+	private static final File RATINGS_FILE = new File("test-data-big/ratings.dat");
+	private static final int RATINGS_FILE_LINES = 100000;
+
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void testGeneratedSample() throws Exception
+	{
+		long[][] ratings = generate(300, 200, 40, 1234);
+		for (SimilarityType type : SimilarityType.values())
+		{
+			String classname = type.getSimilarityImplementationClassName();
+			// small caps, both the pruning and the row limit are used:
+			compare(ratings, classname, 10, 20, false);
+			compare(ratings, classname, 10, 20, true);
+		}
+	}
+
+	@Test
+	public void testMovieLensRatings() throws Exception
+	{
+		// the movielens ratings are not part of the source tree:
+		Assume.assumeTrue(RATINGS_FILE.exists());
+		long[][] ratings = read(RATINGS_FILE, RATINGS_FILE_LINES);
+		// the default caps of the recommender:
+		compare(ratings, SimilarityType.SIMILARITY_LOGLIKELIHOOD.getSimilarityImplementationClassName(), 100, 100,
+				true);
+		compare(ratings, SimilarityType.SIMILARITY_PEARSON_CORRELATION.getSimilarityImplementationClassName(), 100,
+				100, false);
+	}
+
+	@Test
+	public void testLastPreferenceWins() throws Exception
+	{
+		String classname = SimilarityType.SIMILARITY_COSINE.getSimilarityImplementationClassName();
+		InMemoryItemSimilarity duplicates = new InMemoryItemSimilarity(classname, 10, 10, false);
+		InMemoryItemSimilarity single = new InMemoryItemSimilarity(classname, 10, 10, false);
+		long[][] ratings = generate(20, 10, 5, 42);
+		for (long[] r : ratings)
+		{
+			duplicates.addPreference(r[0], r[1], 5);
+			duplicates.addPreference(r[0], r[1], r[2]);
+			single.addPreference(r[0], r[1], r[2]);
+		}
+		assertEquals(2 * single.getPreferenceCount(), duplicates.getPreferenceCount());
+		assertRows(compute(single, 1), compute(duplicates, 2));
+	}
+
+	private void compare(long[][] ratings, String classname, int maxSimilarities, int maxCooccurrences,
+			boolean booleanData) throws Exception
+	{
+		InMemoryItemSimilarity similarity = new InMemoryItemSimilarity(classname, maxSimilarities, maxCooccurrences,
+				booleanData);
+		for (long[] r : ratings)
+		{
+			similarity.addPreference(r[0], r[1], r[2]);
+		}
+		Map<Integer, Map<Integer, Double>> expected = reference(ratings, classname, maxSimilarities,
+				maxCooccurrences, booleanData);
+		assertRows(expected, compute(similarity, 4));
+	}
+
+	private static void assertRows(Map<Integer, Map<Integer, Double>> expected,
+			Map<Integer, Map<Integer, Double>> actual)
+	{
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Integer, Map<Integer, Double>> row : expected.entrySet())
+		{
+			Map<Integer, Double> actualRow = actual.get(row.getKey());
+			assertEquals("row " + row.getKey(), row.getValue().keySet(), actualRow.keySet());
+			for (Map.Entry<Integer, Double> e : row.getValue().entrySet())
+			{
+				assertEquals(e.getValue(), actualRow.get(e.getKey()), EPSILON);
+			}
+		}
+	}
+
+	private static Map<Integer, Map<Integer, Double>> compute(InMemoryItemSimilarity similarity, int threads)
+			throws Exception
+	{
+		final Map<Integer, Map<Integer, Double>> result = new HashMap<Integer, Map<Integer, Double>>();
+		similarity.compute(threads, new InMemoryItemSimilarity.RowHandler()
+		{
+			@Override
+			public void row(int item, Vector similarities) throws IOException
+			{
+				Map<Integer, Double> row = toMap(similarities);
+				synchronized (result)
+				{
+					assertTrue("row written twice", result.put(item, row) == null);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Item similarities the way the map reduce jobs compute them, one step after the other
+	 */
+	private static Map<Integer, Map<Integer, Double>> reference(long[][] ratings, String classname,
+			int maxSimilarities, int maxCooccurrences, boolean booleanData)
+	{
+		// ToUserVectorReducer:
+		TreeMap<Long, Map<Integer, Double>> userVectors = new TreeMap<Long, Map<Integer, Double>>();
+		for (long[] r : ratings)
+		{
+			Map<Integer, Double> vector = userVectors.get(r[0]);
+			if (vector == null)
+			{
+				vector = new TreeMap<Integer, Double>();
+				userVectors.put(r[0], vector);
+			}
+			vector.put(TasteHadoopUtils.idToIndex(r[1]), booleanData ? 1.0 : (double) (float) r[2]);
+		}
+
+		// MaybePruneRowsMapper & ToItemVectorsReducer:
+		Map<Integer, Integer> indexCounts = new HashMap<Integer, Integer>();
+		TreeMap<Integer, Vector> itemVectors = new TreeMap<Integer, Vector>();
+		for (Map.Entry<Long, Map<Integer, Double>> user : userVectors.entrySet())
+		{
+			Map<Integer, Double> vector = user.getValue();
+			for (Integer index : vector.keySet())
+			{
+				Integer count = indexCounts.get(index);
+				indexCounts.put(index, count == null ? 1 : count + 1);
+			}
+			int cutoff = Integer.MAX_VALUE;
+			if (vector.size() > maxCooccurrences)
+			{
+				Map<Integer, Integer> countCounts = new HashMap<Integer, Integer>();
+				for (Integer index : vector.keySet())
+				{
+					int count = indexCounts.get(index);
+					countCounts.put(count, countCounts.containsKey(count) ? countCounts.get(count) + 1 : 1);
+				}
+				int resultingSizeAtCutoff = 0;
+				cutoff = 0;
+				while (resultingSizeAtCutoff <= maxCooccurrences)
+				{
+					cutoff++;
+					Integer delta = countCounts.get(cutoff);
+					resultingSizeAtCutoff += delta == null ? 0 : delta;
+				}
+			}
+			for (Map.Entry<Integer, Double> e : vector.entrySet())
+			{
+				if (indexCounts.get(e.getKey()) <= cutoff)
+				{
+					Vector itemVector = itemVectors.get(e.getKey());
+					if (itemVector == null)
+					{
+						itemVector = new RandomAccessSparseVector(Integer.MAX_VALUE, 100);
+						itemVectors.put(e.getKey(), itemVector);
+					}
+					itemVector.setQuick(TasteHadoopUtils.idToIndex(user.getKey()), e.getValue());
+				}
+			}
+		}
+
+		// RowSimilarityJob, all pairs including an item with itself:
+		DistributedVectorSimilarity similarity = RowSimilarityZieOok.instantiateSimilarity(classname);
+		Map<Integer, Double> weights = new HashMap<Integer, Double>();
+		for (Map.Entry<Integer, Vector> item : itemVectors.entrySet())
+		{
+			weights.put(item.getKey(), similarity.weight(item.getValue()));
+		}
+		Map<Integer, List<double[]>> candidates = new HashMap<Integer, List<double[]>>();
+		for (Integer rowA : itemVectors.keySet())
+		{
+			for (Integer rowB : itemVectors.tailMap(rowA).keySet())
+			{
+				List<Cooccurrence> cooccurrences = new ArrayList<Cooccurrence>();
+				Vector vectorB = itemVectors.get(rowB);
+				Iterator<Vector.Element> it = itemVectors.get(rowA).iterateNonZero();
+				while (it.hasNext())
+				{
+					Vector.Element e = it.next();
+					double valueB = vectorB.getQuick(e.index());
+					if (valueB != 0.0)
+					{
+						Cooccurrence cooccurrence = new Cooccurrence();
+						cooccurrence.set(e.index(), e.get(), valueB);
+						cooccurrences.add(cooccurrence);
+					}
+				}
+				if (cooccurrences.isEmpty())
+				{
+					continue;
+				}
+				double value = similarity.similarity(rowA, rowB, cooccurrences, weights.get(rowA), weights.get(rowB),
+						userVectors.size());
+				if (!Double.isNaN(value))
+				{
+					add(candidates, rowA, rowB, value);
+					if (!rowA.equals(rowB))
+					{
+						add(candidates, rowB, rowA, value);
+					}
+				}
+			}
+		}
+
+		// EntriesToVectorsReducer, most similar first:
+		Map<Integer, Map<Integer, Double>> result = new HashMap<Integer, Map<Integer, Double>>();
+		for (Map.Entry<Integer, List<double[]>> row : candidates.entrySet())
+		{
+			List<double[]> list = row.getValue();
+			Collections.sort(list, new Comparator<double[]>()
+			{
+				@Override
+				public int compare(double[] o1, double[] o2)
+				{
+					int c = Double.compare(o2[1], o1[1]);
+					return c != 0 ? c : Double.compare(o1[0], o2[0]);
+				}
+			});
+			Vector vector = new RandomAccessSparseVector(Integer.MAX_VALUE, maxSimilarities + 1);
+			for (double[] entry : list.subList(0, Math.min(list.size(), maxSimilarities + 1)))
+			{
+				vector.setQuick((int) entry[0], entry[1]);
+			}
+			result.put(row.getKey(), toMap(vector));
+		}
+		return result;
+	}
+
+	private static void add(Map<Integer, List<double[]>> candidates, int row, int column, double value)
+	{
+		List<double[]> list = candidates.get(row);
+		if (list == null)
+		{
+			list = new ArrayList<double[]>();
+			candidates.put(row, list);
+		}
+		list.add(new double[]{column, value});
+	}
+
+	private static Map<Integer, Double> toMap(Vector vector)
+	{
+		Map<Integer, Double> result = new HashMap<Integer, Double>();
+		Iterator<Vector.Element> it = vector.iterateNonZero();
+		while (it.hasNext())
+		{
+			Vector.Element e = it.next();
+			result.put(e.index(), e.get());
+		}
+		return result;
+	}
+
+	/**
+	 * MovieLens like ratings: 1 to 5 stars, a few popular items and a long tail
+	 * @return user, item, rating
+	 */
+	private static long[][] generate(int users, int items, int maxPerUser, long seed)
+	{
+		Random random = new Random(seed);
+		List<long[]> result = new ArrayList<long[]>();
+		for (int user = 1; user <= users; user++)
+		{
+			int count = 1 + random.nextInt(maxPerUser);
+			for (int i = 0; i < count; i++)
+			{
+				double r = random.nextDouble();
+				long item = 1 + (long) (r * r * items);
+				result.add(new long[]{user, item, 1 + random.nextInt(5)});
+			}
+		}
+		return result.toArray(new long[result.size()][]);
+	}
+
+	/**
+	 * Reads ratings in the MovieLens format: UserID::MovieID::Rating::Timestamp
+	 */
+	private static long[][] read(File file, int lines) throws IOException
+	{
+		List<long[]> result = new ArrayList<long[]>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try
+		{
+			String line;
+			while (result.size() < lines && (line = in.readLine()) != null)
+			{
+				String[] fields = line.split("::");
+				result.add(new long[]{Long.parseLong(fields[0]), Long.parseLong(fields[1]), Long.parseLong(fields[2])});
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		return result.toArray(new long[result.size()][]);
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.runners.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import nl.gridline.zieook.mapreduce.HBaseTableConstants;
+import nl.gridline.zieook.tasks.ZieOokTask;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the event log scan of the {@link StatisticsTool}
+ * <p />
+ * Project zieook-runner<br />
+ * StatisticsToolTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class StatisticsToolTest
+{
+	private static final byte[] VIEW = Bytes.toBytes(HBaseTableConstants.EVENTLOG_COLUMN_VIEW);
+	private static final byte[] RECOMMENDED = Bytes.toBytes(HBaseTableConstants.EVENTLOG_COLUMN_RECOMMENDED);
+
+	private final StatisticsTool tool = new StatisticsTool(new ZieOokTask()
+	{
+		@Override
+		public void call() throws Exception
+		{
+			// not executed
+		}
+	});
+
+	@Test
+	public void testEventLogScannerWithoutDates()
+	{
+		// no dates: every row, no (empty) filter that drops them all:
+		Scan scan = tool.getEventLogScanner(null, null);
+		assertNull(scan.getFilter());
+		assertTrue(scan.getFamilyMap().containsKey(VIEW));
+		assertTrue(scan.getFamilyMap().containsKey(RECOMMENDED));
+	}
+
+	@Test
+	public void testEventLogScannerWithDates()
+	{
+		Scan scan = tool.getEventLogScanner(1000L, 2000L);
+		assertTrue(scan.getFilter() instanceof FilterList);
+		FilterList filters = (FilterList) scan.getFilter();
+		assertEquals(FilterList.Operator.MUST_PASS_ONE, filters.getOperator());
+
+		// a filter per family, with the start and the end date:
+		assertEquals(2, filters.getFilters().size());
+		assertEquals(2, ((FilterList) filters.getFilters().get(0)).getFilters().size());
+		assertEquals(2, ((FilterList) filters.getFilters().get(1)).getFilters().size());
+
+		// only a start date:
+		scan = tool.getEventLogScanner(1000L, null);
+		filters = (FilterList) scan.getFilter();
+		assertEquals(1, ((FilterList) filters.getFilters().get(0)).getFilters().size());
+	}
+}
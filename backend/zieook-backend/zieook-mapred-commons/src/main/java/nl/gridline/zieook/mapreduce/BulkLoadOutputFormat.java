@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+/**
+ * Drop-in replacement of the <tt>TableOutputFormat</tt> for a <tt>TableReducer</tt> whose output is bulk loaded: the
+ * {@link Put} and {@link Delete} values are split into their {@link KeyValue}s and written to a sequence file of
+ * <tt>(row, KeyValue)</tt>. A second job sorts them into HFiles along the region boundaries of the table
+ * (<tt>HFileOutputFormat.configureIncrementalLoad</tt>), which are then loaded into the table.
+ * <p />
+ * Cells without a timestamp get the time the writer was created, like the region server does for a put. Deletes must
+ * name their families and, for a single column, the timestamp of the version: a delete of a complete row or of the
+ * latest version of a column can only be resolved by the region server.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * BulkLoadOutputFormat.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class BulkLoadOutputFormat<KEY> extends FileOutputFormat<KEY, Writable>
+{
+	/**
+	 * job configuration key of the table the output is loaded into
+	 */
+	public static final String TABLE = "zieook.bulkload.table";
+
+	@Override
+	public RecordWriter<KEY, Writable> getRecordWriter(TaskAttemptContext context) throws IOException,
+			InterruptedException
+	{
+		Configuration conf = context.getConfiguration();
+		Path file = getDefaultWorkFile(context, "");
+		FileSystem fs = file.getFileSystem(conf);
+		final SequenceFile.Writer out = SequenceFile.createWriter(fs, conf, file, ImmutableBytesWritable.class,
+				KeyValue.class);
+		final byte[] now = Bytes.toBytes(System.currentTimeMillis());
+
+		return new RecordWriter<KEY, Writable>()
+		{
+			private final ImmutableBytesWritable row = new ImmutableBytesWritable();
+
+			@Override
+			public void write(KEY key, Writable value) throws IOException
+			{
+				for (KeyValue kv : toKeyValues(value, now))
+				{
+					row.set(kv.getBuffer(), kv.getRowOffset(), kv.getRowLength());
+					out.append(row, kv);
+				}
+			}
+
+			@Override
+			public void close(TaskAttemptContext c) throws IOException
+			{
+				out.close();
+			}
+		};
+	}
+
+	/**
+	 * Returns the cells of a put or delete, cells with the latest timestamp get the given timestamp
+	 * @param value a {@link Put} or {@link Delete}
+	 * @param now timestamp for cells without a timestamp, as bytes
+	 * @return the cells of the value
+	 * @throws IOException if the value is not a put or delete, or if it's a delete that can't be bulk loaded
+	 */
+	public static List<KeyValue> toKeyValues(Writable value, byte[] now) throws IOException
+	{
+		Map<byte[], List<KeyValue>> families;
+		if (value instanceof Put)
+		{
+			families = ((Put) value).getFamilyMap();
+		}
+		else if (value instanceof Delete)
+		{
+			families = ((Delete) value).getFamilyMap();
+			if (families.isEmpty())
+			{
+				throw new IOException("a delete of a complete row can't be bulk loaded: "
+						+ Bytes.toStringBinary(((Delete) value).getRow()));
+			}
+		}
+		else
+		{
+			throw new IOException("Pass a Delete or a Put");
+		}
+
+		List<KeyValue> result = new ArrayList<KeyValue>();
+		for (List<KeyValue> cells : families.values())
+		{
+			for (KeyValue kv : cells)
+			{
+				if (kv.isLatestTimestamp() && kv.getType() == KeyValue.Type.Delete.getCode())
+				{
+					throw new IOException("a delete of the latest version can't be bulk loaded: " + kv);
+				}
+				kv.updateLatestStamp(now);
+				result.add(kv);
+			}
+		}
+		return result;
+	}
+}
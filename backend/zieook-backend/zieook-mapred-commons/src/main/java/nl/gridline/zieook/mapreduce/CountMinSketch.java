@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+/**
+ * Count-min sketch of <tt>long</tt> keys: approximate counts in a fixed amount of memory. An estimate is never lower
+ * than the real count, and it's higher by at most <tt>e / width</tt> times the total count with probability
+ * <tt>1 - e^-depth</tt>.
+ * <p />
+ * Not thread safe.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * CountMinSketch.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class CountMinSketch
+{
+	private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+			0xD6E8FEB86659FD93L, 0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L};
+
+	private final int[][] counts;
+	private final int mask;
+	private long total;
+
+	/**
+	 * @param width number of counters per row, rounded up to a power of two
+	 * @param depth number of rows (hash functions), at most 8
+	 */
+	public CountMinSketch(int width, int depth)
+	{
+		if (depth < 1 || depth > SEEDS.length)
+		{
+			throw new IllegalArgumentException("depth should be between 1 and " + SEEDS.length + ": " + depth);
+		}
+		int w = 1;
+		while (w < width)
+		{
+			w <<= 1;
+		}
+		counts = new int[depth][w];
+		mask = w - 1;
+	}
+
+	/**
+	 * Add to the count of a key
+	 * @param key the key
+	 * @param count the count, positive
+	 */
+	public void add(long key, int count)
+	{
+		for (int i = 0; i < counts.length; i++)
+		{
+			counts[i][index(key, i)] += count;
+		}
+		total += count;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the estimated count of the key
+	 */
+	public int estimate(long key)
+	{
+		int result = Integer.MAX_VALUE;
+		for (int i = 0; i < counts.length; i++)
+		{
+			result = Math.min(result, counts[i][index(key, i)]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return sum of all counts
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+
+	private int index(long key, int row)
+	{
+		long h = (key ^ SEEDS[row]) * SEEDS[(row + 1) % SEEDS.length];
+		h ^= h >>> 29;
+		return (int) h & mask;
+	}
+}
@@ -58,6 +58,8 @@ public class HBasePUTFactory
 			.toBytes(HBaseTableConstants.STATS_RECOMMENDED_USERITEM);
 	private static final byte[] STATS_RECOMMENDED_USER = Bytes.toBytes(HBaseTableConstants.STATS_RECOMMENDED_USER);
 	private static final byte[] STATS_ITEM_POPULARITY = Bytes.toBytes(HBaseTableConstants.STATS_ITEM_POPULARITY);
+	private static final byte[] STATS_ITEM_POPULARITY_DAY = Bytes
+			.toBytes(HBaseTableConstants.STATS_ITEM_POPULARITY_DAY);
 
 	private static Put putAll(Put put, byte[] family, Map<byte[], byte[]> map)
 	{
@@ -125,6 +127,20 @@ public class HBasePUTFactory
 		return putAll(put, STATS_ITEM_POPULARITY, new Popularity(item, popularity, absolute, date, name).toMap());
 	}
 
+	/**
+	 * put the number of ratings of an item on a single day, replaces the previous count of that day
+	 * @param collection
+	 * @param item
+	 * @param day start of the day in ms
+	 * @param count
+	 * @return a put object
+	 */
+	public static Put putStatisticsPopularityDay(String collection, long item, long day, long count)
+	{
+		return new Put(RowKeys.getStatsPopularityDay(collection, item)).add(STATS_ITEM_POPULARITY_DAY,
+				Bytes.toBytes(day), Bytes.toBytes(count));
+	}
+
 	/**
 	 * @param user
 	 * @param recommender
@@ -53,6 +53,11 @@ public final class HBaseTableConstants
 	 */
 	public static final String USERTABLE_COLUMN_RATING = "rating";
 
+	/**
+	 * User table column for the reverse time index of the user ratings
+	 */
+	public static final String USERTABLE_COLUMN_RATING_INDEX = "rating_index";
+
 	/**
 	 * Statistics column for recommendation views
 	 */
@@ -143,6 +148,11 @@ public final class HBaseTableConstants
 	 */
 	public static final String CONFIGURATION_COLUMN_ZIEOOK_TASK = "config_task";
 
+	/**
+	 * dictionary ids of names used in binary row keys
+	 */
+	public static final String CONFIGURATION_COLUMN_DICTIONARY = "config_dictionary";
+
 	/**
 	 * recommendations table prefix
 	 */
@@ -169,6 +179,21 @@ public final class HBaseTableConstants
 	public static final String STATS_ITEM_POPULARITY = "stats-item-popularity";
 	public static final String STATS_RECOMMENDER_ITEM = "recommender-item-stats";
 
+	/**
+	 * statistics column family of the ratings per item per day, the popularity spans are summed from these buckets
+	 */
+	public static final String STATS_ITEM_POPULARITY_DAY = "stats-item-popularity-day";
+
+	/**
+	 * statistics column family of the materialised top lists, see {@link Leaderboards}
+	 */
+	public static final String STATS_LEADERBOARD = "stats-leaderboard";
+
+	/**
+	 * statistics column family of the hourly real-time counters written by the data server
+	 */
+	public static final String STATS_LIVE = "stats-live";
+
 	public static final String TIMESTAMP = "timestamp";
 
 	public static final String SUPPORT_TABLE_NAME = PREFIX + "support_table_";
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-mapper aggregation of counts: the counts are kept per group (the part of the output key that is not an
+ * id) in a {@link LongCounts} per group, and emitted summed by {@link #flush(Emitter)}. A mapper adds its counts
+ * instead of writing a one per row, flushes when {@link #isFull()} and in its cleanup. The reducer (and a combiner)
+ * still sum, so the result is the same, the shuffle only carries one record per key per flush.
+ * <p />
+ * The number of entries is bounded by {@link #MAX_ENTRIES}, and the counts are flushed early when the free heap of the
+ * task drops below 10% of the maximum heap.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * InMapperCounts.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class InMapperCounts<G>
+{
+	/**
+	 * job configuration key of the maximum number of entries kept before a flush
+	 */
+	public static final String MAX_ENTRIES = "zieook.inmapper.maxentries";
+
+	public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+	// the free memory is checked once per this number of new entries:
+	private static final int MEMORY_CHECK_INTERVAL = 1024;
+
+	/**
+	 * Receives the aggregated counts
+	 */
+	public interface Emitter<G>
+	{
+		/**
+		 * @param group the group
+		 * @param id the id within the group
+		 * @param count summed count
+		 */
+		void emit(G group, long id, long count) throws IOException, InterruptedException;
+	}
+
+	private final Map<G, LongCounts> groups = new HashMap<G, LongCounts>();
+	private final int maxEntries;
+	private int entries;
+	private boolean lowMemory;
+
+	/**
+	 * @param maxEntries maximum number of entries before {@link #isFull()} returns true
+	 */
+	public InMapperCounts(int maxEntries)
+	{
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Add a count
+	 * @param group the group, copied by {@link #copy(Object)} when it's new, so a reused key can be passed
+	 * @param id the id within the group
+	 * @param count the count
+	 */
+	public void add(G group, long id, long count)
+	{
+		LongCounts counts = groups.get(group);
+		if (counts == null)
+		{
+			counts = new LongCounts();
+			groups.put(copy(group), counts);
+		}
+		if (counts.add(id, count) && ++entries % MEMORY_CHECK_INTERVAL == 0)
+		{
+			Runtime runtime = Runtime.getRuntime();
+			long free = runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+			lowMemory = free < runtime.maxMemory() / 10;
+		}
+	}
+
+	/**
+	 * @return true if the counts should be flushed
+	 */
+	public boolean isFull()
+	{
+		return entries >= maxEntries || lowMemory;
+	}
+
+	/**
+	 * @return number of entries (group and id combinations)
+	 */
+	public int size()
+	{
+		return entries;
+	}
+
+	/**
+	 * Emit all counts and clear
+	 * @param emitter receives the counts
+	 */
+	public void flush(Emitter<G> emitter) throws IOException, InterruptedException
+	{
+		for (Map.Entry<G, LongCounts> entry : groups.entrySet())
+		{
+			LongCounts counts = entry.getValue();
+			for (int i = counts.next(0); i >= 0; i = counts.next(i + 1))
+			{
+				emitter.emit(entry.getKey(), counts.getKey(i), counts.getValue(i));
+			}
+		}
+		groups.clear();
+		entries = 0;
+		lowMemory = false;
+	}
+
+	/**
+	 * Returns a copy of a group, the group objects passed to {@link #add(Object, long, long)} are often reused by the
+	 * caller. Immutable groups don't need to be copied.
+	 * @param group the group
+	 * @return the copy
+	 */
+	protected G copy(G group)
+	{
+		return group;
+	}
+}
@@ -0,0 +1,310 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Versioned binary row key format, replaces the url encoded string keys of {@link RowKeys} table by table.
+ * <p />
+ * A binary key starts with a one byte tag: the high bit is set, the next three bits hold the format version and the
+ * low four bits the key type. Content provider, collection and recommender names are stored as fixed width dictionary
+ * ids (see {@link TaskConfig#COLLECTION_ID}) and all numbers as fixed width big endian longs, so a key never needs a
+ * separator and prefix scans stay exact. The string keys never start with a byte that has the high bit set (they are
+ * url encoded) and neither do salted keys (see {@link SaltedKeys}), so both layouts can live in the same table during
+ * a migration.
+ * <p />
+ * The {@link Writer} and {@link Reader} can be reused for many keys, they do not allocate while encoding or decoding.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * KeyCodec.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public final class KeyCodec
+{
+	/**
+	 * Current key format version
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * key type: recommendations of an item or user, <tt>[collection][recommender][generation][id]</tt>
+	 */
+	public static final int RECOMMENDATION = 1;
+
+	/**
+	 * size of a dictionary id
+	 */
+	public static final int NAME_SIZE = Bytes.SIZEOF_INT;
+
+	private static final int BINARY = 0x80;
+
+	private KeyCodec()
+	{
+		// hide constructor
+	}
+
+	/**
+	 * Returns the tag byte of a key type in the current version
+	 * @param type key type
+	 * @return tag byte
+	 */
+	public static byte getTag(int type)
+	{
+		if (type < 0 || type > 0x0f)
+		{
+			throw new IllegalArgumentException("key type should be in [0,15]: " + type);
+		}
+		return (byte) (BINARY | (VERSION << 4) | type);
+	}
+
+	/**
+	 * @param row a row key
+	 * @return true if the row is a binary key, of any version
+	 */
+	public static boolean isBinary(byte[] row)
+	{
+		return row.length > 0 && (row[0] & BINARY) != 0;
+	}
+
+	/**
+	 * @param row a binary row key
+	 * @return the format version of the key
+	 */
+	public static int getVersion(byte[] row)
+	{
+		return (row[0] >> 4) & 0x07;
+	}
+
+	/**
+	 * @param row a binary row key
+	 * @return the type of the key
+	 */
+	public static int getType(byte[] row)
+	{
+		return row[0] & 0x0f;
+	}
+
+	/**
+	 * Write an int big endian in the given buffer
+	 * @param buffer buffer
+	 * @param offset offset in the buffer
+	 * @param value value
+	 * @return offset after the value
+	 */
+	public static int putInt(byte[] buffer, int offset, int value)
+	{
+		buffer[offset] = (byte) (value >>> 24);
+		buffer[offset + 1] = (byte) (value >>> 16);
+		buffer[offset + 2] = (byte) (value >>> 8);
+		buffer[offset + 3] = (byte) value;
+		return offset + Bytes.SIZEOF_INT;
+	}
+
+	/**
+	 * Write a long big endian in the given buffer
+	 * @param buffer buffer
+	 * @param offset offset in the buffer
+	 * @param value value
+	 * @return offset after the value
+	 */
+	public static int putLong(byte[] buffer, int offset, long value)
+	{
+		putInt(buffer, offset, (int) (value >>> 32));
+		putInt(buffer, offset + Bytes.SIZEOF_INT, (int) value);
+		return offset + Bytes.SIZEOF_LONG;
+	}
+
+	/**
+	 * Reusable binary key writer
+	 */
+	public static final class Writer
+	{
+		private byte[] buffer;
+		private int length;
+
+		/**
+		 * Create a writer, the buffer grows when needed
+		 * @param capacity initial capacity in bytes
+		 */
+		public Writer(int capacity)
+		{
+			buffer = new byte[Math.max(capacity, 1)];
+		}
+
+		/**
+		 * Start a new key, the previous key is discarded
+		 * @param type key type
+		 * @return this writer
+		 */
+		public Writer start(int type)
+		{
+			length = 0;
+			buffer[length++] = getTag(type);
+			return this;
+		}
+
+		/**
+		 * Append a dictionary id
+		 * @param id dictionary id
+		 * @return this writer
+		 */
+		public Writer putName(int id)
+		{
+			ensure(NAME_SIZE);
+			length = putInt(buffer, length, id);
+			return this;
+		}
+
+		/**
+		 * Append a long
+		 * @param value value
+		 * @return this writer
+		 */
+		public Writer putLong(long value)
+		{
+			ensure(Bytes.SIZEOF_LONG);
+			length = KeyCodec.putLong(buffer, length, value);
+			return this;
+		}
+
+		/**
+		 * @return the length of the current key
+		 */
+		public int getLength()
+		{
+			return length;
+		}
+
+		/**
+		 * @return the internal buffer, the current key is in the first {@link #getLength()} bytes
+		 */
+		public byte[] getBuffer()
+		{
+			return buffer;
+		}
+
+		/**
+		 * @return a copy of the current key
+		 */
+		public byte[] toBytes()
+		{
+			return Arrays.copyOf(buffer, length);
+		}
+
+		private void ensure(int size)
+		{
+			if (length + size > buffer.length)
+			{
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + size));
+			}
+		}
+	}
+
+	/**
+	 * Reusable binary key reader
+	 */
+	public static final class Reader
+	{
+		private byte[] row;
+		private int position;
+		private int end;
+
+		/**
+		 * Start reading a key, the tag is read and checked
+		 * @param row the row key
+		 * @return this reader
+		 */
+		public Reader wrap(byte[] row)
+		{
+			return wrap(row, 0, row.length);
+		}
+
+		/**
+		 * Start reading a key, the tag is read and checked
+		 * @param buffer buffer containing the key
+		 * @param offset offset of the key
+		 * @param length length of the key
+		 * @return this reader
+		 * @throws IllegalArgumentException if the key is not a binary key of the current version
+		 */
+		public Reader wrap(byte[] buffer, int offset, int length)
+		{
+			if (length < 1 || (buffer[offset] & BINARY) == 0 || ((buffer[offset] >> 4) & 0x07) != VERSION)
+			{
+				throw new IllegalArgumentException("not a version " + VERSION + " binary key: "
+						+ Bytes.toStringBinary(buffer, offset, length));
+			}
+			this.row = buffer;
+			this.position = offset + 1;
+			this.end = offset + length;
+			return this;
+		}
+
+		/**
+		 * @return the type of the key
+		 */
+		public int getType()
+		{
+			return row[position - 1] & 0x0f;
+		}
+
+		/**
+		 * @return the next dictionary id
+		 */
+		public int getName()
+		{
+			check(NAME_SIZE);
+			int result = Bytes.toInt(row, position);
+			position += NAME_SIZE;
+			return result;
+		}
+
+		/**
+		 * @return the next long
+		 */
+		public long getLong()
+		{
+			check(Bytes.SIZEOF_LONG);
+			long result = Bytes.toLong(row, position);
+			position += Bytes.SIZEOF_LONG;
+			return result;
+		}
+
+		/**
+		 * @return number of bytes left in the key
+		 */
+		public int remaining()
+		{
+			return end - position;
+		}
+
+		private void check(int size)
+		{
+			if (position + size > end)
+			{
+				throw new IllegalArgumentException("key too short: " + Bytes.toStringBinary(row));
+			}
+		}
+	}
+}
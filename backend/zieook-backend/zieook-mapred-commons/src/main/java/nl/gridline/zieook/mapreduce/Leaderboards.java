@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import nl.gridline.zieook.model.ModelConstants;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Layout of the materialised top lists (leaderboards) in the statistics table. The statistics task writes one row
+ * per list, scope (recommender or collection) and time window, so the data API reads a top list with a single get. Per
+ * user lists are not materialised: a row per user and window would multiply the statistics writes, the data API reads
+ * them with a prefix scan.
+ * <p />
+ * Every column qualifier starts with a 4 byte rank, followed by the qualifier of the ranked statistics row (see
+ * {@link nl.gridline.zieook.model.GroupedData#toMap()}). The list itself is described by the columns of rank -1: the
+ * number of entries, the maximum number of entries and the end date of the statistics run.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * Leaderboards.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public final class Leaderboards
+{
+	/**
+	 * most viewed items per recommender
+	 */
+	public static final String VIEWED = "viewed";
+
+	/**
+	 * most used sources per recommender
+	 */
+	public static final String SOURCES = "sources";
+
+	/**
+	 * most rated items per collection
+	 */
+	public static final String RATED = "rated";
+
+	/**
+	 * most recommended items per collection, only kept by the real-time statistics of the data server
+	 */
+	public static final String RECOMMENDED = "recommended";
+
+	/**
+	 * time window without limits
+	 */
+	public static final String ALL = "all";
+
+	private static final int META = -1;
+	private static final byte[] ENTRIES = Bytes.toBytes("entries");
+	private static final byte[] CAPACITY = Bytes.toBytes("capacity");
+
+	private Leaderboards()
+	{
+		// hide constructor
+	}
+
+	/**
+	 * Create the put of a top list
+	 * @param row row key, see {@link RowKeys#getStatLeaderboardKey(String, String, String)}
+	 * @param family leaderboard column family
+	 * @param ranked the ranked statistics rows, best first
+	 * @param capacity maximum number of entries of the list
+	 * @param date end date of the statistics run
+	 * @return a put
+	 */
+	public static Put createPut(byte[] row, byte[] family, List<? extends Map<byte[], byte[]>> ranked, int capacity,
+			long date)
+	{
+		Put put = new Put(row);
+		for (int rank = 0; rank < ranked.size(); rank++)
+		{
+			for (Map.Entry<byte[], byte[]> entry : ranked.get(rank).entrySet())
+			{
+				put.add(family, getQualifier(rank, entry.getKey()), entry.getValue());
+			}
+		}
+		put.add(family, getQualifier(META, ENTRIES), Bytes.toBytes(ranked.size()));
+		put.add(family, getQualifier(META, CAPACITY), Bytes.toBytes(capacity));
+		put.add(family, getQualifier(META, ModelConstants.TIMESTAMP), Bytes.toBytes(date));
+		return put;
+	}
+
+	/**
+	 * Read the first <tt>size</tt> entries of a top list
+	 * @param columns the leaderboard family of the row
+	 * @param size number of entries
+	 * @return the statistics rows, best first, or null if the list is missing or holds less than <tt>size</tt>
+	 *         entries while it was truncated
+	 */
+	public static List<NavigableMap<byte[], byte[]>> getRanked(NavigableMap<byte[], byte[]> columns, int size)
+	{
+		if (columns == null)
+		{
+			return null;
+		}
+		byte[] entriesValue = columns.get(getQualifier(META, ENTRIES));
+		byte[] capacityValue = columns.get(getQualifier(META, CAPACITY));
+		if (entriesValue == null || capacityValue == null)
+		{
+			return null;
+		}
+		int entries = Bytes.toInt(entriesValue);
+		if (size > entries && entries >= Bytes.toInt(capacityValue))
+		{
+			// the list was cut off, it can't answer this size:
+			return null;
+		}
+
+		int n = Math.min(size, entries);
+		List<NavigableMap<byte[], byte[]>> result = new ArrayList<NavigableMap<byte[], byte[]>>(n);
+		for (int i = 0; i < n; i++)
+		{
+			result.add(new TreeMap<byte[], byte[]>(Bytes.BYTES_COMPARATOR));
+		}
+		for (Map.Entry<byte[], byte[]> entry : columns.entrySet())
+		{
+			byte[] qualifier = entry.getKey();
+			if (qualifier.length <= Bytes.SIZEOF_INT)
+			{
+				continue;
+			}
+			int rank = Bytes.toInt(qualifier, 0);
+			// skips the meta data, and ranks left behind by an older, longer list:
+			if (rank >= 0 && rank < n)
+			{
+				byte[] field = Arrays.copyOfRange(qualifier, Bytes.SIZEOF_INT, qualifier.length);
+				result.get(rank).put(field, entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param columns the leaderboard family of the row
+	 * @return end date of the statistics run that wrote the list, or null
+	 */
+	public static Long getDate(NavigableMap<byte[], byte[]> columns)
+	{
+		byte[] value = columns == null ? null : columns.get(getQualifier(META, ModelConstants.TIMESTAMP));
+		return value == null ? null : Bytes.toLong(value);
+	}
+
+	private static byte[] getQualifier(int rank, byte[] qualifier)
+	{
+		return Bytes.add(Bytes.toBytes(rank), qualifier);
+	}
+}
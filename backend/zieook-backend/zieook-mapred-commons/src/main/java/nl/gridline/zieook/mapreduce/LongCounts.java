@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.util.Arrays;
+
+/**
+ * Primitive <tt>long</tt> => <tt>long</tt> counter: an open addressing hash map (linear probing) over two arrays, no
+ * objects per entry. Iterate the entries with {@link #next(int)}:
+ * 
+ * <pre>
+ * for (int i = counts.next(0); i &gt;= 0; i = counts.next(i + 1))
+ * {
+ * 	emit(counts.getKey(i), counts.getValue(i));
+ * }
+ * </pre>
+ * 
+ * Not thread safe.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * LongCounts.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LongCounts
+{
+	private long[] keys;
+	private long[] values;
+	private boolean[] used;
+	private int size;
+	private int mask;
+
+	public LongCounts()
+	{
+		this(16);
+	}
+
+	/**
+	 * @param capacity expected number of keys
+	 */
+	public LongCounts(int capacity)
+	{
+		int length = 8;
+		while (length < capacity * 2)
+		{
+			length <<= 1;
+		}
+		allocate(length);
+	}
+
+	private void allocate(int length)
+	{
+		keys = new long[length];
+		values = new long[length];
+		used = new boolean[length];
+		mask = length - 1;
+		size = 0;
+	}
+
+	/**
+	 * Add to the count of a key
+	 * @param key the key
+	 * @param delta value added to the count
+	 * @return true if the key is new
+	 */
+	public boolean add(long key, long delta)
+	{
+		int i = slot(key);
+		if (used[i])
+		{
+			values[i] += delta;
+			return false;
+		}
+		used[i] = true;
+		keys[i] = key;
+		values[i] = delta;
+		if (++size * 2 > keys.length)
+		{
+			grow();
+		}
+		return true;
+	}
+
+	/**
+	 * @param key the key
+	 * @return the count of the key, 0 if the key is not counted
+	 */
+	public long get(long key)
+	{
+		int i = slot(key);
+		return used[i] ? values[i] : 0;
+	}
+
+	/**
+	 * @return number of keys
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Remove all keys, keeps the allocated arrays
+	 */
+	public void clear()
+	{
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Returns the first used slot at or after the given slot
+	 * @param slot start slot, 0 for the first entry
+	 * @return the slot, or -1 if there are no more entries
+	 */
+	public int next(int slot)
+	{
+		for (int i = slot; i < used.length; i++)
+		{
+			if (used[i])
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param slot a slot returned by {@link #next(int)}
+	 * @return the key in the slot
+	 */
+	public long getKey(int slot)
+	{
+		return keys[slot];
+	}
+
+	/**
+	 * @param slot a slot returned by {@link #next(int)}
+	 * @return the count in the slot
+	 */
+	public long getValue(int slot)
+	{
+		return values[slot];
+	}
+
+	private int slot(long key)
+	{
+		// mix the bits, ids are often sequential:
+		long h = key * 0x9E3779B97F4A7C15L;
+		int i = (int) (h ^ (h >>> 32)) & mask;
+		while (used[i] && keys[i] != key)
+		{
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	private void grow()
+	{
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldUsed[i])
+			{
+				int s = slot(oldKeys[i]);
+				used[s] = true;
+				keys[s] = oldKeys[i];
+				values[s] = oldValues[i];
+				size++;
+			}
+		}
+	}
+}
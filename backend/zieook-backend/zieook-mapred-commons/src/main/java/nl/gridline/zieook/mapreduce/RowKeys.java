@@ -48,6 +48,8 @@ public final class RowKeys
 
 	private static final String LOCATION = "nl";
 	private static final String RATING = "R";
+	private static final String RATING_INDEX = "rating_t";
+	private static final String RATING_INDEX_READY = "0000_RATING_INDEX";
 
 	private static final String USER_VIEW_PREFIX = "user";
 	private static final String USER_VIEW_INDEX = "user_t";
@@ -61,7 +63,15 @@ public final class RowKeys
 	private static final String STATS_RATINGS_USER_PREFIX = "stat-rating-user";
 	private static final String STATS_VIEWED = "stat-viewed";
 	private static final String STATS_POPULARITY = "stat_popularity";
+	private static final String STATS_POPULARITY_DAY = "stat-popularity-day";
+	private static final String STATS_POPULARITY_COUNTED = "stat-popularity-counted";
+	private static final String STATS_LEADERBOARD = "stat-leaderboard";
+	private static final String STATS_LIVE = "stat-live";
 	private static final String METADATA_PREFIX = "collection/metadata";
+	private static final String METADATA_STAMP = "metadata";
+
+	private static final String DICTIONARY = "dictionary";
+	private static final int RECOMMENDATION_KEY_SIZE = 1 + (2 * KeyCodec.NAME_SIZE) + (2 * Bytes.SIZEOF_LONG);
 
 	private static final String RECOMMENDER_PREFIX = "recommender";
 	private static final String TASK = "task";
@@ -650,6 +660,16 @@ public final class RowKeys
 		return getRowKey(METADATA_PREFIX);
 	}
 
+	/**
+	 * return the row key of the meta data stamp of a content provider
+	 * @param cp content provider
+	 * @return <tt>metadata/cp</tt>
+	 */
+	public static byte[] getMetadataKey(String cp)
+	{
+		return getRowKey(METADATA_STAMP, cp);
+	}
+
 	/**
 	 * return a row key
 	 * @param collection
@@ -661,6 +681,161 @@ public final class RowKeys
 		return getRowKey(collection, recommender, item);
 	}
 
+	/**
+	 * return the row key of an item in a model generation, generation 0 is the unversioned model
+	 * @param collection
+	 * @param recommender
+	 * @param generation model generation
+	 * @param item
+	 * @return <tt>collection/recommender[generation][item]</tt>, or <tt>collection/recommender[item]</tt> for
+	 *         generation 0
+	 */
+	public static byte[] getRecommendationKey(String collection, String recommender, long generation, long item)
+	{
+		if (generation == 0)
+		{
+			return getRowKey(collection, recommender, item);
+		}
+		return getRowKey(collection, recommender, generation, item);
+	}
+
+	/**
+	 * return the prefix of the rows of a model generation, the rows of the generation are exactly one long (the item)
+	 * longer than the prefix. The prefix of generation 0 is also the prefix of the other generations.
+	 * @param collection
+	 * @param recommender
+	 * @param generation model generation
+	 * @return <tt>collection/recommender[generation]</tt> or <tt>collection/recommender</tt> for generation 0
+	 */
+	public static byte[] getRecommendationGenerationKey(String collection, String recommender, long generation)
+	{
+		if (generation == 0)
+		{
+			return getRowKey(collection, recommender);
+		}
+		return getRowKey(collection, recommender, generation);
+	}
+
+	/**
+	 * return the binary row key of an item in a model generation, see {@link KeyCodec}
+	 * @param collection collection dictionary id
+	 * @param recommender recommender dictionary id
+	 * @param generation model generation, 0 for the unversioned model
+	 * @param item
+	 * @return <tt>[tag][collection][recommender][generation][item]</tt>
+	 */
+	public static byte[] getRecommendationKey(int collection, int recommender, long generation, long item)
+	{
+		final byte[] result = new byte[RECOMMENDATION_KEY_SIZE];
+		int offset = putRecommendationPrefix(result, collection, recommender, generation);
+		KeyCodec.putLong(result, offset, item);
+		return result;
+	}
+
+	/**
+	 * return the row key of an item in a model generation, binary if the names have a dictionary id
+	 * @param collection
+	 * @param recommender
+	 * @param collectionId collection dictionary id, negative if it has none
+	 * @param recommenderId recommender dictionary id, negative if it has none
+	 * @param generation model generation, 0 for the unversioned model
+	 * @param item
+	 * @return the binary key if both ids are known, the string key otherwise
+	 */
+	public static byte[] getRecommendationKey(String collection, String recommender, int collectionId,
+			int recommenderId, long generation, long item)
+	{
+		if (collectionId < 0 || recommenderId < 0)
+		{
+			return getRecommendationKey(collection, recommender, generation, item);
+		}
+		return getRecommendationKey(collectionId, recommenderId, generation, item);
+	}
+
+	/**
+	 * return the prefix of the binary rows of a model generation, the rows are exactly one long longer than the prefix
+	 * @param collection collection dictionary id
+	 * @param recommender recommender dictionary id
+	 * @param generation model generation, 0 for the unversioned model
+	 * @return <tt>[tag][collection][recommender][generation]</tt>
+	 */
+	public static byte[] getRecommendationGenerationKey(int collection, int recommender, long generation)
+	{
+		final byte[] result = new byte[RECOMMENDATION_KEY_SIZE - Bytes.SIZEOF_LONG];
+		putRecommendationPrefix(result, collection, recommender, generation);
+		return result;
+	}
+
+	private static int putRecommendationPrefix(byte[] row, int collection, int recommender, long generation)
+	{
+		row[0] = KeyCodec.getTag(KeyCodec.RECOMMENDATION);
+		int offset = KeyCodec.putInt(row, 1, collection);
+		offset = KeyCodec.putInt(row, offset, recommender);
+		return KeyCodec.putLong(row, offset, generation);
+	}
+
+	/**
+	 * Parse a string recommendation row key, used to move rows to the binary layout
+	 * @param row a row created by {@link #getRecommendationKey(String, String, long, long)}
+	 * @return <tt>{collection, recommender, generation, item}</tt> or null if the row is not a recommendation key
+	 */
+	public static Object[] getRecommendationFromKey(byte[] row)
+	{
+		if (KeyCodec.isBinary(row) || row.length <= Bytes.SIZEOF_LONG)
+		{
+			return null;
+		}
+		// the names are url encoded: the first '/' is the separator and they never contain a 0 byte, the highest
+		// byte of a generation (a time in ms) is always 0:
+		int split = 0;
+		while (split < row.length && row[split] != SPLIT[0])
+		{
+			split++;
+		}
+		final int generation = row.length - (2 * Bytes.SIZEOF_LONG);
+		final boolean versioned = generation > split + 1 && row[generation] == 0;
+		final int names = versioned ? generation : row.length - Bytes.SIZEOF_LONG;
+		if (split >= names)
+		{
+			return null;
+		}
+		try
+		{
+			Object[] result = new Object[4];
+			result[0] = URLDecoder.decode(Bytes.toString(row, 0, split), HConstants.UTF8_ENCODING);
+			result[1] = URLDecoder.decode(Bytes.toString(row, split + 1, names - split - 1), HConstants.UTF8_ENCODING);
+			result[2] = versioned ? Bytes.toLong(row, generation) : 0L;
+			result[3] = Bytes.toLong(row, row.length - Bytes.SIZEOF_LONG);
+			return result;
+		}
+		catch (UnsupportedEncodingException e)
+		{
+			LOG.error("fatal: UTF-8 not supported?", e);
+			return null;
+		}
+	}
+
+	/**
+	 * return the row key of a name in the dictionary
+	 * @param kind kind of name, e.g. <tt>collection</tt>
+	 * @param name the name
+	 * @return <tt>dictionary/kind/name</tt>
+	 */
+	public static byte[] getDictionaryKey(String kind, String name)
+	{
+		return getRowKey(DICTIONARY, kind, name);
+	}
+
+	/**
+	 * return the row key of the id counter and reverse lookup of a kind of names
+	 * @param kind kind of name
+	 * @return <tt>dictionary/kind</tt>
+	 */
+	public static byte[] getDictionaryKey(String kind)
+	{
+		return getRowKey(DICTIONARY, kind);
+	}
+
 	/**
 	 * return the rating prefix: {@link RowKeys#RATING}
 	 * @return
@@ -697,6 +872,49 @@ public final class RowKeys
 		return getRowKey(RATING, collection, user);
 	}
 
+	/**
+	 * return the rating index key: {@link RowKeys#RATING_INDEX}/<tt>collection</tt> <tt>user</tt>
+	 * <tt>(MAX - stamp)</tt> <tt>item</tt> - the ratings of a user sort newest first.
+	 * @param collection
+	 * @param user
+	 * @param stamp rating date in ms
+	 * @param item
+	 * @return
+	 */
+	public static byte[] getRatingIndexKey(String collection, long user, long stamp, long item)
+	{
+		return getRowKey(RATING_INDEX, collection, user, Long.MAX_VALUE - stamp, item);
+	}
+
+	public static byte[] getRatingIndexKey(String collection, long user, long stamp)
+	{
+		return getRowKey(RATING_INDEX, collection, user, Long.MAX_VALUE - stamp);
+	}
+
+	public static byte[] getRatingIndexKey(String collection, long user)
+	{
+		return getRowKey(RATING_INDEX, collection, user);
+	}
+
+	public static byte[] getRatingIndexKey(String collection)
+	{
+		return getRowKey(RATING_INDEX, collection);
+	}
+
+	public static byte[] getRatingIndexKey()
+	{
+		return getRowKey(RATING_INDEX);
+	}
+
+	/**
+	 * return the row that marks the rating index of a content provider as complete
+	 * @return
+	 */
+	public static byte[] getRatingIndexReadyKey()
+	{
+		return getRowKey(RATING_INDEX_READY);
+	}
+
 	public static byte[] getUserViewKey(String recommender, UserView view)
 	{
 		return getUserViewKey(recommender, view.getUser(), view.getItem(), view.getDate());
@@ -1004,6 +1222,31 @@ public final class RowKeys
 		return getRowKey(STATS_VIEWED, recommender);
 	}
 
+	/**
+	 * Row key of a materialised top list
+	 * @param list name of the list, see {@link Leaderboards}
+	 * @param scope recommender or collection the list belongs to
+	 * @param window name of the time window
+	 * @return <tt>stat-leaderboard/list/scope/window</tt>
+	 */
+	public static byte[] getStatLeaderboardKey(String list, String scope, String window)
+	{
+		return getRowKey(getRowKey(STATS_LEADERBOARD, list), SPLIT, getRowKey(scope, window));
+	}
+
+	/**
+	 * Row key of a real-time counter, the hourly bucket of one item or source
+	 * @param list name of the list, see {@link Leaderboards}
+	 * @param scope recommender or collection of the counter
+	 * @param id item id or source name
+	 * @param hour start of the hour in ms
+	 * @return <tt>stat-live/list/scope/id[hour]</tt>
+	 */
+	public static byte[] getStatLiveKey(String list, String scope, String id, long hour)
+	{
+		return getRowKey(getRowKey(STATS_LIVE, list), SPLIT, getRowKey(scope, id, hour));
+	}
+
 	/**
 	 * get a key for a user
 	 * @param id
@@ -1103,6 +1346,47 @@ public final class RowKeys
 		return getRowKey(STATS_POPULARITY, name, collection);
 	}
 
+	/**
+	 * Row of the daily rating counts of an item, the days are the qualifiers
+	 * @param collection collection name
+	 * @param item item id
+	 * @return <tt>stat-popularity-day/collection/[item]</tt>
+	 */
+	public static byte[] getStatsPopularityDay(String collection, long item)
+	{
+		return getRowKey(getStatsPopularityDay(collection), Bytes.toBytes(item));
+	}
+
+	/**
+	 * Prefix of the daily rating count rows of a collection, ends with the split so it doesn't match other collections
+	 * @param collection collection name
+	 * @return <tt>stat-popularity-day/collection/</tt>
+	 */
+	public static byte[] getStatsPopularityDay(String collection)
+	{
+		return getRowKey(getRowKey(STATS_POPULARITY_DAY, collection), SPLIT);
+	}
+
+	/**
+	 * Returns the item of a daily rating count row
+	 * @param row row key created by {@link #getStatsPopularityDay(String, long)}
+	 * @return the item id
+	 */
+	public static long getStatsPopularityDayItem(byte[] row)
+	{
+		return Bytes.toLong(row, row.length - Bytes.SIZEOF_LONG);
+	}
+
+	/**
+	 * Row that holds the time until which the ratings of a collection are counted in the daily buckets
+	 * @param collection collection name
+	 * @return <tt>stat-popularity-counted/collection</tt>
+	 */
+	public static byte[] getStatsPopularityCountedKey(String collection)
+	{
+		return getRowKey(STATS_POPULARITY_COUNTED, collection);
+	}
+
 	public static byte[] getAMDCIdentifier(String dcIdentifier)
 	{
 		return getRowKey("DCID", dcIdentifier);
@@ -0,0 +1,251 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Optional salted row key layout of the event log table. Without salting all view and recommend events of a
+ * recommender start with the same prefix (see {@link RowKeys#getUserViewKey(String)}) and all live traffic lands on one
+ * region. A salted table prefixes every row key with one <em>bucket</em> byte, a deterministic hash of the user, and
+ * is pre-split on the buckets, so writes are spread over <tt>buckets</tt> regions.
+ * <p />
+ * All rows of a user are in the same bucket, so reads of a single user stay a single range scan. Scans over all users
+ * (a recommender, or map reduce input) are done once per bucket, see {@link #scatter(Scan, int)}. Events without a
+ * user ({@link Long#MIN_VALUE}) are spread on the item instead.
+ * <p />
+ * The number of buckets is part of the table, it's stored in the table descriptor ({@link #BUCKETS}). A table without
+ * that value, or with less than two buckets, uses the unsalted keys. Legacy keys always start with a lower case
+ * character, so salted and unsalted rows can be told apart during a migration.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * SaltedKeys.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public final class SaltedKeys
+{
+	/**
+	 * table descriptor value (and job configuration key) that holds the number of buckets of a table
+	 */
+	public static final String BUCKETS = "zieook.salted.buckets";
+
+	/**
+	 * maximum number of buckets, all bucket bytes sort before the unsalted keys
+	 */
+	public static final int MAX_BUCKETS = 64;
+
+	private SaltedKeys()
+	{
+		// hide constructor
+	}
+
+	/**
+	 * Returns the bucket of an event
+	 * @param user user id, {@link Long#MIN_VALUE} if the event has no user
+	 * @param item item id, only used if there's no user
+	 * @param buckets number of buckets
+	 * @return bucket in <tt>[0, buckets)</tt>
+	 */
+	public static int getBucket(long user, long item, int buckets)
+	{
+		long h = (user == Long.MIN_VALUE ? item : user) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return (int) ((h & Integer.MAX_VALUE) % buckets);
+	}
+
+	/**
+	 * Prefix a row key with the bucket of the given user
+	 * @param row unsalted row key
+	 * @param user user id
+	 * @param item item id, only used if there's no user
+	 * @param buckets number of buckets
+	 * @return the salted key, or the row itself for an unsalted table
+	 */
+	public static byte[] salt(byte[] row, long user, long item, int buckets)
+	{
+		if (buckets < 2)
+		{
+			return row;
+		}
+		return salt(row, getBucket(user, item, buckets));
+	}
+
+	/**
+	 * Prefix a row key with the given bucket
+	 * @param row unsalted row key
+	 * @param bucket bucket
+	 * @return salted row key
+	 */
+	public static byte[] salt(byte[] row, int bucket)
+	{
+		byte[] result = new byte[row.length + 1];
+		result[0] = (byte) bucket;
+		System.arraycopy(row, 0, result, 1, row.length);
+		return result;
+	}
+
+	/**
+	 * @param row a row key
+	 * @return true if the row starts with a bucket byte
+	 */
+	public static boolean isSalted(byte[] row)
+	{
+		return row.length > 0 && row[0] >= 0 && row[0] < MAX_BUCKETS;
+	}
+
+	/**
+	 * Remove the bucket byte of a salted row
+	 * @param row row key
+	 * @return the unsalted row key, or the row itself if it's not salted
+	 */
+	public static byte[] unsalt(byte[] row)
+	{
+		if (!isSalted(row))
+		{
+			return row;
+		}
+		byte[] result = new byte[row.length - 1];
+		System.arraycopy(row, 1, result, 0, result.length);
+		return result;
+	}
+
+	/**
+	 * Compare two rows on their unsalted keys, used to merge the rows of all buckets back in the unsalted order
+	 * @param a row key
+	 * @param b row key
+	 * @return compare value
+	 */
+	public static int compareUnsalted(byte[] a, byte[] b)
+	{
+		final int aOffset = isSalted(a) ? 1 : 0;
+		final int bOffset = isSalted(b) ? 1 : 0;
+		return Bytes.compareTo(a, aOffset, a.length - aOffset, b, bOffset, b.length - bOffset);
+	}
+
+	/**
+	 * Returns the region split keys of a table with the given number of buckets: one region per bucket
+	 * @param buckets number of buckets
+	 * @return split keys, or null for an unsalted table
+	 */
+	public static byte[][] getSplitKeys(int buckets)
+	{
+		if (buckets < 2)
+		{
+			return null;
+		}
+		byte[][] result = new byte[buckets - 1][];
+		for (int i = 1; i < buckets; i++)
+		{
+			result[i - 1] = new byte[]{(byte) i};
+		}
+		return result;
+	}
+
+	/**
+	 * Restrict a scan on unsalted keys to one bucket
+	 * @param scan a scan on unsalted keys, see {@link ScanBuilder}
+	 * @param bucket the bucket
+	 * @return a new scan
+	 * @throws IOException
+	 */
+	public static Scan shift(Scan scan, int bucket) throws IOException
+	{
+		Scan result = new Scan(scan);
+		result.setStartRow(salt(scan.getStartRow(), bucket));
+		if (scan.getStopRow().length == 0)
+		{
+			// end of the table is the end of the bucket:
+			result.setStopRow(new byte[]{(byte) (bucket + 1)});
+		}
+		else
+		{
+			result.setStopRow(salt(scan.getStopRow(), bucket));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the scans that read the rows of all buckets
+	 * @param scan a scan on unsalted keys
+	 * @param buckets number of buckets
+	 * @return one scan per bucket, or the scan itself for an unsalted table
+	 * @throws IOException
+	 */
+	public static Scan[] scatter(Scan scan, int buckets) throws IOException
+	{
+		if (buckets < 2)
+		{
+			return new Scan[]{scan};
+		}
+		Scan[] result = new Scan[buckets];
+		for (int i = 0; i < buckets; i++)
+		{
+			result[i] = shift(scan, i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the scans that read the rows of a single user: one bucket, or all buckets if there's no user
+	 * @param scan a scan on unsalted keys
+	 * @param user user id
+	 * @param buckets number of buckets
+	 * @return the scans
+	 * @throws IOException
+	 */
+	public static Scan[] scatter(Scan scan, long user, int buckets) throws IOException
+	{
+		if (buckets < 2 || user == Long.MIN_VALUE)
+		{
+			return scatter(scan, buckets);
+		}
+		return new Scan[]{shift(scan, getBucket(user, 0, buckets))};
+	}
+
+	/**
+	 * Returns the number of buckets of a table
+	 * @param descriptor table descriptor
+	 * @return number of buckets, 0 for an unsalted table
+	 */
+	public static int getBuckets(HTableDescriptor descriptor)
+	{
+		String value = descriptor == null ? null : descriptor.getValue(BUCKETS);
+		return value == null ? 0 : Integer.parseInt(value);
+	}
+
+	/**
+	 * Mark a table descriptor as salted
+	 * @param descriptor table descriptor
+	 * @param buckets number of buckets
+	 */
+	public static void setBuckets(HTableDescriptor descriptor, int buckets)
+	{
+		if (buckets < 0 || buckets > MAX_BUCKETS)
+		{
+			throw new IllegalArgumentException("number of buckets should be in [0," + MAX_BUCKETS + "]: " + buckets);
+		}
+		descriptor.setValue(BUCKETS, Integer.toString(buckets));
+	}
+}
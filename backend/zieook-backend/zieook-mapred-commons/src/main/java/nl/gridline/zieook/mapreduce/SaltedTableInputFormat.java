@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+
+/**
+ * Table input of a salted table (see {@link SaltedKeys}): the scan is given on unsalted keys and is repeated for every
+ * bucket, the splits of all buckets together are the input of the job. Mappers get the salted rows, the event log
+ * mappers only read the values.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * SaltedTableInputFormat.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class SaltedTableInputFormat extends TableInputFormat
+{
+
+	@Override
+	public List<InputSplit> getSplits(JobContext context) throws IOException
+	{
+		final int buckets = context.getConfiguration().getInt(SaltedKeys.BUCKETS, 0);
+		final Scan scan = getScan();
+		if (buckets < 2)
+		{
+			return super.getSplits(context);
+		}
+
+		List<InputSplit> result = new ArrayList<InputSplit>();
+		try
+		{
+			for (int i = 0; i < buckets; i++)
+			{
+				setScan(SaltedKeys.shift(scan, i));
+				result.addAll(super.getSplits(context));
+			}
+		}
+		finally
+		{
+			setScan(scan);
+		}
+		return result;
+	}
+
+	/**
+	 * Read the number of buckets of the input table and use this input format if the table is salted. Call this after
+	 * <tt>TableMapReduceUtil.initTableMapperJob</tt>.
+	 * @param table input table name
+	 * @param job the job
+	 * @return number of buckets of the table
+	 * @throws IOException
+	 */
+	public static int initTableMapperJob(String table, Job job) throws IOException
+	{
+		final Configuration conf = job.getConfiguration();
+		HTable htable = new HTable(conf, table);
+		try
+		{
+			final int buckets = SaltedKeys.getBuckets(htable.getTableDescriptor());
+			if (buckets > 1)
+			{
+				conf.setInt(SaltedKeys.BUCKETS, buckets);
+				job.setInputFormatClass(SaltedTableInputFormat.class);
+			}
+			return buckets;
+		}
+		finally
+		{
+			htable.close();
+		}
+	}
+}
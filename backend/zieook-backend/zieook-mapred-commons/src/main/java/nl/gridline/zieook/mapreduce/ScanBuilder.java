@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Builds a {@link Scan} that is bounded by a row key prefix (see {@link RowKeys}), instead of a full table scan with
+ * a prefix <tt>RowFilter</tt>. The prefix is turned in an exact <tt>[startRow, stopRow)</tt> range, so the region
+ * servers only read the rows that match.
+ * <p />
+ * The caching defaults depend on the access pattern:
+ * <ul>
+ * <li>{@link #lookup(int)} - interactive reads of a page of rows, small caching, blocks are cached;</li>
+ * <li>{@link #list()} - reading a short, often read list of rows, like the content providers, collections and
+ * recommenders in the configuration table, blocks are cached;</li>
+ * <li>{@link #batch()} - reading all rows of a (large) prefix once (deletes, exports, top lists), large caching, blocks
+ * are not cached;</li>
+ * <li>{@link #mapreduce()} - table input of a map reduce job, blocks are not cached.</li>
+ * </ul>
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * ScanBuilder.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public final class ScanBuilder
+{
+	/**
+	 * maximum number of rows fetched per rpc for interactive reads
+	 */
+	public static final int CACHING_LOOKUP = 100;
+
+	/**
+	 * number of rows fetched per rpc for reading a complete prefix
+	 */
+	public static final int CACHING_BATCH = 1000;
+
+	/**
+	 * number of rows fetched per rpc for map reduce input
+	 */
+	public static final int CACHING_MAPREDUCE = 500;
+
+	private final byte[] prefix;
+	private byte[] start;
+	private byte[] stop;
+	private byte[] family;
+	private byte[][] qualifiers;
+	private Filter filter;
+	private long since = -1;
+	private int caching = CACHING_LOOKUP;
+	private boolean cacheBlocks = true;
+
+	private ScanBuilder(byte[] prefix)
+	{
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Create a scan for all rows that start with the given prefix
+	 * @param prefix row key prefix
+	 * @return a builder
+	 */
+	public static ScanBuilder prefix(byte[] prefix)
+	{
+		return new ScanBuilder(prefix);
+	}
+
+	/**
+	 * Create a scan for all rows of a table
+	 * @return a builder
+	 */
+	public static ScanBuilder all()
+	{
+		return new ScanBuilder(HConstants.EMPTY_START_ROW);
+	}
+
+	/**
+	 * Returns the first row after all rows that start with the given prefix: the prefix with the last byte that is
+	 * not <tt>0xff</tt> incremented and the rest removed.
+	 * @param prefix row key prefix
+	 * @return the (exclusive) stop row, or an empty byte array if there's no such row (scan to the end of the table)
+	 */
+	public static byte[] getStopRow(byte[] prefix)
+	{
+		for (int i = prefix.length - 1; i >= 0; i--)
+		{
+			if (prefix[i] != (byte) 0xff)
+			{
+				byte[] result = Arrays.copyOf(prefix, i + 1);
+				result[i]++;
+				return result;
+			}
+		}
+		return HConstants.EMPTY_END_ROW;
+	}
+
+	/**
+	 * Start the scan at the given row instead of the prefix, ignored if it's null or before the prefix.
+	 * @param startRow first row to return
+	 * @return this
+	 */
+	public ScanBuilder from(byte[] startRow)
+	{
+		start = startRow;
+		return this;
+	}
+
+	/**
+	 * Stop the scan before the given row instead of at the end of the prefix, ignored if it's null or after the end of
+	 * the prefix.
+	 * @param stopRow first row that is not returned
+	 * @return this
+	 */
+	public ScanBuilder to(byte[] stopRow)
+	{
+		stop = stopRow;
+		return this;
+	}
+
+	/**
+	 * Only read the given column family
+	 * @param family family name
+	 * @return this
+	 */
+	public ScanBuilder family(byte[] family)
+	{
+		this.family = family;
+		this.qualifiers = null;
+		return this;
+	}
+
+	/**
+	 * Only read the given columns of a column family, e.g. the sort column of a top list
+	 * @param family family name
+	 * @param qualifiers column qualifiers
+	 * @return this
+	 */
+	public ScanBuilder columns(byte[] family, byte[]... qualifiers)
+	{
+		this.family = family;
+		this.qualifiers = qualifiers;
+		return this;
+	}
+
+	/**
+	 * Only return cells that are written at or after the given time, e.g. the ratings added since the last run of a
+	 * task. Rows without such cells are skipped by the region servers.
+	 * @param stamp time stamp in ms, a negative value reads all cells
+	 * @return this
+	 */
+	public ScanBuilder since(long stamp)
+	{
+		since = stamp;
+		return this;
+	}
+
+	/**
+	 * Set a (value) filter, empty filter lists are ignored
+	 * @param filter the filter
+	 * @return this
+	 */
+	public ScanBuilder filter(Filter filter)
+	{
+		if (filter instanceof FilterList && ((FilterList) filter).getFilters().isEmpty())
+		{
+			this.filter = null;
+		}
+		else
+		{
+			this.filter = filter;
+		}
+		return this;
+	}
+
+	/**
+	 * Interactive read of at most <tt>rows</tt> rows (before filtering)
+	 * @param rows expected number of rows
+	 * @return this
+	 */
+	public ScanBuilder lookup(int rows)
+	{
+		caching = Math.max(1, Math.min(rows, CACHING_LOOKUP));
+		cacheBlocks = true;
+		return this;
+	}
+
+	/**
+	 * Read a short list of rows that is read often, its blocks stay in the block cache
+	 * @return this
+	 */
+	public ScanBuilder list()
+	{
+		caching = CACHING_LOOKUP;
+		cacheBlocks = true;
+		return this;
+	}
+
+	/**
+	 * Read all rows of a (large) prefix once, without pushing the hot rows out of the block cache
+	 * @return this
+	 */
+	public ScanBuilder batch()
+	{
+		caching = CACHING_BATCH;
+		cacheBlocks = false;
+		return this;
+	}
+
+	/**
+	 * Scan used as map reduce input
+	 * @return this
+	 */
+	public ScanBuilder mapreduce()
+	{
+		caching = CACHING_MAPREDUCE;
+		cacheBlocks = false;
+		return this;
+	}
+
+	/**
+	 * @return a new scan
+	 */
+	public Scan build()
+	{
+		byte[] startRow = prefix;
+		if (start != null && Bytes.compareTo(start, prefix) > 0)
+		{
+			startRow = start;
+		}
+		byte[] stopRow = getStopRow(prefix);
+		if (stop != null && (stopRow.length == 0 || Bytes.compareTo(stop, stopRow) < 0))
+		{
+			stopRow = stop;
+		}
+		Scan scan = new Scan(startRow, stopRow);
+		if (family != null && qualifiers != null)
+		{
+			for (byte[] qualifier : qualifiers)
+			{
+				scan.addColumn(family, qualifier);
+			}
+		}
+		else if (family != null)
+		{
+			scan.addFamily(family);
+		}
+		if (filter != null)
+		{
+			scan.setFilter(filter);
+		}
+		if (since >= 0)
+		{
+			try
+			{
+				scan.setTimeRange(since, Long.MAX_VALUE);
+			}
+			catch (IOException e)
+			{
+				// only thrown if the range is inverted, which is not possible here
+				throw new IllegalStateException(e);
+			}
+		}
+		scan.setCaching(caching);
+		scan.setCacheBlocks(cacheBlocks);
+		return scan;
+	}
+}
@@ -60,6 +60,8 @@ public class TaskConfig implements Serializable, Cloneable
 	public static final String OUTPUT_PATH = "task.path.output";
 	public static final String OUTPUT_TABLE = "task.table.output";
 	public static final String INPUT_TABLE = "task.table.input";
+	// write the output table through HFiles and a bulk load instead of puts, defaults to zieook.hbase.bulkload:
+	public static final String OUTPUT_BULKLOAD = "task.table.output.bulkload";
 
 	// statistics tasks look a bit different:
 	public static final String STATISTICS_KEY = "task.statistics";
@@ -75,6 +77,7 @@ public class TaskConfig implements Serializable, Cloneable
 	public static final String TASK_TYPE_STATISTICS = "statistics-task";
 	public static final String TASK_TYPE_COLLECTION = "collection-task";
 	public static final String TASK_TYPE_RECOMMENDER = "recommender-task";
+	public static final String TASK_TYPE_RATING_INDEX = "rating-index-task";
 
 	// task statistics:
 	public static final String TASK_START = "task.start.stamp";
@@ -122,6 +125,23 @@ public class TaskConfig implements Serializable, Cloneable
 			MAX_SIMILARITRIES_PER_ITEM, MAX_SIMILARITIES_PER_ROW, MAX_CO_OCCURRENCES_PER_ITEM, NUMBER_OF_COLUMNS,
 			DISTRIBUTED_SIMILARITY_CLASSNAME};
 
+	// incremental item based recommender state, kept in the task between runs:
+	// start of the run (in s) that brought the cached item vectors up to date:
+	public static final String MODEL_STAMP = "recommender.model.stamp";
+	// number of incremental runs since the last full rebuild:
+	public static final String MODEL_INCREMENTAL_RUNS = "recommender.model.incremental-runs";
+
+	// versioned recommender models, 0 is the unversioned model written before generations existed:
+	// generation the recommendations of the (last) run are written to, activated by the workflow on success:
+	public static final String MODEL_GENERATION = "recommender.model.generation";
+	// generation that was active when the run started, set by the workflow:
+	public static final String MODEL_GENERATION_ACTIVE = "recommender.model.generation.active";
+
+	// dictionary ids of the collection and recommender names, set by the workflow when the recommendations are written
+	// with binary row keys (see KeyCodec), string keys are written if they are missing:
+	public static final String COLLECTION_ID = "task.collection.id";
+	public static final String RECOMMENDER_ID = "task.recommender.id";
+
 	// text analysis settings:
 	public static final String TEXT_ANALYSIS_USE_DESCRIPTION = "text.analysis.usedescription";
 	public static final String TEXT_ANALYSIS_USE_TITLE = "text.analysis.usetitle";
@@ -129,6 +149,11 @@ public class TaskConfig implements Serializable, Cloneable
 
 	public static final String TEXT_LANGUAGE = "text.language";
 	public static final String TEXT_DOCUMENT_COUNT = "text.document.count";
+	// term dictionary: terms in fewer documents than the minimum or in more than the percentage of the documents are
+	// pruned, feature bits > 0 hashes the terms into 2^bits ids instead of a sorted dictionary:
+	public static final String TEXT_DF_MIN = "text.df.min";
+	public static final String TEXT_DF_MAX_PERCENT = "text.df.maxpercent";
+	public static final String TEXT_FEATURE_BITS = "text.feature.bits";
 
 	// OAI settings, allow limits on date range & amount of items:
 	public static final String OAI_START_DATE = "oai.date.start";
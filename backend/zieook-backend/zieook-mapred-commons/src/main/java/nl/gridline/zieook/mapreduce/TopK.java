@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Streaming top-<tt>k</tt> of row keys by a <tt>long</tt> score. Keeps a bounded min-heap over primitive arrays, so
+ * a scan over many rows only decodes the score of each row: the complete row is read (see
+ * <tt>StatisticsTable</tt>) for the <tt>k</tt> admitted row keys only. A value can be kept with each row, when the
+ * complete row is already at hand (e.g. in a reducer).
+ * <p />
+ * Order is score descending, equal scores are ordered by row key ascending. Not thread safe.
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * TopK.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TopK
+{
+	private final int k;
+	private final long[] scores;
+	private final byte[][] rows;
+	private final Object[] values;
+	private int size;
+
+	/**
+	 * @param k maximum number of rows kept, may be 0
+	 */
+	public TopK(int k)
+	{
+		this.k = Math.max(0, k);
+		scores = new long[this.k];
+		rows = new byte[this.k][];
+		values = new Object[this.k];
+	}
+
+	/**
+	 * Returns true if a row with the given score would (possibly) be admitted, use it to skip the row before anything
+	 * else is decoded
+	 * @param score score of the row
+	 * @return {@code false} if the row certainly is not part of the top
+	 */
+	public boolean accepts(long score)
+	{
+		return size < k || (k > 0 && score >= scores[0]);
+	}
+
+	/**
+	 * Offer a row
+	 * @param score score of the row
+	 * @param row row key
+	 * @return {@code true} if the row is (for now) part of the top
+	 */
+	public boolean offer(long score, byte[] row)
+	{
+		return offer(score, row, null);
+	}
+
+	/**
+	 * Offer a row and its value
+	 * @param score score of the row
+	 * @param row row key
+	 * @param value value kept with the row, see {@link #getValues()}
+	 * @return {@code true} if the row is (for now) part of the top
+	 */
+	public boolean offer(long score, byte[] row, Object value)
+	{
+		if (size < k)
+		{
+			scores[size] = score;
+			rows[size] = row;
+			values[size] = value;
+			siftUp(size++);
+			return true;
+		}
+		if (k == 0 || !worse(0, score, row))
+		{
+			return false;
+		}
+		// replace the current worst:
+		scores[0] = score;
+		rows[0] = row;
+		values[0] = value;
+		siftDown(0);
+		return true;
+	}
+
+	/**
+	 * @return number of admitted rows
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return the admitted row keys, best first
+	 */
+	public List<byte[]> getRows()
+	{
+		List<byte[]> result = new ArrayList<byte[]>(size);
+		for (Integer i : getOrder())
+		{
+			result.add(rows[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the values of the admitted rows, best first
+	 */
+	public List<Object> getValues()
+	{
+		List<Object> result = new ArrayList<Object>(size);
+		for (Integer i : getOrder())
+		{
+			result.add(values[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the scores of the admitted rows, best first
+	 */
+	public long[] getScores()
+	{
+		Integer[] order = getOrder();
+		long[] result = new long[order.length];
+		for (int i = 0; i < order.length; i++)
+		{
+			result[i] = scores[order[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * @return the heap positions, best first
+	 */
+	private Integer[] getOrder()
+	{
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+		{
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				if (worse(o1, scores[o2], rows[o2]))
+				{
+					return 1;
+				}
+				return worse(o2, scores[o1], rows[o1]) ? -1 : 0;
+			}
+		});
+		return order;
+	}
+
+	/**
+	 * @return true if the heap entry <tt>i</tt> is ranked below the given score and row
+	 */
+	private boolean worse(int i, long score, byte[] row)
+	{
+		if (scores[i] != score)
+		{
+			return scores[i] < score;
+		}
+		return Bytes.compareTo(rows[i], row) > 0;
+	}
+
+	private void siftUp(int i)
+	{
+		while (i > 0)
+		{
+			int parent = (i - 1) >>> 1;
+			if (!worse(i, scores[parent], rows[parent]))
+			{
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i)
+	{
+		while (true)
+		{
+			int child = 2 * i + 1;
+			if (child >= size)
+			{
+				break;
+			}
+			if (child + 1 < size && worse(child + 1, scores[child], rows[child]))
+			{
+				child++;
+			}
+			if (!worse(child, scores[i], rows[i]))
+			{
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j)
+	{
+		long s = scores[i];
+		scores[i] = scores[j];
+		scores[j] = s;
+		byte[] r = rows[i];
+		rows[i] = rows[j];
+		rows[j] = r;
+		Object v = values[i];
+		values[i] = values[j];
+		values[j] = v;
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+/**
+ * Tests the conversion of puts and deletes to cells by {@link BulkLoadOutputFormat}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * BulkLoadOutputFormatTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class BulkLoadOutputFormatTest
+{
+	private static final byte[] ROW = Bytes.toBytes("row");
+	private static final byte[] FAMILY = Bytes.toBytes("family");
+	private static final long NOW = 1000L;
+
+	@Test
+	public void put() throws IOException
+	{
+		Put put = new Put(ROW);
+		put.add(FAMILY, Bytes.toBytes("a"), Bytes.toBytes("1"));
+		put.add(FAMILY, Bytes.toBytes("b"), 10L, Bytes.toBytes("2"));
+
+		List<KeyValue> cells = BulkLoadOutputFormat.toKeyValues(put, Bytes.toBytes(NOW));
+		assertEquals(2, cells.size());
+		assertArrayEquals(ROW, cells.get(0).getRow());
+		assertEquals(NOW, cells.get(0).getTimestamp());
+		assertEquals(10L, cells.get(1).getTimestamp());
+		assertArrayEquals(Bytes.toBytes("2"), cells.get(1).getValue());
+	}
+
+	@Test
+	public void deleteFamily() throws IOException
+	{
+		Delete delete = new Delete(ROW).deleteFamily(FAMILY, 99L);
+
+		List<KeyValue> cells = BulkLoadOutputFormat.toKeyValues(delete, Bytes.toBytes(NOW));
+		assertEquals(1, cells.size());
+		assertEquals(KeyValue.Type.DeleteFamily.getCode(), cells.get(0).getType());
+		assertEquals(99L, cells.get(0).getTimestamp());
+	}
+
+	@Test(expected = IOException.class)
+	public void deleteRow() throws IOException
+	{
+		BulkLoadOutputFormat.toKeyValues(new Delete(ROW), Bytes.toBytes(NOW));
+	}
+
+	@Test(expected = IOException.class)
+	public void deleteLatestVersion() throws IOException
+	{
+		BulkLoadOutputFormat.toKeyValues(new Delete(ROW).deleteColumn(FAMILY, Bytes.toBytes("a")), Bytes.toBytes(NOW));
+	}
+
+	@Test(expected = IOException.class)
+	public void other() throws IOException
+	{
+		BulkLoadOutputFormat.toKeyValues(new Text("row"), Bytes.toBytes(NOW));
+	}
+}
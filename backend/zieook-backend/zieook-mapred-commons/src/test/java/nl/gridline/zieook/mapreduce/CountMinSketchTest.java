@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the bounds of the {@link CountMinSketch} estimates
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * CountMinSketchTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class CountMinSketchTest
+{
+
+	@Test
+	public void testEstimate()
+	{
+		CountMinSketch sketch = new CountMinSketch(1000, 4);
+		int[] counts = new int[5000];
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++)
+		{
+			int key = (int) (counts.length * Math.pow(random.nextDouble(), 2));
+			counts[key]++;
+			sketch.add(key, 1);
+		}
+		assertEquals(100000, sketch.getTotal());
+
+		int wrong = 0;
+		for (int key = 0; key < counts.length; key++)
+		{
+			int estimate = sketch.estimate(key);
+			assertTrue(estimate >= counts[key]);
+			// error bound e / width * total, width is rounded up to 1024:
+			if (estimate - counts[key] > 2.72 * 100000 / 1024)
+			{
+				wrong++;
+			}
+		}
+		// the bound holds with probability 1 - e^-4:
+		assertTrue(wrong < counts.length * 0.02);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDepth()
+	{
+		new CountMinSketch(1000, 9);
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the binary row keys of {@link KeyCodec}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * KeyCodecTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class KeyCodecTest
+{
+	@Test
+	public void testWriteRead()
+	{
+		KeyCodec.Writer writer = new KeyCodec.Writer(4);
+		writer.start(KeyCodec.RECOMMENDATION).putName(7).putName(9).putLong(1234567890123L).putLong(-1);
+		assertEquals(25, writer.getLength());
+
+		byte[] row = writer.toBytes();
+		assertTrue(KeyCodec.isBinary(row));
+		assertEquals(KeyCodec.VERSION, KeyCodec.getVersion(row));
+		assertEquals(KeyCodec.RECOMMENDATION, KeyCodec.getType(row));
+
+		KeyCodec.Reader reader = new KeyCodec.Reader().wrap(row);
+		assertEquals(KeyCodec.RECOMMENDATION, reader.getType());
+		assertEquals(7, reader.getName());
+		assertEquals(9, reader.getName());
+		assertEquals(1234567890123L, reader.getLong());
+		assertEquals(-1, reader.getLong());
+		assertEquals(0, reader.remaining());
+
+		// the writer is reused:
+		writer.start(KeyCodec.RECOMMENDATION).putName(1);
+		assertEquals(5, writer.getLength());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadString()
+	{
+		new KeyCodec.Reader().wrap(Bytes.toBytes("collection/recommender"));
+	}
+
+	@Test
+	public void testRecommendationKey()
+	{
+		byte[] row = RowKeys.getRecommendationKey(3, 4, 1000L, 42L);
+		byte[] prefix = RowKeys.getRecommendationGenerationKey(3, 4, 1000L);
+		assertEquals(prefix.length + Bytes.SIZEOF_LONG, row.length);
+		assertTrue(startsWith(row, prefix));
+		assertFalse(startsWith(row, RowKeys.getRecommendationGenerationKey(3, 4, 0)));
+
+		// string keys sort before binary keys:
+		assertTrue(Bytes.compareTo(RowKeys.getRecommendationKey("col", "rec", 1000L, 42L), row) < 0);
+		assertFalse(SaltedKeys.isSalted(row));
+	}
+
+	@Test
+	public void testParseRecommendationKey()
+	{
+		Object[] key = RowKeys.getRecommendationFromKey(RowKeys.getRecommendationKey("a/col", "rec", 0, 42L));
+		assertArrayEquals(new Object[]{"a/col", "rec", 0L, 42L}, key);
+
+		key = RowKeys.getRecommendationFromKey(RowKeys.getRecommendationKey("col", "a-long-recommender", 0, 42L));
+		assertArrayEquals(new Object[]{"col", "a-long-recommender", 0L, 42L}, key);
+
+		key = RowKeys.getRecommendationFromKey(RowKeys.getRecommendationKey("col", "r", 1318888888888L, 42L));
+		assertArrayEquals(new Object[]{"col", "r", 1318888888888L, 42L}, key);
+
+		assertNull(RowKeys.getRecommendationFromKey(RowKeys.getRecommendationKey(1, 2, 0, 42L)));
+	}
+
+	private static boolean startsWith(byte[] row, byte[] prefix)
+	{
+		return Bytes.compareTo(row, 0, prefix.length, prefix, 0, prefix.length) == 0;
+	}
+}
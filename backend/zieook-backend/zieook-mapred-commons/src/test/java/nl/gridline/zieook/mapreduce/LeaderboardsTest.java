@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import nl.gridline.zieook.model.GroupedData;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests writing and reading a top list with {@link Leaderboards}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * LeaderboardsTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LeaderboardsTest
+{
+	private static final byte[] FAMILY = Bytes.toBytes(HBaseTableConstants.STATS_LEADERBOARD);
+
+	@Test
+	public void testWriteRead()
+	{
+		List<NavigableMap<byte[], byte[]>> ranked = new ArrayList<NavigableMap<byte[], byte[]>>();
+		for (long item = 0; item < 3; item++)
+		{
+			ranked.add(new GroupedData(null, "recommender", null, item, null, 10 - item, 1000L).toMap());
+		}
+		byte[] row = RowKeys.getStatLeaderboardKey(Leaderboards.VIEWED, "recommender", Leaderboards.ALL);
+
+		NavigableMap<byte[], byte[]> columns = toColumns(Leaderboards.createPut(row, FAMILY, ranked, 3, 2000));
+		assertEquals(Long.valueOf(2000), Leaderboards.getDate(columns));
+
+		List<NavigableMap<byte[], byte[]>> result = Leaderboards.getRanked(columns, 2);
+		assertEquals(2, result.size());
+		assertEquals(new GroupedData(ranked.get(0)), new GroupedData(result.get(0)));
+		assertEquals(new GroupedData(ranked.get(1)), new GroupedData(result.get(1)));
+
+		// the list is full, it can't answer more:
+		assertNull(Leaderboards.getRanked(columns, 4));
+		assertNull(Leaderboards.getRanked(null, 4));
+
+		// a shorter list over the old columns:
+		columns.putAll(toColumns(Leaderboards.createPut(row, FAMILY, ranked.subList(0, 1), 3, 3000)));
+		result = Leaderboards.getRanked(columns, 10);
+		assertEquals(1, result.size());
+		assertEquals(Long.valueOf(0), new GroupedData(result.get(0)).getItem());
+	}
+
+	private static NavigableMap<byte[], byte[]> toColumns(Put put)
+	{
+		NavigableMap<byte[], byte[]> columns = new TreeMap<byte[], byte[]>(Bytes.BYTES_COMPARATOR);
+		for (KeyValue kv : put.getFamilyMap().get(FAMILY))
+		{
+			columns.put(kv.getQualifier(), kv.getValue());
+		}
+		return columns;
+	}
+}
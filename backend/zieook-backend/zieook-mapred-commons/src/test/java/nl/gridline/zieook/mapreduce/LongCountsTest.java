@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link LongCounts} against a {@link HashMap}, and the flush of {@link InMapperCounts}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * LongCountsTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class LongCountsTest
+{
+
+	@Test
+	public void testCounts()
+	{
+		Random random = new Random(42);
+		LongCounts counts = new LongCounts();
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+		for (int i = 0; i < 100000; i++)
+		{
+			// sequential, negative and sparse keys:
+			long key = i % 3 == 0 ? random.nextInt(5000) : (i % 3 == 1 ? -random.nextInt(100) : random.nextLong());
+			long delta = random.nextInt(10);
+			Long old = expected.put(key, delta + (expected.containsKey(key) ? expected.get(key) : 0));
+			assertEquals(old == null, counts.add(key, delta));
+		}
+		assertEquals(expected.size(), counts.size());
+
+		int n = 0;
+		for (int i = counts.next(0); i >= 0; i = counts.next(i + 1))
+		{
+			assertEquals(expected.get(counts.getKey(i)).longValue(), counts.getValue(i));
+			n++;
+		}
+		assertEquals(expected.size(), n);
+		assertEquals(0, counts.get(Long.MAX_VALUE - 1));
+
+		counts.clear();
+		assertEquals(0, counts.size());
+		assertEquals(-1, counts.next(0));
+		assertTrue(counts.add(0, 1));
+		assertFalse(counts.add(0, 1));
+		assertEquals(2, counts.get(0));
+	}
+
+	@Test
+	public void testInMapperCounts() throws IOException, InterruptedException
+	{
+		InMapperCounts<String> counts = new InMapperCounts<String>(3);
+		counts.add("a", 1, 1);
+		counts.add("a", 1, 2);
+		counts.add("b", 1, 1);
+		assertFalse(counts.isFull());
+		counts.add("a", 2, 1);
+		assertTrue(counts.isFull());
+
+		final Map<String, Long> flushed = new HashMap<String, Long>();
+		counts.flush(new InMapperCounts.Emitter<String>()
+		{
+			@Override
+			public void emit(String group, long id, long count)
+			{
+				flushed.put(group + id, count);
+			}
+		});
+		assertEquals(3, flushed.size());
+		assertEquals(3, flushed.get("a1").longValue());
+		assertEquals(1, flushed.get("a2").longValue());
+		assertEquals(1, flushed.get("b1").longValue());
+		assertEquals(0, counts.size());
+		assertFalse(counts.isFull());
+	}
+}
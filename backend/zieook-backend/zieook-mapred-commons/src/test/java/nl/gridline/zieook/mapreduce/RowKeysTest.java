@@ -18,7 +18,9 @@
 package nl.gridline.zieook.mapreduce;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Test;
 
 /**
@@ -171,4 +173,47 @@ public class RowKeysTest
 		assertEquals(bLng, inv[1]);
 		assertEquals(cStr, inv[2]);
 	}
+
+	@Test
+	public void testRatingIndexKey()
+	{
+		byte[] newer = RowKeys.getRatingIndexKey(aStr, bLng, 2000L, cLng);
+		byte[] older = RowKeys.getRatingIndexKey(aStr, bLng, 1000L, dLng);
+
+		// newest first, and both within the user prefix:
+		assertTrue(Bytes.compareTo(newer, older) < 0);
+		assertTrue(startsWith(newer, RowKeys.getRatingIndexKey(aStr, bLng)));
+		assertTrue(Bytes.compareTo(RowKeys.getRatingIndexKey(aStr, bLng, 2000L), newer) <= 0);
+
+		Object[] inv = RowKeys.getStrStrLngLngLng(newer);
+		assertEquals(aStr, inv[1]);
+		assertEquals(bLng, inv[2]);
+		assertEquals(Long.valueOf(Long.MAX_VALUE - 2000L), inv[3]);
+		assertEquals(cLng, inv[4]);
+
+		// index rows never match a rating prefix scan:
+		assertTrue(!startsWith(newer, RowKeys.getRatingKey()));
+	}
+
+	@Test
+	public void testRecommendationGenerationKey()
+	{
+		// generation 0 is the unversioned key:
+		assertTrue(Bytes.equals(RowKeys.getRecommendationKey(aStr, cStr, bLng),
+				RowKeys.getRecommendationKey(aStr, cStr, 0, bLng)));
+
+		byte[] row = RowKeys.getRecommendationKey(aStr, cStr, 2000L, bLng);
+		byte[] prefix = RowKeys.getRecommendationGenerationKey(aStr, cStr, 2000L);
+		assertTrue(startsWith(row, prefix));
+		assertEquals(prefix.length + Bytes.SIZEOF_LONG, row.length);
+		assertTrue(!startsWith(row, RowKeys.getRecommendationGenerationKey(aStr, cStr, 1000L)));
+
+		prefix = RowKeys.getRecommendationGenerationKey(aStr, cStr, 0);
+		assertEquals(prefix.length + Bytes.SIZEOF_LONG, RowKeys.getRecommendationKey(aStr, cStr, 0, bLng).length);
+	}
+
+	private static boolean startsWith(byte[] row, byte[] prefix)
+	{
+		return row.length >= prefix.length && Bytes.compareTo(row, 0, prefix.length, prefix, 0, prefix.length) == 0;
+	}
 }
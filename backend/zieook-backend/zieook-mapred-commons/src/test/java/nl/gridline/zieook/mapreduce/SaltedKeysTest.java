@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the salted row key layout of {@link SaltedKeys}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * SaltedKeysTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class SaltedKeysTest
+{
+	private static final int BUCKETS = 16;
+
+	@Test
+	public void testSaltUnsalt()
+	{
+		byte[] row = RowKeys.getUserViewKey("recommender", 10, 20, 30);
+		assertFalse(SaltedKeys.isSalted(row));
+		assertSame(row, SaltedKeys.salt(row, 10, 20, 0));
+
+		byte[] salted = SaltedKeys.salt(row, 10, 20, BUCKETS);
+		assertTrue(SaltedKeys.isSalted(salted));
+		assertEquals(SaltedKeys.getBucket(10, 20, BUCKETS), salted[0]);
+		assertArrayEquals(row, SaltedKeys.unsalt(salted));
+		assertSame(row, SaltedKeys.unsalt(row));
+		assertEquals(0, SaltedKeys.compareUnsalted(row, salted));
+	}
+
+	@Test
+	public void testBucket()
+	{
+		boolean[] used = new boolean[BUCKETS];
+		for (long user = 0; user < 1000; user++)
+		{
+			int bucket = SaltedKeys.getBucket(user, 0, BUCKETS);
+			assertTrue(bucket >= 0 && bucket < BUCKETS);
+			// the item does not matter for known users:
+			assertEquals(bucket, SaltedKeys.getBucket(user, user + 1, BUCKETS));
+			used[bucket] = true;
+		}
+		for (boolean b : used)
+		{
+			assertTrue(b);
+		}
+
+		// anonymous events are spread on the item:
+		assertEquals(SaltedKeys.getBucket(5, 0, BUCKETS), SaltedKeys.getBucket(Long.MIN_VALUE, 5, BUCKETS));
+	}
+
+	@Test
+	public void testSplitKeys()
+	{
+		assertNull(SaltedKeys.getSplitKeys(1));
+		byte[][] keys = SaltedKeys.getSplitKeys(BUCKETS);
+		assertEquals(BUCKETS - 1, keys.length);
+		assertArrayEquals(new byte[]{1}, keys[0]);
+		assertArrayEquals(new byte[]{BUCKETS - 1}, keys[BUCKETS - 2]);
+	}
+
+	@Test
+	public void testScatter() throws IOException
+	{
+		Scan scan = new Scan(Bytes.toBytes("a"), Bytes.toBytes("b"));
+		Scan[] scans = SaltedKeys.scatter(scan, BUCKETS);
+		assertEquals(BUCKETS, scans.length);
+		assertArrayEquals(SaltedKeys.salt(Bytes.toBytes("a"), 3), scans[3].getStartRow());
+		assertArrayEquals(SaltedKeys.salt(Bytes.toBytes("b"), 3), scans[3].getStopRow());
+
+		// open ended scans stop at the next bucket:
+		scans = SaltedKeys.scatter(new Scan(Bytes.toBytes("a")), BUCKETS);
+		assertArrayEquals(new byte[]{4}, scans[3].getStopRow());
+
+		// a user only needs a single bucket:
+		scans = SaltedKeys.scatter(scan, 10, BUCKETS);
+		assertEquals(1, scans.length);
+		assertEquals(SaltedKeys.getBucket(10, 0, BUCKETS), scans[0].getStartRow()[0]);
+		assertEquals(BUCKETS, SaltedKeys.scatter(scan, Long.MIN_VALUE, BUCKETS).length);
+		assertSame(scan, SaltedKeys.scatter(scan, 10, 0)[0]);
+	}
+}
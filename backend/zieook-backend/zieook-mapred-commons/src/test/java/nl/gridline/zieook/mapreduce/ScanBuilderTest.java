@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the start / stop row ranges of the {@link ScanBuilder}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * ScanBuilderTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class ScanBuilderTest
+{
+
+	@Test
+	public void testStopRow()
+	{
+		assertArrayEquals(Bytes.toBytes("R/collectioo"), ScanBuilder.getStopRow(Bytes.toBytes("R/collection")));
+		assertArrayEquals(new byte[]{1, 3}, ScanBuilder.getStopRow(new byte[]{1, 2, (byte) 0xff, (byte) 0xff}));
+		assertArrayEquals(HConstants.EMPTY_END_ROW, ScanBuilder.getStopRow(new byte[]{(byte) 0xff}));
+		assertArrayEquals(HConstants.EMPTY_END_ROW, ScanBuilder.getStopRow(HConstants.EMPTY_START_ROW));
+	}
+
+	@Test
+	public void testRange()
+	{
+		byte[] prefix = RowKeys.getRatingKey("collection", 10);
+		byte[] stop = ScanBuilder.getStopRow(prefix);
+		for (long item = 0; item < 1000; item += 99)
+		{
+			byte[] row = RowKeys.getRatingKey("collection", 10, item);
+			assertTrue(Bytes.compareTo(row, prefix) >= 0);
+			assertTrue(Bytes.compareTo(row, stop) < 0);
+		}
+		assertFalse(Bytes.compareTo(RowKeys.getRatingKey("collection", 11, 0), stop) < 0);
+	}
+
+	@Test
+	public void testBuild()
+	{
+		byte[] prefix = RowKeys.getStatViewedKey("recommender");
+		byte[] start = RowKeys.getStatViewedKey("recommender", 100);
+
+		Scan scan = ScanBuilder.prefix(prefix).from(start).lookup(10).build();
+		assertArrayEquals(start, scan.getStartRow());
+		assertArrayEquals(ScanBuilder.getStopRow(prefix), scan.getStopRow());
+		assertEquals(10, scan.getCaching());
+		assertTrue(scan.getCacheBlocks());
+
+		// a start row before the prefix is ignored:
+		scan = ScanBuilder.prefix(prefix).from(RowKeys.getStatViewedKey("a")).filter(new FilterList()).batch().build();
+		assertArrayEquals(prefix, scan.getStartRow());
+		assertNull(scan.getFilter());
+		assertEquals(ScanBuilder.CACHING_BATCH, scan.getCaching());
+		assertFalse(scan.getCacheBlocks());
+
+		scan = ScanBuilder.prefix(prefix).list().build();
+		assertEquals(ScanBuilder.CACHING_LOOKUP, scan.getCaching());
+		assertTrue(scan.getCacheBlocks());
+
+		// a stop row within the prefix:
+		scan = ScanBuilder.prefix(prefix).to(start).build();
+		assertArrayEquals(prefix, scan.getStartRow());
+		assertArrayEquals(start, scan.getStopRow());
+		scan = ScanBuilder.prefix(prefix).to(RowKeys.getStatViewedKey("z")).build();
+		assertArrayEquals(ScanBuilder.getStopRow(prefix), scan.getStopRow());
+	}
+
+	@Test
+	public void testColumns()
+	{
+		byte[] family = Bytes.toBytes("family");
+		byte[] count = Bytes.toBytes("count");
+		byte[] time = Bytes.toBytes("timestamp");
+
+		Scan scan = ScanBuilder.prefix(Bytes.toBytes("prefix")).columns(family, count, time).build();
+		assertEquals(2, scan.getFamilyMap().get(family).size());
+		assertTrue(scan.getFamilyMap().get(family).contains(count));
+
+		// a family overrides the columns:
+		scan = ScanBuilder.prefix(Bytes.toBytes("prefix")).columns(family, count).family(family).build();
+		assertNull(scan.getFamilyMap().get(family));
+	}
+
+	@Test
+	public void testSince()
+	{
+		Scan scan = ScanBuilder.prefix(Bytes.toBytes("prefix")).since(1000).mapreduce().build();
+		assertEquals(1000, scan.getTimeRange().getMin());
+		assertEquals(Long.MAX_VALUE, scan.getTimeRange().getMax());
+
+		// negative: all cells
+		scan = ScanBuilder.prefix(Bytes.toBytes("prefix")).since(-1).build();
+		assertTrue(scan.getTimeRange().isAllTime());
+	}
+}
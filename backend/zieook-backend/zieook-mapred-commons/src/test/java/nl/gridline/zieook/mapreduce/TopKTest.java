@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ */
+package nl.gridline.zieook.mapreduce;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+/**
+ * Tests the order and bounds of {@link TopK}
+ * <p />
+ * Project zieook-mapred-commons<br />
+ * TopKTest.java created 18 okt. 2026
+ * <p />
+ * Copyright, all rights reserved 2026 GridLine Amsterdam
+ * @author <a href="mailto:job@gridline.nl">Job</a>
+ * @version $Revision$, $Date$
+ */
+public class TopKTest
+{
+
+	@Test
+	public void testTop()
+	{
+		List<Long> scores = new ArrayList<Long>();
+		Random random = new Random(42);
+		TopK top = new TopK(10);
+		for (long i = 0; i < 1000; i++)
+		{
+			long score = random.nextInt(100000);
+			scores.add(score);
+			top.offer(score, Bytes.toBytes(score));
+		}
+		Collections.sort(scores, Collections.reverseOrder());
+
+		List<byte[]> rows = top.getRows();
+		assertEquals(10, rows.size());
+		for (int i = 0; i < rows.size(); i++)
+		{
+			assertEquals(scores.get(i).longValue(), Bytes.toLong(rows.get(i)));
+		}
+
+		// reading the rows does not change the top:
+		assertEquals(10, top.size());
+		assertEquals(10, top.getRows().size());
+		assertFalse(top.accepts(scores.get(10) - 1));
+		assertTrue(top.accepts(scores.get(0)));
+	}
+
+	@Test
+	public void testTies()
+	{
+		TopK top = new TopK(2);
+		assertTrue(top.offer(5, Bytes.toBytes("c")));
+		assertTrue(top.offer(5, Bytes.toBytes("b")));
+		assertTrue(top.offer(5, Bytes.toBytes("a")));
+		assertFalse(top.offer(5, Bytes.toBytes("d")));
+
+		List<byte[]> rows = top.getRows();
+		assertEquals("a", Bytes.toString(rows.get(0)));
+		assertEquals("b", Bytes.toString(rows.get(1)));
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		TopK top = new TopK(0);
+		assertFalse(top.accepts(Long.MAX_VALUE));
+		assertFalse(top.offer(1, Bytes.toBytes("a")));
+		assertTrue(top.getRows().isEmpty());
+
+		top = new TopK(5);
+		top.offer(1, Bytes.toBytes("a"));
+		assertEquals(1, top.getRows().size());
+	}
+}